@@ -118,8 +118,10 @@ public class FeaturesConfig
 
     private boolean hideInaccessibleColumns;
     private boolean forceSpillingJoin;
+    private boolean joinOffHeapHashTableEnabled;
 
     private boolean columnarFilterEvaluationEnabled = true;
+    private boolean columnarProjectionEvaluationEnabled;
 
     private boolean faultTolerantExecutionExchangeEncryptionEnabled = true;
 
@@ -493,6 +495,19 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isJoinOffHeapHashTableEnabled()
+    {
+        return joinOffHeapHashTableEnabled;
+    }
+
+    @Config("experimental.join-off-heap-hash-table.enabled")
+    @ConfigDescription("Keep the hash table slots and position hashes of join builds in off-heap memory. Build pages, position links and spilled data stay on heap")
+    public FeaturesConfig setJoinOffHeapHashTableEnabled(boolean joinOffHeapHashTableEnabled)
+    {
+        this.joinOffHeapHashTableEnabled = joinOffHeapHashTableEnabled;
+        return this;
+    }
+
     public boolean isColumnarFilterEvaluationEnabled()
     {
         return columnarFilterEvaluationEnabled;
@@ -506,6 +521,19 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isColumnarProjectionEvaluationEnabled()
+    {
+        return columnarProjectionEvaluationEnabled;
+    }
+
+    @Config("experimental.columnar-projection-evaluation.enabled")
+    @ConfigDescription("Enables columnar evaluation of projections")
+    public FeaturesConfig setColumnarProjectionEvaluationEnabled(boolean columnarProjectionEvaluationEnabled)
+    {
+        this.columnarProjectionEvaluationEnabled = columnarProjectionEvaluationEnabled;
+        return this;
+    }
+
     public boolean isFaultTolerantExecutionExchangeEncryptionEnabled()
     {
         return faultTolerantExecutionExchangeEncryptionEnabled;
@@ -203,6 +203,7 @@ public final class SystemSessionProperties
     public static final String FAULT_TOLERANT_EXECUTION_ADAPTIVE_JOIN_REORDERING_MIN_SIZE_THRESHOLD = "fault_tolerant_execution_adaptive_join_reordering_min_size_threshold";
     public static final String ADAPTIVE_PARTIAL_AGGREGATION_ENABLED = "adaptive_partial_aggregation_enabled";
     public static final String ADAPTIVE_PARTIAL_AGGREGATION_UNIQUE_ROWS_RATIO_THRESHOLD = "adaptive_partial_aggregation_unique_rows_ratio_threshold";
+    public static final String ADAPTIVE_PARTIAL_AGGREGATION_HOT_KEYS_ENABLED = "adaptive_partial_aggregation_hot_keys_enabled";
     public static final String REMOTE_TASK_ADAPTIVE_UPDATE_REQUEST_SIZE_ENABLED = "remote_task_adaptive_update_request_size_enabled";
     public static final String REMOTE_TASK_MAX_REQUEST_SIZE = "remote_task_max_request_size";
     public static final String REMOTE_TASK_REQUEST_SIZE_HEADROOM = "remote_task_request_size_headroom";
@@ -218,7 +219,9 @@ public final class SystemSessionProperties
     public static final String IDLE_WRITER_MIN_DATA_SIZE_THRESHOLD = "idle_writer_min_data_size_threshold";
     public static final String CLOSE_IDLE_WRITERS_TRIGGER_DURATION = "close_idle_writers_trigger_duration";
     public static final String COLUMNAR_FILTER_EVALUATION_ENABLED = "columnar_filter_evaluation_enabled";
+    public static final String COLUMNAR_PROJECTION_EVALUATION_ENABLED = "columnar_projection_evaluation_enabled";
     public static final String SPOOLING_ENABLED = "spooling_enabled";
+    public static final String JOIN_OFF_HEAP_HASH_TABLE_ENABLED = "join_off_heap_hash_table_enabled";
 
     private final List<PropertyMetadata<?>> sessionProperties;
 
@@ -1045,6 +1048,11 @@ public final class SystemSessionProperties
                         "Ratio between aggregation output and input rows above which partial aggregation might be adaptively turned off",
                         optimizerConfig.getAdaptivePartialAggregationUniqueRowsRatioThreshold(),
                         false),
+                booleanProperty(
+                        ADAPTIVE_PARTIAL_AGGREGATION_HOT_KEYS_ENABLED,
+                        "When partial aggregation is adaptively turned off, still pre-aggregate frequent keys",
+                        optimizerConfig.isAdaptivePartialAggregationHotKeysEnabled(),
+                        false),
                 booleanProperty(
                         REMOTE_TASK_ADAPTIVE_UPDATE_REQUEST_SIZE_ENABLED,
                         "Experimental: Enable adaptive adjustment for size of remote task update request",
@@ -1107,6 +1115,11 @@ public final class SystemSessionProperties
                         "Enables columnar evaluation of filters",
                         featuresConfig.isColumnarFilterEvaluationEnabled(),
                         false),
+                booleanProperty(
+                        COLUMNAR_PROJECTION_EVALUATION_ENABLED,
+                        "Enables columnar evaluation of projections",
+                        featuresConfig.isColumnarProjectionEvaluationEnabled(),
+                        false),
                 integerProperty(PAGE_PARTITIONING_BUFFER_POOL_SIZE,
                         "Maximum number of free buffers in the per task partitioned page buffer pool. Setting this to zero effectively disables the pool",
                         taskManagerConfig.getPagePartitioningBufferPoolSize(),
@@ -1128,7 +1141,12 @@ public final class SystemSessionProperties
                         SPOOLING_ENABLED,
                         "Enable client spooling protocol",
                         true,
-                        true));
+                        true),
+                booleanProperty(
+                        JOIN_OFF_HEAP_HASH_TABLE_ENABLED,
+                        "Keep the hash table slots and position hashes of join builds in off-heap memory. Build pages, position links and spilled data stay on heap",
+                        featuresConfig.isJoinOffHeapHashTableEnabled(),
+                        false));
     }
 
     @Override
@@ -1938,6 +1956,11 @@ public final class SystemSessionProperties
         return session.getSystemProperty(ADAPTIVE_PARTIAL_AGGREGATION_UNIQUE_ROWS_RATIO_THRESHOLD, Double.class);
     }
 
+    public static boolean isAdaptivePartialAggregationHotKeysEnabled(Session session)
+    {
+        return session.getSystemProperty(ADAPTIVE_PARTIAL_AGGREGATION_HOT_KEYS_ENABLED, Boolean.class);
+    }
+
     public static boolean isRemoteTaskAdaptiveUpdateRequestSizeEnabled(Session session)
     {
         return session.getSystemProperty(REMOTE_TASK_ADAPTIVE_UPDATE_REQUEST_SIZE_ENABLED, Boolean.class);
@@ -2013,6 +2036,11 @@ public final class SystemSessionProperties
         return session.getSystemProperty(COLUMNAR_FILTER_EVALUATION_ENABLED, Boolean.class);
     }
 
+    public static boolean isColumnarProjectionEvaluationEnabled(Session session)
+    {
+        return session.getSystemProperty(COLUMNAR_PROJECTION_EVALUATION_ENABLED, Boolean.class);
+    }
+
     public static boolean isSpoolingEnabled(Session session)
     {
         return session.getSystemProperty(SPOOLING_ENABLED, Boolean.class);
@@ -2022,4 +2050,9 @@ public final class SystemSessionProperties
     {
         return session.getSystemProperty(ALLOW_UNSAFE_PUSHDOWN, Boolean.class);
     }
+
+    public static boolean isJoinOffHeapHashTableEnabled(Session session)
+    {
+        return session.getSystemProperty(JOIN_OFF_HEAP_HASH_TABLE_ENABLED, Boolean.class);
+    }
 }
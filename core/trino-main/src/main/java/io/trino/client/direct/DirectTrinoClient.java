@@ -85,7 +85,7 @@ public class DirectTrinoClient
 
                     outputInfo.drainInputs(input -> {
                         DirectExchangeInput exchangeInput = (DirectExchangeInput) input;
-                        exchangeClient.addLocation(exchangeInput.getTaskId(), URI.create(exchangeInput.getLocation()));
+                        exchangeClient.addLocation(exchangeInput.getTaskId(), Optional.of(exchangeInput.getNodeId()), URI.create(exchangeInput.getLocation()));
                     });
                     if (outputInfo.isNoMoreInputs()) {
                         exchangeClient.noMoreLocations();
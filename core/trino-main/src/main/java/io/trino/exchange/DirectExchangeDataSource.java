@@ -19,6 +19,7 @@ import io.trino.operator.DirectExchangeClient;
 import io.trino.operator.OperatorInfo;
 
 import java.net.URI;
+import java.util.Optional;
 
 import static java.util.Objects.requireNonNull;
 
@@ -54,7 +55,7 @@ public class DirectExchangeDataSource
     public void addInput(ExchangeInput input)
     {
         DirectExchangeInput exchangeInput = (DirectExchangeInput) input;
-        directExchangeClient.addLocation(exchangeInput.getTaskId(), URI.create(exchangeInput.getLocation()));
+        directExchangeClient.addLocation(exchangeInput.getTaskId(), Optional.of(exchangeInput.getNodeId()), URI.create(exchangeInput.getLocation()));
     }
 
     @Override
@@ -28,14 +28,17 @@ public class DirectExchangeInput
     private static final int INSTANCE_SIZE = instanceSize(DirectExchangeInput.class);
 
     private final TaskId taskId;
+    private final String nodeId;
     private final String location;
 
     @JsonCreator
     public DirectExchangeInput(
             @JsonProperty("taskId") TaskId taskId,
+            @JsonProperty("nodeId") String nodeId,
             @JsonProperty("location") String location)
     {
         this.taskId = requireNonNull(taskId, "taskId is null");
+        this.nodeId = requireNonNull(nodeId, "nodeId is null");
         this.location = requireNonNull(location, "location is null");
     }
 
@@ -45,6 +48,12 @@ public class DirectExchangeInput
         return taskId;
     }
 
+    @JsonProperty
+    public String getNodeId()
+    {
+        return nodeId;
+    }
+
     @JsonProperty
     public String getLocation()
     {
@@ -56,6 +65,7 @@ public class DirectExchangeInput
     {
         return toStringHelper(this)
                 .add("taskId", taskId)
+                .add("nodeId", nodeId)
                 .add("location", location)
                 .toString();
     }
@@ -65,6 +75,7 @@ public class DirectExchangeInput
     {
         return INSTANCE_SIZE
                 + taskId.getRetainedSizeInBytes()
+                + estimatedSizeOf(nodeId)
                 + estimatedSizeOf(location);
     }
 }
@@ -101,6 +101,18 @@ public class DataDefinitionExecution<T extends Statement>
         return DataSize.ofBytes(0);
     }
 
+    @Override
+    public void addMemoryPressureTime(Duration time)
+    {
+        stateMachine.addMemoryPressureTime(time);
+    }
+
+    @Override
+    public void setMemoryThrottled(boolean throttled)
+    {
+        stateMachine.setMemoryThrottled(throttled);
+    }
+
     @Override
     public Instant getCreateTime()
     {
@@ -26,6 +26,7 @@ import io.trino.memory.VoidTraversingQueryContextVisitor;
 import io.trino.operator.OperatorContext;
 import io.trino.operator.PipelineContext;
 import io.trino.operator.TaskContext;
+import io.trino.spi.QueryId;
 import jakarta.annotation.Nullable;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
@@ -33,6 +34,7 @@ import jakarta.annotation.PreDestroy;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -41,6 +43,7 @@ import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.lang.Math.max;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -49,6 +52,7 @@ public class MemoryRevokingScheduler
     private static final Logger log = Logger.get(MemoryRevokingScheduler.class);
 
     private static final Ordering<SqlTask> ORDER_BY_CREATE_TIME = Ordering.natural().onResultOf(SqlTask::getTaskCreatedTime);
+    private static final Ordering<SqlTask> ORDER_BY_REVOCABLE_MEMORY = Ordering.natural().reverse().onResultOf(MemoryRevokingScheduler::getRevocableMemoryReservation);
     private final MemoryPool memoryPool;
     private final Supplier<? extends Collection<SqlTask>> currentTasksSupplier;
     private final ScheduledExecutorService taskManagementExecutor;
@@ -196,6 +200,36 @@ public class MemoryRevokingScheduler
         }
     }
 
+    /**
+     * Requests revoking of all revocable memory of the given queries, regardless of the revoking
+     * threshold, starting with the tasks holding the most revocable memory. Used by the cluster
+     * memory manager to free memory before it resorts to killing queries.
+     *
+     * @return the number of bytes requested to be revoked
+     */
+    public synchronized long requestMemoryRevoking(Set<QueryId> queryIds)
+    {
+        List<SqlTask> tasks = findRunningTasksInMemoryPool(requireNonNull(currentTasksSupplier.get()), memoryPool).stream()
+                .filter(task -> queryIds.contains(task.getQueryContext().getQueryId()))
+                .sorted(ORDER_BY_REVOCABLE_MEMORY)
+                .collect(toImmutableList());
+        long bytesToRevoke = tasks.stream()
+                .mapToLong(MemoryRevokingScheduler::getRevocableMemoryReservation)
+                .sum();
+        bytesToRevoke -= getMemoryAlreadyBeingRevoked(tasks, bytesToRevoke);
+        if (bytesToRevoke > 0) {
+            requestRevoking(tasks, bytesToRevoke);
+        }
+        return max(bytesToRevoke, 0);
+    }
+
+    private static long getRevocableMemoryReservation(SqlTask task)
+    {
+        return task.getTaskContext()
+                .map(taskContext -> taskContext.getRevocableMemoryReservation().toBytes())
+                .orElse(0L);
+    }
+
     private boolean memoryRevokingNeeded(MemoryPool memoryPool)
     {
         return memoryPool.getReservedRevocableBytes() > 0
@@ -67,6 +67,10 @@ public interface QueryExecution
 
     DataSize getTotalMemoryReservation();
 
+    void addMemoryPressureTime(Duration time);
+
+    void setMemoryThrottled(boolean throttled);
+
     void start();
 
     void cancelQuery();
@@ -22,6 +22,7 @@ import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.errorprone.annotations.ThreadSafe;
 import com.google.errorprone.annotations.concurrent.GuardedBy;
 import io.airlift.log.Logger;
@@ -88,6 +89,8 @@ import java.util.function.Supplier;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Strings.nullToEmpty;
+import static com.google.common.util.concurrent.Futures.immediateVoidFuture;
+import static com.google.common.util.concurrent.Futures.nonCancellationPropagating;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.units.DataSize.succinctBytes;
 import static io.trino.SystemSessionProperties.getRetryPolicy;
@@ -147,6 +150,10 @@ public class QueryStateMachine
     private final AtomicLong peakTaskRevocableMemory = new AtomicLong();
     private final AtomicLong peakTaskTotalMemory = new AtomicLong();
 
+    private final AtomicLong memoryPressureNanos = new AtomicLong();
+    // present while the scheduling of new splits is throttled by the cluster memory manager
+    private final AtomicReference<SettableFuture<Void>> memoryThrottle = new AtomicReference<>();
+
     private final QueryStateTimer queryStateTimer;
 
     private final StateMachine<QueryState> queryState;
@@ -350,6 +357,7 @@ public class QueryStateMachine
             if (newState.isDone()) {
                 queryStateMachine.getSession().getTransactionId().ifPresent(transactionManager::trySetInactive);
                 queryStateMachine.getOutputManager().setQueryCompleted();
+                queryStateMachine.setMemoryThrottled(false);
             }
         });
 
@@ -421,6 +429,39 @@ public class QueryStateMachine
         return peakTaskTotalMemory.get();
     }
 
+    public void addMemoryPressureTime(Duration time)
+    {
+        memoryPressureNanos.addAndGet(time.roundTo(NANOSECONDS));
+    }
+
+    /**
+     * Throttles the scheduling of new splits, e.g. while the query keeps growing
+     * on a cluster that is out of memory.
+     */
+    public void setMemoryThrottled(boolean throttled)
+    {
+        if (throttled) {
+            memoryThrottle.compareAndSet(null, SettableFuture.create());
+            return;
+        }
+        SettableFuture<Void> throttle = memoryThrottle.getAndSet(null);
+        if (throttle != null) {
+            throttle.set(null);
+        }
+    }
+
+    /**
+     * Returns a future that completes once the scheduling of new splits is no longer throttled.
+     */
+    public ListenableFuture<Void> getMemoryThrottle()
+    {
+        SettableFuture<Void> throttle = memoryThrottle.get();
+        if (throttle == null) {
+            return immediateVoidFuture();
+        }
+        return nonCancellationPropagating(throttle);
+    }
+
     public WarningCollector getWarningCollector()
     {
         return warningCollector;
@@ -865,6 +906,7 @@ public class QueryStateMachine
                 queryStateTimer.getPlanningCpuTime(),
                 queryStateTimer.getStartingTime(),
                 queryStateTimer.getFinishingTime(),
+                new Duration(memoryPressureNanos.get(), NANOSECONDS).convertToMostSuccinctTimeUnit(),
 
                 totalTasks,
                 runningTasks,
@@ -1487,6 +1529,7 @@ public class QueryStateMachine
                 queryStats.getPlanningCpuTime(),
                 queryStats.getStartingTime(),
                 queryStats.getFinishingTime(),
+                queryStats.getMemoryPressureTime(),
                 queryStats.getTotalTasks(),
                 queryStats.getRunningTasks(),
                 queryStats.getCompletedTasks(),
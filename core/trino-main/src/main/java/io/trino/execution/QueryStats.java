@@ -55,6 +55,7 @@ public class QueryStats
     private final Duration planningCpuTime;
     private final Duration startingTime;
     private final Duration finishingTime;
+    private final Duration memoryPressureTime;
 
     private final int totalTasks;
     private final int runningTasks;
@@ -152,6 +153,7 @@ public class QueryStats
             @JsonProperty("planningCpuTime") Duration planningCpuTime,
             @JsonProperty("startingTime") Duration startingTime,
             @JsonProperty("finishingTime") Duration finishingTime,
+            @JsonProperty("memoryPressureTime") Duration memoryPressureTime,
 
             @JsonProperty("totalTasks") int totalTasks,
             @JsonProperty("runningTasks") int runningTasks,
@@ -247,6 +249,7 @@ public class QueryStats
         this.planningCpuTime = requireNonNull(planningCpuTime, "planningCpuTime is null");
         this.startingTime = requireNonNull(startingTime, "startingTime is null");
         this.finishingTime = requireNonNull(finishingTime, "finishingTime is null");
+        this.memoryPressureTime = requireNonNull(memoryPressureTime, "memoryPressureTime is null");
 
         checkArgument(totalTasks >= 0, "totalTasks is negative");
         this.totalTasks = totalTasks;
@@ -432,6 +435,15 @@ public class QueryStats
         return finishingTime;
     }
 
+    /**
+     * Time the query held memory on a node whose memory pool was exhausted.
+     */
+    @JsonProperty
+    public Duration getMemoryPressureTime()
+    {
+        return memoryPressureTime;
+    }
+
     @JsonProperty
     public int getTotalTasks()
     {
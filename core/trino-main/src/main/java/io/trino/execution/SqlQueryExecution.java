@@ -335,6 +335,18 @@ public class SqlQueryExecution
         return succinctBytes(scheduler.getTotalMemoryReservation());
     }
 
+    @Override
+    public void addMemoryPressureTime(Duration time)
+    {
+        stateMachine.addMemoryPressureTime(time);
+    }
+
+    @Override
+    public void setMemoryThrottled(boolean throttled)
+    {
+        stateMachine.setMemoryThrottled(throttled);
+    }
+
     @Override
     public Instant getCreateTime()
     {
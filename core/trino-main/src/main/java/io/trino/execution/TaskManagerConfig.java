@@ -51,6 +51,7 @@ public class TaskManagerConfig
     public static final int MAX_WRITER_COUNT = 64;
 
     private boolean threadPerDriverSchedulerEnabled = true;
+    private boolean threadPerDriverSchedulerVirtualThreadsEnabled;
     private boolean perOperatorCpuTimerEnabled = true;
     private boolean taskCpuTimerEnabled = true;
     private boolean statisticsCpuTimerEnabled = true;
@@ -108,6 +109,8 @@ public class TaskManagerConfig
     private int driverTimeoutThreads = 5;
 
     private BigDecimal levelTimeMultiplier = TWO;
+    private boolean cpuGroupAffinityEnabled;
+    private String cpuTopologyPath = "/sys/devices/system/node";
 
     @Config("experimental.thread-per-driver-scheduler-enabled")
     public TaskManagerConfig setThreadPerDriverSchedulerEnabled(boolean enabled)
@@ -121,6 +124,19 @@ public class TaskManagerConfig
         return threadPerDriverSchedulerEnabled;
     }
 
+    @Config("experimental.thread-per-driver-scheduler-virtual-threads-enabled")
+    @ConfigDescription("Run drivers of the thread per driver scheduler on virtual threads")
+    public TaskManagerConfig setThreadPerDriverSchedulerVirtualThreadsEnabled(boolean enabled)
+    {
+        this.threadPerDriverSchedulerVirtualThreadsEnabled = enabled;
+        return this;
+    }
+
+    public boolean isThreadPerDriverSchedulerVirtualThreadsEnabled()
+    {
+        return threadPerDriverSchedulerVirtualThreadsEnabled;
+    }
+
     @MinDuration("1ms")
     @MaxDuration("60s")
     @NotNull
@@ -281,6 +297,33 @@ public class TaskManagerConfig
         return this;
     }
 
+    public boolean isCpuGroupAffinityEnabled()
+    {
+        return cpuGroupAffinityEnabled;
+    }
+
+    @Config("task.cpu-group-affinity.enabled")
+    @ConfigDescription("Run the drivers of a task on runner threads bound to the CPUs of a single CPU group (NUMA node)")
+    public TaskManagerConfig setCpuGroupAffinityEnabled(boolean cpuGroupAffinityEnabled)
+    {
+        this.cpuGroupAffinityEnabled = cpuGroupAffinityEnabled;
+        return this;
+    }
+
+    @NotNull
+    public String getCpuTopologyPath()
+    {
+        return cpuTopologyPath;
+    }
+
+    @Config("task.cpu-topology-path")
+    @ConfigDescription("Directory with the sysfs NUMA node topology used to form CPU groups")
+    public TaskManagerConfig setCpuTopologyPath(String cpuTopologyPath)
+    {
+        this.cpuTopologyPath = cpuTopologyPath;
+        return this;
+    }
+
     @Min(1)
     public int getMaxWorkerThreads()
     {
@@ -39,6 +39,8 @@ public interface TaskExecutor
 
     Set<TaskId> getStuckSplitTaskIds(Duration processingDurationThreshold, Predicate<RunningSplitInfo> filter);
 
+    TaskExecutorMetrics getMetrics();
+
     void start();
 
     void stop();
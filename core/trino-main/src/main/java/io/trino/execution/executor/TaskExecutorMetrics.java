@@ -0,0 +1,39 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.executor;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Point in time metrics of a {@link TaskExecutor}, comparable between the execution modes.
+ *
+ * @param threads number of threads currently owned by the executor for running splits
+ * @param runningSplits splits currently processing
+ * @param blockedSplits splits waiting for their blocked future to complete
+ * @param waitingSplits splits ready to process, waiting for a thread or concurrency slot
+ */
+public record TaskExecutorMetrics(Mode mode, int threads, int runningSplits, int blockedSplits, int waitingSplits)
+{
+    public enum Mode
+    {
+        TIME_SHARING,
+        THREAD_PER_DRIVER,
+        VIRTUAL_THREAD_PER_DRIVER,
+    }
+
+    public TaskExecutorMetrics
+    {
+        requireNonNull(mode, "mode is null");
+    }
+}
@@ -29,6 +29,7 @@ import io.trino.execution.TaskId;
 import io.trino.execution.TaskManagerConfig;
 import io.trino.execution.executor.RunningSplitInfo;
 import io.trino.execution.executor.TaskExecutor;
+import io.trino.execution.executor.TaskExecutorMetrics;
 import io.trino.execution.executor.TaskHandle;
 import io.trino.execution.executor.scheduler.FairScheduler;
 import io.trino.spi.VersionEmbedder;
@@ -85,7 +86,7 @@ public class ThreadPerDriverTaskExecutor
         this(
                 tracer,
                 versionEmbedder,
-                new FairScheduler(config.getMaxWorkerThreads(), "SplitRunner-%d", Ticker.systemTicker()),
+                new FairScheduler(config.getMaxWorkerThreads(), "SplitRunner-%d", config.isThreadPerDriverSchedulerVirtualThreadsEnabled(), Ticker.systemTicker()),
                 config.getMinDriversPerTask(),
                 config.getMaxDriversPerTask(),
                 config.getMinDrivers());
@@ -250,6 +251,17 @@ public class ThreadPerDriverTaskExecutor
         return ImmutableSet.of();
     }
 
+    @Override
+    public TaskExecutorMetrics getMetrics()
+    {
+        return new TaskExecutorMetrics(
+                scheduler.isVirtualThreads() ? TaskExecutorMetrics.Mode.VIRTUAL_THREAD_PER_DRIVER : TaskExecutorMetrics.Mode.THREAD_PER_DRIVER,
+                scheduler.getTaskThreads(),
+                scheduler.getConcurrencyControlTotalSlots() - scheduler.getConcurrencyControlAvailableSlots(),
+                scheduler.getBlockedTasks(),
+                scheduler.getWaitingTasks());
+    }
+
     @Managed
     public synchronized int getTasks()
     {
@@ -305,4 +317,22 @@ public class ThreadPerDriverTaskExecutor
     {
         return scheduler.getConcurrencyControlAvailableSlots();
     }
+
+    @Managed
+    public boolean isVirtualThreads()
+    {
+        return scheduler.isVirtualThreads();
+    }
+
+    @Managed
+    public int getWaitingSplits()
+    {
+        return scheduler.getWaitingTasks();
+    }
+
+    @Managed
+    public int getBlockedSplits()
+    {
+        return scheduler.getBlockedTasks();
+    }
 }
@@ -0,0 +1,58 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.executor.scheduler;
+
+import java.util.function.Supplier;
+
+/**
+ * Entry point for calls that block the thread of a task, e.g., on I/O. When the current thread runs
+ * a task of a {@link FairScheduler} with virtual threads, the concurrency slot of the task is released
+ * for the duration of the call, so that other tasks can run. Otherwise, the call runs as is.
+ */
+public final class BlockingCalls
+{
+    private static final ThreadLocal<SchedulerContext> CURRENT_CONTEXT = new ThreadLocal<>();
+
+    private BlockingCalls() {}
+
+    static void setCurrentContext(SchedulerContext context)
+    {
+        CURRENT_CONTEXT.set(context);
+    }
+
+    static void clearCurrentContext()
+    {
+        CURRENT_CONTEXT.remove();
+    }
+
+    /**
+     * @throws java.util.concurrent.CancellationException if the task was cancelled during the call
+     */
+    public static <T> T runBlocking(Supplier<T> call)
+    {
+        SchedulerContext context = CURRENT_CONTEXT.get();
+        if (context == null) {
+            return call.get();
+        }
+
+        // nested blocking calls run as is, the slot is already released
+        CURRENT_CONTEXT.remove();
+        try {
+            return context.runBlocking(call);
+        }
+        finally {
+            CURRENT_CONTEXT.set(context);
+        }
+    }
+}
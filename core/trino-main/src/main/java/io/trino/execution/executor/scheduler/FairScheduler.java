@@ -24,11 +24,16 @@ import io.airlift.log.Logger;
 
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
@@ -44,6 +49,12 @@ import static java.util.Objects.requireNonNull;
  * thread (i.e., from within {@link FairScheduler#runTask(Schedulable, TaskControl)} )}). Other threads
  * can indirectly affect what the task executor thread does by marking the task as ready or cancelled
  * and unblocking the task executor thread, which will then act on that information.</li>
+ *     <li>Every task owns its thread for its whole lifetime, and the thread is parked while the task
+ * waits for a slot or is blocked. With virtual threads, the task executor threads are virtual threads,
+ * so parked tasks do not hold on to platform threads. This includes tasks blocking inside the runner,
+ * e.g., on I/O. Such blocking calls go through {@link BlockingCalls#runBlocking}, which releases the
+ * concurrency slot of the task for the duration of the call, and acquires it again before the task
+ * continues.</li>
  * </ul>
  */
 @ThreadSafe
@@ -59,25 +70,42 @@ public final class FairScheduler
     private final ListeningExecutorService taskExecutor;
     private final ThreadPoolExecutor executor; // instance underlying taskExecutor, for diagnostics
     private final ThreadPoolExecutorMBean executorMBean;
+    private final boolean virtualThreads;
     private final BlockingSchedulingQueue<Group, TaskControl> queue = new BlockingSchedulingQueue<>();
     private final Reservation<TaskControl> concurrencyControl;
     private final Ticker ticker;
 
     private final Gate paused = new Gate(true);
 
+    private final AtomicInteger waitingTasks = new AtomicInteger();
+    private final AtomicInteger blockedTasks = new AtomicInteger();
+
     @GuardedBy("this")
     private boolean closed;
 
     public FairScheduler(int maxConcurrentTasks, String threadNameFormat, Ticker ticker)
+    {
+        this(maxConcurrentTasks, threadNameFormat, false, ticker);
+    }
+
+    public FairScheduler(int maxConcurrentTasks, String threadNameFormat, boolean virtualThreads, Ticker ticker)
     {
         this.ticker = requireNonNull(ticker, "ticker is null");
+        this.virtualThreads = virtualThreads;
 
         concurrencyControl = new Reservation<>(maxConcurrentTasks);
 
         schedulerExecutor = Executors.newCachedThreadPool(daemonThreadsNamed("fair-scheduler-%d"));
         schedulerExecutorMBean = new ThreadPoolExecutorMBean((ThreadPoolExecutor) schedulerExecutor);
 
-        executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), daemonThreadsNamed(threadNameFormat));
+        if (virtualThreads) {
+            // Virtual threads are cheap to create, so do not keep idle ones around. The pool is still used, as
+            // it provides the same statistics as in the platform threads mode.
+            executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0L, TimeUnit.SECONDS, new SynchronousQueue<>(), virtualThreadsNamed(threadNameFormat));
+        }
+        else {
+            executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), daemonThreadsNamed(threadNameFormat));
+        }
         executorMBean = new ThreadPoolExecutorMBean(executor);
         taskExecutor = MoreExecutors.listeningDecorator(executor);
     }
@@ -94,6 +122,14 @@ public final class FairScheduler
         return scheduler;
     }
 
+    private static ThreadFactory virtualThreadsNamed(String nameFormat)
+    {
+        AtomicLong threadCount = new AtomicLong();
+        return runnable -> Thread.ofVirtual()
+                .name(nameFormat.formatted(threadCount.getAndIncrement()))
+                .unstarted(runnable);
+    }
+
     public void start()
     {
         schedulerExecutor.submit(this::runScheduler);
@@ -173,6 +209,9 @@ public final class FairScheduler
         }
 
         SchedulerContext context = new SchedulerContext(this, task);
+        if (virtualThreads) {
+            BlockingCalls.setCurrentContext(context);
+        }
         try {
             runner.run(context);
         }
@@ -180,6 +219,7 @@ public final class FairScheduler
             LOG.error(e);
         }
         finally {
+            BlockingCalls.clearCurrentContext();
             // If the runner exited due to an exception in user code or
             // normally (not in response to an interruption during blocking or yield),
             // it must have had a semaphore permit reserved, so release it.
@@ -202,7 +242,13 @@ public final class FairScheduler
         }
 
         // wait for the task to be scheduled
-        return awaitReadyAndTransitionToRunning(task);
+        waitingTasks.incrementAndGet();
+        try {
+            return awaitReadyAndTransitionToRunning(task);
+        }
+        finally {
+            waitingTasks.decrementAndGet();
+        }
     }
 
     /**
@@ -258,11 +304,55 @@ public final class FairScheduler
         }
 
         future.addListener(task::markUnblocked, MoreExecutors.directExecutor());
-        task.awaitUnblock();
+        blockedTasks.incrementAndGet();
+        try {
+            task.awaitUnblock();
+        }
+        finally {
+            blockedTasks.decrementAndGet();
+        }
 
         return makeRunnableAndAwait(task, 0);
     }
 
+    /**
+     * @throws CancellationException if the task was interrupted or cancelled while waiting for a slot after the call
+     */
+    <T> T runBlocking(TaskControl task, Supplier<T> call)
+    {
+        checkState(task.getThread() == Thread.currentThread(), "runBlocking() may only be called from the task thread");
+
+        long delta = task.elapsed();
+
+        concurrencyControl.release(task);
+
+        if (!task.transitionToBlocked() || !queue.block(task.group(), task, delta)) {
+            throw new CancellationException("Task was cancelled");
+        }
+
+        T result;
+        blockedTasks.incrementAndGet();
+        try {
+            result = call.get();
+        }
+        catch (RuntimeException | Error e) {
+            finishBlockingCall(task);
+            throw e;
+        }
+
+        if (!finishBlockingCall(task)) {
+            throw new CancellationException("Task was cancelled");
+        }
+        return result;
+    }
+
+    private boolean finishBlockingCall(TaskControl task)
+    {
+        blockedTasks.decrementAndGet();
+        task.markUnblocked();
+        return makeRunnableAndAwait(task, 0);
+    }
+
     private void runScheduler()
     {
         while (true) {
@@ -311,7 +401,8 @@ public final class FairScheduler
         StringBuilder builder = new StringBuilder();
         builder.append(queue);
 
-        builder.append("Task executor: pool=%s, active=%s, queue=%s\n".formatted(
+        builder.append("Task executor: threads=%s, pool=%s, active=%s, queue=%s\n".formatted(
+                virtualThreads ? "virtual" : "platform",
                 executor.getPoolSize(),
                 executor.getActiveCount(),
                 executor.getQueue().size()));
@@ -364,4 +455,24 @@ public final class FairScheduler
     {
         return concurrencyControl.availableSlots();
     }
+
+    public boolean isVirtualThreads()
+    {
+        return virtualThreads;
+    }
+
+    public int getTaskThreads()
+    {
+        return executor.getPoolSize();
+    }
+
+    public int getWaitingTasks()
+    {
+        return waitingTasks.get();
+    }
+
+    public int getBlockedTasks()
+    {
+        return blockedTasks.get();
+    }
 }
@@ -16,6 +16,8 @@ package io.trino.execution.executor.scheduler;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.trino.annotation.NotThreadSafe;
 
+import java.util.function.Supplier;
+
 import static com.google.common.base.Preconditions.checkArgument;
 
 @NotThreadSafe
@@ -59,6 +61,22 @@ public final class SchedulerContext
         return scheduler.block(handle, future);
     }
 
+    /**
+     * Run a call that blocks the thread, e.g., on I/O, without holding a concurrency slot.
+     * The time spent in the call is accounted as blocked. The method returns once the task
+     * holds a slot again, so the task does not continue while all slots are taken.
+     *
+     * @throws java.util.concurrent.CancellationException if the task was interrupted or cancelled,
+     * for example if the Java thread was interrupted, the scheduler was shutdown,
+     * or the scheduling group was removed
+     */
+    public <T> T runBlocking(Supplier<T> call)
+    {
+        checkArgument(handle.getState() == TaskControl.State.RUNNING, "Task is not running");
+
+        return scheduler.runBlocking(handle, call);
+    }
+
     public long getStartNanos()
     {
         return scheduler.getStartNanos(handle);
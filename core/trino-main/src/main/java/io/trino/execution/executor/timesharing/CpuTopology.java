@@ -0,0 +1,149 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.executor.timesharing;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedMap;
+import io.airlift.log.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.lang.Integer.parseInt;
+
+/**
+ * Groups of CPUs sharing a memory node, as described by the Linux sysfs NUMA topology
+ * ({@code /sys/devices/system/node/node<N>/cpulist}).
+ */
+public record CpuTopology(List<List<Integer>> cpuGroups)
+{
+    private static final Logger log = Logger.get(CpuTopology.class);
+
+    private static final Pattern NODE_DIRECTORY = Pattern.compile("node(\\d+)");
+
+    public CpuTopology
+    {
+        cpuGroups = cpuGroups.stream()
+                .map(ImmutableList::copyOf)
+                .collect(toImmutableList());
+        checkArgument(!cpuGroups.isEmpty(), "cpuGroups is empty");
+        checkArgument(cpuGroups.stream().noneMatch(List::isEmpty), "cpuGroups contains an empty group");
+    }
+
+    public static CpuTopology singleGroup()
+    {
+        return new CpuTopology(ImmutableList.of(IntStream.range(0, Runtime.getRuntime().availableProcessors()).boxed().collect(toImmutableList())));
+    }
+
+    /**
+     * Reads the topology from a sysfs node directory. Nodes without CPUs are ignored.
+     * Falls back to a single group when the directory does not exist or describes no CPUs.
+     */
+    public static CpuTopology load(Path nodeDirectory)
+    {
+        if (!Files.isDirectory(nodeDirectory)) {
+            log.warn("CPU topology directory %s does not exist, using a single CPU group", nodeDirectory);
+            return singleGroup();
+        }
+
+        ImmutableSortedMap.Builder<Integer, List<Integer>> nodes = ImmutableSortedMap.naturalOrder();
+        try (Stream<Path> children = Files.list(nodeDirectory)) {
+            for (Path child : (Iterable<Path>) children::iterator) {
+                Matcher matcher = NODE_DIRECTORY.matcher(child.getFileName().toString());
+                Path cpuList = child.resolve("cpulist");
+                if (matcher.matches() && Files.isRegularFile(cpuList)) {
+                    List<Integer> cpus = parseCpuList(Files.readString(cpuList));
+                    if (!cpus.isEmpty()) {
+                        nodes.put(parseInt(matcher.group(1)), cpus);
+                    }
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Failed to read CPU topology from " + nodeDirectory, e);
+        }
+
+        Map<Integer, List<Integer>> cpuGroups = nodes.buildOrThrow();
+        if (cpuGroups.isEmpty()) {
+            log.warn("CPU topology directory %s does not describe any CPUs, using a single CPU group", nodeDirectory);
+            return singleGroup();
+        }
+        return new CpuTopology(ImmutableList.copyOf(cpuGroups.values()));
+    }
+
+    /**
+     * Parses the kernel CPU list format, e.g. {@code 0-3,8,10-11}.
+     */
+    public static List<Integer> parseCpuList(String cpuList)
+    {
+        ImmutableList.Builder<Integer> cpus = ImmutableList.builder();
+        for (String range : cpuList.trim().split(",")) {
+            if (range.isEmpty()) {
+                continue;
+            }
+            int separator = range.indexOf('-');
+            try {
+                if (separator < 0) {
+                    cpus.add(parseInt(range));
+                }
+                else {
+                    IntStream.rangeClosed(parseInt(range.substring(0, separator)), parseInt(range.substring(separator + 1)))
+                            .forEach(cpus::add);
+                }
+            }
+            catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid CPU list: " + cpuList, e);
+            }
+        }
+        return cpus.build();
+    }
+
+    public int getGroupCount()
+    {
+        return cpuGroups.size();
+    }
+
+    /**
+     * Distributes runner threads over the groups in proportion to the number of CPUs of each group.
+     *
+     * @return the CPU group of every runner thread
+     */
+    public int[] assignRunnerThreads(int runnerThreads)
+    {
+        int totalCpus = cpuGroups.stream()
+                .mapToInt(List::size)
+                .sum();
+        int[] groups = new int[runnerThreads];
+        int cpusBefore = 0;
+        int thread = 0;
+        for (int group = 0; group < cpuGroups.size(); group++) {
+            cpusBefore += cpuGroups.get(group).size();
+            int threadsBefore = (int) ((long) runnerThreads * cpusBefore / totalCpus);
+            for (; thread < threadsBefore; thread++) {
+                groups[thread] = group;
+            }
+        }
+        return groups;
+    }
+}
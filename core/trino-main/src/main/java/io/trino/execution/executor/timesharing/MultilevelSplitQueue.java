@@ -22,6 +22,7 @@ import io.trino.execution.TaskManagerConfig;
 import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
 
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.PriorityQueue;
 import java.util.concurrent.atomic.AtomicLong;
@@ -32,6 +33,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.math.DoubleMath.roundToLong;
 import static java.math.RoundingMode.HALF_UP;
+import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -41,42 +43,66 @@ public class MultilevelSplitQueue
     static final int[] LEVEL_THRESHOLD_SECONDS = {0, 1, 10, 60, 300};
     static final long LEVEL_CONTRIBUTION_CAP = SECONDS.toNanos(30);
 
+    private final CpuTopology cpuTopology;
+
+    // waiting splits of every CPU group, by level
     @GuardedBy("lock")
-    private final PriorityQueue<PrioritizedSplitRunner>[] levelWaitingSplits;
+    private final PriorityQueue<PrioritizedSplitRunner>[][] levelWaitingSplits;
 
     private final AtomicLong[] levelScheduledTime;
 
     private final AtomicLong[] levelMinPriority;
     private final CounterStat[] selectedLevelCounters;
+    private final CounterStat stolenSplits = new CounterStat();
 
     private final ReentrantLock lock = new ReentrantLock();
-    private final Condition notEmpty = lock.newCondition();
+    private final Condition[] notEmpty;
 
     private final double levelTimeMultiplier;
 
     @Inject
     public MultilevelSplitQueue(TaskManagerConfig taskManagerConfig)
     {
-        this(taskManagerConfig.getLevelTimeMultiplier().doubleValue());
+        this(
+                taskManagerConfig.getLevelTimeMultiplier().doubleValue(),
+                taskManagerConfig.isCpuGroupAffinityEnabled() ? CpuTopology.load(Path.of(taskManagerConfig.getCpuTopologyPath())) : CpuTopology.singleGroup());
     }
 
     public MultilevelSplitQueue(double levelTimeMultiplier)
     {
+        this(levelTimeMultiplier, CpuTopology.singleGroup());
+    }
+
+    public MultilevelSplitQueue(double levelTimeMultiplier, CpuTopology cpuTopology)
+    {
+        this.cpuTopology = requireNonNull(cpuTopology, "cpuTopology is null");
+        int cpuGroups = cpuTopology.getGroupCount();
         this.levelScheduledTime = new AtomicLong[LEVEL_THRESHOLD_SECONDS.length];
         this.levelMinPriority = new AtomicLong[LEVEL_THRESHOLD_SECONDS.length];
-        this.levelWaitingSplits = new PriorityQueue[LEVEL_THRESHOLD_SECONDS.length];
+        this.levelWaitingSplits = new PriorityQueue[cpuGroups][LEVEL_THRESHOLD_SECONDS.length];
         this.selectedLevelCounters = new CounterStat[LEVEL_THRESHOLD_SECONDS.length];
+        this.notEmpty = new Condition[cpuGroups];
 
         for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
             levelScheduledTime[level] = new AtomicLong();
             levelMinPriority[level] = new AtomicLong(-1);
-            levelWaitingSplits[level] = new PriorityQueue<>();
             selectedLevelCounters[level] = new CounterStat();
         }
+        for (int group = 0; group < cpuGroups; group++) {
+            for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
+                levelWaitingSplits[group][level] = new PriorityQueue<>();
+            }
+            notEmpty[group] = lock.newCondition();
+        }
 
         this.levelTimeMultiplier = levelTimeMultiplier;
     }
 
+    public CpuTopology getCpuTopology()
+    {
+        return cpuTopology;
+    }
+
     private void addLevelTime(int level, long nanos)
     {
         levelScheduledTime[level].addAndGet(nanos);
@@ -91,6 +117,9 @@ public class MultilevelSplitQueue
      * <p>
      * To prevent this we set the scheduled time for levels which were empty to the expected
      * scheduled time.
+     * <p>
+     * The split is queued in the CPU group of its task and wakes up a runner of that group.
+     * If all runners of the group are busy, an idle runner of another group is woken up instead.
      */
     public void offer(PrioritizedSplitRunner split)
     {
@@ -98,9 +127,10 @@ public class MultilevelSplitQueue
 
         split.setReady();
         int level = split.getPriority().getLevel();
+        int group = split.getTaskHandle().getCpuGroup();
         lock.lock();
         try {
-            if (levelWaitingSplits[level].isEmpty()) {
+            if (isLevelEmpty(level)) {
                 // Accesses to levelScheduledTime are not synchronized, so we have a data race
                 // here - our level time math will be off. However, the staleness is bounded by
                 // the fact that only running splits that complete during this computation
@@ -111,23 +141,61 @@ public class MultilevelSplitQueue
                 levelScheduledTime[level].addAndGet(delta);
             }
 
-            levelWaitingSplits[level].offer(split);
-            notEmpty.signal();
+            levelWaitingSplits[group][level].offer(split);
+            signalRunner(group);
         }
         finally {
             lock.unlock();
         }
     }
 
+    @GuardedBy("lock")
+    private boolean isLevelEmpty(int level)
+    {
+        for (PriorityQueue<PrioritizedSplitRunner>[] groupWaitingSplits : levelWaitingSplits) {
+            if (!groupWaitingSplits[level].isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @GuardedBy("lock")
+    private void signalRunner(int group)
+    {
+        if (lock.hasWaiters(notEmpty[group])) {
+            notEmpty[group].signal();
+            return;
+        }
+        for (Condition condition : notEmpty) {
+            if (lock.hasWaiters(condition)) {
+                condition.signal();
+                return;
+            }
+        }
+    }
+
     public PrioritizedSplitRunner take()
             throws InterruptedException
     {
+        return take(0);
+    }
+
+    /**
+     * Takes the next split for a runner of the given CPU group. Splits of the group are
+     * preferred. When the group has no waiting splits, a split is stolen from the group
+     * with the most waiting splits.
+     */
+    public PrioritizedSplitRunner take(int group)
+            throws InterruptedException
+    {
+        checkArgument(group >= 0 && group < notEmpty.length, "Invalid CPU group: %s", group);
         while (true) {
             lock.lockInterruptibly();
             try {
                 PrioritizedSplitRunner result;
-                while ((result = pollSplit()) == null) {
-                    notEmpty.await();
+                while ((result = pollSplit(group)) == null) {
+                    notEmpty[group].await();
                 }
 
                 if (result.updateLevelPriority()) {
@@ -147,6 +215,30 @@ public class MultilevelSplitQueue
         }
     }
 
+    @GuardedBy("lock")
+    private PrioritizedSplitRunner pollSplit(int group)
+    {
+        PrioritizedSplitRunner result = pollSplit(levelWaitingSplits[group]);
+        if (result != null || levelWaitingSplits.length == 1) {
+            return result;
+        }
+
+        int victim = -1;
+        int victimWaitingSplits = 0;
+        for (int otherGroup = 0; otherGroup < levelWaitingSplits.length; otherGroup++) {
+            int waitingSplits = size(levelWaitingSplits[otherGroup]);
+            if (waitingSplits > victimWaitingSplits) {
+                victim = otherGroup;
+                victimWaitingSplits = waitingSplits;
+            }
+        }
+        if (victim == -1) {
+            return null;
+        }
+        stolenSplits.update(1);
+        return pollSplit(levelWaitingSplits[victim]);
+    }
+
     /**
      * Trino attempts to give each level a target amount of scheduled time, which is configurable
      * using levelTimeMultiplier.
@@ -156,13 +248,13 @@ public class MultilevelSplitQueue
      * we pick the split with the lowest priority.
      */
     @GuardedBy("lock")
-    private PrioritizedSplitRunner pollSplit()
+    private PrioritizedSplitRunner pollSplit(PriorityQueue<PrioritizedSplitRunner>[] groupWaitingSplits)
     {
         long targetScheduledTime = getLevel0TargetTime();
         double worstRatio = 1;
         int selectedLevel = -1;
         for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
-            if (!levelWaitingSplits[level].isEmpty()) {
+            if (!groupWaitingSplits[level].isEmpty()) {
                 long levelTime = levelScheduledTime[level].get();
                 double ratio = levelTime == 0 ? 0 : targetScheduledTime / (1.0 * levelTime);
                 if (selectedLevel == -1 || ratio > worstRatio) {
@@ -178,7 +270,7 @@ public class MultilevelSplitQueue
             return null;
         }
 
-        PrioritizedSplitRunner result = levelWaitingSplits[selectedLevel].poll();
+        PrioritizedSplitRunner result = groupWaitingSplits[selectedLevel].poll();
         checkState(result != null, "pollSplit cannot return null");
 
         return result;
@@ -246,8 +338,10 @@ public class MultilevelSplitQueue
         checkArgument(split != null, "split is null");
         lock.lock();
         try {
-            for (PriorityQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
-                level.remove(split);
+            for (PriorityQueue<PrioritizedSplitRunner>[] groupWaitingSplits : levelWaitingSplits) {
+                for (PriorityQueue<PrioritizedSplitRunner> level : groupWaitingSplits) {
+                    level.remove(split);
+                }
             }
         }
         finally {
@@ -259,8 +353,10 @@ public class MultilevelSplitQueue
     {
         lock.lock();
         try {
-            for (PriorityQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
-                level.removeAll(splits);
+            for (PriorityQueue<PrioritizedSplitRunner>[] groupWaitingSplits : levelWaitingSplits) {
+                for (PriorityQueue<PrioritizedSplitRunner> level : groupWaitingSplits) {
+                    level.removeAll(splits);
+                }
             }
         }
         finally {
@@ -279,8 +375,8 @@ public class MultilevelSplitQueue
         lock.lock();
         try {
             int total = 0;
-            for (PriorityQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
-                total += level.size();
+            for (PriorityQueue<PrioritizedSplitRunner>[] groupWaitingSplits : levelWaitingSplits) {
+                total += size(groupWaitingSplits);
             }
             return total;
         }
@@ -289,6 +385,26 @@ public class MultilevelSplitQueue
         }
     }
 
+    public int size(int group)
+    {
+        lock.lock();
+        try {
+            return size(levelWaitingSplits[group]);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private static int size(PriorityQueue<PrioritizedSplitRunner>[] levelWaitingSplits)
+    {
+        int total = 0;
+        for (PriorityQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
+            total += level.size();
+        }
+        return total;
+    }
+
     public static int computeLevel(long threadUsageNanos)
     {
         long seconds = NANOSECONDS.toSeconds(threadUsageNanos);
@@ -307,6 +423,19 @@ public class MultilevelSplitQueue
         return levelScheduledTime[level].longValue();
     }
 
+    @Managed
+    public int getCpuGroups()
+    {
+        return cpuTopology.getGroupCount();
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getStolenSplits()
+    {
+        return stolenSplits;
+    }
+
     @Managed
     public long getLevel0Time()
     {
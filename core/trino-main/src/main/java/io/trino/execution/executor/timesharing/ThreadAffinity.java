@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.executor.timesharing;
+
+import io.airlift.log.Logger;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.MethodHandle;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+/**
+ * Binds the current thread to a set of CPUs with the Linux {@code sched_setaffinity} system call.
+ * On other platforms, or when the call is not permitted, the thread affinity is left unchanged.
+ */
+final class ThreadAffinity
+{
+    private static final Logger log = Logger.get(ThreadAffinity.class);
+
+    // size of the CPU masks passed to the kernel, which must cover all CPUs the kernel supports
+    private static final int MAX_CPUS = 8192;
+
+    private static final Optional<MethodHandle> SCHED_GETAFFINITY = lookup("sched_getaffinity");
+    private static final Optional<MethodHandle> SCHED_SETAFFINITY = lookup("sched_setaffinity");
+
+    private static final AtomicBoolean FAILURE_LOGGED = new AtomicBoolean();
+
+    private ThreadAffinity() {}
+
+    private static Optional<MethodHandle> lookup(String function)
+    {
+        if (!System.getProperty("os.name").equals("Linux") || ADDRESS.byteSize() != Long.BYTES) {
+            return Optional.empty();
+        }
+        try {
+            Linker linker = Linker.nativeLinker();
+            // int sched_[gs]etaffinity(pid_t pid, size_t cpusetsize, cpu_set_t *mask)
+            return linker.defaultLookup().find(function)
+                    .map(address -> linker.downcallHandle(address, FunctionDescriptor.of(JAVA_INT, JAVA_INT, JAVA_LONG, ADDRESS)));
+        }
+        catch (RuntimeException e) {
+            log.warn(e, "Failed to look up %s, runner threads are not bound to CPUs", function);
+            return Optional.empty();
+        }
+    }
+
+    public static boolean isSupported()
+    {
+        return SCHED_GETAFFINITY.isPresent() && SCHED_SETAFFINITY.isPresent();
+    }
+
+    /**
+     * @return the CPUs the current thread may run on, or empty if thread affinity is not supported
+     */
+    public static Optional<BitSet> getCurrentThreadAffinity()
+    {
+        if (!isSupported()) {
+            return Optional.empty();
+        }
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment mask = arena.allocate(JAVA_LONG, MAX_CPUS / Long.SIZE);
+            // pid 0 is the calling thread
+            int result = (int) SCHED_GETAFFINITY.get().invokeExact(0, mask.byteSize(), mask);
+            if (result != 0) {
+                logFailure("sched_getaffinity");
+                return Optional.empty();
+            }
+            return Optional.of(BitSet.valueOf(mask.toArray(JAVA_LONG)));
+        }
+        catch (Throwable e) {
+            throw new RuntimeException("Failed to get the thread affinity", e);
+        }
+    }
+
+    /**
+     * @return false if thread affinity is not supported or the affinity could not be changed
+     */
+    public static boolean setCurrentThreadAffinity(List<Integer> cpus)
+    {
+        BitSet cpuSet = new BitSet(MAX_CPUS);
+        cpus.forEach(cpuSet::set);
+        return setCurrentThreadAffinity(cpuSet);
+    }
+
+    public static boolean setCurrentThreadAffinity(BitSet cpus)
+    {
+        if (!isSupported() || cpus.isEmpty() || cpus.length() > MAX_CPUS) {
+            return false;
+        }
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment mask = arena.allocate(JAVA_LONG, MAX_CPUS / Long.SIZE);
+            long[] words = cpus.toLongArray();
+            MemorySegment.copy(words, 0, mask, JAVA_LONG, 0, words.length);
+            int result = (int) SCHED_SETAFFINITY.get().invokeExact(0, mask.byteSize(), mask);
+            if (result != 0) {
+                logFailure("sched_setaffinity");
+                return false;
+            }
+            return true;
+        }
+        catch (Throwable e) {
+            throw new RuntimeException("Failed to set the thread affinity", e);
+        }
+    }
+
+    private static void logFailure(String function)
+    {
+        if (FAILURE_LOGGED.compareAndSet(false, true)) {
+            log.warn("%s failed, runner threads are not bound to CPUs", function);
+        }
+    }
+}
@@ -35,6 +35,7 @@ import io.trino.execution.TaskId;
 import io.trino.execution.TaskManagerConfig;
 import io.trino.execution.executor.RunningSplitInfo;
 import io.trino.execution.executor.TaskExecutor;
+import io.trino.execution.executor.TaskExecutorMetrics;
 import io.trino.execution.executor.TaskHandle;
 import io.trino.spi.TrinoException;
 import io.trino.spi.VersionEmbedder;
@@ -45,11 +46,13 @@ import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
 import java.util.SortedSet;
@@ -60,6 +63,8 @@ import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.DoubleSupplier;
@@ -92,6 +97,10 @@ public class TimeSharingTaskExecutor
     private final ThreadPoolExecutorMBean executorMBean;
 
     private final int runnerThreads;
+    private final CpuTopology cpuTopology;
+    // CPU group of every runner thread
+    private final int[] runnerThreadCpuGroups;
+    private final AtomicInteger boundRunnerThreads = new AtomicInteger();
     private final int minimumNumberOfDrivers;
     private final int guaranteedNumberOfDriversPerTask;
     private final int maximumNumberOfDriversPerTask;
@@ -127,6 +136,7 @@ public class TimeSharingTaskExecutor
      * Splits running on a thread.
      */
     private final Set<PrioritizedSplitRunner> runningSplits = newConcurrentHashSet();
+    private final AtomicIntegerArray runningSplitsPerCpuGroup;
 
     /**
      * Splits blocked by the driver.
@@ -224,6 +234,9 @@ public class TimeSharingTaskExecutor
         this.guaranteedNumberOfDriversPerTask = guaranteedNumberOfDriversPerTask;
         this.maximumNumberOfDriversPerTask = maximumNumberOfDriversPerTask;
         this.waitingSplits = requireNonNull(splitQueue, "splitQueue is null");
+        this.cpuTopology = splitQueue.getCpuTopology();
+        this.runnerThreadCpuGroups = cpuTopology.assignRunnerThreads(runnerThreads);
+        this.runningSplitsPerCpuGroup = new AtomicIntegerArray(cpuTopology.getGroupCount());
         this.tasks = new LinkedList<>();
         this.lastLeafSplitsSizeRecordTime = ticker.read();
     }
@@ -234,7 +247,7 @@ public class TimeSharingTaskExecutor
     {
         checkState(!closed, "TaskExecutor is closed");
         for (int i = 0; i < runnerThreads; i++) {
-            addRunnerThread();
+            addRunnerThread(runnerThreadCpuGroups[i]);
         }
     }
 
@@ -259,10 +272,10 @@ public class TimeSharingTaskExecutor
                 .toString();
     }
 
-    private synchronized void addRunnerThread()
+    private synchronized void addRunnerThread(int cpuGroup)
     {
         try {
-            executor.execute(versionEmbedder.embedVersion(new TaskRunner()));
+            executor.execute(versionEmbedder.embedVersion(new TaskRunner(cpuGroup)));
         }
         catch (RejectedExecutionException _) {
         }
@@ -283,12 +296,46 @@ public class TimeSharingTaskExecutor
 
         log.debug("Task scheduled %s", taskId);
 
-        TimeSharingTaskHandle taskHandle = new TimeSharingTaskHandle(taskId, waitingSplits, utilizationSupplier, initialSplitConcurrency, splitConcurrencyAdjustFrequency, maxDriversPerTask);
+        TimeSharingTaskHandle taskHandle = new TimeSharingTaskHandle(taskId, waitingSplits, utilizationSupplier, initialSplitConcurrency, splitConcurrencyAdjustFrequency, maxDriversPerTask, selectCpuGroup());
 
         tasks.add(taskHandle);
         return taskHandle;
     }
 
+    /**
+     * All drivers of a task, and so all partitions of its local exchanges, run in one CPU group
+     * to keep their data in the caches and memory of that group. New tasks go to the group with
+     * the fewest tasks per runner thread.
+     */
+    @GuardedBy("this")
+    private int selectCpuGroup()
+    {
+        int cpuGroups = runningSplitsPerCpuGroup.length();
+        if (cpuGroups == 1) {
+            return 0;
+        }
+        int[] groupRunnerThreads = new int[cpuGroups];
+        for (int cpuGroup : runnerThreadCpuGroups) {
+            groupRunnerThreads[cpuGroup]++;
+        }
+        int[] groupTasks = new int[cpuGroups];
+        for (TimeSharingTaskHandle task : tasks) {
+            groupTasks[task.getCpuGroup()]++;
+        }
+
+        int selectedGroup = -1;
+        for (int group = 0; group < cpuGroups; group++) {
+            if (groupRunnerThreads[group] == 0) {
+                continue;
+            }
+            // compare groupTasks[group] / groupRunnerThreads[group] without division
+            if (selectedGroup == -1 || (long) groupTasks[group] * groupRunnerThreads[selectedGroup] < (long) groupTasks[selectedGroup] * groupRunnerThreads[group]) {
+                selectedGroup = group;
+            }
+        }
+        return selectedGroup;
+    }
+
     @Override
     public void removeTask(TaskHandle taskHandle)
     {
@@ -538,16 +585,23 @@ public class TimeSharingTaskExecutor
             implements Runnable
     {
         private final long runnerId = NEXT_RUNNER_ID.getAndIncrement();
+        private final int cpuGroup;
+
+        private TaskRunner(int cpuGroup)
+        {
+            this.cpuGroup = cpuGroup;
+        }
 
         @Override
         public void run()
         {
+            Optional<BitSet> previousAffinity = bindToCpuGroup();
             try (SetThreadName runnerName = new SetThreadName("SplitRunner-" + runnerId)) {
                 while (!closed && !Thread.currentThread().isInterrupted()) {
                     // select next worker
                     PrioritizedSplitRunner split;
                     try {
-                        split = waitingSplits.take();
+                        split = waitingSplits.take(cpuGroup);
                     }
                     catch (InterruptedException e) {
                         Thread.currentThread().interrupt();
@@ -559,6 +613,7 @@ public class TimeSharingTaskExecutor
                         RunningSplitInfo splitInfo = new RunningSplitInfo(ticker.read(), threadId, Thread.currentThread(), split.getTaskHandle().getTaskId(), split::getInfo);
                         runningSplitInfos.add(splitInfo);
                         runningSplits.add(split);
+                        runningSplitsPerCpuGroup.incrementAndGet(cpuGroup);
 
                         ListenableFuture<Void> blocked;
                         try {
@@ -567,6 +622,7 @@ public class TimeSharingTaskExecutor
                         finally {
                             runningSplitInfos.remove(splitInfo);
                             runningSplits.remove(split);
+                            runningSplitsPerCpuGroup.decrementAndGet(cpuGroup);
                         }
 
                         if (split.isFinished()) {
@@ -615,18 +671,54 @@ public class TimeSharingTaskExecutor
                 }
             }
             finally {
+                // the pooled thread may be reused for other work, so restore its affinity
+                previousAffinity.ifPresent(affinity -> {
+                    ThreadAffinity.setCurrentThreadAffinity(affinity);
+                    boundRunnerThreads.decrementAndGet();
+                });
                 // unless we have been closed, we need to replace this thread
                 if (!closed) {
-                    addRunnerThread();
+                    addRunnerThread(cpuGroup);
                 }
             }
         }
+
+        /**
+         * Binds the thread to the CPUs of its group, so that the drivers of the tasks of the group
+         * keep their data in the caches and memory of the group. Falls back to running on any CPU
+         * when thread affinity is not supported.
+         *
+         * @return the previous affinity of the thread if it was bound
+         */
+        private Optional<BitSet> bindToCpuGroup()
+        {
+            if (cpuTopology.getGroupCount() == 1) {
+                return Optional.empty();
+            }
+            Optional<BitSet> previousAffinity = ThreadAffinity.getCurrentThreadAffinity();
+            if (previousAffinity.isEmpty() || !ThreadAffinity.setCurrentThreadAffinity(cpuTopology.cpuGroups().get(cpuGroup))) {
+                return Optional.empty();
+            }
+            boundRunnerThreads.incrementAndGet();
+            return previousAffinity;
+        }
     }
 
     //
     // STATS
     //
 
+    @Override
+    public TaskExecutorMetrics getMetrics()
+    {
+        return new TaskExecutorMetrics(
+                TaskExecutorMetrics.Mode.TIME_SHARING,
+                runnerThreads,
+                getRunningSplits(),
+                getBlockedSplits(),
+                getWaitingSplits());
+    }
+
     @Managed
     public synchronized int getTasks()
     {
@@ -682,6 +774,34 @@ public class TimeSharingTaskExecutor
         return runningSplits.size();
     }
 
+    @Managed
+    public String getCpuGroupUtilization()
+    {
+        StringBuilder result = new StringBuilder();
+        for (int group = 0; group < runningSplitsPerCpuGroup.length(); group++) {
+            int groupRunnerThreads = 0;
+            for (int cpuGroup : runnerThreadCpuGroups) {
+                if (cpuGroup == group) {
+                    groupRunnerThreads++;
+                }
+            }
+            int running = runningSplitsPerCpuGroup.get(group);
+            result.append(format("group %s: runnerThreads=%s runningSplits=%s waitingSplits=%s utilization=%.2f%n",
+                    group,
+                    groupRunnerThreads,
+                    running,
+                    waitingSplits.size(group),
+                    groupRunnerThreads == 0 ? 0.0 : (double) running / groupRunnerThreads));
+        }
+        return result.toString();
+    }
+
+    @Managed
+    public int getBoundRunnerThreads()
+    {
+        return boundRunnerThreads.get();
+    }
+
     @Managed
     public int getBlockedSplits()
     {
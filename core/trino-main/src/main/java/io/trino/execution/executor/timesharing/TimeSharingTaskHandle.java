@@ -30,6 +30,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.DoubleSupplier;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 @ThreadSafe
@@ -56,6 +57,7 @@ public class TimeSharingTaskHandle
     private final AtomicReference<Priority> priority = new AtomicReference<>(new Priority(0, 0));
     private final MultilevelSplitQueue splitQueue;
     private final OptionalInt maxDriversPerTask;
+    private final int cpuGroup;
 
     public TimeSharingTaskHandle(
             TaskId taskId,
@@ -65,6 +67,20 @@ public class TimeSharingTaskHandle
             Duration splitConcurrencyAdjustFrequency,
             OptionalInt maxDriversPerTask)
     {
+        this(taskId, splitQueue, utilizationSupplier, initialSplitConcurrency, splitConcurrencyAdjustFrequency, maxDriversPerTask, 0);
+    }
+
+    public TimeSharingTaskHandle(
+            TaskId taskId,
+            MultilevelSplitQueue splitQueue,
+            DoubleSupplier utilizationSupplier,
+            int initialSplitConcurrency,
+            Duration splitConcurrencyAdjustFrequency,
+            OptionalInt maxDriversPerTask,
+            int cpuGroup)
+    {
+        checkArgument(cpuGroup >= 0, "cpuGroup is negative");
+        this.cpuGroup = cpuGroup;
         this.taskId = requireNonNull(taskId, "taskId is null");
         this.splitQueue = requireNonNull(splitQueue, "splitQueue is null");
         this.utilizationSupplier = requireNonNull(utilizationSupplier, "utilizationSupplier is null");
@@ -74,6 +90,14 @@ public class TimeSharingTaskHandle
                 requireNonNull(splitConcurrencyAdjustFrequency, "splitConcurrencyAdjustFrequency is null"));
     }
 
+    /**
+     * All splits of the task are queued for runner threads of this CPU group.
+     */
+    public int getCpuGroup()
+    {
+        return cpuGroup;
+    }
+
     public synchronized Priority addScheduledNanos(long durationNanos)
     {
         concurrencyController.update(durationNanos, utilizationSupplier.getAsDouble(), runningLeafSplits.size());
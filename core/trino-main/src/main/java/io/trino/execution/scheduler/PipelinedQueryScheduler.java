@@ -505,7 +505,7 @@ public class PipelinedQueryScheduler
             URI taskUri = uriBuilderFrom(task.getTaskStatus().getSelf())
                     .appendPath("results")
                     .appendPath("0").build();
-            DirectExchangeInput input = new DirectExchangeInput(task.getTaskId(), taskUri.toString());
+            DirectExchangeInput input = new DirectExchangeInput(task.getTaskId(), task.getNodeId(), taskUri.toString());
             queryStateMachine.updateInputsForQueryResults(ImmutableList.of(input), false);
         }
 
@@ -1288,6 +1288,15 @@ public class PipelinedQueryScheduler
             try (SetThreadName _ = new SetThreadName("Query-" + queryStateMachine.getQueryId())) {
                 stageSchedulers.values().forEach(StageScheduler::start);
                 while (!executionSchedule.isFinished()) {
+                    // the cluster memory manager throttles queries which keep growing while they hold memory on a node that is out of memory
+                    ListenableFuture<Void> memoryThrottle = queryStateMachine.getMemoryThrottle();
+                    if (!memoryThrottle.isDone()) {
+                        try (TimeStat.BlockTimer timer = schedulerStats.getSleepTime().time()) {
+                            tryGetFutureValue(memoryThrottle, 1, SECONDS);
+                        }
+                        continue;
+                    }
+
                     List<ListenableFuture<Void>> blockedStages = new ArrayList<>();
                     StagesScheduleResult stagesScheduleResult = executionSchedule.getStagesToSchedule();
                     for (StageExecution stageExecution : stagesScheduleResult.getStagesToSchedule()) {
@@ -15,6 +15,7 @@ package io.trino.memory;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
+import com.google.common.base.Ticker;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -27,6 +28,7 @@ import io.airlift.http.client.HttpClient;
 import io.airlift.json.JsonCodec;
 import io.airlift.log.Logger;
 import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
 import io.trino.execution.LocationFactory;
 import io.trino.execution.QueryExecution;
 import io.trino.execution.QueryInfo;
@@ -37,6 +39,7 @@ import io.trino.execution.scheduler.NodeSchedulerConfig;
 import io.trino.memory.LowMemoryKiller.ForQueryLowMemoryKiller;
 import io.trino.memory.LowMemoryKiller.ForTaskLowMemoryKiller;
 import io.trino.memory.LowMemoryKiller.RunningQueryInfo;
+import io.trino.memory.MemoryArbitrator.Arbitration;
 import io.trino.metadata.InternalNode;
 import io.trino.metadata.InternalNodeManager;
 import io.trino.operator.RetryPolicy;
@@ -105,12 +108,15 @@ public class ClusterMemoryManager
     private final DataSize maxQueryTotalMemory;
     private final boolean includeCoordinator;
     private final List<LowMemoryKiller> lowMemoryKillers;
+    private final boolean memoryArbitrationEnabled;
     private final AtomicLong totalAvailableProcessors = new AtomicLong();
     private final AtomicLong clusterUserMemoryReservation = new AtomicLong();
     private final AtomicLong clusterTotalMemoryReservation = new AtomicLong();
     private final AtomicLong clusterMemoryBytes = new AtomicLong();
     private final AtomicLong queriesKilledDueToOutOfMemory = new AtomicLong();
     private final AtomicLong tasksKilledDueToOutOfMemory = new AtomicLong();
+    private final AtomicLong memoryRevokeRequests = new AtomicLong();
+    private final AtomicLong throttledQueries = new AtomicLong();
 
     @GuardedBy("this")
     private final Map<String, RemoteNodeMemory> nodes = new HashMap<>();
@@ -120,6 +126,9 @@ public class ClusterMemoryManager
 
     private final ClusterMemoryPool pool;
 
+    @GuardedBy("this")
+    private final MemoryArbitrator memoryArbitrator;
+
     @GuardedBy("this")
     private Optional<KillTarget> lastKillTarget = Optional.empty();
 
@@ -151,6 +160,8 @@ public class ClusterMemoryManager
         this.maxQueryMemory = config.getMaxQueryMemory();
         this.maxQueryTotalMemory = config.getMaxQueryTotalMemory();
         this.includeCoordinator = nodeSchedulerConfig.isIncludeCoordinator();
+        this.memoryArbitrationEnabled = config.isMemoryArbitrationEnabled();
+        this.memoryArbitrator = new MemoryArbitrator(config.getMemoryArbitrationRevokeTimeout(), Ticker.systemTicker());
 
         verify(maxQueryMemory.toBytes() <= maxQueryTotalMemory.toBytes(),
                 "maxQueryMemory cannot be greater than maxQueryTotalMemory");
@@ -181,6 +192,7 @@ public class ClusterMemoryManager
         memoryLeakDetector.checkForMemoryLeaks(allQueryInfoSupplier, pool.getQueryMemoryReservations());
 
         boolean outOfMemory = isClusterOutOfMemory();
+        Arbitration arbitration = arbitrate(runningQueries);
 
         boolean queryKilled = false;
         long totalUserMemoryBytes = 0L;
@@ -225,7 +237,10 @@ public class ClusterMemoryManager
         clusterTotalMemoryReservation.set(totalMemoryBytes);
 
         if (!lowMemoryKillers.isEmpty() && outOfMemory && !queryKilled) {
-            if (isLastKillTargetGone()) {
+            if (memoryArbitrationEnabled && !arbitration.killAllowed()) {
+                log.debug("Cluster is out of memory, waiting for memory revoking before killing");
+            }
+            else if (isLastKillTargetGone()) {
                 callOomKiller(runningQueries);
             }
             else {
@@ -237,6 +252,41 @@ public class ClusterMemoryManager
         updateNodes();
     }
 
+    private synchronized Arbitration arbitrate(Iterable<QueryExecution> runningQueries)
+    {
+        Map<String, MemoryPoolInfo> nodePools = nodes.entrySet().stream()
+                .filter(entry -> entry.getValue().getInfo().isPresent())
+                .collect(toImmutableMap(
+                        Entry::getKey,
+                        entry -> entry.getValue().getInfo().get().getPool()));
+        Map<QueryId, Long> queryReservations = Streams.stream(runningQueries)
+                .collect(toImmutableMap(QueryExecution::getQueryId, this::getQueryMemoryReservation));
+        Arbitration arbitration = memoryArbitrator.arbitrate(nodePools, queryReservations);
+
+        for (QueryExecution query : runningQueries) {
+            Duration memoryPressureTime = arbitration.memoryPressureTime().get(query.getQueryId());
+            if (memoryPressureTime != null) {
+                query.addMemoryPressureTime(memoryPressureTime);
+            }
+            if (memoryArbitrationEnabled) {
+                query.setMemoryThrottled(arbitration.throttledQueries().contains(query.getQueryId()));
+            }
+        }
+
+        if (memoryArbitrationEnabled) {
+            throttledQueries.set(arbitration.throttledQueries().size());
+            arbitration.revokeRequests().forEach((nodeId, queryIds) -> {
+                RemoteNodeMemory node = nodes.get(nodeId);
+                if (node != null) {
+                    log.debug("Requesting memory revoking of %s on %s", queryIds, nodeId);
+                    node.asyncRevokeMemory(queryIds);
+                    memoryRevokeRequests.incrementAndGet();
+                }
+            });
+        }
+        return arbitration;
+    }
+
     private synchronized void callOomKiller(Iterable<QueryExecution> runningQueries)
     {
         List<RunningQueryInfo> runningQueryInfos = Streams.stream(runningQueries)
@@ -563,4 +613,16 @@ public class ClusterMemoryManager
     {
         return tasksKilledDueToOutOfMemory.get();
     }
+
+    @Managed
+    public long getMemoryRevokeRequests()
+    {
+        return memoryRevokeRequests.get();
+    }
+
+    @Managed
+    public long getThrottledQueries()
+    {
+        return throttledQueries.get();
+    }
 }
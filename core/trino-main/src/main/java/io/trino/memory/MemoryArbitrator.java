@@ -0,0 +1,181 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.memory;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.units.Duration;
+import io.trino.spi.QueryId;
+import io.trino.spi.memory.MemoryPoolInfo;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static io.airlift.units.Duration.succinctNanos;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Decides how the cluster memory manager reacts to memory pressure before it resorts to
+ * the low memory killers. A node is under pressure when its memory pool is exhausted,
+ * including revocable memory. While any node is under pressure, the arbitrator
+ * <ul>
+ * <li>asks the node to revoke memory of its largest revocable consumers, enough to cover its deficit,</li>
+ * <li>throttles the scheduling of new splits for queries holding memory on the node whose reservation keeps growing,</li>
+ * <li>accounts the time each query holding memory on such a node spends under pressure.</li>
+ * </ul>
+ * Queries are only killed once the cluster has been out of memory for longer than the revoke
+ * timeout, or right away if no blocked node has revocable memory left to spill.
+ * <p>
+ * This class is not thread safe, it is only used by the cluster memory manager.
+ */
+class MemoryArbitrator
+{
+    private final long revokeTimeoutNanos;
+    private final Ticker ticker;
+
+    private final Map<QueryId, Long> previousReservations = new HashMap<>();
+    private final Set<QueryId> throttledQueries = new HashSet<>();
+    private OptionalLong lastUpdateNanos = OptionalLong.empty();
+    private OptionalLong outOfMemorySinceNanos = OptionalLong.empty();
+
+    public MemoryArbitrator(Duration revokeTimeout, Ticker ticker)
+    {
+        this.revokeTimeoutNanos = revokeTimeout.roundTo(NANOSECONDS);
+        this.ticker = requireNonNull(ticker, "ticker is null");
+    }
+
+    /**
+     * @param nodePools the memory pool of every node, by node id
+     * @param queryReservations the total memory reservation of every running query
+     */
+    public Arbitration arbitrate(Map<String, MemoryPoolInfo> nodePools, Map<QueryId, Long> queryReservations)
+    {
+        long now = ticker.read();
+        long elapsedNanos = now - lastUpdateNanos.orElse(now);
+        lastUpdateNanos = OptionalLong.of(now);
+
+        Map<String, MemoryPoolInfo> nodesUnderPressure = nodePools.entrySet().stream()
+                .filter(entry -> entry.getValue().getFreeBytes() <= 0)
+                .collect(toImmutableMap(Entry::getKey, Entry::getValue));
+
+        ImmutableMap.Builder<String, Set<QueryId>> revokeRequests = ImmutableMap.builder();
+        Set<QueryId> queriesUnderPressure = new HashSet<>();
+        for (Entry<String, MemoryPoolInfo> entry : nodesUnderPressure.entrySet()) {
+            MemoryPoolInfo pool = entry.getValue();
+            queriesUnderPressure.addAll(pool.getQueryMemoryReservations().keySet());
+            queriesUnderPressure.addAll(pool.getQueryMemoryRevocableReservations().keySet());
+            Set<QueryId> revokeTargets = selectRevokeTargets(pool);
+            if (!revokeTargets.isEmpty()) {
+                revokeRequests.put(entry.getKey(), revokeTargets);
+            }
+        }
+
+        updateThrottledQueries(queriesUnderPressure, queryReservations);
+
+        Duration pressureTime = succinctNanos(elapsedNanos);
+        Map<QueryId, Duration> memoryPressureTime = elapsedNanos == 0 ? ImmutableMap.of() : queriesUnderPressure.stream()
+                .collect(toImmutableMap(queryId -> queryId, _ -> pressureTime));
+
+        return new Arbitration(
+                revokeRequests.buildOrThrow(),
+                ImmutableSet.copyOf(throttledQueries),
+                memoryPressureTime,
+                isKillAllowed(now, nodePools));
+    }
+
+    private static Set<QueryId> selectRevokeTargets(MemoryPoolInfo pool)
+    {
+        // revoke the largest consumers first, until the deficit of the pool is covered
+        long deficit = -pool.getFreeBytes();
+        List<Entry<QueryId, Long>> consumers = pool.getQueryMemoryRevocableReservations().entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Entry.<QueryId, Long>comparingByValue(Comparator.reverseOrder()))
+                .collect(toImmutableList());
+
+        ImmutableSet.Builder<QueryId> targets = ImmutableSet.builder();
+        long selectedBytes = 0;
+        for (Entry<QueryId, Long> consumer : consumers) {
+            targets.add(consumer.getKey());
+            selectedBytes += consumer.getValue();
+            if (selectedBytes > deficit) {
+                break;
+            }
+        }
+        return targets.build();
+    }
+
+    private void updateThrottledQueries(Set<QueryId> queriesUnderPressure, Map<QueryId, Long> queryReservations)
+    {
+        // queries that keep growing stay throttled as long as they hold memory on a node under pressure,
+        // queries which only run on other nodes do not add to the pressure and are never throttled
+        throttledQueries.retainAll(queryReservations.keySet());
+        throttledQueries.retainAll(queriesUnderPressure);
+        for (QueryId queryId : queriesUnderPressure) {
+            Long reservation = queryReservations.get(queryId);
+            Long previousReservation = previousReservations.get(queryId);
+            if (reservation != null && previousReservation != null && reservation > previousReservation) {
+                throttledQueries.add(queryId);
+            }
+        }
+        previousReservations.clear();
+        previousReservations.putAll(queryReservations);
+    }
+
+    private boolean isKillAllowed(long now, Map<String, MemoryPoolInfo> nodePools)
+    {
+        List<MemoryPoolInfo> blockedPools = nodePools.values().stream()
+                .filter(pool -> pool.getFreeBytes() + pool.getReservedRevocableBytes() <= 0)
+                .collect(toImmutableList());
+        if (blockedPools.isEmpty()) {
+            outOfMemorySinceNanos = OptionalLong.empty();
+            return false;
+        }
+        if (outOfMemorySinceNanos.isEmpty()) {
+            outOfMemorySinceNanos = OptionalLong.of(now);
+        }
+        boolean revocableMemoryLeft = blockedPools.stream()
+                .anyMatch(pool -> pool.getReservedRevocableBytes() > 0);
+        return !revocableMemoryLeft || now - outOfMemorySinceNanos.getAsLong() >= revokeTimeoutNanos;
+    }
+
+    /**
+     * @param revokeRequests the queries to revoke memory from, by node id
+     * @param throttledQueries the queries which must not schedule new splits
+     * @param memoryPressureTime the memory pressure time of queries since the previous arbitration
+     * @param killAllowed whether the low memory killers may kill queries or tasks
+     */
+    public record Arbitration(
+            Map<String, Set<QueryId>> revokeRequests,
+            Set<QueryId> throttledQueries,
+            Map<QueryId, Duration> memoryPressureTime,
+            boolean killAllowed)
+    {
+        public Arbitration
+        {
+            revokeRequests = ImmutableMap.copyOf(requireNonNull(revokeRequests, "revokeRequests is null"));
+            throttledQueries = ImmutableSet.copyOf(requireNonNull(throttledQueries, "throttledQueries is null"));
+            memoryPressureTime = ImmutableMap.copyOf(requireNonNull(memoryPressureTime, "memoryPressureTime is null"));
+        }
+    }
+}
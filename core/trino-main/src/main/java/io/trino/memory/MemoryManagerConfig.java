@@ -18,6 +18,8 @@ import io.airlift.configuration.ConfigDescription;
 import io.airlift.configuration.DefunctConfig;
 import io.airlift.configuration.LegacyConfig;
 import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.airlift.units.MinDuration;
 import jakarta.validation.constraints.NotNull;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -25,6 +27,7 @@ import static io.airlift.units.DataSize.Unit.GIGABYTE;
 import static io.airlift.units.DataSize.succinctBytes;
 import static java.lang.String.format;
 import static java.util.Locale.ENGLISH;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 @DefunctConfig({
         "experimental.cluster-memory-manager-enabled",
@@ -46,6 +49,8 @@ public class MemoryManagerConfig
     private DataSize faultTolerantExecutionEagerSpeculativeTasksNodeMemoryOvercommit = DataSize.of(20, GIGABYTE);
     private LowMemoryQueryKillerPolicy lowMemoryQueryKillerPolicy = LowMemoryQueryKillerPolicy.TOTAL_RESERVATION_ON_BLOCKED_NODES;
     private LowMemoryTaskKillerPolicy lowMemoryTaskKillerPolicy = LowMemoryTaskKillerPolicy.TOTAL_RESERVATION_ON_BLOCKED_NODES;
+    private boolean memoryArbitrationEnabled;
+    private Duration memoryArbitrationRevokeTimeout = new Duration(30, SECONDS);
 
     @NotNull
     public DataSize getMaxQueryMemory()
@@ -198,6 +203,34 @@ public class MemoryManagerConfig
         return this;
     }
 
+    public boolean isMemoryArbitrationEnabled()
+    {
+        return memoryArbitrationEnabled;
+    }
+
+    @Config("query.memory-arbitration.enabled")
+    @ConfigDescription("Revoke memory of the largest revocable queries and throttle growing queries before killing queries when the cluster is out of memory")
+    public MemoryManagerConfig setMemoryArbitrationEnabled(boolean memoryArbitrationEnabled)
+    {
+        this.memoryArbitrationEnabled = memoryArbitrationEnabled;
+        return this;
+    }
+
+    @NotNull
+    @MinDuration("0s")
+    public Duration getMemoryArbitrationRevokeTimeout()
+    {
+        return memoryArbitrationRevokeTimeout;
+    }
+
+    @Config("query.memory-arbitration.revoke-timeout")
+    @ConfigDescription("How long the cluster may stay out of memory while revoking memory, before queries are killed")
+    public MemoryManagerConfig setMemoryArbitrationRevokeTimeout(Duration memoryArbitrationRevokeTimeout)
+    {
+        this.memoryArbitrationRevokeTimeout = memoryArbitrationRevokeTimeout;
+        return this;
+    }
+
     public enum LowMemoryQueryKillerPolicy
     {
         NONE,
@@ -14,12 +14,19 @@
 package io.trino.memory;
 
 import com.google.inject.Inject;
+import io.trino.execution.MemoryRevokingScheduler;
 import io.trino.server.security.ResourceSecurity;
+import io.trino.spi.QueryId;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 
+import java.util.List;
+
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static io.trino.server.security.ResourceSecurity.AccessType.INTERNAL_ONLY;
 import static java.util.Objects.requireNonNull;
 
@@ -30,11 +37,13 @@ import static java.util.Objects.requireNonNull;
 public class MemoryResource
 {
     private final LocalMemoryManager memoryManager;
+    private final MemoryRevokingScheduler memoryRevokingScheduler;
 
     @Inject
-    public MemoryResource(LocalMemoryManager memoryManager)
+    public MemoryResource(LocalMemoryManager memoryManager, MemoryRevokingScheduler memoryRevokingScheduler)
     {
         this.memoryManager = requireNonNull(memoryManager, "memoryManager is null");
+        this.memoryRevokingScheduler = requireNonNull(memoryRevokingScheduler, "memoryRevokingScheduler is null");
     }
 
     @ResourceSecurity(INTERNAL_ONLY)
@@ -44,4 +53,14 @@ public class MemoryResource
     {
         return memoryManager.getInfo();
     }
+
+    @ResourceSecurity(INTERNAL_ONLY)
+    @POST
+    @Path("revoke")
+    public void revokeMemory(@QueryParam("queryId") List<String> queryIds)
+    {
+        memoryRevokingScheduler.requestMemoryRevoking(queryIds.stream()
+                .map(QueryId::valueOf)
+                .collect(toImmutableSet()));
+    }
 }
@@ -79,6 +79,8 @@ public class QueryContext
 
     @GuardedBy("this")
     private long spillUsed;
+    @GuardedBy("this")
+    private long remoteSpillUsed;
 
     public QueryContext(
             QueryId queryId,
@@ -225,6 +227,23 @@ public class QueryContext
         spillSpaceTracker.free(bytes);
     }
 
+    /**
+     * Remote spill does not use the local spill space, so it is not subject to the spill limits.
+     */
+    public synchronized void reserveRemoteSpill(long bytes)
+    {
+        checkArgument(bytes >= 0, "bytes is negative");
+        spillSpaceTracker.reserveRemote(bytes);
+        remoteSpillUsed += bytes;
+    }
+
+    public synchronized void freeRemoteSpill(long bytes)
+    {
+        checkArgument(remoteSpillUsed - bytes >= 0, "tried to free more remote spill than is reserved");
+        remoteSpillUsed -= bytes;
+        spillSpaceTracker.freeRemote(bytes);
+    }
+
     public MemoryPool getMemoryPool()
     {
         return memoryPool;
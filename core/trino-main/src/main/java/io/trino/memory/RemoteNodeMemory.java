@@ -19,22 +19,30 @@ import com.google.errorprone.annotations.ThreadSafe;
 import io.airlift.http.client.FullJsonResponseHandler.JsonResponse;
 import io.airlift.http.client.HttpClient;
 import io.airlift.http.client.HttpClient.HttpResponseFuture;
+import io.airlift.http.client.HttpUriBuilder;
 import io.airlift.http.client.Request;
+import io.airlift.http.client.StatusResponseHandler.StatusResponse;
 import io.airlift.json.JsonCodec;
 import io.airlift.log.Logger;
 import io.airlift.units.Duration;
 import io.trino.metadata.InternalNode;
+import io.trino.spi.QueryId;
 
 import java.net.URI;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.http.client.FullJsonResponseHandler.createFullJsonResponseHandler;
+import static io.airlift.http.client.HttpStatus.NO_CONTENT;
 import static io.airlift.http.client.HttpStatus.OK;
+import static io.airlift.http.client.HttpUriBuilder.uriBuilderFrom;
 import static io.airlift.http.client.Request.Builder.prepareGet;
+import static io.airlift.http.client.Request.Builder.preparePost;
+import static io.airlift.http.client.StatusResponseHandler.createStatusResponseHandler;
 import static io.airlift.units.Duration.nanosSince;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -50,6 +58,7 @@ public class RemoteNodeMemory
     private final JsonCodec<MemoryInfo> memoryInfoCodec;
     private final AtomicReference<Optional<MemoryInfo>> memoryInfo = new AtomicReference<>(Optional.empty());
     private final AtomicReference<Future<?>> future = new AtomicReference<>();
+    private final AtomicReference<Future<?>> revokeFuture = new AtomicReference<>();
     private final AtomicLong lastUpdateNanos = new AtomicLong();
     private final AtomicLong lastWarningLogged = new AtomicLong();
 
@@ -116,4 +125,44 @@ public class RemoteNodeMemory
             }, directExecutor());
         }
     }
+
+    /**
+     * Asks the node to revoke the revocable memory of the given queries.
+     * The request is skipped if the previous one has not completed yet.
+     */
+    public void asyncRevokeMemory(Set<QueryId> queryIds)
+    {
+        if (queryIds.isEmpty() || revokeFuture.get() != null) {
+            return;
+        }
+        HttpUriBuilder uri = uriBuilderFrom(memoryInfoUri).appendPath("revoke");
+        queryIds.forEach(queryId -> uri.addParameter("queryId", queryId.toString()));
+        Request request = preparePost()
+                .setUri(uri.build())
+                .build();
+        HttpResponseFuture<StatusResponse> responseFuture = httpClient.executeAsync(request, createStatusResponseHandler());
+        if (!revokeFuture.compareAndSet(null, responseFuture)) {
+            responseFuture.cancel(true);
+            return;
+        }
+
+        Futures.addCallback(responseFuture, new FutureCallback<>()
+        {
+            @Override
+            public void onSuccess(StatusResponse result)
+            {
+                revokeFuture.compareAndSet(responseFuture, null);
+                if (result.getStatusCode() != NO_CONTENT.code()) {
+                    log.warn("Error requesting memory revoking from %s returned status %d", memoryInfoUri, result.getStatusCode());
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t)
+            {
+                log.warn("Error requesting memory revoking from %s: %s", memoryInfoUri, t.getMessage());
+                revokeFuture.compareAndSet(responseFuture, null);
+            }
+        }, directExecutor());
+    }
 }
@@ -13,14 +13,19 @@
  */
 package io.trino.operator;
 
+import com.google.common.collect.AbstractIterator;
 import io.trino.memory.context.LocalMemoryContext;
 import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
 import io.trino.spi.block.RunLengthEncodedBlock;
 import io.trino.spi.type.Type;
 import io.trino.spi.type.TypeOperators;
 
+import java.util.Iterator;
+
 import static io.trino.spi.function.InvocationConvention.InvocationArgumentConvention.BLOCK_POSITION_NOT_NULL;
 import static io.trino.spi.function.InvocationConvention.InvocationArgumentConvention.FLAT;
+import static io.trino.spi.function.InvocationConvention.InvocationReturnConvention.BLOCK_BUILDER;
 import static io.trino.spi.function.InvocationConvention.InvocationReturnConvention.FAIL_ON_NULL;
 import static io.trino.spi.function.InvocationConvention.InvocationReturnConvention.FLAT_RETURN;
 import static io.trino.spi.function.InvocationConvention.simpleConvention;
@@ -67,13 +72,16 @@ public class ChannelSet
 
     public static class ChannelSetBuilder
     {
+        private final Type type;
         private final LocalMemoryContext memoryContext;
         private final FlatSet set;
 
         public ChannelSetBuilder(Type type, TypeOperators typeOperators, LocalMemoryContext memoryContext)
         {
+            this.type = requireNonNull(type, "type is null");
             set = new FlatSet(
                     type,
+                    typeOperators.getReadValueOperator(type, simpleConvention(BLOCK_BUILDER, FLAT)),
                     typeOperators.getReadValueOperator(type, simpleConvention(FLAT_RETURN, BLOCK_POSITION_NOT_NULL)),
                     typeOperators.getHashCodeOperator(type, simpleConvention(FAIL_ON_NULL, FLAT)),
                     typeOperators.getIdenticalOperator(type, simpleConvention(FAIL_ON_NULL, FLAT, BLOCK_POSITION_NOT_NULL)),
@@ -104,5 +112,31 @@ public class ChannelSet
 
             memoryContext.setBytes(set.getEstimatedSize());
         }
+
+        /**
+         * Returns the distinct non-null values added so far, in blocks of at most {@code maxPositionsPerBlock}
+         * positions. The blocks are created lazily, so no values may be added while iterating.
+         */
+        public Iterator<Block> getValues(int maxPositionsPerBlock)
+        {
+            return new AbstractIterator<>()
+            {
+                private int nextIndex;
+
+                @Override
+                protected Block computeNext()
+                {
+                    if (nextIndex < 0) {
+                        return endOfData();
+                    }
+                    BlockBuilder blockBuilder = type.createBlockBuilder(null, maxPositionsPerBlock);
+                    nextIndex = set.appendValues(nextIndex, blockBuilder, maxPositionsPerBlock);
+                    if (blockBuilder.getPositionCount() == 0) {
+                        return endOfData();
+                    }
+                    return blockBuilder.build();
+                }
+            };
+        }
     }
 }
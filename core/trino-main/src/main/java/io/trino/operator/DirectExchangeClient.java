@@ -14,6 +14,7 @@
 package io.trino.operator;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.errorprone.annotations.ThreadSafe;
@@ -39,6 +40,7 @@ import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
@@ -97,6 +99,7 @@ public class DirectExchangeClient
     private final Lock memoryContextWriteLock = memoryContextLock.writeLock();
     private final Executor pageBufferClientCallbackExecutor;
     private final TaskFailureListener taskFailureListener;
+    private final LocalTaskResults localTaskResults;
 
     // DirectExchangeClientStatus.mergeWith assumes all clients have the same bufferCapacity.
     // Please change that method accordingly when this assumption becomes not true.
@@ -113,6 +116,37 @@ public class DirectExchangeClient
             LocalMemoryContext memoryContext,
             Executor pageBufferClientCallbackExecutor,
             TaskFailureListener taskFailureListener)
+    {
+        this(
+                selfAddress,
+                dataIntegrityVerification,
+                buffer,
+                maxResponseSize,
+                concurrentRequestMultiplier,
+                maxErrorDuration,
+                acknowledgePages,
+                httpClient,
+                scheduledExecutor,
+                memoryContext,
+                pageBufferClientCallbackExecutor,
+                taskFailureListener,
+                LocalTaskResults.disabled());
+    }
+
+    public DirectExchangeClient(
+            String selfAddress,
+            DataIntegrityVerification dataIntegrityVerification,
+            DirectExchangeBuffer buffer,
+            DataSize maxResponseSize,
+            int concurrentRequestMultiplier,
+            Duration maxErrorDuration,
+            boolean acknowledgePages,
+            HttpClient httpClient,
+            ScheduledExecutorService scheduledExecutor,
+            LocalMemoryContext memoryContext,
+            Executor pageBufferClientCallbackExecutor,
+            TaskFailureListener taskFailureListener,
+            LocalTaskResults localTaskResults)
     {
         this.selfAddress = requireNonNull(selfAddress, "selfAddress is null");
         this.dataIntegrityVerification = requireNonNull(dataIntegrityVerification, "dataIntegrityVerification is null");
@@ -126,6 +160,7 @@ public class DirectExchangeClient
         this.memoryContext = memoryContext;
         this.pageBufferClientCallbackExecutor = requireNonNull(pageBufferClientCallbackExecutor, "pageBufferClientCallbackExecutor is null");
         this.taskFailureListener = requireNonNull(taskFailureListener, "taskFailureListener is null");
+        this.localTaskResults = requireNonNull(localTaskResults, "localTaskResults is null");
     }
 
     public DirectExchangeClientStatus getStatus()
@@ -155,6 +190,12 @@ public class DirectExchangeClient
 
     public synchronized void addLocation(TaskId taskId, URI location)
     {
+        addLocation(taskId, Optional.empty(), location);
+    }
+
+    public synchronized void addLocation(TaskId taskId, Optional<String> nodeId, URI location)
+    {
+        requireNonNull(nodeId, "nodeId is null");
         requireNonNull(location, "location is null");
 
         // Ignore new locations after close
@@ -175,10 +216,13 @@ public class DirectExchangeClient
                 maxErrorDuration,
                 acknowledgePages,
                 taskId,
+                nodeId,
                 location,
                 new ExchangeClientCallback(),
                 scheduledExecutor,
-                pageBufferClientCallbackExecutor);
+                Ticker.systemTicker(),
+                pageBufferClientCallbackExecutor,
+                localTaskResults);
         allClients.put(location, client);
         queuedClients.add(client);
 
@@ -14,6 +14,7 @@
 package io.trino.operator;
 
 import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
 import io.airlift.configuration.DefunctConfig;
 import io.airlift.http.client.HttpClientConfig;
 import io.airlift.units.DataSize;
@@ -37,6 +38,7 @@ public class DirectExchangeClientConfig
     private int clientThreads = 25;
     private int pageBufferClientMaxCallbackThreads = 25;
     private boolean acknowledgePages = true;
+    private boolean localTransferEnabled;
     private DataSize deduplicationBufferSize = DataSize.of(32, Unit.MEGABYTE);
 
     @NotNull
@@ -131,6 +133,19 @@ public class DirectExchangeClientConfig
         return this;
     }
 
+    public boolean isLocalTransferEnabled()
+    {
+        return localTransferEnabled;
+    }
+
+    @Config("exchange.local-transfer.enabled")
+    @ConfigDescription("Read results of tasks running on the same node directly from their output buffers instead of over HTTP")
+    public DirectExchangeClientConfig setLocalTransferEnabled(boolean localTransferEnabled)
+    {
+        this.localTransferEnabled = localTransferEnabled;
+        return this;
+    }
+
     @NotNull
     public DataSize getDeduplicationBufferSize()
     {
@@ -57,6 +57,7 @@ public class DirectExchangeClientFactory
     private final ThreadPoolExecutorMBean executorMBean;
     private final ExecutorService pageBufferClientCallbackExecutor;
     private final ExchangeManagerRegistry exchangeManagerRegistry;
+    private final LocalTaskResults localTaskResults;
 
     @Inject
     public DirectExchangeClientFactory(
@@ -66,7 +67,8 @@ public class DirectExchangeClientFactory
             @ForExchange HttpClient httpClient,
             @ForExchange HttpClientConfig httpClientConfig,
             @ForExchange ScheduledExecutorService scheduler,
-            ExchangeManagerRegistry exchangeManagerRegistry)
+            ExchangeManagerRegistry exchangeManagerRegistry,
+            LocalTaskResults localTaskResults)
     {
         this(
                 nodeInfo,
@@ -81,7 +83,8 @@ public class DirectExchangeClientFactory
                 config.getPageBufferClientMaxCallbackThreads(),
                 httpClient,
                 scheduler,
-                exchangeManagerRegistry);
+                exchangeManagerRegistry,
+                localTaskResults);
     }
 
     public DirectExchangeClientFactory(
@@ -98,6 +101,39 @@ public class DirectExchangeClientFactory
             HttpClient httpClient,
             ScheduledExecutorService scheduler,
             ExchangeManagerRegistry exchangeManagerRegistry)
+    {
+        this(
+                nodeInfo,
+                dataIntegrityVerification,
+                maxBufferedBytes,
+                deduplicationBufferSize,
+                maxResponseSize,
+                maxClientResponseSize,
+                concurrentRequestMultiplier,
+                maxErrorDuration,
+                acknowledgePages,
+                pageBufferClientMaxCallbackThreads,
+                httpClient,
+                scheduler,
+                exchangeManagerRegistry,
+                LocalTaskResults.disabled());
+    }
+
+    public DirectExchangeClientFactory(
+            NodeInfo nodeInfo,
+            DataIntegrityVerification dataIntegrityVerification,
+            DataSize maxBufferedBytes,
+            DataSize deduplicationBufferSize,
+            DataSize maxResponseSize,
+            DataSize maxClientResponseSize,
+            int concurrentRequestMultiplier,
+            Duration maxErrorDuration,
+            boolean acknowledgePages,
+            int pageBufferClientMaxCallbackThreads,
+            HttpClient httpClient,
+            ScheduledExecutorService scheduler,
+            ExchangeManagerRegistry exchangeManagerRegistry,
+            LocalTaskResults localTaskResults)
     {
         this.nodeInfo = requireNonNull(nodeInfo, "nodeInfo is null");
         this.dataIntegrityVerification = requireNonNull(dataIntegrityVerification, "dataIntegrityVerification is null");
@@ -123,6 +159,7 @@ public class DirectExchangeClientFactory
         checkArgument(maxResponseSize.toBytes() > 0, "maxResponseSize must be at least 1 byte: %s", maxResponseSize);
         checkArgument(concurrentRequestMultiplier > 0, "concurrentRequestMultiplier must be at least 1: %s", concurrentRequestMultiplier);
         this.exchangeManagerRegistry = requireNonNull(exchangeManagerRegistry, "exchangeManagerRegistry is null");
+        this.localTaskResults = requireNonNull(localTaskResults, "localTaskResults is null");
     }
 
     @PreDestroy
@@ -166,6 +203,7 @@ public class DirectExchangeClientFactory
                 scheduler,
                 memoryContext,
                 pageBufferClientCallbackExecutor,
-                taskFailureListener);
+                taskFailureListener,
+                localTaskResults);
     }
 }
@@ -15,20 +15,35 @@ package io.trino.operator;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.io.Closer;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.trino.memory.context.LocalMemoryContext;
 import io.trino.spi.Page;
 import io.trino.spi.type.Type;
+import io.trino.spi.type.TypeOperators;
+import io.trino.spiller.PartitioningSpillerFactory;
 import io.trino.sql.planner.plan.PlanNodeId;
+import jakarta.annotation.Nullable;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.base.Verify.verifyNotNull;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.Iterators.emptyIterator;
+import static com.google.common.util.concurrent.Futures.immediateVoidFuture;
+import static io.airlift.concurrent.MoreFutures.checkSuccess;
 import static io.trino.operator.GroupByHash.createGroupByHash;
+import static io.trino.operator.KeyPartitionedSpiller.PARTITION_COUNT;
+import static io.trino.spiller.PartitioningSpillerFactory.unsupportedPartitioningSpillerFactory;
 import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
@@ -46,7 +61,11 @@ public class DistinctLimitOperator
         private final long limit;
         private boolean closed;
         private final FlatHashStrategyCompiler hashStrategyCompiler;
+        private final boolean spillEnabled;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
+        private final TypeOperators typeOperators;
 
+        @VisibleForTesting
         public DistinctLimitOperatorFactory(
                 int operatorId,
                 PlanNodeId planNodeId,
@@ -54,6 +73,20 @@ public class DistinctLimitOperator
                 List<Integer> distinctChannels,
                 long limit,
                 FlatHashStrategyCompiler hashStrategyCompiler)
+        {
+            this(operatorId, planNodeId, sourceTypes, distinctChannels, limit, hashStrategyCompiler, false, unsupportedPartitioningSpillerFactory(), new TypeOperators());
+        }
+
+        public DistinctLimitOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<? extends Type> sourceTypes,
+                List<Integer> distinctChannels,
+                long limit,
+                FlatHashStrategyCompiler hashStrategyCompiler,
+                boolean spillEnabled,
+                PartitioningSpillerFactory partitioningSpillerFactory,
+                TypeOperators typeOperators)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -63,6 +96,9 @@ public class DistinctLimitOperator
             checkArgument(limit >= 0, "limit must be at least zero");
             this.limit = limit;
             this.hashStrategyCompiler = requireNonNull(hashStrategyCompiler, "hashStrategyCompiler is null");
+            this.spillEnabled = spillEnabled;
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+            this.typeOperators = requireNonNull(typeOperators, "typeOperators is null");
         }
 
         @Override
@@ -73,7 +109,7 @@ public class DistinctLimitOperator
             List<Type> distinctTypes = distinctChannels.stream()
                     .map(sourceTypes::get)
                     .collect(toImmutableList());
-            return new DistinctLimitOperator(operatorContext, distinctChannels, distinctTypes, limit, hashStrategyCompiler);
+            return new DistinctLimitOperator(operatorContext, distinctChannels, distinctTypes, limit, hashStrategyCompiler, spillEnabled, partitioningSpillerFactory, typeOperators);
         }
 
         @Override
@@ -85,12 +121,13 @@ public class DistinctLimitOperator
         @Override
         public OperatorFactory duplicate()
         {
-            return new DistinctLimitOperatorFactory(operatorId, planNodeId, sourceTypes, distinctChannels, limit, hashStrategyCompiler);
+            return new DistinctLimitOperatorFactory(operatorId, planNodeId, sourceTypes, distinctChannels, limit, hashStrategyCompiler, spillEnabled, partitioningSpillerFactory, typeOperators);
         }
     }
 
     private final OperatorContext operatorContext;
     private final LocalMemoryContext localUserMemoryContext;
+    private final LocalMemoryContext localRevocableMemoryContext;
 
     private Page inputPage;
     private long remainingLimit;
@@ -98,34 +135,73 @@ public class DistinctLimitOperator
     private boolean finishing;
 
     private final int[] inputChannels;
-    private final GroupByHash groupByHash;
+    private final List<Type> distinctTypes;
+    private final int expectedSize;
+    private final FlatHashStrategyCompiler hashStrategyCompiler;
+    // null once the hash is spilled, until the spilled partitions are restored
+    @Nullable
+    private GroupByHash groupByHash;
     private long nextDistinctId;
 
     // for yield when memory is not available
     private int[] groupByIds;
     private Work<int[]> unfinishedWork;
+    // set while the pending work is completed before the hash is revoked
+    private boolean revokingMemory;
+
+    private final boolean spillEnabled;
+    private final PartitioningSpillerFactory partitioningSpillerFactory;
+    private final TypeOperators typeOperators;
+
+    // with spill enabled, the output is produced when the input is added or before the hash is revoked, so it does not depend on the hash
+    @Nullable
+    private Page pendingOutput;
+
+    // the rows which were produced before the hash was spilled, and the input received afterwards
+    private Optional<KeyPartitionedSpiller> distinctRowsSpiller = Optional.empty();
+    private Optional<KeyPartitionedSpiller> inputSpiller = Optional.empty();
+    private Optional<Runnable> finishMemoryRevoke = Optional.empty();
+    private int nextSpilledPartition;
+    private Iterator<Page> spilledDistinctRows = emptyIterator();
+    private Iterator<Page> spilledInput = emptyIterator();
+    private boolean restoringDistinctRows;
 
     public DistinctLimitOperator(
             OperatorContext operatorContext,
             List<Integer> distinctChannels,
             List<Type> distinctTypes,
             long limit,
-            FlatHashStrategyCompiler hashStrategyCompiler)
+            FlatHashStrategyCompiler hashStrategyCompiler,
+            boolean spillEnabled,
+            PartitioningSpillerFactory partitioningSpillerFactory,
+            TypeOperators typeOperators)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
         this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+        this.localRevocableMemoryContext = operatorContext.localRevocableMemoryContext();
         checkArgument(limit >= 0, "limit must be at least zero");
         checkArgument(distinctTypes.size() == distinctChannels.size(), "distinctTypes and distinctChannels sizes don't match");
         this.inputChannels = Ints.toArray(distinctChannels);
+        this.distinctTypes = ImmutableList.copyOf(distinctTypes);
+        this.expectedSize = toIntExact(min(limit, 10_000));
+        this.hashStrategyCompiler = requireNonNull(hashStrategyCompiler, "hashStrategyCompiler is null");
+        this.spillEnabled = spillEnabled;
+        this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+        this.typeOperators = requireNonNull(typeOperators, "typeOperators is null");
+
+        this.groupByHash = newGroupByHash();
+        remainingLimit = limit;
+    }
 
-        this.groupByHash = createGroupByHash(
+    private GroupByHash newGroupByHash()
+    {
+        return createGroupByHash(
                 operatorContext.getSession(),
                 distinctTypes,
                 false,
-                toIntExact(min(limit, 10_000)),
+                expectedSize,
                 hashStrategyCompiler,
                 this::updateMemoryReservation);
-        remainingLimit = limit;
     }
 
     @Override
@@ -134,22 +210,29 @@ public class DistinctLimitOperator
         return operatorContext;
     }
 
+    @Override
+    public ListenableFuture<Void> isBlocked()
+    {
+        return inputSpiller.map(KeyPartitionedSpiller::getSpillInProgress).orElse(NOT_BLOCKED);
+    }
+
     @Override
     public void finish()
     {
         finishing = true;
+        releaseInputHash();
     }
 
     @Override
     public boolean isFinished()
     {
-        return !hasUnfinishedInput() && (finishing || remainingLimit == 0);
+        return !hasUnfinishedInput() && (remainingLimit == 0 || (finishing && inputSpiller.isEmpty()));
     }
 
     @Override
     public boolean needsInput()
     {
-        return !finishing && remainingLimit > 0 && !hasUnfinishedInput();
+        return !finishing && remainingLimit > 0 && !hasUnfinishedInput() && isBlocked().isDone();
     }
 
     @Override
@@ -157,15 +240,33 @@ public class DistinctLimitOperator
     {
         checkState(needsInput());
 
+        if (inputSpiller.isPresent()) {
+            // the distinct rows are produced once the spilled partitions are restored
+            inputSpiller.get().spill(page.getColumns(inputChannels));
+            return;
+        }
+
         inputPage = page.getColumns(inputChannels);
-        unfinishedWork = groupByHash.getGroupIds(inputPage);
-        processUnfinishedWork();
+        unfinishedWork = requireNonNull(groupByHash, "groupByHash is null").getGroupIds(inputPage);
+        if (processUnfinishedWork() && spillEnabled) {
+            pendingOutput = getDistinctRows();
+        }
         updateMemoryReservation();
     }
 
     @Override
     public Page getOutput()
     {
+        if (pendingOutput != null) {
+            Page result = pendingOutput;
+            pendingOutput = null;
+            return result;
+        }
+
+        if (unfinishedWork == null && groupByIds == null) {
+            unspillNextPage();
+        }
+
         if (unfinishedWork != null && !processUnfinishedWork()) {
             return null;
         }
@@ -174,31 +275,170 @@ public class DistinctLimitOperator
             return null;
         }
 
+        Page result = getDistinctRows();
+        releaseInputHash();
+        updateMemoryReservation();
+        return result;
+    }
+
+    @Override
+    public ListenableFuture<Void> startMemoryRevoke()
+    {
+        checkState(spillEnabled, "Spill not enabled, no revokable memory should be reserved");
+
+        if (remainingLimit == 0 || inputSpiller.isPresent()) {
+            // Probably stale revoking request
+            finishMemoryRevoke = Optional.of(() -> {});
+            return immediateVoidFuture();
+        }
+
+        if (unfinishedWork != null) {
+            // the hash already contains some rows of the pending page, so the page is processed before the hash is revoked
+            revokingMemory = true;
+            try {
+                verify(processUnfinishedWork(), "Expected the hash not to yield while revoking memory");
+            }
+            finally {
+                revokingMemory = false;
+            }
+        }
+        if (groupByIds != null) {
+            pendingOutput = getDistinctRows();
+        }
+
+        if (finishing) {
+            // the output is produced, so the hash is released instead of spilled
+            finishMemoryRevoke = Optional.of(this::releaseInputHash);
+            return immediateVoidFuture();
+        }
+
+        int[] distinctRowsChannels = IntStream.range(0, distinctTypes.size()).toArray();
+        distinctRowsSpiller = Optional.of(new KeyPartitionedSpiller(partitioningSpillerFactory, distinctTypes, distinctRowsChannels, typeOperators, operatorContext));
+        inputSpiller = Optional.of(new KeyPartitionedSpiller(partitioningSpillerFactory, distinctTypes, distinctRowsChannels, typeOperators, operatorContext));
+        finishMemoryRevoke = Optional.of(() -> {
+            groupByHash = null;
+            nextDistinctId = 0;
+            updateMemoryReservation();
+        });
+        return distinctRowsSpiller.get().spillGroups(requireNonNull(groupByHash, "groupByHash is null"), distinctTypes);
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        checkState(finishMemoryRevoke.isPresent(), "Cannot finish unknown revoking");
+        finishMemoryRevoke.get().run();
+        finishMemoryRevoke = Optional.empty();
+    }
+
+    @Override
+    public void close()
+    {
+        groupByHash = null;
+        localUserMemoryContext.setBytes(0);
+        localRevocableMemoryContext.setBytes(0);
+        closeSpillers();
+    }
+
+    private Page getDistinctRows()
+    {
         verifyNotNull(inputPage);
+        verifyNotNull(groupByHash);
 
-        long resultingPositions = min(groupByHash.getGroupCount() - nextDistinctId, remainingLimit);
         Page result = null;
-        if (resultingPositions > 0) {
-            int[] distinctPositions = new int[toIntExact(resultingPositions)];
-            int distinctCount = 0;
-            for (int position = 0; position < groupByIds.length && distinctCount < distinctPositions.length; position++) {
-                if (groupByIds[position] == nextDistinctId) {
-                    distinctPositions[distinctCount++] = position;
-                    nextDistinctId++;
+        if (restoringDistinctRows) {
+            // these rows were produced before the hash was spilled
+            nextDistinctId = groupByHash.getGroupCount();
+            restoringDistinctRows = false;
+        }
+        else {
+            long resultingPositions = min(groupByHash.getGroupCount() - nextDistinctId, remainingLimit);
+            if (resultingPositions > 0) {
+                int[] distinctPositions = new int[toIntExact(resultingPositions)];
+                int distinctCount = 0;
+                for (int position = 0; position < groupByIds.length && distinctCount < distinctPositions.length; position++) {
+                    if (groupByIds[position] == nextDistinctId) {
+                        distinctPositions[distinctCount++] = position;
+                        nextDistinctId++;
+                    }
                 }
+                verify(distinctCount == distinctPositions.length);
+                remainingLimit -= distinctCount;
+                result = inputPage.getPositions(distinctPositions, 0, distinctPositions.length);
             }
-            verify(distinctCount == distinctPositions.length);
-            remainingLimit -= distinctCount;
-            result = inputPage.getPositions(distinctPositions, 0, distinctPositions.length);
         }
 
         groupByIds = null;
         inputPage = null;
-
-        updateMemoryReservation();
         return result;
     }
 
+    /**
+     * Restores the spilled partitions one at a time: the rows which were produced before the hash was
+     * spilled are added to a new hash first, then the spilled input of the partition is processed.
+     */
+    private void unspillNextPage()
+    {
+        if (!finishing || remainingLimit == 0 || inputSpiller.isEmpty() || finishMemoryRevoke.isPresent() || !isBlocked().isDone()) {
+            return;
+        }
+        checkSuccess(inputSpiller.get().getSpillInProgress(), "spilling failed");
+
+        while (true) {
+            if (spilledDistinctRows.hasNext()) {
+                restoringDistinctRows = true;
+                inputPage = spilledDistinctRows.next();
+                unfinishedWork = requireNonNull(groupByHash, "groupByHash is null").getGroupIds(inputPage);
+                return;
+            }
+            if (spilledInput.hasNext()) {
+                inputPage = spilledInput.next();
+                unfinishedWork = requireNonNull(groupByHash, "groupByHash is null").getGroupIds(inputPage);
+                return;
+            }
+            if (nextSpilledPartition == PARTITION_COUNT) {
+                groupByHash = null;
+                closeSpillers();
+                updateMemoryReservation();
+                return;
+            }
+            groupByHash = newGroupByHash();
+            nextDistinctId = 0;
+            spilledDistinctRows = distinctRowsSpiller.orElseThrow().getSpilledPages(nextSpilledPartition);
+            spilledInput = inputSpiller.orElseThrow().getSpilledPages(nextSpilledPartition);
+            nextSpilledPartition++;
+        }
+    }
+
+    private void closeSpillers()
+    {
+        try (Closer closer = Closer.create()) {
+            distinctRowsSpiller.ifPresent(closer::register);
+            inputSpiller.ifPresent(closer::register);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        finally {
+            distinctRowsSpiller = Optional.empty();
+            inputSpiller = Optional.empty();
+            spilledDistinctRows = emptyIterator();
+            spilledInput = emptyIterator();
+        }
+    }
+
+    /**
+     * Releases the hash once the output of all input is produced, unless it was spilled.
+     */
+    private void releaseInputHash()
+    {
+        if (finishing && spillEnabled && distinctRowsSpiller.isEmpty() && unfinishedWork == null && groupByIds == null && groupByHash != null) {
+            // the output is produced when the input is added, so the hash is no longer needed
+            groupByHash = null;
+            updateMemoryReservation();
+        }
+    }
+
     private boolean processUnfinishedWork()
     {
         verifyNotNull(unfinishedWork);
@@ -213,7 +453,7 @@ public class DistinctLimitOperator
 
     private boolean hasUnfinishedInput()
     {
-        return inputPage != null || unfinishedWork != null;
+        return inputPage != null || unfinishedWork != null || pendingOutput != null;
     }
 
     /**
@@ -226,9 +466,17 @@ public class DistinctLimitOperator
     // The following implementation is a hybrid model, where the push model is going to call the pull model causing reentrancy
     private boolean updateMemoryReservation()
     {
+        long bytes = groupByHash == null ? 0 : groupByHash.getEstimatedSize();
+        // the hash can be revoked until the first spill, the hashes of the restored partitions can not
+        if (spillEnabled && distinctRowsSpiller.isEmpty()) {
+            localRevocableMemoryContext.setBytes(bytes);
+            // If revocable memory is not available, the driver revokes the hash once we return.
+            return revokingMemory || operatorContext.isWaitingForRevocableMemory().isDone();
+        }
+        localRevocableMemoryContext.setBytes(0);
         // Operator/driver will be blocked on memory after we call localUserMemoryContext.setBytes().
         // If memory is not available, once we return, this operator will be blocked until memory is available.
-        localUserMemoryContext.setBytes(groupByHash.getEstimatedSize());
+        localUserMemoryContext.setBytes(bytes);
         // If memory is not available, inform the caller that we cannot proceed for allocation.
         return operatorContext.isWaitingForMemory().isDone();
     }
@@ -236,6 +484,6 @@ public class DistinctLimitOperator
     @VisibleForTesting
     public int getCapacity()
     {
-        return groupByHash.getCapacity();
+        return requireNonNull(groupByHash, "groupByHash is null").getCapacity();
     }
 }
@@ -216,6 +216,20 @@ public class DriverContext
         pipelineContext.freeSpill(bytes);
     }
 
+    public void reserveRemoteSpill(long bytes)
+    {
+        pipelineContext.reserveRemoteSpill(bytes);
+    }
+
+    public void freeRemoteSpill(long bytes)
+    {
+        if (bytes == 0) {
+            return;
+        }
+        checkArgument(bytes > 0, "bytes is negative");
+        pipelineContext.freeRemoteSpill(bytes);
+    }
+
     public DriverYieldSignal getYieldSignal()
     {
         return yieldSignal;
@@ -69,9 +69,22 @@ public class FlatGroupByHash
             boolean processDictionary,
             FlatHashStrategyCompiler hashStrategyCompiler,
             UpdateMemory checkMemoryReservation)
+    {
+        this(hashTypes, hashMode, expectedSize, hashMode.getRadixPartitioningGroupCount(), processDictionary, hashStrategyCompiler, checkMemoryReservation);
+    }
+
+    @VisibleForTesting
+    FlatGroupByHash(
+            List<Type> hashTypes,
+            GroupByHashMode hashMode,
+            int expectedSize,
+            int radixPartitioningGroupCount,
+            boolean processDictionary,
+            FlatHashStrategyCompiler hashStrategyCompiler,
+            UpdateMemory checkMemoryReservation)
     {
         this.hashMode = requireNonNull(hashMode, "hashMode is null");
-        this.flatHash = new FlatHash(hashStrategyCompiler.getFlatHashStrategy(hashTypes), hashMode, expectedSize, checkMemoryReservation);
+        this.flatHash = new FlatHash(hashStrategyCompiler.getFlatHashStrategy(hashTypes), hashMode, expectedSize, radixPartitioningGroupCount, checkMemoryReservation);
         this.groupByChannelCount = hashTypes.size();
 
         checkArgument(expectedSize > 0, "expectedSize must be greater than zero");
@@ -202,6 +215,12 @@ public class FlatGroupByHash
         return flatHash.getCapacity();
     }
 
+    @VisibleForTesting
+    boolean isRadixPartitioned()
+    {
+        return flatHash.isRadixPartitioned();
+    }
+
     @Override
     public GroupByHash copy()
     {
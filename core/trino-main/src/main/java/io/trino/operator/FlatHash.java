@@ -56,6 +56,12 @@ public final class FlatHash
     private static final int RECORDS_PER_GROUP = 1 << RECORDS_PER_GROUP_SHIFT;
     private static final int RECORDS_PER_GROUP_MASK = RECORDS_PER_GROUP - 1;
 
+    // Once the table has to grow beyond the radix partitioning group count, the open addressing index is split
+    // into independent tables selected by the top bits of the hash. Each partition is rehashed on its own, so
+    // growing the index only touches a small table instead of stalling on a rehash of every group.
+    private static final int RADIX_PARTITION_BITS = 6;
+    private static final int RADIX_PARTITION_COUNT = 1 << RADIX_PARTITION_BITS;
+
     private static final int VECTOR_LENGTH = Long.BYTES;
     private static final VarHandle LONG_HANDLE = MethodHandles.byteArrayViewVarHandle(long[].class, LITTLE_ENDIAN);
 
@@ -67,20 +73,26 @@ public final class FlatHash
     private final int fixedRecordSize;
     private final int variableWidthOffset;
     private final int fixedValueOffset;
+    private final int radixPartitioningGroupCount;
 
-    private byte[] control;
-    private int[] groupIdsByHash;
+    // a single table, or RADIX_PARTITION_COUNT tables once radix partitioned
+    private HashTable[] hashTables;
+    private int partitionMask;
     private byte[][] fixedSizeRecords;
 
     private long fixedRecordGroupsRetainedSize;
     private long temporaryRehashRetainedSize;
-    private int capacity;
-    private int mask;
     private int nextGroupId;
-    private int maxFill;
 
     public FlatHash(FlatHashStrategy flatHashStrategy, GroupByHashMode hashMode, int expectedSize, UpdateMemory checkMemoryReservation)
     {
+        this(flatHashStrategy, hashMode, expectedSize, hashMode.getRadixPartitioningGroupCount(), checkMemoryReservation);
+    }
+
+    public FlatHash(FlatHashStrategy flatHashStrategy, GroupByHashMode hashMode, int expectedSize, int radixPartitioningGroupCount, UpdateMemory checkMemoryReservation)
+    {
+        checkArgument(radixPartitioningGroupCount > 0, "radixPartitioningGroupCount must be positive");
+        this.radixPartitioningGroupCount = radixPartitioningGroupCount;
         this.flatHashStrategy = requireNonNull(flatHashStrategy, "flatHashStrategy is null");
         this.checkMemoryReservation = requireNonNull(checkMemoryReservation, "checkMemoryReservation is null");
         boolean hasVariableData = flatHashStrategy.isAnyVariableWidth();
@@ -96,15 +108,8 @@ public final class FlatHash
         this.fixedValueOffset = variableWidthOffset + (hasVariableData ? AppendOnlyVariableWidthData.POINTER_SIZE : 0);
         this.fixedRecordSize = fixedValueOffset + flatHashStrategy.getTotalFlatFixedLength();
 
-        this.capacity = max(VECTOR_LENGTH, computeCapacity(expectedSize, DEFAULT_LOAD_FACTOR));
-        this.mask = capacity - 1;
-        this.maxFill = calculateMaxFill(capacity);
-
-        int groupsRequired = recordGroupsRequiredForCapacity(capacity);
-        this.control = new byte[capacity + VECTOR_LENGTH];
-        this.groupIdsByHash = new int[capacity];
-        Arrays.fill(groupIdsByHash, -1);
-        this.fixedSizeRecords = new byte[groupsRequired][];
+        this.hashTables = new HashTable[] {new HashTable(max(VECTOR_LENGTH, computeCapacity(expectedSize, DEFAULT_LOAD_FACTOR)))};
+        this.fixedSizeRecords = new byte[recordGroupsRequiredForCapacity(hashTables[0].capacity)][];
     }
 
     public FlatHash(FlatHash other)
@@ -116,13 +121,13 @@ public final class FlatHash
         this.fixedRecordSize = other.fixedRecordSize;
         this.variableWidthOffset = other.variableWidthOffset;
         this.fixedValueOffset = other.fixedValueOffset;
+        this.radixPartitioningGroupCount = other.radixPartitioningGroupCount;
         this.fixedRecordGroupsRetainedSize = other.fixedRecordGroupsRetainedSize;
-        this.capacity = other.capacity;
-        this.mask = other.mask;
         this.nextGroupId = other.nextGroupId;
-        this.maxFill = other.maxFill;
-        this.control = other.control == null ? null : Arrays.copyOf(other.control, other.control.length);
-        this.groupIdsByHash = other.groupIdsByHash == null ? null : Arrays.copyOf(other.groupIdsByHash, other.groupIdsByHash.length);
+        this.partitionMask = other.partitionMask;
+        this.hashTables = other.hashTables == null ? null : Arrays.stream(other.hashTables)
+                .map(HashTable::new)
+                .toArray(HashTable[]::new);
         this.fixedSizeRecords = Arrays.stream(other.fixedSizeRecords)
                 .map(fixedSizeRecords -> fixedSizeRecords == null ? null : Arrays.copyOf(fixedSizeRecords, fixedSizeRecords.length))
                 .toArray(byte[][]::new);
@@ -130,12 +135,17 @@ public final class FlatHash
 
     public long getEstimatedSize()
     {
+        long hashTablesSize = 0;
+        if (hashTables != null) {
+            for (HashTable hashTable : hashTables) {
+                hashTablesSize = addExact(hashTablesSize, hashTable.getRetainedSizeInBytes());
+            }
+        }
         return sumExact(
                 INSTANCE_SIZE,
                 fixedRecordGroupsRetainedSize,
                 temporaryRehashRetainedSize,
-                sizeOf(control),
-                sizeOf(groupIdsByHash),
+                hashTablesSize,
                 sizeOf(fixedSizeRecords),
                 variableWidthData == null ? 0 : variableWidthData.getRetainedSizeBytes());
     }
@@ -147,9 +157,21 @@ public final class FlatHash
 
     public int getCapacity()
     {
+        if (hashTables == null) {
+            return 0;
+        }
+        int capacity = 0;
+        for (HashTable hashTable : hashTables) {
+            capacity = addExact(capacity, hashTable.capacity);
+        }
         return capacity;
     }
 
+    public boolean isRadixPartitioned()
+    {
+        return partitionMask != 0;
+    }
+
     /**
      * Releases memory associated with the hash table which is no longer necessary to produce output. Subsequent
      * calls to insert new elements are rejected, and calls to {@link FlatHash#appendTo(int, BlockBuilder[])} will
@@ -159,13 +181,12 @@ public final class FlatHash
     public void startReleasingOutput()
     {
         checkState(!isReleasingOutput(), "already releasing output");
-        control = null;
-        groupIdsByHash = null;
+        hashTables = null;
     }
 
     private boolean isReleasingOutput()
     {
-        return control == null;
+        return hashTables == null;
     }
 
     public long hashPosition(int groupId)
@@ -243,9 +264,12 @@ public final class FlatHash
 
     public int putIfAbsent(Block[] blocks, int position, long hash)
     {
-        int index = getIndex(blocks, position, hash);
+        checkState(!isReleasingOutput(), "already releasing output");
+        int partition = partition(hash);
+        HashTable hashTable = hashTables[partition];
+        int index = getIndex(hashTable, blocks, position, hash);
         if (index >= 0) {
-            int groupId = groupIdsByHash[index];
+            int groupId = hashTable.groupIdsByHash[index];
             if (groupId < 0) {
                 throw new IllegalStateException("groupId out of range");
             }
@@ -253,46 +277,50 @@ public final class FlatHash
         }
 
         index = -index - 1;
-        int groupId = addNewGroup(index, blocks, position, hash);
-        if (nextGroupId >= maxFill) {
-            rehash(0);
+        int groupId = addNewGroup(hashTable, index, blocks, position, hash);
+        if (hashTable.size >= hashTable.maxFill) {
+            if (!isRadixPartitioned() && nextGroupId >= radixPartitioningGroupCount) {
+                radixPartition(computePartitionCapacity(nextGroupId));
+            }
+            else {
+                rehash(partition, 0);
+            }
         }
         return groupId;
     }
 
-    private int getIndex(Block[] blocks, int position, long hash)
+    private int getIndex(HashTable hashTable, Block[] blocks, int position, long hash)
     {
-        checkState(!isReleasingOutput(), "already releasing output");
         byte hashPrefix = (byte) (hash & 0x7F | 0x80);
-        int bucket = bucket((int) (hash >> 7));
+        int bucket = hashTable.bucket((int) (hash >> 7));
 
         int step = 1;
         long repeated = repeat(hashPrefix);
 
         while (true) {
-            final long controlVector = (long) LONG_HANDLE.get(control, bucket);
+            final long controlVector = (long) LONG_HANDLE.get(hashTable.control, bucket);
 
-            int matchIndex = matchInVector(blocks, position, hash, bucket, repeated, controlVector);
+            int matchIndex = matchInVector(hashTable, blocks, position, hash, bucket, repeated, controlVector);
             if (matchIndex >= 0) {
                 return matchIndex;
             }
 
-            int emptyIndex = findEmptyInVector(controlVector, bucket);
+            int emptyIndex = findEmptyInVector(hashTable, controlVector, bucket);
             if (emptyIndex >= 0) {
                 return -emptyIndex - 1;
             }
 
-            bucket = bucket(bucket + step);
+            bucket = hashTable.bucket(bucket + step);
             step += VECTOR_LENGTH;
         }
     }
 
-    private int matchInVector(Block[] blocks, int position, long hash, int vectorStartBucket, long repeated, long controlVector)
+    private int matchInVector(HashTable hashTable, Block[] blocks, int position, long hash, int vectorStartBucket, long repeated, long controlVector)
     {
         long controlMatches = match(controlVector, repeated);
         while (controlMatches != 0) {
-            int index = bucket(vectorStartBucket + (Long.numberOfTrailingZeros(controlMatches) >>> 3));
-            int groupId = groupIdsByHash[index];
+            int index = hashTable.bucket(vectorStartBucket + (Long.numberOfTrailingZeros(controlMatches) >>> 3));
+            int groupId = hashTable.groupIdsByHash[index];
             if (valueIdentical(groupId, blocks, position, hash)) {
                 return index;
             }
@@ -302,21 +330,22 @@ public final class FlatHash
         return -1;
     }
 
-    private int findEmptyInVector(long vector, int vectorStartBucket)
+    private static int findEmptyInVector(HashTable hashTable, long vector, int vectorStartBucket)
     {
         long controlMatches = match(vector, 0x00_00_00_00_00_00_00_00L);
         if (controlMatches == 0) {
             return -1;
         }
         int slot = Long.numberOfTrailingZeros(controlMatches) >>> 3;
-        return bucket(vectorStartBucket + slot);
+        return hashTable.bucket(vectorStartBucket + slot);
     }
 
-    private int addNewGroup(int index, Block[] blocks, int position, long hash)
+    private int addNewGroup(HashTable hashTable, int index, Block[] blocks, int position, long hash)
     {
-        setControl(index, (byte) (hash & 0x7F | 0x80));
+        hashTable.setControl(index, (byte) (hash & 0x7F | 0x80));
         int groupId = nextGroupId++;
-        groupIdsByHash[index] = groupId;
+        hashTable.groupIdsByHash[index] = groupId;
+        hashTable.size++;
         int recordGroupIndex = recordGroupIndexForGroupId(groupId);
         int fixedRecordOffset = getFixedRecordOffset(groupId);
         byte[] fixedSizeRecords = this.fixedSizeRecords[recordGroupIndex];
@@ -353,84 +382,169 @@ public final class FlatHash
         return groupId;
     }
 
-    private void setControl(int index, byte hashPrefix)
-    {
-        control[index] = hashPrefix;
-        if (index < VECTOR_LENGTH) {
-            control[index + capacity] = hashPrefix;
-        }
-    }
-
     public boolean ensureAvailableCapacity(int batchSize)
     {
         checkState(!isReleasingOutput(), "already releasing output");
-        long requiredMaxFill = nextGroupId + batchSize;
-        if (requiredMaxFill >= maxFill) {
-            long minimumRequiredCapacity = (requiredMaxFill + 1) * 16 / 15;
-            return tryRehash(toIntExact(minimumRequiredCapacity));
+        if (!isRadixPartitioned()) {
+            long requiredMaxFill = nextGroupId + batchSize;
+            if (requiredMaxFill < hashTables[0].maxFill) {
+                return true;
+            }
+            if (requiredMaxFill < radixPartitioningGroupCount) {
+                long minimumRequiredCapacity = (requiredMaxFill + 1) * 16 / 15;
+                return tryRehash(0, toIntExact(minimumRequiredCapacity));
+            }
+            if (!tryRadixPartition(computePartitionCapacity(requiredMaxFill))) {
+                return false;
+            }
+        }
+
+        // all positions of the batch might hash to the same partition
+        for (int partition = 0; partition < hashTables.length; partition++) {
+            long requiredMaxFill = hashTables[partition].size + batchSize;
+            if (requiredMaxFill >= hashTables[partition].maxFill) {
+                long minimumRequiredCapacity = (requiredMaxFill + 1) * 16 / 15;
+                if (!tryRehash(partition, toIntExact(minimumRequiredCapacity))) {
+                    return false;
+                }
+            }
         }
         return true;
     }
 
-    private boolean tryRehash(int minimumRequiredCapacity)
+    private boolean tryRehash(int partition, int minimumRequiredCapacity)
     {
-        int newCapacity = computeNewCapacity(minimumRequiredCapacity);
+        int newCapacity = computeNewCapacity(hashTables[partition].capacity, minimumRequiredCapacity);
         temporaryRehashRetainedSize = multiplyExact((long) newCapacity, Integer.BYTES + Byte.BYTES);
         if (!checkMemoryReservation.update()) {
             return false;
         }
 
-        rehash(minimumRequiredCapacity);
+        rehash(partition, minimumRequiredCapacity);
         return true;
     }
 
-    private void rehash(int minimumRequiredCapacity)
+    private void rehash(int partition, int minimumRequiredCapacity)
     {
-        capacity = computeNewCapacity(minimumRequiredCapacity);
-        maxFill = calculateMaxFill(capacity);
-        mask = capacity - 1;
+        growHashTable(partition, minimumRequiredCapacity);
+        ensureRecordGroupsCapacity();
 
-        // Resize the record groups top level array to accommodate the new record groups
-        fixedSizeRecords = Arrays.copyOf(fixedSizeRecords, recordGroupsRequiredForCapacity(capacity));
+        // release temporary memory reservation
+        temporaryRehashRetainedSize = 0;
+        checkMemoryReservation.update();
+    }
 
-        // Construct the new hash table
-        control = new byte[capacity + VECTOR_LENGTH];
-        groupIdsByHash = new int[capacity];
-        Arrays.fill(groupIdsByHash, -1);
+    private void growHashTable(int partition, int minimumRequiredCapacity)
+    {
+        HashTable oldHashTable = hashTables[partition];
+        HashTable hashTable = new HashTable(computeNewCapacity(oldHashTable.capacity, minimumRequiredCapacity));
+        hashTables[partition] = hashTable;
+
+        if (isRadixPartitioned()) {
+            // only visit the groups of this partition
+            for (int groupId : oldHashTable.groupIdsByHash) {
+                if (groupId >= 0) {
+                    insertDistinct(hashTable, groupId, hashPosition(groupId));
+                }
+            }
+        }
+        else {
+            for (int groupId = 0; groupId < nextGroupId; groupId++) {
+                insertDistinct(hashTable, groupId, hashPosition(groupId));
+            }
+        }
+    }
+
+    private boolean tryRadixPartition(int partitionCapacity)
+    {
+        temporaryRehashRetainedSize = multiplyExact((long) partitionCapacity * RADIX_PARTITION_COUNT, Integer.BYTES + Byte.BYTES);
+        if (!checkMemoryReservation.update()) {
+            return false;
+        }
+
+        radixPartition(partitionCapacity);
+        return true;
+    }
+
+    private void radixPartition(int partitionCapacity)
+    {
+        checkState(!isRadixPartitioned(), "already radix partitioned");
+        hashTables = new HashTable[RADIX_PARTITION_COUNT];
+        for (int partition = 0; partition < RADIX_PARTITION_COUNT; partition++) {
+            hashTables[partition] = new HashTable(partitionCapacity);
+        }
+        partitionMask = RADIX_PARTITION_COUNT - 1;
 
         for (int groupId = 0; groupId < nextGroupId; groupId++) {
             long hash = hashPosition(groupId);
-
-            byte hashPrefix = (byte) (hash & 0x7F | 0x80);
-            int bucket = bucket((int) (hash >> 7));
-
-            // getIndex is not used here because values in a rehash are always distinct
-            int step = 1;
-            while (true) {
-                final long controlVector = (long) LONG_HANDLE.get(control, bucket);
-                // values are already distinct, so just find the first empty slot
-                int emptyIndex = findEmptyInVector(controlVector, bucket);
-                if (emptyIndex >= 0) {
-                    setControl(emptyIndex, hashPrefix);
-                    if (groupIdsByHash[emptyIndex] != -1) {
-                        throw new IllegalStateException("groupId mapping already exists at index");
-                    }
-                    groupIdsByHash[emptyIndex] = groupId;
-                    break;
-                }
-                bucket = bucket(bucket + step);
-                step += VECTOR_LENGTH;
+            int partition = partition(hash);
+            insertDistinct(hashTables[partition], groupId, hash);
+            // the hash might not be distributed evenly, so grow partitions which fill up early
+            if (hashTables[partition].size >= hashTables[partition].maxFill) {
+                growHashTable(partition, 0);
             }
         }
+        ensureRecordGroupsCapacity();
 
         // release temporary memory reservation
         temporaryRehashRetainedSize = 0;
         checkMemoryReservation.update();
     }
 
-    private int bucket(int hash)
+    private static int computePartitionCapacity(long groupCount)
     {
-        return hash & mask;
+        // the total capacity of all partitions matches the regular doubling of the table
+        return max(VECTOR_LENGTH, computeCapacity(toIntExact(groupCount * 2 / RADIX_PARTITION_COUNT), DEFAULT_LOAD_FACTOR));
+    }
+
+    private static void insertDistinct(HashTable hashTable, int groupId, long hash)
+    {
+        byte hashPrefix = (byte) (hash & 0x7F | 0x80);
+        int bucket = hashTable.bucket((int) (hash >> 7));
+
+        // getIndex is not used here because values in a rehash are always distinct
+        int step = 1;
+        while (true) {
+            final long controlVector = (long) LONG_HANDLE.get(hashTable.control, bucket);
+            // values are already distinct, so just find the first empty slot
+            int emptyIndex = findEmptyInVector(hashTable, controlVector, bucket);
+            if (emptyIndex >= 0) {
+                hashTable.setControl(emptyIndex, hashPrefix);
+                if (hashTable.groupIdsByHash[emptyIndex] != -1) {
+                    throw new IllegalStateException("groupId mapping already exists at index");
+                }
+                hashTable.groupIdsByHash[emptyIndex] = groupId;
+                hashTable.size++;
+                return;
+            }
+            bucket = hashTable.bucket(bucket + step);
+            step += VECTOR_LENGTH;
+        }
+    }
+
+    private void ensureRecordGroupsCapacity()
+    {
+        int recordGroupsRequired;
+        if (isRadixPartitioned()) {
+            long maxGroupCount = 0;
+            for (HashTable hashTable : hashTables) {
+                maxGroupCount += hashTable.maxFill;
+            }
+            recordGroupsRequired = toIntExact((maxGroupCount >> RECORDS_PER_GROUP_SHIFT) + 1);
+        }
+        else {
+            recordGroupsRequired = recordGroupsRequiredForCapacity(hashTables[0].capacity);
+        }
+        // Resize the record groups top level array to accommodate the new record groups
+        if (recordGroupsRequired > fixedSizeRecords.length) {
+            fixedSizeRecords = Arrays.copyOf(fixedSizeRecords, recordGroupsRequired);
+        }
+    }
+
+    private int partition(long hash)
+    {
+        // the top bits of the hash are not used by the bucket or the control byte
+        return (int) (hash >>> (Long.SIZE - RADIX_PARTITION_BITS)) & partitionMask;
     }
 
     private static int recordGroupIndexForGroupId(int groupId)
@@ -474,7 +588,7 @@ public final class FlatHash
                 rightPosition);
     }
 
-    private int computeNewCapacity(int minimumRequiredCapacity)
+    private static int computeNewCapacity(int capacity, int minimumRequiredCapacity)
     {
         checkArgument(minimumRequiredCapacity >= 0, "minimumRequiredCapacity must be positive");
         long newCapacityLong = capacity * 2L;
@@ -518,4 +632,54 @@ public final class FlatHash
     {
         return new FlatHash(this);
     }
+
+    private static final class HashTable
+    {
+        private static final int INSTANCE_SIZE = instanceSize(HashTable.class);
+
+        private final byte[] control;
+        private final int[] groupIdsByHash;
+        private final int capacity;
+        private final int mask;
+        private final int maxFill;
+        private int size;
+
+        public HashTable(int capacity)
+        {
+            this.capacity = capacity;
+            this.mask = capacity - 1;
+            this.maxFill = calculateMaxFill(capacity);
+            this.control = new byte[capacity + VECTOR_LENGTH];
+            this.groupIdsByHash = new int[capacity];
+            Arrays.fill(groupIdsByHash, -1);
+        }
+
+        public HashTable(HashTable other)
+        {
+            this.capacity = other.capacity;
+            this.mask = other.mask;
+            this.maxFill = other.maxFill;
+            this.size = other.size;
+            this.control = Arrays.copyOf(other.control, other.control.length);
+            this.groupIdsByHash = Arrays.copyOf(other.groupIdsByHash, other.groupIdsByHash.length);
+        }
+
+        private int bucket(int hash)
+        {
+            return hash & mask;
+        }
+
+        private void setControl(int index, byte hashPrefix)
+        {
+            control[index] = hashPrefix;
+            if (index < VECTOR_LENGTH) {
+                control[index + capacity] = hashPrefix;
+            }
+        }
+
+        public long getRetainedSizeInBytes()
+        {
+            return sumExact(INSTANCE_SIZE, sizeOf(control), sizeOf(groupIdsByHash));
+        }
+    }
 }
@@ -22,6 +22,10 @@ public enum GroupByHashMode {
     // table which saves memory, but can be more expensive during rehash.
     ON_DEMAND;
 
+    // Number of groups at which FlatHash splits its hash table into radix partitions. Below this, rehashing the
+    // whole table at once is cheap and a single table avoids the partition lookup.
+    private static final int RADIX_PARTITIONING_GROUP_COUNT = 1 << 20;
+
     public boolean isHashCached()
     {
         return switch (this) {
@@ -29,4 +33,9 @@ public enum GroupByHashMode {
             case ON_DEMAND -> false;
         };
     }
+
+    public int getRadixPartitioningGroupCount()
+    {
+        return RADIX_PARTITIONING_GROUP_COUNT;
+    }
 }
@@ -22,6 +22,7 @@ import io.trino.operator.aggregation.AggregatorFactory;
 import io.trino.operator.aggregation.builder.HashAggregationBuilder;
 import io.trino.operator.aggregation.builder.InMemoryHashAggregationBuilder;
 import io.trino.operator.aggregation.builder.SpillableHashAggregationBuilder;
+import io.trino.operator.aggregation.partial.HotKeyCache;
 import io.trino.operator.aggregation.partial.PartialAggregationController;
 import io.trino.operator.aggregation.partial.SkipAggregationBuilder;
 import io.trino.spi.Page;
@@ -255,6 +256,8 @@ public class HashAggregationOperator
     private final SpillerFactory spillerFactory;
     private final FlatHashStrategyCompiler flatHashStrategyCompiler;
     private final AggregationMetrics aggregationMetrics = new AggregationMetrics();
+    // kept across flushes, so key frequencies are learned from all the input of the operator
+    private final Optional<HotKeyCache> hotKeyCache;
 
     private final List<Type> types;
 
@@ -311,6 +314,12 @@ public class HashAggregationOperator
         this.memoryLimitForMergeWithMemory = requireNonNull(memoryLimitForMergeWithMemory, "memoryLimitForMergeWithMemory is null");
         this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
         this.flatHashStrategyCompiler = requireNonNull(flatHashStrategyCompiler, "hashStrategyCompiler is null");
+        this.hotKeyCache = partialAggregationController
+                .filter(PartialAggregationController::isHotKeysEnabled)
+                .filter(_ -> !groupByTypes.isEmpty())
+                .map(_ -> new HotKeyCache(
+                        flatHashStrategyCompiler.getFlatHashStrategy(this.groupByTypes),
+                        operatorContext.newLocalUserMemoryContext(HotKeyCache.class.getSimpleName())));
 
         this.memoryContext = operatorContext.localUserMemoryContext();
     }
@@ -369,7 +378,14 @@ public class HashAggregationOperator
                     .map(PartialAggregationController::isPartialAggregationDisabled)
                     .orElse(false);
             if (step.isOutputPartial() && partialAggregationDisabled) {
-                aggregationBuilder = new SkipAggregationBuilder(groupByChannels, aggregatorFactories, memoryContext, aggregationMetrics);
+                aggregationBuilder = new SkipAggregationBuilder(
+                        groupByTypes,
+                        groupByChannels,
+                        aggregatorFactories,
+                        hotKeyCache,
+                        flatHashStrategyCompiler,
+                        memoryContext,
+                        aggregationMetrics);
             }
             else if (step.isOutputPartial() || !spillEnabled || !isSpillable()) {
                 // TODO: We ignore spillEnabled here if any aggregate has ORDER BY clause or DISTINCT because they are not yet implemented for spilling.
@@ -503,6 +519,7 @@ public class HashAggregationOperator
     public void close()
     {
         closeAggregationBuilder();
+        hotKeyCache.ifPresent(HotKeyCache::close);
     }
 
     @VisibleForTesting
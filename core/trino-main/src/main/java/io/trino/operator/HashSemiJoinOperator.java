@@ -16,30 +16,39 @@ package io.trino.operator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.units.DataSize;
 import io.trino.memory.context.AggregatedMemoryContext;
 import io.trino.memory.context.LocalMemoryContext;
-import io.trino.memory.context.MemoryTrackingContext;
 import io.trino.operator.SetBuilderOperator.SetSupplier;
 import io.trino.operator.WorkProcessor.TransformationState;
 import io.trino.spi.Page;
 import io.trino.spi.block.Block;
 import io.trino.spi.block.BlockBuilder;
 import io.trino.spi.type.Type;
+import io.trino.spiller.PartitioningSpiller;
+import io.trino.spiller.PartitioningSpillerFactory;
 import io.trino.sql.planner.plan.PlanNodeId;
 import jakarta.annotation.Nullable;
 
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.MoreFutures.addSuccessCallback;
 import static io.airlift.concurrent.MoreFutures.checkSuccess;
 import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.trino.operator.WorkProcessor.TransformationState.blocked;
 import static io.trino.operator.WorkProcessor.TransformationState.finished;
+import static io.trino.operator.WorkProcessor.TransformationState.needsMoreData;
 import static io.trino.operator.WorkProcessor.TransformationState.ofResult;
 import static io.trino.operator.WorkProcessorOperatorAdapter.createAdapterOperatorFactory;
 import static io.trino.spi.type.BooleanType.BOOLEAN;
+import static java.util.Collections.emptyIterator;
 import static java.util.Objects.requireNonNull;
 
 public class HashSemiJoinOperator
@@ -50,9 +59,10 @@ public class HashSemiJoinOperator
             PlanNodeId planNodeId,
             SetSupplier setSupplier,
             List<? extends Type> probeTypes,
-            int probeJoinChannel)
+            int probeJoinChannel,
+            PartitioningSpillerFactory partitioningSpillerFactory)
     {
-        return createAdapterOperatorFactory(new Factory(operatorId, planNodeId, setSupplier, probeTypes, probeJoinChannel));
+        return createAdapterOperatorFactory(new Factory(operatorId, planNodeId, setSupplier, probeTypes, probeJoinChannel, partitioningSpillerFactory));
     }
 
     private static class Factory
@@ -63,9 +73,10 @@ public class HashSemiJoinOperator
         private final SetSupplier setSupplier;
         private final List<Type> probeTypes;
         private final int probeJoinChannel;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
         private boolean closed;
 
-        private Factory(int operatorId, PlanNodeId planNodeId, SetSupplier setSupplier, List<? extends Type> probeTypes, int probeJoinChannel)
+        private Factory(int operatorId, PlanNodeId planNodeId, SetSupplier setSupplier, List<? extends Type> probeTypes, int probeJoinChannel, PartitioningSpillerFactory partitioningSpillerFactory)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -73,13 +84,16 @@ public class HashSemiJoinOperator
             this.probeTypes = ImmutableList.copyOf(probeTypes);
             checkArgument(probeJoinChannel >= 0, "probeJoinChannel is negative");
             this.probeJoinChannel = probeJoinChannel;
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+            setSupplier.probeOperatorFactoryCreated();
         }
 
         @Override
         public WorkProcessorOperator create(ProcessorContext processorContext, WorkProcessor<Page> sourcePages)
         {
             checkState(!closed, "Factory is already closed");
-            return new HashSemiJoinOperator(sourcePages, setSupplier, probeJoinChannel, processorContext.getMemoryTrackingContext());
+            setSupplier.probeOperatorCreated();
+            return new HashSemiJoinOperator(sourcePages, setSupplier, probeTypes, probeJoinChannel, partitioningSpillerFactory, processorContext);
         }
 
         @Override
@@ -103,29 +117,37 @@ public class HashSemiJoinOperator
         @Override
         public void close()
         {
-            closed = true;
+            if (!closed) {
+                closed = true;
+                setSupplier.probeOperatorFactoryClosed();
+            }
         }
 
         @Override
         public Factory duplicate()
         {
-            return new Factory(operatorId, planNodeId, setSupplier, probeTypes, probeJoinChannel);
+            return new Factory(operatorId, planNodeId, setSupplier, probeTypes, probeJoinChannel, partitioningSpillerFactory);
         }
     }
 
+    private final SemiJoinPages semiJoinPages;
     private final WorkProcessor<Page> pages;
 
     private HashSemiJoinOperator(
             WorkProcessor<Page> sourcePages,
-            SetSupplier channelSetFuture,
+            SetSupplier setSupplier,
+            List<Type> probeTypes,
             int probeJoinChannel,
-            MemoryTrackingContext memoryTrackingContext)
+            PartitioningSpillerFactory partitioningSpillerFactory,
+            ProcessorContext processorContext)
     {
-        pages = sourcePages
-                .transform(new SemiJoinPages(
-                        channelSetFuture,
-                        probeJoinChannel,
-                        memoryTrackingContext.aggregateUserMemoryContext()));
+        semiJoinPages = new SemiJoinPages(
+                setSupplier,
+                probeTypes,
+                probeJoinChannel,
+                partitioningSpillerFactory,
+                processorContext);
+        pages = sourcePages.transform(semiJoinPages);
     }
 
     @Override
@@ -134,45 +156,133 @@ public class HashSemiJoinOperator
         return pages;
     }
 
+    @Override
+    public void close()
+    {
+        semiJoinPages.close();
+    }
+
     private static class SemiJoinPages
             implements WorkProcessor.Transformation<Page, Page>
     {
+        private final List<Type> probeTypes;
         private final int probeJoinChannel;
-        private final ListenableFuture<ChannelSet> channelSetFuture;
+        private final SetSupplier setSupplier;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
+        private final ProcessorContext processorContext;
         private final LocalMemoryContext localMemoryContext;
 
         @Nullable
         private ChannelSet channelSet;
 
-        public SemiJoinPages(SetSupplier channelSetFuture, int probeJoinChannel, AggregatedMemoryContext aggregatedMemoryContext)
+        // state of the probe of a spilled set
+        @Nullable
+        private SpilledChannelSet spilledChannelSet;
+        private Optional<PartitioningSpiller> spiller = Optional.empty();
+        private ListenableFuture<DataSize> spillInProgress = immediateFuture(DataSize.ofBytes(0));
+        // partitions below this one are released
+        private int partition;
+        @Nullable
+        private ChannelSet partitionSet;
+        private Iterator<Page> partitionPages = emptyIterator();
+        private boolean closed;
+
+        public SemiJoinPages(
+                SetSupplier setSupplier,
+                List<Type> probeTypes,
+                int probeJoinChannel,
+                PartitioningSpillerFactory partitioningSpillerFactory,
+                ProcessorContext processorContext)
         {
             checkArgument(probeJoinChannel >= 0, "probeJoinChannel is negative");
 
-            this.channelSetFuture = channelSetFuture.getChannelSet();
+            this.setSupplier = requireNonNull(setSupplier, "setSupplier is null");
+            this.probeTypes = ImmutableList.copyOf(probeTypes);
             this.probeJoinChannel = probeJoinChannel;
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+            this.processorContext = requireNonNull(processorContext, "processorContext is null");
+            AggregatedMemoryContext aggregatedMemoryContext = processorContext.getMemoryTrackingContext().aggregateUserMemoryContext();
             this.localMemoryContext = aggregatedMemoryContext.newLocalMemoryContext(SemiJoinPages.class.getSimpleName());
         }
 
         @Override
         public TransformationState<Page> process(Page inputPage)
         {
-            if (inputPage == null) {
-                return finished();
-            }
-
-            if (channelSet == null) {
-                if (!channelSetFuture.isDone()) {
+            if (channelSet == null && spilledChannelSet == null) {
+                ListenableFuture<Void> setBuilt = setSupplier.getSetBuilt();
+                if (inputPage == null) {
+                    // the set is not needed when the probe side is empty, but a spilled set must still be released
+                    close();
+                    return finished();
+                }
+                if (!setBuilt.isDone()) {
                     // This will materialize page, but it shouldn't matter for the first page
                     localMemoryContext.setBytes(inputPage.getSizeInBytes());
-                    return blocked(asVoid(channelSetFuture));
+                    return blocked(setBuilt);
                 }
-                checkSuccess(channelSetFuture, "ChannelSet building failed");
-                channelSet = getFutureValue(channelSetFuture);
                 localMemoryContext.setBytes(0);
+                if (setSupplier.getSpilledChannelSet().isDone()) {
+                    spilledChannelSet = getFutureValue(setSupplier.getSpilledChannelSet());
+                }
+                else {
+                    checkSuccess(setSupplier.getChannelSet(), "ChannelSet building failed");
+                    channelSet = getFutureValue(setSupplier.getChannelSet());
+                }
+            }
+
+            if (channelSet != null) {
+                if (inputPage == null) {
+                    return finished();
+                }
+                return ofResult(semiJoin(inputPage, channelSet, channelSet.isEmpty(), channelSet.containsNull()));
+            }
+
+            SpilledChannelSet spilledChannelSet = requireNonNull(this.spilledChannelSet, "spilledChannelSet is null");
+            if (!spillInProgress.isDone()) {
+                return blocked(asVoid(spillInProgress));
+            }
+            checkSuccess(spillInProgress, "spilling failed");
+
+            if (inputPage != null) {
+                spillInProgress = getSpiller(spilledChannelSet).partitionAndSpill(inputPage, _ -> true).getSpillingFuture();
+                return needsMoreData();
             }
-            // use an effectively-final local variable instead of the non-final instance field inside the loop
-            ChannelSet channelSet = requireNonNull(this.channelSet, "channelSet is null");
 
+            while (partition < spilledChannelSet.getPartitionCount()) {
+                if (partitionSet == null) {
+                    ListenableFuture<ChannelSet> partitionSetFuture = spilledChannelSet.getPartition(partition);
+                    if (!partitionSetFuture.isDone()) {
+                        return blocked(asVoid(partitionSetFuture));
+                    }
+                    checkSuccess(partitionSetFuture, "ChannelSet unspilling failed");
+                    partitionSet = getFutureValue(partitionSetFuture);
+                    partitionPages = spiller.map(probeSpiller -> probeSpiller.getSpilledPages(partition)).orElse(emptyIterator());
+                }
+                if (partitionPages.hasNext()) {
+                    return ofResult(semiJoin(partitionPages.next(), partitionSet, spilledChannelSet.isEmpty(), spilledChannelSet.containsNull()), false);
+                }
+                partitionSet = null;
+                spilledChannelSet.release(partition);
+                partition++;
+            }
+            close();
+            return finished();
+        }
+
+        private PartitioningSpiller getSpiller(SpilledChannelSet spilledChannelSet)
+        {
+            if (spiller.isEmpty()) {
+                spiller = Optional.of(partitioningSpillerFactory.create(
+                        probeTypes,
+                        spilledChannelSet.getProbePartitionFunction(probeJoinChannel),
+                        processorContext.getSpillContext().newLocalSpillContext(),
+                        processorContext.getMemoryTrackingContext().newAggregateUserMemoryContext()));
+            }
+            return spiller.get();
+        }
+
+        private Page semiJoin(Page inputPage, ChannelSet channelSet, boolean setIsEmpty, boolean setContainsNull)
+        {
             // create the block builder for the new boolean column
             // we know the exact size required for the block
             BlockBuilder blockBuilder = BOOLEAN.createFixedSizeBlockBuilder(inputPage.getPositionCount());
@@ -183,7 +293,7 @@ public class HashSemiJoinOperator
             // update hashing strategy to use probe cursor
             for (int position = 0; position < inputPage.getPositionCount(); position++) {
                 if (probeMayHaveNull && probeBlock.isNull(position)) {
-                    if (channelSet.isEmpty()) {
+                    if (setIsEmpty) {
                         BOOLEAN.writeBoolean(blockBuilder, false);
                     }
                     else {
@@ -192,7 +302,7 @@ public class HashSemiJoinOperator
                 }
                 else {
                     boolean contains = channelSet.contains(probeBlock, position);
-                    if (!contains && channelSet.containsNull()) {
+                    if (!contains && setContainsNull) {
                         blockBuilder.appendNull();
                     }
                     else {
@@ -201,7 +311,34 @@ public class HashSemiJoinOperator
                 }
             }
             // add the new boolean column to the page
-            return ofResult(inputPage.appendColumn(blockBuilder.build()));
+            return inputPage.appendColumn(blockBuilder.build());
+        }
+
+        public void close()
+        {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            // every probe operator must release all partitions of a spilled set, even if they were not processed
+            int firstUnreleasedPartition = partition;
+            addSuccessCallback(setSupplier.getSpilledChannelSet(), spilledChannelSet -> {
+                for (int partition = firstUnreleasedPartition; partition < spilledChannelSet.getPartitionCount(); partition++) {
+                    spilledChannelSet.release(partition);
+                }
+            });
+            partitionSet = null;
+            partitionPages = emptyIterator();
+            localMemoryContext.setBytes(0);
+            try {
+                if (spiller.isPresent()) {
+                    spiller.get().close();
+                }
+            }
+            catch (IOException e) {
+                throw new RuntimeException(e);
+            }
         }
     }
 
@@ -20,6 +20,7 @@ import com.google.common.io.LittleEndianDataInputStream;
 import com.google.common.net.MediaType;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.errorprone.annotations.ThreadSafe;
 import com.google.errorprone.annotations.concurrent.GuardedBy;
 import io.airlift.http.client.HttpClient;
@@ -49,6 +50,7 @@ import java.io.InputStreamReader;
 import java.net.URI;
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
 import java.util.concurrent.Executor;
@@ -129,11 +131,13 @@ public final class HttpPageBufferClient
     private final ClientCallback clientCallback;
     private final ScheduledExecutorService scheduledExecutor;
     private final Backoff backoff;
+    private final LocalTaskResults localTaskResults;
+    private final boolean local;
 
     @GuardedBy("this")
     private boolean closed;
     @GuardedBy("this")
-    private HttpResponseFuture<?> future;
+    private ListenableFuture<?> future;
     @GuardedBy("this")
     private Instant lastUpdate = Instant.now();
     @GuardedBy("this")
@@ -204,6 +208,39 @@ public final class HttpPageBufferClient
             ScheduledExecutorService scheduledExecutor,
             Ticker ticker,
             Executor pageBufferClientCallbackExecutor)
+    {
+        this(
+                selfAddress,
+                httpClient,
+                dataIntegrityVerification,
+                maxResponseSize,
+                maxErrorDuration,
+                acknowledgePages,
+                remoteTaskId,
+                Optional.empty(),
+                location,
+                clientCallback,
+                scheduledExecutor,
+                ticker,
+                pageBufferClientCallbackExecutor,
+                LocalTaskResults.disabled());
+    }
+
+    public HttpPageBufferClient(
+            String selfAddress,
+            HttpClient httpClient,
+            DataIntegrityVerification dataIntegrityVerification,
+            DataSize maxResponseSize,
+            Duration maxErrorDuration,
+            boolean acknowledgePages,
+            TaskId remoteTaskId,
+            Optional<String> remoteNodeId,
+            URI location,
+            ClientCallback clientCallback,
+            ScheduledExecutorService scheduledExecutor,
+            Ticker ticker,
+            Executor pageBufferClientCallbackExecutor,
+            LocalTaskResults localTaskResults)
     {
         this.selfAddress = requireNonNull(selfAddress, "selfAddress is null");
         this.httpClient = requireNonNull(httpClient, "httpClient is null");
@@ -219,6 +256,9 @@ public final class HttpPageBufferClient
         requireNonNull(ticker, "ticker is null");
         this.backoff = new Backoff(maxErrorDuration, ticker);
         this.ticker = ticker;
+        this.localTaskResults = requireNonNull(localTaskResults, "localTaskResults is null");
+        // results of tasks running in this server are read directly from their output buffers
+        this.local = requireNonNull(remoteNodeId, "remoteNodeId is null").map(localTaskResults::isLocal).orElse(false);
     }
 
     public synchronized PageBufferClientStatus getStatus()
@@ -240,8 +280,11 @@ public final class HttpPageBufferClient
             state = "queued";
         }
         String httpRequestState = "not scheduled";
-        if (future != null) {
-            httpRequestState = future.getState();
+        if (future instanceof HttpResponseFuture<?> httpResponseFuture) {
+            httpRequestState = httpResponseFuture.getState();
+        }
+        else if (future != null) {
+            httpRequestState = "local";
         }
 
         long rejectedRows = rowsRejected.get();
@@ -356,11 +399,17 @@ public final class HttpPageBufferClient
     {
         URI uri = HttpUriBuilder.uriBuilderFrom(location).appendPath(String.valueOf(token)).build();
         lastRequestStartNanos = ticker.read();
-        HttpResponseFuture<PagesResponse> resultFuture = httpClient.executeAsync(
-                prepareGet()
-                        .setHeader(TRINO_MAX_SIZE, maxResponseSize.toString())
-                        .setUri(uri).build(),
-                new PageResponseHandler(dataIntegrityVerification != DataIntegrityVerification.NONE));
+        ListenableFuture<PagesResponse> resultFuture;
+        if (local) {
+            resultFuture = localTaskResults.getResults(remoteTaskId, location, token, maxResponseSize, scheduledExecutor);
+        }
+        else {
+            resultFuture = httpClient.executeAsync(
+                    prepareGet()
+                            .setHeader(TRINO_MAX_SIZE, maxResponseSize.toString())
+                            .setUri(uri).build(),
+                    new PageResponseHandler(dataIntegrityVerification != DataIntegrityVerification.NONE));
+        }
 
         future = resultFuture;
         Futures.addCallback(resultFuture, new FutureCallback<>()
@@ -403,7 +452,10 @@ public final class HttpPageBufferClient
                         }
                     }
 
-                    if (shouldAcknowledge && acknowledgePages) {
+                    if (shouldAcknowledge && acknowledgePages && local) {
+                        localTaskResults.acknowledgeResults(remoteTaskId, location, result.getNextToken());
+                    }
+                    else if (shouldAcknowledge && acknowledgePages) {
                         // Acknowledge token without handling the response.
                         // The next request will also make sure the token is acknowledged.
                         // This is to fast release the pages on the buffer side.
@@ -519,7 +571,13 @@ public final class HttpPageBufferClient
 
     private synchronized void destroyTaskResults()
     {
-        HttpResponseFuture<StatusResponse> resultFuture = httpClient.executeAsync(prepareDelete().setUri(location).build(), createStatusResponseHandler());
+        ListenableFuture<StatusResponse> resultFuture;
+        if (local) {
+            resultFuture = localTaskResults.destroyResults(remoteTaskId, location, scheduledExecutor);
+        }
+        else {
+            resultFuture = httpClient.executeAsync(prepareDelete().setUri(location).build(), createStatusResponseHandler());
+        }
         future = resultFuture;
         Futures.addCallback(resultFuture, new FutureCallback<>()
         {
@@ -575,7 +633,7 @@ public final class HttpPageBufferClient
         assert !Thread.holdsLock(lock) : "Cannot execute this method while holding a lock";
     }
 
-    private void handleFailure(Throwable t, HttpResponseFuture<?> expectedFuture)
+    private void handleFailure(Throwable t, ListenableFuture<?> expectedFuture)
     {
         assertNotHoldsLock(HttpPageBufferClient.this);
 
@@ -0,0 +1,145 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.trino.operator.exchange.LocalPartitionGenerator;
+import io.trino.spi.Page;
+import io.trino.spi.PageBuilder;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.TypeOperators;
+import io.trino.spiller.PartitioningSpiller;
+import io.trino.spiller.PartitioningSpillerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.Iterators.singletonIterator;
+import static com.google.common.util.concurrent.Futures.immediateVoidFuture;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.MoreFutures.checkSuccess;
+import static io.trino.operator.InterpretedHashGenerator.createChannelsHashGenerator;
+import static java.util.Arrays.stream;
+
+/**
+ * Spills pages hash partitioned on key channels, for operators which keep state per key and
+ * restore it one partition at a time once their input is finished. Rows with equal keys of the
+ * same types land in the same partition, whatever the layout of the spilled pages, so separate
+ * spillers for different page layouts can be restored together.
+ */
+class KeyPartitionedSpiller
+        implements Closeable
+{
+    static final int PARTITION_COUNT = 16;
+
+    private final PartitioningSpiller spiller;
+    private ListenableFuture<Void> spillInProgress = immediateVoidFuture();
+
+    KeyPartitionedSpiller(
+            PartitioningSpillerFactory partitioningSpillerFactory,
+            List<Type> types,
+            int[] keyChannels,
+            TypeOperators typeOperators,
+            OperatorContext operatorContext)
+    {
+        List<Type> keyTypes = stream(keyChannels)
+                .mapToObj(types::get)
+                .collect(toImmutableList());
+        this.spiller = partitioningSpillerFactory.create(
+                types,
+                new LocalPartitionGenerator(createChannelsHashGenerator(keyTypes, keyChannels, typeOperators), PARTITION_COUNT),
+                operatorContext.getSpillContext().newLocalSpillContext(),
+                operatorContext.newAggregateUserMemoryContext());
+    }
+
+    public ListenableFuture<Void> getSpillInProgress()
+    {
+        return spillInProgress;
+    }
+
+    public ListenableFuture<Void> spill(Page page)
+    {
+        return spill(singletonIterator(page));
+    }
+
+    /**
+     * Spills the pages one after another. The pages are consumed lazily, so the source of the pages
+     * must not change until the returned future completes.
+     */
+    public ListenableFuture<Void> spill(Iterator<Page> pages)
+    {
+        checkState(spillInProgress.isDone(), "previous spill is not finished");
+        checkSuccess(spillInProgress, "spilling failed");
+        spillInProgress = spillPages(pages);
+        return spillInProgress;
+    }
+
+    /**
+     * Spills the values of all groups of the hash, in the layout of {@code types}.
+     */
+    public ListenableFuture<Void> spillGroups(GroupByHash groupByHash, List<Type> types)
+    {
+        return spill(new AbstractIterator<>()
+        {
+            private final PageBuilder pageBuilder = new PageBuilder(types);
+            private final int groupCount = groupByHash.getGroupCount();
+            private int groupId;
+
+            @Override
+            protected Page computeNext()
+            {
+                pageBuilder.reset();
+                while (!pageBuilder.isFull() && groupId < groupCount) {
+                    groupByHash.appendValuesTo(groupId, pageBuilder);
+                    pageBuilder.declarePosition();
+                    groupId++;
+                }
+                if (pageBuilder.isEmpty()) {
+                    return endOfData();
+                }
+                return pageBuilder.build();
+            }
+        });
+    }
+
+    public Iterator<Page> getSpilledPages(int partition)
+    {
+        checkState(spillInProgress.isDone(), "spill is not finished");
+        checkSuccess(spillInProgress, "spilling failed");
+        return spiller.getSpilledPages(partition);
+    }
+
+    private ListenableFuture<Void> spillPages(Iterator<Page> pages)
+    {
+        // the spiller does not accept a page before the previous one is spilled
+        if (!pages.hasNext()) {
+            return immediateVoidFuture();
+        }
+        ListenableFuture<Void> spilled = Futures.transform(spiller.partitionAndSpill(pages.next(), _ -> true).getSpillingFuture(), _ -> null, directExecutor());
+        return Futures.transformAsync(spilled, _ -> spillPages(pages), directExecutor());
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        spiller.close();
+    }
+}
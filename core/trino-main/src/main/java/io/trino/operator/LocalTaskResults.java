@@ -0,0 +1,136 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import io.airlift.http.client.StatusResponseHandler.StatusResponse;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.trino.execution.SqlTaskManager;
+import io.trino.execution.SqlTaskManager.SqlTaskWithResults;
+import io.trino.execution.TaskId;
+import io.trino.execution.buffer.BufferResult;
+import io.trino.execution.buffer.PipelinedOutputBuffers.OutputBufferId;
+import io.trino.metadata.InternalNodeManager;
+import io.trino.operator.HttpPageBufferClient.PagesResponse;
+
+import java.net.URI;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.MoreFutures.addTimeout;
+import static io.trino.execution.buffer.BufferResult.emptyResults;
+import static io.trino.operator.HttpPageBufferClient.PagesResponse.createPagesResponse;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Reads the results of tasks running in this server directly from their output buffers,
+ * instead of fetching them through the task resource over HTTP. The serialized pages are
+ * handed over as is, so there is no copy, no HTTP framing and no checksum verification.
+ * <p>
+ * Memory accounting does not change: the output buffer releases the pages once they are
+ * acknowledged, and the exchange buffer accounts for them from the moment they are added.
+ */
+public class LocalTaskResults
+{
+    // same as the wait time of the task resource, so the task heartbeat is refreshed regularly
+    private static final Duration MAX_WAIT_TIME = new Duration(2, SECONDS);
+
+    private final boolean enabled;
+    private final Provider<SqlTaskManager> taskManager;
+    private final Provider<InternalNodeManager> nodeManager;
+
+    // the providers break the dependency cycle between the task manager and the exchange client factory
+    @Inject
+    public LocalTaskResults(DirectExchangeClientConfig config, Provider<SqlTaskManager> taskManager, Provider<InternalNodeManager> nodeManager)
+    {
+        this(config.isLocalTransferEnabled(), taskManager, nodeManager);
+    }
+
+    private LocalTaskResults(boolean enabled, Provider<SqlTaskManager> taskManager, Provider<InternalNodeManager> nodeManager)
+    {
+        this.enabled = enabled;
+        this.taskManager = requireNonNull(taskManager, "taskManager is null");
+        this.nodeManager = requireNonNull(nodeManager, "nodeManager is null");
+    }
+
+    public static LocalTaskResults disabled()
+    {
+        return new LocalTaskResults(
+                false,
+                () -> {
+                    throw new IllegalStateException("Local task results are disabled");
+                },
+                () -> {
+                    throw new IllegalStateException("Local task results are disabled");
+                });
+    }
+
+    /**
+     * Returns true if the task producing the results runs on the node with the given id, and that node is this server.
+     */
+    public boolean isLocal(String nodeId)
+    {
+        return enabled && nodeId.equals(nodeManager.get().getCurrentNode().getNodeIdentifier());
+    }
+
+    public ListenableFuture<PagesResponse> getResults(TaskId taskId, URI location, long token, DataSize maxSize, ScheduledExecutorService timeoutExecutor)
+    {
+        SqlTaskWithResults taskWithResults = taskManager.get().getTaskResults(taskId, getBufferId(location), token, maxSize);
+        ListenableFuture<BufferResult> resultsFuture = taskWithResults.getResultsFuture();
+        if (!resultsFuture.isDone()) {
+            resultsFuture = addTimeout(
+                    resultsFuture,
+                    () -> emptyResults(taskWithResults.getTaskInstanceId(), token, false),
+                    MAX_WAIT_TIME,
+                    timeoutExecutor);
+        }
+        return Futures.transform(resultsFuture, result -> {
+            taskWithResults.recordHeartbeat();
+            return createPagesResponse(
+                    result.getTaskInstanceId(),
+                    result.getToken(),
+                    result.getNextToken(),
+                    result.getSerializedPages(),
+                    result.isBufferComplete(),
+                    // check for task failure after getting the result to ensure it's consistent with isBufferComplete()
+                    taskWithResults.isTaskFailedOrFailing());
+        }, directExecutor());
+    }
+
+    public void acknowledgeResults(TaskId taskId, URI location, long token)
+    {
+        taskManager.get().acknowledgeTaskResults(taskId, getBufferId(location), token);
+    }
+
+    public ListenableFuture<StatusResponse> destroyResults(TaskId taskId, URI location, Executor executor)
+    {
+        return Futures.submit(() -> {
+            taskManager.get().destroyTaskResults(taskId, getBufferId(location));
+            return null;
+        }, executor);
+    }
+
+    private static OutputBufferId getBufferId(URI location)
+    {
+        // location is <task>/results/<bufferId>
+        String path = location.getPath();
+        return OutputBufferId.fromString(path.substring(path.lastIndexOf('/') + 1));
+    }
+}
@@ -52,6 +52,11 @@ public class MarkDistinctHash
         return new TransformWork<>(groupByHash.getGroupIds(page), groupIds -> processNextGroupIds(groupByHash.getGroupCount(), groupIds, page.getPositionCount()));
     }
 
+    GroupByHash getGroupByHash()
+    {
+        return groupByHash;
+    }
+
     @VisibleForTesting
     public int getCapacity()
     {
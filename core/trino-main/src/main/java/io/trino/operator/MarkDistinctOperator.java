@@ -15,19 +15,35 @@ package io.trino.operator;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.io.Closer;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.trino.memory.context.LocalMemoryContext;
 import io.trino.spi.Page;
 import io.trino.spi.block.Block;
 import io.trino.spi.type.Type;
+import io.trino.spi.type.TypeOperators;
+import io.trino.spiller.PartitioningSpillerFactory;
 import io.trino.sql.planner.plan.PlanNodeId;
+import jakarta.annotation.Nullable;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Verify.verify;
+import static com.google.common.collect.Iterators.emptyIterator;
+import static com.google.common.util.concurrent.Futures.immediateVoidFuture;
+import static io.airlift.concurrent.MoreFutures.checkSuccess;
+import static io.trino.operator.KeyPartitionedSpiller.PARTITION_COUNT;
 import static io.trino.spi.type.BooleanType.BOOLEAN;
+import static io.trino.spiller.PartitioningSpillerFactory.unsupportedPartitioningSpillerFactory;
 import static java.util.Objects.requireNonNull;
 
 public class MarkDistinctOperator
@@ -41,14 +57,31 @@ public class MarkDistinctOperator
         private final List<Integer> markDistinctChannels;
         private final List<Type> types;
         private final FlatHashStrategyCompiler hashStrategyCompiler;
+        private final boolean spillEnabled;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
+        private final TypeOperators typeOperators;
         private boolean closed;
 
+        @VisibleForTesting
         public MarkDistinctOperatorFactory(
                 int operatorId,
                 PlanNodeId planNodeId,
                 List<? extends Type> sourceTypes,
                 Collection<Integer> markDistinctChannels,
                 FlatHashStrategyCompiler hashStrategyCompiler)
+        {
+            this(operatorId, planNodeId, sourceTypes, markDistinctChannels, hashStrategyCompiler, false, unsupportedPartitioningSpillerFactory(), new TypeOperators());
+        }
+
+        public MarkDistinctOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<? extends Type> sourceTypes,
+                Collection<Integer> markDistinctChannels,
+                FlatHashStrategyCompiler hashStrategyCompiler,
+                boolean spillEnabled,
+                PartitioningSpillerFactory partitioningSpillerFactory,
+                TypeOperators typeOperators)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -59,6 +92,9 @@ public class MarkDistinctOperator
                     .addAll(sourceTypes)
                     .add(BOOLEAN)
                     .build();
+            this.spillEnabled = spillEnabled;
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+            this.typeOperators = requireNonNull(typeOperators, "typeOperators is null");
         }
 
         @Override
@@ -66,7 +102,7 @@ public class MarkDistinctOperator
         {
             checkState(!closed, "Factory is already closed");
             OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, MarkDistinctOperator.class.getSimpleName());
-            return new MarkDistinctOperator(operatorContext, types, markDistinctChannels, hashStrategyCompiler);
+            return new MarkDistinctOperator(operatorContext, types, markDistinctChannels, hashStrategyCompiler, spillEnabled, partitioningSpillerFactory, typeOperators);
         }
 
         @Override
@@ -78,35 +114,76 @@ public class MarkDistinctOperator
         @Override
         public OperatorFactory duplicate()
         {
-            return new MarkDistinctOperatorFactory(operatorId, planNodeId, types.subList(0, types.size() - 1), markDistinctChannels, hashStrategyCompiler);
+            return new MarkDistinctOperatorFactory(operatorId, planNodeId, types.subList(0, types.size() - 1), markDistinctChannels, hashStrategyCompiler, spillEnabled, partitioningSpillerFactory, typeOperators);
         }
     }
 
     private final OperatorContext operatorContext;
-    private final MarkDistinctHash markDistinctHash;
+    private final List<Type> sourceTypes;
+    private final List<Type> distinctTypes;
+    private final FlatHashStrategyCompiler hashStrategyCompiler;
     private final LocalMemoryContext localUserMemoryContext;
+    private final LocalMemoryContext localRevocableMemoryContext;
     private final int[] markDistinctChannels;
+    private final boolean spillEnabled;
+    private final PartitioningSpillerFactory partitioningSpillerFactory;
+    private final TypeOperators typeOperators;
+
+    // null once the hash is spilled, until the spilled partitions are restored
+    @Nullable
+    private MarkDistinctHash markDistinctHash;
 
     private Page inputPage;
     private boolean finishing;
 
     // for yield when memory is not available
     private Work<Block> unfinishedWork;
+    private Block distinctMask;
+    // set while the pending work is completed before the hash is revoked
+    private boolean revokingMemory;
 
-    public MarkDistinctOperator(OperatorContext operatorContext, List<Type> types, List<Integer> markDistinctChannels, FlatHashStrategyCompiler hashStrategyCompiler)
+    // the rows which were distinct when the hash was spilled, and the input received afterwards
+    private Optional<KeyPartitionedSpiller> distinctRowsSpiller = Optional.empty();
+    private Optional<KeyPartitionedSpiller> inputSpiller = Optional.empty();
+    private Optional<Runnable> finishMemoryRevoke = Optional.empty();
+    private int nextSpilledPartition;
+    private Iterator<Page> spilledDistinctRows = emptyIterator();
+    private Iterator<Page> spilledInput = emptyIterator();
+
+    public MarkDistinctOperator(
+            OperatorContext operatorContext,
+            List<Type> types,
+            List<Integer> markDistinctChannels,
+            FlatHashStrategyCompiler hashStrategyCompiler,
+            boolean spillEnabled,
+            PartitioningSpillerFactory partitioningSpillerFactory,
+            TypeOperators typeOperators)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
 
         requireNonNull(markDistinctChannels, "markDistinctChannels is null");
 
+        // the output types include the mark
+        this.sourceTypes = ImmutableList.copyOf(types.subList(0, types.size() - 1));
         ImmutableList.Builder<Type> distinctTypes = ImmutableList.builder();
         for (int channel : markDistinctChannels) {
             distinctTypes.add(types.get(channel));
         }
+        this.distinctTypes = distinctTypes.build();
         this.markDistinctChannels = Ints.toArray(markDistinctChannels);
+        this.hashStrategyCompiler = requireNonNull(hashStrategyCompiler, "hashStrategyCompiler is null");
+        this.spillEnabled = spillEnabled;
+        this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+        this.typeOperators = requireNonNull(typeOperators, "typeOperators is null");
 
-        this.markDistinctHash = new MarkDistinctHash(operatorContext.getSession(), distinctTypes.build(), hashStrategyCompiler, this::updateMemoryReservation);
         this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+        this.localRevocableMemoryContext = operatorContext.localRevocableMemoryContext();
+        this.markDistinctHash = createMarkDistinctHash();
+    }
+
+    private MarkDistinctHash createMarkDistinctHash()
+    {
+        return new MarkDistinctHash(operatorContext.getSession(), distinctTypes, hashStrategyCompiler, this::updateMemoryReservation);
     }
 
     @Override
@@ -115,22 +192,29 @@ public class MarkDistinctOperator
         return operatorContext;
     }
 
+    @Override
+    public ListenableFuture<Void> isBlocked()
+    {
+        return inputSpiller.map(KeyPartitionedSpiller::getSpillInProgress).orElse(NOT_BLOCKED);
+    }
+
     @Override
     public void finish()
     {
         finishing = true;
+        releaseInputHash();
     }
 
     @Override
     public boolean isFinished()
     {
-        return finishing && !hasUnfinishedInput();
+        return finishing && !hasUnfinishedInput() && inputSpiller.isEmpty();
     }
 
     @Override
     public boolean needsInput()
     {
-        return !finishing && !hasUnfinishedInput();
+        return !finishing && !hasUnfinishedInput() && isBlocked().isDone();
     }
 
     @Override
@@ -139,36 +223,177 @@ public class MarkDistinctOperator
         requireNonNull(page, "page is null");
         checkState(needsInput());
 
+        if (inputSpiller.isPresent()) {
+            // rows are marked once the spilled partitions are restored
+            inputSpiller.get().spill(page);
+            return;
+        }
+
         inputPage = page;
 
-        unfinishedWork = markDistinctHash.markDistinctRows(page.getColumns(markDistinctChannels));
+        unfinishedWork = requireNonNull(markDistinctHash, "markDistinctHash is null").markDistinctRows(page.getColumns(markDistinctChannels));
+        if (spillEnabled) {
+            // mark the rows immediately, unless the hash waits for memory
+            processUnfinishedWork();
+        }
         updateMemoryReservation();
     }
 
     @Override
     public Page getOutput()
     {
-        if (unfinishedWork == null) {
+        if (unfinishedWork == null && distinctMask == null && !unspillNextPage()) {
             return null;
         }
 
-        if (!unfinishedWork.process()) {
+        if (unfinishedWork != null && !processUnfinishedWork()) {
             return null;
         }
+        releaseInputHash();
 
-        // add the new boolean column to the page
-        Page outputPage = inputPage.appendColumn(unfinishedWork.getResult());
+        // add the new boolean column to the page, restored distinct rows produce no output
+        Page outputPage = inputPage == null ? null : inputPage.appendColumn(distinctMask);
 
-        unfinishedWork = null;
+        distinctMask = null;
         inputPage = null;
 
         updateMemoryReservation();
         return outputPage;
     }
 
+    @Override
+    public ListenableFuture<Void> startMemoryRevoke()
+    {
+        checkState(spillEnabled, "Spill not enabled, no revokable memory should be reserved");
+
+        if (inputSpiller.isPresent()) {
+            // Probably stale revoking request
+            finishMemoryRevoke = Optional.of(() -> {});
+            return immediateVoidFuture();
+        }
+
+        if (unfinishedWork != null) {
+            // the hash already contains some rows of the pending page, so the page is marked before the hash is revoked
+            revokingMemory = true;
+            try {
+                verify(processUnfinishedWork(), "Expected the hash not to yield while revoking memory");
+            }
+            finally {
+                revokingMemory = false;
+            }
+        }
+
+        if (finishing) {
+            // the input is marked, so the hash is released instead of spilled
+            finishMemoryRevoke = Optional.of(this::releaseInputHash);
+            return immediateVoidFuture();
+        }
+
+        int[] distinctRowsChannels = IntStream.range(0, distinctTypes.size()).toArray();
+        distinctRowsSpiller = Optional.of(new KeyPartitionedSpiller(partitioningSpillerFactory, distinctTypes, distinctRowsChannels, typeOperators, operatorContext));
+        inputSpiller = Optional.of(new KeyPartitionedSpiller(partitioningSpillerFactory, sourceTypes, markDistinctChannels, typeOperators, operatorContext));
+        finishMemoryRevoke = Optional.of(() -> {
+            markDistinctHash = null;
+            updateMemoryReservation();
+        });
+        return distinctRowsSpiller.get().spillGroups(requireNonNull(markDistinctHash, "markDistinctHash is null").getGroupByHash(), distinctTypes);
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        checkState(finishMemoryRevoke.isPresent(), "Cannot finish unknown revoking");
+        finishMemoryRevoke.get().run();
+        finishMemoryRevoke = Optional.empty();
+    }
+
+    @Override
+    public void close()
+    {
+        markDistinctHash = null;
+        localUserMemoryContext.setBytes(0);
+        localRevocableMemoryContext.setBytes(0);
+        closeSpillers();
+    }
+
+    /**
+     * Restores the spilled partitions one at a time: the rows which were distinct when the hash was
+     * spilled are added to a new hash first, then the spilled input of the partition is marked.
+     *
+     * @return true if a spilled page is ready to be marked
+     */
+    private boolean unspillNextPage()
+    {
+        if (!finishing || inputSpiller.isEmpty() || finishMemoryRevoke.isPresent() || !isBlocked().isDone()) {
+            return false;
+        }
+        checkSuccess(inputSpiller.get().getSpillInProgress(), "spilling failed");
+
+        while (true) {
+            if (spilledDistinctRows.hasNext()) {
+                unfinishedWork = requireNonNull(markDistinctHash, "markDistinctHash is null").markDistinctRows(spilledDistinctRows.next());
+                return true;
+            }
+            if (spilledInput.hasNext()) {
+                inputPage = spilledInput.next();
+                unfinishedWork = requireNonNull(markDistinctHash, "markDistinctHash is null").markDistinctRows(inputPage.getColumns(markDistinctChannels));
+                return true;
+            }
+            if (nextSpilledPartition == PARTITION_COUNT) {
+                markDistinctHash = null;
+                closeSpillers();
+                updateMemoryReservation();
+                return false;
+            }
+            markDistinctHash = createMarkDistinctHash();
+            spilledDistinctRows = distinctRowsSpiller.orElseThrow().getSpilledPages(nextSpilledPartition);
+            spilledInput = inputSpiller.orElseThrow().getSpilledPages(nextSpilledPartition);
+            nextSpilledPartition++;
+        }
+    }
+
+    private void closeSpillers()
+    {
+        try (Closer closer = Closer.create()) {
+            distinctRowsSpiller.ifPresent(closer::register);
+            inputSpiller.ifPresent(closer::register);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        finally {
+            distinctRowsSpiller = Optional.empty();
+            inputSpiller = Optional.empty();
+            spilledDistinctRows = emptyIterator();
+            spilledInput = emptyIterator();
+        }
+    }
+
+    /**
+     * Releases the hash once all input is marked, unless it was spilled.
+     */
+    private void releaseInputHash()
+    {
+        if (finishing && spillEnabled && distinctRowsSpiller.isEmpty() && unfinishedWork == null && markDistinctHash != null) {
+            // the input is marked as it arrives, so the hash is no longer needed
+            markDistinctHash = null;
+            updateMemoryReservation();
+        }
+    }
+
+    private boolean processUnfinishedWork()
+    {
+        if (!unfinishedWork.process()) {
+            return false;
+        }
+        distinctMask = unfinishedWork.getResult();
+        unfinishedWork = null;
+        return true;
+    }
+
     private boolean hasUnfinishedInput()
     {
-        return inputPage != null || unfinishedWork != null;
+        return inputPage != null || unfinishedWork != null || distinctMask != null;
     }
 
     /**
@@ -181,9 +406,17 @@ public class MarkDistinctOperator
     // The following implementation is a hybrid model, where the push model is going to call the pull model causing reentrancy
     private boolean updateMemoryReservation()
     {
+        long bytes = markDistinctHash == null ? 0 : markDistinctHash.getEstimatedSize();
+        // the hash can be revoked until the first spill, the hashes of the restored partitions can not
+        if (spillEnabled && distinctRowsSpiller.isEmpty()) {
+            localRevocableMemoryContext.setBytes(bytes);
+            // If revocable memory is not available, the driver revokes the hash once we return.
+            return revokingMemory || operatorContext.isWaitingForRevocableMemory().isDone();
+        }
+        localRevocableMemoryContext.setBytes(0);
         // Operator/driver will be blocked on memory after we call localUserMemoryContext.setBytes().
         // If memory is not available, once we return, this operator will be blocked until memory is available.
-        localUserMemoryContext.setBytes(markDistinctHash.getEstimatedSize());
+        localUserMemoryContext.setBytes(bytes);
         // If memory is not available, inform the caller that we cannot proceed for allocation.
         return operatorContext.isWaitingForMemory().isDone();
     }
@@ -191,6 +424,6 @@ public class MarkDistinctOperator
     @VisibleForTesting
     public int getCapacity()
     {
-        return markDistinctHash.getCapacity();
+        return requireNonNull(markDistinctHash, "markDistinctHash is null").getCapacity();
     }
 }
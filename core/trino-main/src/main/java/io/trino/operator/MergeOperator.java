@@ -35,6 +35,7 @@ import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
@@ -177,7 +178,7 @@ public class MergeOperator
         // Only fault tolerant execution mode is expected to execute external exchanges.
         // MergeOperator is used for distributed sort only and it is not compatible (and disabled) with fault tolerant execution mode.
         DirectExchangeInput exchangeInput = (DirectExchangeInput) remoteSplit.getExchangeInput();
-        client.addLocation(exchangeInput.getTaskId(), URI.create(exchangeInput.getLocation()));
+        client.addLocation(exchangeInput.getTaskId(), Optional.of(exchangeInput.getNodeId()), URI.create(exchangeInput.getLocation()));
         client.noMoreLocations();
         pageProducers.add(client.pages()
                 .map(serializedPage -> {
@@ -641,6 +641,18 @@ public class OperatorContext
             }
         }
 
+        @Override
+        public void updateRemoteBytes(long bytes)
+        {
+            if (bytes >= 0) {
+                driverContext.reserveRemoteSpill(bytes);
+                spilledBytes.addAndGet(bytes);
+            }
+            else {
+                driverContext.freeRemoteSpill(-bytes);
+            }
+        }
+
         public long getSpilledBytes()
         {
             return spilledBytes.longValue();
@@ -281,6 +281,17 @@ public class PipelineContext
         taskContext.freeSpill(bytes);
     }
 
+    public synchronized void reserveRemoteSpill(long bytes)
+    {
+        taskContext.reserveRemoteSpill(bytes);
+    }
+
+    public synchronized void freeRemoteSpill(long bytes)
+    {
+        checkArgument(bytes >= 0, "bytes is negative");
+        taskContext.freeRemoteSpill(bytes);
+    }
+
     public LocalMemoryContext localMemoryContext()
     {
         return pipelineMemoryContext.localUserMemoryContext();
@@ -61,6 +61,7 @@ import java.util.function.Supplier;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.concurrent.MoreFutures.toListenableFuture;
+import static io.trino.execution.executor.scheduler.BlockingCalls.runBlocking;
 import static io.trino.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.trino.operator.WorkProcessor.TransformationState.finished;
 import static io.trino.operator.WorkProcessor.TransformationState.ofResult;
@@ -414,7 +415,8 @@ public class ScanFilterAndProjectOperator
                 return ProcessState.blocked(asVoid(toListenableFuture(isBlocked)));
             }
 
-            SourcePage page = pageSource.getNextSourcePage();
+            // the page source may block on I/O
+            SourcePage page = runBlocking(pageSource::getNextSourcePage);
             pageSourceMemoryContext.setBytes(pageSource.getMemoryUsage());
 
             if (page == null) {
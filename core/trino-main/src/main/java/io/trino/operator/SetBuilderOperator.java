@@ -13,28 +13,59 @@
  */
 package io.trino.operator;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import com.google.errorprone.annotations.ThreadSafe;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import io.trino.memory.context.LocalMemoryContext;
 import io.trino.operator.ChannelSet.ChannelSetBuilder;
 import io.trino.spi.Page;
+import io.trino.spi.block.Block;
 import io.trino.spi.type.Type;
 import io.trino.spi.type.TypeOperators;
+import io.trino.spiller.PartitioningSpiller;
+import io.trino.spiller.PartitioningSpillerFactory;
 import io.trino.sql.gen.JoinCompiler;
 import io.trino.sql.planner.plan.PlanNodeId;
+import jakarta.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.Futures.immediateVoidFuture;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.MoreFutures.checkSuccess;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.trino.operator.SpilledChannelSet.getValuesPartitionFunction;
 import static java.util.Objects.requireNonNull;
 
 @ThreadSafe
 public class SetBuilderOperator
         implements Operator
 {
+    // the number of partitions of a spilled set, only a single partition is loaded at a time
+    private static final int SPILL_PARTITION_COUNT = 16;
+    private static final int SPILL_MAX_POSITIONS_PER_PAGE = 8192;
+
     public static class SetSupplier
     {
         private final Type type;
         private final SettableFuture<ChannelSet> channelSetFuture = SettableFuture.create();
+        private final SettableFuture<SpilledChannelSet> spilledChannelSetFuture = SettableFuture.create();
+        private final SettableFuture<Void> setBuiltFuture = SettableFuture.create();
+
+        // the probe operators which must release the partitions of a spilled set
+        @GuardedBy("this")
+        private int probeOperatorsCount;
+        @GuardedBy("this")
+        private int openProbeOperatorFactories;
+        @GuardedBy("this")
+        private boolean noMoreProbeOperators;
 
         public SetSupplier(Type type)
         {
@@ -46,15 +77,81 @@ public class SetBuilderOperator
             return type;
         }
 
+        /**
+         * Completes once the set is built, either in memory ({@link #getChannelSet()}) or spilled ({@link #getSpilledChannelSet()}).
+         */
+        public ListenableFuture<Void> getSetBuilt()
+        {
+            return setBuiltFuture;
+        }
+
         public ListenableFuture<ChannelSet> getChannelSet()
         {
             return channelSetFuture;
         }
 
+        public ListenableFuture<SpilledChannelSet> getSpilledChannelSet()
+        {
+            return spilledChannelSetFuture;
+        }
+
         void setChannelSet(ChannelSet channelSet)
         {
             boolean wasSet = channelSetFuture.set(requireNonNull(channelSet, "channelSet is null"));
             checkState(wasSet, "ChannelSet already set");
+            setBuiltFuture.set(null);
+        }
+
+        void setSpilledChannelSet(SpilledChannelSet spilledChannelSet)
+        {
+            requireNonNull(spilledChannelSet, "spilledChannelSet is null");
+            checkState(!channelSetFuture.isDone(), "ChannelSet already set");
+            synchronized (this) {
+                // probe operators created so far must release the partitions of the spilled set as well
+                spilledChannelSet.addProbeOperators(probeOperatorsCount);
+                if (noMoreProbeOperators) {
+                    spilledChannelSet.noMoreProbeOperators();
+                }
+                boolean wasSet = spilledChannelSetFuture.set(spilledChannelSet);
+                checkState(wasSet, "SpilledChannelSet already set");
+            }
+            setBuiltFuture.set(null);
+        }
+
+        /**
+         * Must be called for every probe operator factory, including duplicates, before the probe operators are created.
+         */
+        public synchronized void probeOperatorFactoryCreated()
+        {
+            checkState(!noMoreProbeOperators, "No more probe operators already set");
+            openProbeOperatorFactories++;
+        }
+
+        public synchronized void probeOperatorCreated()
+        {
+            checkState(!noMoreProbeOperators, "No more probe operators already set");
+            probeOperatorsCount++;
+            if (spilledChannelSetFuture.isDone()) {
+                getFutureValue(spilledChannelSetFuture).addProbeOperators(1);
+            }
+        }
+
+        public void probeOperatorFactoryClosed()
+        {
+            SpilledChannelSet spilledChannelSet;
+            synchronized (this) {
+                checkState(openProbeOperatorFactories > 0, "No open probe operator factories");
+                openProbeOperatorFactories--;
+                if (openProbeOperatorFactories > 0) {
+                    return;
+                }
+                noMoreProbeOperators = true;
+                if (!spilledChannelSetFuture.isDone()) {
+                    return;
+                }
+                spilledChannelSet = getFutureValue(spilledChannelSetFuture);
+            }
+            spilledChannelSet.noMoreProbeOperators();
         }
     }
 
@@ -69,6 +166,8 @@ public class SetBuilderOperator
         private boolean closed;
         private final JoinCompiler joinCompiler;
         private final TypeOperators typeOperators;
+        private final boolean spillEnabled;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
 
         public SetBuilderOperatorFactory(
                 int operatorId,
@@ -77,7 +176,9 @@ public class SetBuilderOperator
                 int setChannel,
                 int expectedPositions,
                 JoinCompiler joinCompiler,
-                TypeOperators typeOperators)
+                TypeOperators typeOperators,
+                boolean spillEnabled,
+                PartitioningSpillerFactory partitioningSpillerFactory)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -87,6 +188,8 @@ public class SetBuilderOperator
             this.expectedPositions = expectedPositions;
             this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
             this.typeOperators = requireNonNull(typeOperators, "blockTypeOperators is null");
+            this.spillEnabled = spillEnabled;
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
         }
 
         public SetSupplier getSetProvider()
@@ -99,7 +202,7 @@ public class SetBuilderOperator
         {
             checkState(!closed, "Factory is already closed");
             OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, SetBuilderOperator.class.getSimpleName());
-            return new SetBuilderOperator(operatorContext, setProvider, setChannel, expectedPositions, joinCompiler, typeOperators);
+            return new SetBuilderOperator(operatorContext, setProvider, setChannel, expectedPositions, joinCompiler, typeOperators, spillEnabled, partitioningSpillerFactory);
         }
 
         @Override
@@ -111,15 +214,28 @@ public class SetBuilderOperator
         @Override
         public OperatorFactory duplicate()
         {
-            return new SetBuilderOperatorFactory(operatorId, planNodeId, setProvider.getType(), setChannel, expectedPositions, joinCompiler, typeOperators);
+            return new SetBuilderOperatorFactory(operatorId, planNodeId, setProvider.getType(), setChannel, expectedPositions, joinCompiler, typeOperators, spillEnabled, partitioningSpillerFactory);
         }
     }
 
     private final OperatorContext operatorContext;
     private final SetSupplier setSupplier;
     private final int setChannel;
+    private final TypeOperators typeOperators;
+    private final boolean spillEnabled;
+    private final PartitioningSpillerFactory partitioningSpillerFactory;
+    private final LocalMemoryContext setMemoryContext;
 
-    private final ChannelSetBuilder channelSetBuilder;
+    @Nullable
+    private ChannelSetBuilder channelSetBuilder;
+    private boolean empty = true;
+    private boolean containsNull;
+
+    private Optional<PartitioningSpiller> spiller = Optional.empty();
+    private ListenableFuture<Void> spillInProgress = immediateVoidFuture();
+    private Optional<Runnable> finishMemoryRevoke = Optional.empty();
+    @Nullable
+    private SpilledChannelSet spilledChannelSet;
 
     private boolean finished;
 
@@ -129,17 +245,21 @@ public class SetBuilderOperator
             int setChannel,
             int expectedPositions,
             JoinCompiler joinCompiler,
-            TypeOperators typeOperators)
+            TypeOperators typeOperators,
+            boolean spillEnabled,
+            PartitioningSpillerFactory partitioningSpillerFactory)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
         this.setSupplier = requireNonNull(setSupplier, "setSupplier is null");
 
         this.setChannel = setChannel;
+        this.typeOperators = requireNonNull(typeOperators, "typeOperators is null");
+        this.spillEnabled = spillEnabled;
+        this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+        this.setMemoryContext = spillEnabled ? operatorContext.localRevocableMemoryContext() : operatorContext.localUserMemoryContext();
 
         // Set builder has a single channel which goes in channel 0, if hash is present, add a hashBlock to channel 1
-        this.channelSetBuilder = new ChannelSetBuilder(
-                setSupplier.getType(),
-                requireNonNull(typeOperators, "typeOperators is null"), operatorContext.localUserMemoryContext());
+        this.channelSetBuilder = new ChannelSetBuilder(setSupplier.getType(), typeOperators, setMemoryContext);
     }
 
     @Override
@@ -148,17 +268,55 @@ public class SetBuilderOperator
         return operatorContext;
     }
 
+    @Override
+    public ListenableFuture<Void> isBlocked()
+    {
+        if (spilledChannelSet != null) {
+            // keep the spilled set alive until all probe operators are done with it
+            return spilledChannelSet.getAllPartitionsDisposed();
+        }
+        return spillInProgress;
+    }
+
     @Override
     public void finish()
     {
-        if (finished) {
+        if (finished || finishMemoryRevoke.isPresent()) {
             return;
         }
 
-        ChannelSet channelSet = channelSetBuilder.build();
-        setSupplier.setChannelSet(channelSet);
-        operatorContext.recordOutput(channelSet.getEstimatedSizeInBytes(), channelSet.size());
-        finished = true;
+        if (spiller.isEmpty()) {
+            ChannelSet channelSet = requireNonNull(channelSetBuilder, "channelSetBuilder is null").build();
+            setSupplier.setChannelSet(channelSet);
+            operatorContext.recordOutput(channelSet.getEstimatedSizeInBytes(), channelSet.size());
+            if (spillEnabled) {
+                // the set can no longer be spilled, as it is in use by the probe operators
+                operatorContext.localUserMemoryContext().setBytes(setMemoryContext.getBytes());
+                setMemoryContext.setBytes(0);
+            }
+            finished = true;
+            return;
+        }
+
+        if (spilledChannelSet == null) {
+            if (!spillInProgress.isDone()) {
+                return;
+            }
+            checkSuccess(spillInProgress, "spilling failed");
+            spilledChannelSet = new SpilledChannelSet(
+                    setSupplier.getType(),
+                    typeOperators,
+                    spiller.get(),
+                    SPILL_PARTITION_COUNT,
+                    empty,
+                    containsNull,
+                    operatorContext.newLocalUserMemoryContext(SetBuilderOperator.class.getSimpleName()));
+            setSupplier.setSpilledChannelSet(spilledChannelSet);
+        }
+
+        if (spilledChannelSet.getAllPartitionsDisposed().isDone()) {
+            close();
+        }
     }
 
     @Override
@@ -172,7 +330,7 @@ public class SetBuilderOperator
     {
         // Since SetBuilderOperator doesn't produce any output, the getOutput()
         // method may never be called.
-        return !finished;
+        return !finished && spilledChannelSet == null && spillInProgress.isDone();
     }
 
     @Override
@@ -181,7 +339,18 @@ public class SetBuilderOperator
         requireNonNull(page, "page is null");
         checkState(!isFinished(), "Operator is already finished");
 
-        channelSetBuilder.addAll(page.getBlock(setChannel));
+        Block block = page.getBlock(setChannel);
+        if (block.getPositionCount() > 0) {
+            empty = false;
+            containsNull |= block.hasNull();
+        }
+
+        if (spiller.isPresent()) {
+            checkSuccess(spillInProgress, "spilling failed");
+            spillInProgress = spill(new Page(block));
+            return;
+        }
+        requireNonNull(channelSetBuilder, "channelSetBuilder is null").addAll(block);
     }
 
     @Override
@@ -189,4 +358,75 @@ public class SetBuilderOperator
     {
         return null;
     }
+
+    @Override
+    public ListenableFuture<Void> startMemoryRevoke()
+    {
+        checkState(spillEnabled, "Spill not enabled, no revokable memory should be reserved");
+
+        if (finished || spiller.isPresent()) {
+            // Probably stale revoking request
+            finishMemoryRevoke = Optional.of(() -> {});
+            return immediateVoidFuture();
+        }
+
+        spiller = Optional.of(partitioningSpillerFactory.create(
+                ImmutableList.of(setSupplier.getType()),
+                getValuesPartitionFunction(setSupplier.getType(), typeOperators, SPILL_PARTITION_COUNT),
+                operatorContext.getSpillContext().newLocalSpillContext(),
+                operatorContext.newAggregateUserMemoryContext()));
+        finishMemoryRevoke = Optional.of(() -> {
+            channelSetBuilder = null;
+            setMemoryContext.setBytes(0);
+        });
+        return spillValues(requireNonNull(channelSetBuilder, "channelSetBuilder is null").getValues(SPILL_MAX_POSITIONS_PER_PAGE));
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        checkState(finishMemoryRevoke.isPresent(), "Cannot finish unknown revoking");
+        finishMemoryRevoke.get().run();
+        finishMemoryRevoke = Optional.empty();
+    }
+
+    private ListenableFuture<Void> spillValues(Iterator<Block> values)
+    {
+        // the spiller does not accept a page before the previous one is spilled
+        if (!values.hasNext()) {
+            return immediateVoidFuture();
+        }
+        return Futures.transformAsync(spill(new Page(values.next())), _ -> spillValues(values), directExecutor());
+    }
+
+    private ListenableFuture<Void> spill(Page page)
+    {
+        return Futures.transform(spiller.orElseThrow().partitionAndSpill(page, _ -> true).getSpillingFuture(), _ -> null, directExecutor());
+    }
+
+    @Override
+    public void close()
+    {
+        if (finished && spilledChannelSet == null) {
+            return;
+        }
+        finished = true;
+        channelSetBuilder = null;
+        setMemoryContext.setBytes(0);
+        try {
+            if (spilledChannelSet != null) {
+                spilledChannelSet.close();
+                spilledChannelSet = null;
+            }
+            else if (spiller.isPresent()) {
+                spiller.get().close();
+            }
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        finally {
+            spiller = Optional.empty();
+        }
+    }
 }
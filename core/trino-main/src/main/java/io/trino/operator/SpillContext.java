@@ -23,6 +23,11 @@ public interface SpillContext
 {
     void updateBytes(long bytes);
 
+    /**
+     * Updates the bytes spilled to remote storage, which do not use the local spill space.
+     */
+    default void updateRemoteBytes(long bytes) {}
+
     default SpillContext newLocalSpillContext()
     {
         return new LocalSpillContext(this);
@@ -0,0 +1,267 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.errorprone.annotations.ThreadSafe;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import io.trino.memory.context.LocalMemoryContext;
+import io.trino.operator.ChannelSet.ChannelSetBuilder;
+import io.trino.operator.exchange.LocalPartitionGenerator;
+import io.trino.spi.Page;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.TypeOperators;
+import io.trino.spiller.PartitioningSpiller;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.trino.operator.InterpretedHashGenerator.createChannelsHashGenerator;
+import static io.trino.operator.InterpretedHashGenerator.createPagePrefixHashGenerator;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The set of a semi join spilled by the {@link SetBuilderOperator}. The set values are hash partitioned,
+ * and the probe operators process their input partition by partition. Partitions are loaded one at a time
+ * and shared by all probe operators. A partition is disposed once every probe operator has released it,
+ * and only then the next partition is loaded.
+ * <p>
+ * The probe operators are registered as they are created, so their number does not need to be known upfront.
+ * Partitions are unspilled asynchronously, and the set of a partition is built once its values are read.
+ */
+@ThreadSafe
+public class SpilledChannelSet
+{
+    private final Type type;
+    private final TypeOperators typeOperators;
+    private final PartitioningSpiller spiller;
+    private final int partitionCount;
+    private final boolean empty;
+    private final boolean containsNull;
+    private final LocalMemoryContext memoryContext;
+    private final SettableFuture<Void> allPartitionsDisposed = SettableFuture.create();
+
+    @GuardedBy("this")
+    private final SettableFuture<ChannelSet>[] partitions;
+    @GuardedBy("this")
+    private final int[] releases;
+    @GuardedBy("this")
+    private final boolean[] requested;
+    @GuardedBy("this")
+    private int probeOperatorsCount;
+    @GuardedBy("this")
+    private boolean noMoreProbeOperators;
+    // partitions below this one are disposed
+    @GuardedBy("this")
+    private int nextPartition;
+    @GuardedBy("this")
+    private boolean loading;
+
+    @SuppressWarnings("unchecked")
+    public SpilledChannelSet(
+            Type type,
+            TypeOperators typeOperators,
+            PartitioningSpiller spiller,
+            int partitionCount,
+            boolean empty,
+            boolean containsNull,
+            LocalMemoryContext memoryContext)
+    {
+        checkArgument(partitionCount > 0, "partitionCount must be positive");
+        this.type = requireNonNull(type, "type is null");
+        this.typeOperators = requireNonNull(typeOperators, "typeOperators is null");
+        this.spiller = requireNonNull(spiller, "spiller is null");
+        this.partitionCount = partitionCount;
+        this.empty = empty;
+        this.containsNull = containsNull;
+        this.memoryContext = requireNonNull(memoryContext, "memoryContext is null");
+
+        partitions = new SettableFuture[partitionCount];
+        for (int partition = 0; partition < partitionCount; partition++) {
+            partitions[partition] = SettableFuture.create();
+        }
+        releases = new int[partitionCount];
+        requested = new boolean[partitionCount];
+    }
+
+    public int getPartitionCount()
+    {
+        return partitionCount;
+    }
+
+    /**
+     * Returns true if the whole set, not only a single partition, is empty.
+     */
+    public boolean isEmpty()
+    {
+        return empty;
+    }
+
+    /**
+     * Returns true if the whole set, not only a single partition, contains null.
+     */
+    public boolean containsNull()
+    {
+        return containsNull;
+    }
+
+    /**
+     * Returns the partition function for pages containing only the set values.
+     */
+    public static PartitionFunction getValuesPartitionFunction(Type type, TypeOperators typeOperators, int partitionCount)
+    {
+        return new LocalPartitionGenerator(createPagePrefixHashGenerator(ImmutableList.of(type), typeOperators), partitionCount);
+    }
+
+    /**
+     * Returns the partition function for the probe pages, consistent with the partitioning of the set values.
+     */
+    public PartitionFunction getProbePartitionFunction(int probeJoinChannel)
+    {
+        return new LocalPartitionGenerator(createChannelsHashGenerator(ImmutableList.of(type), new int[] {probeJoinChannel}, typeOperators), partitionCount);
+    }
+
+    /**
+     * Registers probe operators, which must each release every partition.
+     */
+    public synchronized void addProbeOperators(int count)
+    {
+        checkState(!noMoreProbeOperators, "No more probe operators already set");
+        probeOperatorsCount += count;
+    }
+
+    /**
+     * Partitions are only disposed once it is known that no more probe operators will be registered.
+     */
+    public void noMoreProbeOperators()
+    {
+        synchronized (this) {
+            noMoreProbeOperators = true;
+        }
+        advance();
+    }
+
+    /**
+     * Requests the values of the given partition. The partition is loaded once all previous partitions are disposed.
+     */
+    public ListenableFuture<ChannelSet> getPartition(int partition)
+    {
+        ListenableFuture<ChannelSet> future;
+        synchronized (this) {
+            checkState(partition >= nextPartition, "Partition %s is already disposed", partition);
+            requested[partition] = true;
+            future = partitions[partition];
+        }
+        advance();
+        return future;
+    }
+
+    /**
+     * Must be called by every probe operator for every partition, once the partition is no longer needed
+     * or the probe operator is closed, whether the partition was requested or not.
+     */
+    public void release(int partition)
+    {
+        synchronized (this) {
+            checkState(releases[partition] < probeOperatorsCount, "Partition %s released too many times", partition);
+            releases[partition]++;
+        }
+        advance();
+    }
+
+    /**
+     * Completes once every partition has been released by all probe operators.
+     */
+    public ListenableFuture<Void> getAllPartitionsDisposed()
+    {
+        return allPartitionsDisposed;
+    }
+
+    public void close()
+            throws IOException
+    {
+        try {
+            spiller.close();
+        }
+        finally {
+            memoryContext.close();
+        }
+    }
+
+    private void advance()
+    {
+        int partition;
+        SettableFuture<ChannelSet> future;
+        synchronized (this) {
+            while (!loading && noMoreProbeOperators && nextPartition < partitionCount && releases[nextPartition] == probeOperatorsCount) {
+                // unreference the values, probe operators may still hold the future of the partition
+                partitions[nextPartition] = null;
+                memoryContext.setBytes(0);
+                nextPartition++;
+            }
+            if (nextPartition < partitionCount) {
+                partition = nextPartition;
+                future = partitions[partition];
+                if (loading || !requested[partition] || future.isDone()) {
+                    return;
+                }
+                loading = true;
+            }
+            else {
+                partition = -1;
+                future = null;
+            }
+        }
+
+        if (future == null) {
+            allPartitionsDisposed.set(null);
+            return;
+        }
+
+        // the values are read by the spiller executor, so the probe operators block instead of waiting on I/O
+        ListenableFuture<ChannelSet> partitionSet;
+        try {
+            partitionSet = Futures.transform(spiller.getAllSpilledPages(partition), this::buildPartitionSet, directExecutor());
+        }
+        catch (Throwable t) {
+            partitionSet = immediateFailedFuture(t);
+        }
+        future.setFuture(partitionSet);
+        partitionSet.addListener(
+                () -> {
+                    synchronized (this) {
+                        loading = false;
+                    }
+                    // the partition may have been released by all probe operators while it was loading
+                    advance();
+                },
+                directExecutor());
+    }
+
+    private ChannelSet buildPartitionSet(List<Page> pages)
+    {
+        ChannelSetBuilder builder = new ChannelSetBuilder(type, typeOperators, memoryContext);
+        for (Page page : pages) {
+            builder.addAll(page.getBlock(0));
+        }
+        return builder.build();
+    }
+}
@@ -41,6 +41,7 @@ import java.util.concurrent.CompletableFuture;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.concurrent.MoreFutures.toListenableFuture;
+import static io.trino.execution.executor.scheduler.BlockingCalls.runBlocking;
 import static java.util.Objects.requireNonNull;
 
 public class TableScanOperator
@@ -259,7 +260,8 @@ public class TableScanOperator
             source = pageSourceProvider.createPageSource(operatorContext.getSession(), split, table, columns, dynamicFilter);
         }
 
-        SourcePage sourcePage = source.getNextSourcePage();
+        // the page source may block on I/O
+        SourcePage sourcePage = runBlocking(source::getNextSourcePage);
         Page page = null;
         if (sourcePage != null) {
             page = sourcePage.getPage();
@@ -296,6 +296,18 @@ public class TaskContext
         queryContext.freeSpill(bytes);
     }
 
+    public synchronized void reserveRemoteSpill(long bytes)
+    {
+        checkArgument(bytes >= 0, "bytes is negative");
+        queryContext.reserveRemoteSpill(bytes);
+    }
+
+    public synchronized void freeRemoteSpill(long bytes)
+    {
+        checkArgument(bytes >= 0, "bytes is negative");
+        queryContext.freeRemoteSpill(bytes);
+    }
+
     public LocalMemoryContext localMemoryContext()
     {
         return taskMemoryContext.localUserMemoryContext();
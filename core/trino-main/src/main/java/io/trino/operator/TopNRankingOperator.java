@@ -17,24 +17,37 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.units.DataSize;
 import io.trino.Session;
 import io.trino.memory.context.LocalMemoryContext;
 import io.trino.spi.Page;
 import io.trino.spi.type.Type;
+import io.trino.spi.type.TypeOperators;
+import io.trino.spiller.PartitioningSpillerFactory;
 import io.trino.sql.planner.plan.PlanNodeId;
 import io.trino.sql.planner.plan.TopNRankingNode.RankingType;
 import io.trino.type.BlockTypeOperators;
+import jakarta.annotation.Nullable;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.util.concurrent.Futures.immediateVoidFuture;
+import static io.airlift.concurrent.MoreFutures.checkSuccess;
 import static io.trino.operator.GroupByHash.createGroupByHash;
+import static io.trino.operator.KeyPartitionedSpiller.PARTITION_COUNT;
+import static io.trino.spiller.PartitioningSpillerFactory.unsupportedPartitioningSpillerFactory;
 import static java.util.Objects.requireNonNull;
 
 public class TopNRankingOperator
@@ -63,7 +76,11 @@ public class TopNRankingOperator
         private final PageWithPositionComparator comparator;
         private final BlockTypeOperators blockTypeOperators;
         private final Optional<DataSize> maxPartialMemory;
+        private final boolean spillEnabled;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
+        private final TypeOperators typeOperators;
 
+        @VisibleForTesting
         public TopNRankingOperatorFactory(
                 int operatorId,
                 PlanNodeId planNodeId,
@@ -80,6 +97,47 @@ public class TopNRankingOperator
                 FlatHashStrategyCompiler hashStrategyCompiler,
                 PageWithPositionComparator comparator,
                 BlockTypeOperators blockTypeOperators)
+        {
+            this(
+                    operatorId,
+                    planNodeId,
+                    rankingType,
+                    sourceTypes,
+                    outputChannels,
+                    partitionChannels,
+                    partitionTypes,
+                    sortChannels,
+                    maxRowCountPerPartition,
+                    partial,
+                    expectedPositions,
+                    maxPartialMemory,
+                    hashStrategyCompiler,
+                    comparator,
+                    blockTypeOperators,
+                    false,
+                    unsupportedPartitioningSpillerFactory(),
+                    new TypeOperators());
+        }
+
+        public TopNRankingOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                RankingType rankingType,
+                List<? extends Type> sourceTypes,
+                List<Integer> outputChannels,
+                List<Integer> partitionChannels,
+                List<? extends Type> partitionTypes,
+                List<Integer> sortChannels,
+                int maxRowCountPerPartition,
+                boolean partial,
+                int expectedPositions,
+                Optional<DataSize> maxPartialMemory,
+                FlatHashStrategyCompiler hashStrategyCompiler,
+                PageWithPositionComparator comparator,
+                BlockTypeOperators blockTypeOperators,
+                boolean spillEnabled,
+                PartitioningSpillerFactory partitioningSpillerFactory,
+                TypeOperators typeOperators)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -99,6 +157,9 @@ public class TopNRankingOperator
             this.comparator = requireNonNull(comparator, "comparator is null");
             this.blockTypeOperators = requireNonNull(blockTypeOperators, "blockTypeOperators is null");
             this.maxPartialMemory = requireNonNull(maxPartialMemory, "maxPartialMemory is null");
+            this.spillEnabled = spillEnabled;
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+            this.typeOperators = requireNonNull(typeOperators, "typeOperators is null");
         }
 
         @Override
@@ -120,7 +181,10 @@ public class TopNRankingOperator
                     maxPartialMemory,
                     hashStrategyCompiler,
                     comparator,
-                    blockTypeOperators);
+                    blockTypeOperators,
+                    spillEnabled,
+                    partitioningSpillerFactory,
+                    typeOperators);
         }
 
         @Override
@@ -147,22 +211,42 @@ public class TopNRankingOperator
                     maxPartialMemory,
                     hashStrategyCompiler,
                     comparator,
-                    blockTypeOperators);
+                    blockTypeOperators,
+                    spillEnabled,
+                    partitioningSpillerFactory,
+                    typeOperators);
         }
     }
 
     private final OperatorContext operatorContext;
     private final LocalMemoryContext localMemoryContext;
+    private final LocalMemoryContext localRevocableMemoryContext;
 
+    private final List<Type> sourceTypes;
+    private final int[] sourceChannels;
     private final int[] outputChannels;
+    private final int[] partitionChannels;
     private final Supplier<GroupedTopNBuilder> groupedTopNBuilderSupplier;
     private final boolean partial;
     private final long maxFlushableBytes;
+    private final boolean spillEnabled;
+    private final PartitioningSpillerFactory partitioningSpillerFactory;
+    private final TypeOperators typeOperators;
 
     private GroupedTopNBuilder groupedTopNBuilder;
     private boolean finishing;
     private Work<?> unfinishedWork;
     private Iterator<Page> outputIterator;
+    // set while the pending work is completed before the builder is revoked
+    private boolean revokingMemory;
+
+    // the top rows of every spilled builder, restored one partition at a time once the input is finished
+    private Optional<KeyPartitionedSpiller> spiller = Optional.empty();
+    private Optional<Runnable> finishMemoryRevoke = Optional.empty();
+    private boolean inputSpilled;
+    private int nextSpilledPartition;
+    @Nullable
+    private Iterator<Page> spilledPages;
 
     public TopNRankingOperator(
             OperatorContext operatorContext,
@@ -178,11 +262,18 @@ public class TopNRankingOperator
             Optional<DataSize> maxPartialMemory,
             FlatHashStrategyCompiler hashStrategyCompiler,
             PageWithPositionComparator comparator,
-            BlockTypeOperators blockTypeOperators)
+            BlockTypeOperators blockTypeOperators,
+            boolean spillEnabled,
+            PartitioningSpillerFactory partitioningSpillerFactory,
+            TypeOperators typeOperators)
     {
         requireNonNull(maxPartialMemory, "maxPartialMemory is null");
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
         this.localMemoryContext = operatorContext.localUserMemoryContext();
+        this.localRevocableMemoryContext = operatorContext.localRevocableMemoryContext();
+        this.sourceTypes = ImmutableList.copyOf(sourceTypes);
+        this.sourceChannels = IntStream.range(0, sourceTypes.size()).toArray();
+        this.partitionChannels = Ints.toArray(partitionChannels);
 
         ImmutableList.Builder<Integer> outputChannelsBuilder = ImmutableList.builder();
         for (int channel : requireNonNull(outputChannels, "outputChannels is null")) {
@@ -198,8 +289,10 @@ public class TopNRankingOperator
 
         checkArgument(maxPartialMemory.isEmpty() || !generateRanking, "no partial memory on final TopN");
         this.maxFlushableBytes = maxPartialMemory.map(DataSize::toBytes).orElse(Long.MAX_VALUE);
-
-        int[] groupByChannels = Ints.toArray(partitionChannels);
+        // partial TopN flushes its output instead
+        this.spillEnabled = spillEnabled && generateRanking;
+        this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+        this.typeOperators = requireNonNull(typeOperators, "typeOperators is null");
 
         this.groupedTopNBuilderSupplier = getGroupedTopNBuilderSupplier(
                 rankingType,
@@ -209,7 +302,7 @@ public class TopNRankingOperator
                 generateRanking,
                 comparator,
                 blockTypeOperators,
-                groupByChannels,
+                this.partitionChannels,
                 getGroupByHashSupplier(
                         expectedPositions,
                         partitionTypes,
@@ -284,17 +377,27 @@ public class TopNRankingOperator
         return operatorContext;
     }
 
+    @Override
+    public ListenableFuture<Void> isBlocked()
+    {
+        return spiller.map(KeyPartitionedSpiller::getSpillInProgress).orElse(NOT_BLOCKED);
+    }
+
     @Override
     public void finish()
     {
         finishing = true;
+        if (spillEnabled) {
+            // the builder can no longer be revoked
+            updateMemoryReservation();
+        }
     }
 
     @Override
     public boolean isFinished()
     {
-        // has no more input, has finished flushing, and has no unfinished work
-        return finishing && outputIterator == null && groupedTopNBuilder == null && unfinishedWork == null;
+        // has no more input, has finished flushing, has no unfinished work, and has restored all spilled partitions
+        return finishing && outputIterator == null && groupedTopNBuilder == null && unfinishedWork == null && spiller.isEmpty();
     }
 
     @Override
@@ -335,6 +438,13 @@ public class TopNRankingOperator
             unfinishedWork = null;
         }
 
+        if (finishing && spiller.isPresent() && outputIterator == null) {
+            unspillNextPartition();
+            if (outputIterator == null) {
+                return null;
+            }
+        }
+
         if (!finishing && (!partial || !isBuilderFull()) && outputIterator == null) {
             return null;
         }
@@ -357,10 +467,103 @@ public class TopNRankingOperator
         return output;
     }
 
+    @Override
+    public ListenableFuture<Void> startMemoryRevoke()
+    {
+        checkState(spillEnabled, "Spill not enabled, no revokable memory should be reserved");
+
+        if (finishing || groupedTopNBuilder == null) {
+            // Probably stale revoking request
+            finishMemoryRevoke = Optional.of(() -> {});
+            return immediateVoidFuture();
+        }
+
+        if (unfinishedWork != null) {
+            // the builder already contains some rows of the pending page, so the page is processed before the builder is revoked
+            revokingMemory = true;
+            try {
+                verify(unfinishedWork.process(), "Expected the builder not to yield while revoking memory");
+                unfinishedWork = null;
+            }
+            finally {
+                revokingMemory = false;
+            }
+        }
+
+        if (spiller.isEmpty()) {
+            spiller = Optional.of(new KeyPartitionedSpiller(partitioningSpillerFactory, sourceTypes, partitionChannels, typeOperators, operatorContext));
+        }
+        finishMemoryRevoke = Optional.of(() -> {
+            groupedTopNBuilder = null;
+            updateMemoryReservation();
+        });
+        return spiller.get().spill(getTopRows(groupedTopNBuilder));
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        checkState(finishMemoryRevoke.isPresent(), "Cannot finish unknown revoking");
+        finishMemoryRevoke.get().run();
+        finishMemoryRevoke = Optional.empty();
+    }
+
+    /**
+     * Restores the next spilled partition into a new builder, one page per call, and starts producing
+     * its output once all of its pages are processed. The top rows of a partition are among the top
+     * rows of the builders they were spilled from, so the spilled rows are all that is needed.
+     */
+    private void unspillNextPartition()
+    {
+        KeyPartitionedSpiller partitionedSpiller = spiller.orElseThrow();
+        if (finishMemoryRevoke.isPresent() || !partitionedSpiller.getSpillInProgress().isDone()) {
+            return;
+        }
+        checkSuccess(partitionedSpiller.getSpillInProgress(), "spilling failed");
+
+        if (!inputSpilled) {
+            inputSpilled = true;
+            if (groupedTopNBuilder != null) {
+                // spill the rows still in memory as well, so every partition is restored the same way
+                partitionedSpiller.spill(getTopRows(groupedTopNBuilder));
+                return;
+            }
+        }
+
+        if (spilledPages == null) {
+            if (nextSpilledPartition == PARTITION_COUNT) {
+                closeSpiller();
+                closeGroupedTopNBuilder();
+                return;
+            }
+            groupedTopNBuilder = groupedTopNBuilderSupplier.get();
+            spilledPages = partitionedSpiller.getSpilledPages(nextSpilledPartition);
+            nextSpilledPartition++;
+        }
+
+        if (spilledPages.hasNext()) {
+            unfinishedWork = groupedTopNBuilder.processPage(spilledPages.next());
+            if (unfinishedWork.process()) {
+                unfinishedWork = null;
+            }
+            updateMemoryReservation();
+            return;
+        }
+        spilledPages = null;
+        outputIterator = groupedTopNBuilder.buildResult();
+    }
+
+    private Iterator<Page> getTopRows(GroupedTopNBuilder builder)
+    {
+        // the ranking is computed again when the rows are restored
+        return Iterators.transform(builder.buildResult(), page -> page.getColumns(sourceChannels));
+    }
+
     @Override
     public void close()
     {
         closeGroupedTopNBuilder();
+        closeSpiller();
     }
 
     private void closeGroupedTopNBuilder()
@@ -368,14 +571,43 @@ public class TopNRankingOperator
         outputIterator = null;
         groupedTopNBuilder = null;
         localMemoryContext.setBytes(0);
+        localRevocableMemoryContext.setBytes(0);
+    }
+
+    private void closeSpiller()
+    {
+        try {
+            if (spiller.isPresent()) {
+                spiller.get().close();
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        finally {
+            spiller = Optional.empty();
+            spilledPages = null;
+        }
     }
 
     private boolean updateMemoryReservation()
     {
         if (groupedTopNBuilder == null) {
             localMemoryContext.setBytes(0);
+            localRevocableMemoryContext.setBytes(0);
             return true;
         }
+        if (spillEnabled) {
+            // the builder can be revoked until the input is finished, the builders of the restored partitions can not
+            if (finishing) {
+                localRevocableMemoryContext.setBytes(0);
+                localMemoryContext.setBytes(groupedTopNBuilder.getEstimatedSizeInBytes());
+                return operatorContext.isWaitingForMemory().isDone();
+            }
+            localRevocableMemoryContext.setBytes(groupedTopNBuilder.getEstimatedSizeInBytes());
+            // If revocable memory is not available, the driver revokes the builder once we return.
+            return revokingMemory || operatorContext.isWaitingForRevocableMemory().isDone();
+        }
         // TODO: may need to use trySetMemoryReservation with a compaction to free memory (but that may cause GC pressure)
         localMemoryContext.setBytes(groupedTopNBuilder.getEstimatedSizeInBytes());
         if (partial) {
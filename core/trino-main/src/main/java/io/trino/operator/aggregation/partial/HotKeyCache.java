@@ -0,0 +1,106 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.aggregation.partial;
+
+import io.trino.memory.context.LocalMemoryContext;
+import io.trino.operator.FlatHashStrategy;
+import io.trino.spi.block.Block;
+
+import static io.airlift.slice.SizeOf.instanceSize;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Tracks which group by keys are frequent in the input of a partial aggregation that has been
+ * adaptively turned off. Every key hashes into a small direct mapped table of counters. A key
+ * seen again increments its counter and a different key decrements it, replacing the key when
+ * the counter drops to zero (a per slot majority vote). Only keys which dominate their slot
+ * for long enough are reported as hot, so uniformly distributed input yields no hot keys.
+ * <p>
+ * Hot keys are matched by hash only, so callers must still compare the actual values.
+ * The cache lives for the lifetime of the operator and is not thread safe. Its memory is
+ * reported to the memory context it is created with, until the cache is closed.
+ */
+public class HotKeyCache
+{
+    private static final int INSTANCE_SIZE = instanceSize(HotKeyCache.class);
+
+    private static final int SLOT_COUNT = 1024;
+    private static final int SLOT_MASK = SLOT_COUNT - 1;
+    // a key is hot once it was seen this many times more than the other keys of its slot
+    private static final int HOT_KEY_MIN_COUNT = 16;
+    // bounds the counters, so a key that is no longer frequent gets evicted in reasonable time
+    private static final int MAX_COUNT = 1024;
+
+    private final FlatHashStrategy hashStrategy;
+    private final LocalMemoryContext memoryContext;
+    private final long[] slotHashes = new long[SLOT_COUNT];
+    private final int[] slotCounts = new int[SLOT_COUNT];
+
+    private long[] hashes = new long[0];
+
+    public HotKeyCache(FlatHashStrategy hashStrategy, LocalMemoryContext memoryContext)
+    {
+        this.hashStrategy = requireNonNull(hashStrategy, "hashStrategy is null");
+        this.memoryContext = requireNonNull(memoryContext, "memoryContext is null");
+        memoryContext.setBytes(getRetainedSizeInBytes());
+    }
+
+    /**
+     * Updates the key frequencies with the rows of the group by blocks and stores the positions
+     * of rows having a hot key in ascending order into {@code hotPositions}.
+     *
+     * @return the number of hot positions
+     */
+    public int findHotPositions(Block[] groupByBlocks, int positionCount, int[] hotPositions)
+    {
+        if (hashes.length < positionCount) {
+            hashes = new long[positionCount];
+            memoryContext.setBytes(getRetainedSizeInBytes());
+        }
+        hashStrategy.hashBlocksBatched(groupByBlocks, hashes, 0, positionCount);
+
+        int hotPositionCount = 0;
+        for (int position = 0; position < positionCount; position++) {
+            long hash = hashes[position];
+            int slot = (int) (hash ^ (hash >>> 32)) & SLOT_MASK;
+            if (slotHashes[slot] == hash) {
+                if (slotCounts[slot] < MAX_COUNT) {
+                    slotCounts[slot]++;
+                }
+                if (slotCounts[slot] >= HOT_KEY_MIN_COUNT) {
+                    hotPositions[hotPositionCount++] = position;
+                }
+            }
+            else if (slotCounts[slot] == 0) {
+                slotHashes[slot] = hash;
+                slotCounts[slot] = 1;
+            }
+            else {
+                slotCounts[slot]--;
+            }
+        }
+        return hotPositionCount;
+    }
+
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE + sizeOf(slotHashes) + sizeOf(slotCounts) + sizeOf(hashes);
+    }
+
+    public void close()
+    {
+        memoryContext.close();
+    }
+}
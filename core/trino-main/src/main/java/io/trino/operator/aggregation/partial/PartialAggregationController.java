@@ -45,16 +45,18 @@ public class PartialAggregationController
 
     private final DataSize maxPartialMemory;
     private final double uniqueRowsRatioThreshold;
+    private final boolean hotKeysEnabled;
 
     private volatile boolean partialAggregationDisabled;
     private long totalBytesProcessed;
     private long totalRowProcessed;
     private long totalUniqueRowsProduced;
 
-    public PartialAggregationController(DataSize maxPartialMemory, double uniqueRowsRatioThreshold)
+    public PartialAggregationController(DataSize maxPartialMemory, double uniqueRowsRatioThreshold, boolean hotKeysEnabled)
     {
         this.maxPartialMemory = requireNonNull(maxPartialMemory, "maxPartialMemory is null");
         this.uniqueRowsRatioThreshold = uniqueRowsRatioThreshold;
+        this.hotKeysEnabled = hotKeysEnabled;
     }
 
     public boolean isPartialAggregationDisabled()
@@ -62,6 +64,14 @@ public class PartialAggregationController
         return partialAggregationDisabled;
     }
 
+    /**
+     * Whether frequent keys should still be pre-aggregated while partial aggregation is disabled.
+     */
+    public boolean isHotKeysEnabled()
+    {
+        return hotKeysEnabled;
+    }
+
     public synchronized void onFlush(long bytesProcessed, long rowsProcessed, OptionalLong uniqueRowsProduced)
     {
         if (!partialAggregationDisabled && uniqueRowsProduced.isEmpty()) {
@@ -94,6 +104,6 @@ public class PartialAggregationController
 
     public PartialAggregationController duplicate()
     {
-        return new PartialAggregationController(maxPartialMemory, uniqueRowsRatioThreshold);
+        return new PartialAggregationController(maxPartialMemory, uniqueRowsRatioThreshold, hotKeysEnabled);
     }
 }
@@ -18,6 +18,8 @@ import com.google.common.util.concurrent.ListenableFuture;
 import io.trino.memory.context.LocalMemoryContext;
 import io.trino.operator.AggregationMetrics;
 import io.trino.operator.CompletedWork;
+import io.trino.operator.FlatHashStrategyCompiler;
+import io.trino.operator.GroupByHash;
 import io.trino.operator.Work;
 import io.trino.operator.WorkProcessor;
 import io.trino.operator.aggregation.AggregatorFactory;
@@ -26,17 +28,27 @@ import io.trino.operator.aggregation.builder.HashAggregationBuilder;
 import io.trino.spi.Page;
 import io.trino.spi.block.Block;
 import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.type.Type;
 import jakarta.annotation.Nullable;
 
 import java.util.List;
+import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Verify.verify;
+import static io.trino.operator.GroupByHash.createGroupByHash;
+import static io.trino.operator.GroupByHash.selectGroupByHashMode;
+import static io.trino.operator.UpdateMemory.NOOP;
 import static java.util.Objects.requireNonNull;
 
 /**
  * {@link HashAggregationBuilder} that does not aggregate input rows at all.
  * It passes the input pages, augmented with initial accumulator state to the output.
  * It can only be used at the partial aggregation step as it relies on rows be aggregated at the final step.
+ * <p>
+ * When a {@link HotKeyCache} is provided, rows with frequent keys are still aggregated within each page,
+ * which reduces the output of skewed aggregations at the cost of hashing the input rows.
+ * The hashes are not passed on, so the exchange that partitions the output hashes the rows again.
  */
 public class SkipAggregationBuilder
         implements HashAggregationBuilder
@@ -44,16 +56,26 @@ public class SkipAggregationBuilder
     private final LocalMemoryContext memoryContext;
     private final List<AggregatorFactory> aggregatorFactories;
     private final AggregationMetrics aggregationMetrics;
+    private final List<Type> groupByTypes;
+    private final Optional<HotKeyCache> hotKeyCache;
+    private final FlatHashStrategyCompiler hashStrategyCompiler;
     @Nullable
     private Page currentPage;
     private final int[] hashChannels;
 
     public SkipAggregationBuilder(
+            List<Type> groupByTypes,
             List<Integer> groupByChannels,
             List<AggregatorFactory> aggregatorFactories,
+            Optional<HotKeyCache> hotKeyCache,
+            FlatHashStrategyCompiler hashStrategyCompiler,
             LocalMemoryContext memoryContext,
             AggregationMetrics aggregationMetrics)
     {
+        this.groupByTypes = ImmutableList.copyOf(requireNonNull(groupByTypes, "groupByTypes is null"));
+        this.hotKeyCache = requireNonNull(hotKeyCache, "hotKeyCache is null");
+        this.hashStrategyCompiler = requireNonNull(hashStrategyCompiler, "hashStrategyCompiler is null");
+        checkArgument(groupByTypes.size() == groupByChannels.size(), "groupByTypes and groupByChannels sizes differ");
         this.memoryContext = requireNonNull(memoryContext, "memoryContext is null");
         this.aggregatorFactories = ImmutableList.copyOf(requireNonNull(aggregatorFactories, "aggregatorFactories is null"));
         this.hashChannels = new int[groupByChannels.size()];
@@ -114,6 +136,13 @@ public class SkipAggregationBuilder
 
     private Page buildOutputPage(Page page)
     {
+        if (hotKeyCache.isPresent() && hashChannels.length > 0) {
+            Page hotKeysOutput = buildHotKeysOutputPage(page, hotKeyCache.get());
+            if (hotKeysOutput != null) {
+                return hotKeysOutput;
+            }
+        }
+
         // Prefix the output with the hash channels
         Block[] outputBlocks = new Block[hashChannels.length + aggregatorFactories.size()];
         for (int i = 0; i < hashChannels.length; i++) {
@@ -127,18 +156,79 @@ public class SkipAggregationBuilder
             groupIds[position] = position;
         }
 
+        evaluateAggregators(page, positionCount, groupIds, outputBlocks);
+        return new Page(positionCount, outputBlocks);
+    }
+
+    @Nullable
+    private Page buildHotKeysOutputPage(Page page, HotKeyCache hotKeyCache)
+    {
+        int positionCount = page.getPositionCount();
+        Block[] groupByBlocks = new Block[hashChannels.length];
+        for (int i = 0; i < hashChannels.length; i++) {
+            groupByBlocks[i] = page.getBlock(hashChannels[i]);
+        }
+        int[] hotPositions = new int[positionCount];
+        int hotPositionCount = hotKeyCache.findHotPositions(groupByBlocks, positionCount, hotPositions);
+        if (hotPositionCount < 2) {
+            return null;
+        }
+
+        // Group the rows with hot keys, hot keys only match by hash so the group by hash resolves collisions
+        Page hotPage = new Page(positionCount, groupByBlocks).getPositions(hotPositions, 0, hotPositionCount);
+        GroupByHash groupByHash = createGroupByHash(groupByTypes, selectGroupByHashMode(false, groupByTypes), hotPositionCount, false, hashStrategyCompiler, NOOP);
+        Work<int[]> work = groupByHash.getGroupIds(hotPage);
+        verify(work.process(), "group by hash without memory limit did not finish");
+        int[] hotGroupIds = work.getResult();
+        int hotGroupCount = groupByHash.getGroupCount();
+        if (hotGroupCount == hotPositionCount) {
+            return null;
+        }
+
+        // Hot keys use the group ids of the group by hash, every other row gets its own group.
+        // Each group is output with the keys of its first row.
+        int[] groupIds = new int[positionCount];
+        int[] outputPositions = new int[positionCount];
+        int groupCount = hotGroupCount;
+        int nextHotGroupId = 0;
+        int hotIndex = 0;
+        for (int position = 0; position < positionCount; position++) {
+            if (hotIndex < hotPositionCount && hotPositions[hotIndex] == position) {
+                int groupId = hotGroupIds[hotIndex++];
+                groupIds[position] = groupId;
+                // new group ids are assigned in the order of rows
+                if (groupId == nextHotGroupId) {
+                    outputPositions[groupId] = position;
+                    nextHotGroupId++;
+                }
+            }
+            else {
+                groupIds[position] = groupCount;
+                outputPositions[groupCount] = position;
+                groupCount++;
+            }
+        }
+
+        Block[] outputBlocks = new Block[hashChannels.length + aggregatorFactories.size()];
+        for (int i = 0; i < hashChannels.length; i++) {
+            outputBlocks[i] = groupByBlocks[i].getPositions(outputPositions, 0, groupCount);
+        }
+        evaluateAggregators(page, groupCount, groupIds, outputBlocks);
+        return new Page(groupCount, outputBlocks);
+    }
+
+    private void evaluateAggregators(Page page, int groupCount, int[] groupIds, Block[] outputBlocks)
+    {
         // Evaluate each grouped aggregator into its own output block
         for (int i = 0; i < aggregatorFactories.size(); i++) {
             GroupedAggregator groupedAggregator = aggregatorFactories.get(i).createGroupedAggregator(aggregationMetrics);
-            groupedAggregator.processPage(positionCount, groupIds, page);
-            BlockBuilder outputBuilder = groupedAggregator.getType().createBlockBuilder(null, positionCount);
-            for (int position = 0; position < positionCount; position++) {
-                groupedAggregator.evaluate(position, outputBuilder);
+            groupedAggregator.processPage(groupCount, groupIds, page);
+            BlockBuilder outputBuilder = groupedAggregator.getType().createBlockBuilder(null, groupCount);
+            for (int groupId = 0; groupId < groupCount; groupId++) {
+                groupedAggregator.evaluate(groupId, outputBuilder);
             }
             groupedAggregator = null; // ensure the groupedAggregator is eligible for GC
             outputBlocks[hashChannels.length + i] = outputBuilder.build();
         }
-
-        return new Page(positionCount, outputBlocks);
     }
 }
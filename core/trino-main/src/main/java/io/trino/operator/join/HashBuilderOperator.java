@@ -391,6 +391,7 @@ public class HashBuilderOperator
                 localUserMemoryContext.setBytes(index.getEstimatedSize().toBytes());
                 localRevocableMemoryContext.setBytes(0);
                 lookupSourceChecksum = OptionalLong.of(lookupSourceSupplier.checksum());
+                lookupSourceSupplier.close();
                 lookupSourceSupplier = null;
                 state = State.INPUT_SPILLED;
             });
@@ -494,6 +495,7 @@ public class HashBuilderOperator
         }
 
         long memoryRequired = index.getEstimatedMemoryRequiredToCreateLookupSource(
+                operatorContext.getSession(),
                 hashArraySizeSupplier,
                 sortChannel,
                 hashChannels);
@@ -534,6 +536,7 @@ public class HashBuilderOperator
         index.clear();
         localRevocableMemoryContext.setBytes(0);
         localUserMemoryContext.setBytes(index.getEstimatedSize().toBytes());
+        lookupSourceSupplier.close();
         lookupSourceSupplier = null;
         close();
     }
@@ -614,6 +617,7 @@ public class HashBuilderOperator
         }
 
         ListenableFuture<Void> reserved = localUserMemoryContext.setBytes(index.getEstimatedMemoryRequiredToCreateLookupSource(
+                operatorContext.getSession(),
                 hashArraySizeSupplier,
                 sortChannel,
                 hashChannels));
@@ -687,6 +691,9 @@ public class HashBuilderOperator
         }
         // close() can be called in any state, due for example to query failure, and must clean resource up unconditionally
 
+        if (lookupSourceSupplier != null) {
+            lookupSourceSupplier.close();
+        }
         lookupSourceSupplier = null;
         unspillInProgress = Optional.empty();
         state = State.CLOSED;
@@ -42,13 +42,17 @@ public final class JoinHash
     private final PositionLinks positionLinks;
 
     private final long pageInstancesRetainedSizeInBytes;
+    // releases the reference to the pages hash, which is shared with the other instances
+    private final Runnable onClose;
+    private boolean closed;
 
-    public JoinHash(PagesHash pagesHash, Optional<JoinFilterFunction> filterFunction, Optional<PositionLinks> positionLinks, long pageInstancesRetainedSizeInBytes)
+    public JoinHash(PagesHash pagesHash, Optional<JoinFilterFunction> filterFunction, Optional<PositionLinks> positionLinks, long pageInstancesRetainedSizeInBytes, Runnable onClose)
     {
         this.pagesHash = requireNonNull(pagesHash, "pagesHash is null");
         this.filterFunction = filterFunction.orElse(null);
         this.positionLinks = positionLinks.orElse(null);
         this.pageInstancesRetainedSizeInBytes = pageInstancesRetainedSizeInBytes;
+        this.onClose = requireNonNull(onClose, "onClose is null");
     }
 
     @Override
@@ -163,5 +167,12 @@ public final class JoinHash
     }
 
     @Override
-    public void close() {}
+    public void close()
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        onClose.run();
+    }
 }
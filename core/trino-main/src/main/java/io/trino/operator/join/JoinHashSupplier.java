@@ -13,6 +13,7 @@
  */
 package io.trino.operator.join;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import io.trino.Session;
 import io.trino.operator.HashArraySizeSupplier;
@@ -27,11 +28,16 @@ import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.trino.SystemSessionProperties.isJoinOffHeapHashTableEnabled;
 import static io.trino.operator.join.JoinHashSupplier.PagesHashType.BIGINT;
 import static io.trino.operator.join.JoinHashSupplier.PagesHashType.DEFAULT;
+import static io.trino.operator.join.JoinHashSupplier.PagesHashType.OFF_HEAP;
 import static io.trino.operator.join.JoinUtils.channelsToPages;
 import static java.util.Objects.requireNonNull;
 
@@ -54,6 +60,9 @@ public class JoinHashSupplier
     private final Optional<PositionLinks.Factory> positionLinks;
     private final Optional<JoinFilterFunctionFactory> filterFunctionFactory;
     private final List<JoinFilterFunctionFactory> searchFunctionFactories;
+    // the pages hash is shared by this supplier and the join hashes it created, and closed once all of them are closed
+    private final AtomicInteger pagesHashReferences = new AtomicInteger(1);
+    private final AtomicBoolean closed = new AtomicBoolean();
 
     public JoinHashSupplier(
             Session session,
@@ -88,13 +97,20 @@ public class JoinHashSupplier
         this.pages = channelsToPages(channels);
         this.pageInstancesRetainedSizeInBytes = getPageInstancesRetainedSizeInBytes(channels);
 
-        this.pagesHash = switch (getPagesHashType(addresses, singleBigintJoinChannel)) {
+        this.pagesHash = switch (getPagesHashType(addresses, singleBigintJoinChannel, isJoinOffHeapHashTableEnabled(session))) {
             case BIGINT -> new BigintPagesHash(addresses, pagesHashStrategy, positionLinksFactoryBuilder, hashArraySizeSupplier, pages, singleBigintJoinChannel.getAsInt());
             case DEFAULT -> new DefaultPagesHash(addresses, pagesHashStrategy, positionLinksFactoryBuilder, hashArraySizeSupplier);
+            case OFF_HEAP -> new OffHeapPagesHash(addresses, pagesHashStrategy, positionLinksFactoryBuilder, hashArraySizeSupplier);
         };
         this.positionLinks = positionLinksFactoryBuilder.isEmpty() ? Optional.empty() : Optional.of(positionLinksFactoryBuilder.build());
     }
 
+    @VisibleForTesting
+    PagesHash getPagesHash()
+    {
+        return pagesHash;
+    }
+
     @Override
     public long checksum()
     {
@@ -104,6 +120,7 @@ public class JoinHashSupplier
     @Override
     public JoinHash get()
     {
+        checkState(pagesHashReferences.getAndUpdate(references -> references == 0 ? 0 : references + 1) > 0, "supplier is closed");
         // We need to create new JoinFilterFunction per each thread using it, since those functions
         // are not thread safe...
         Optional<JoinFilterFunction> filterFunction =
@@ -117,10 +134,27 @@ public class JoinHashSupplier
                             .collect(toImmutableList());
                     return links.create(searchFunctions);
                 }),
-                pageInstancesRetainedSizeInBytes);
+                pageInstancesRetainedSizeInBytes,
+                this::releasePagesHash);
+    }
+
+    @Override
+    public void close()
+    {
+        if (closed.compareAndSet(false, true)) {
+            releasePagesHash();
+        }
+    }
+
+    private void releasePagesHash()
+    {
+        if (pagesHashReferences.decrementAndGet() == 0) {
+            pagesHash.close();
+        }
     }
 
     public static long getEstimatedRetainedSizeInBytes(
+            Session session,
             int positionCount,
             LongArrayList addresses,
             List<ObjectArrayList<Block>> channels,
@@ -137,9 +171,10 @@ public class JoinHashSupplier
             result += ArrayPositionLinks.getEstimatedRetainedSizeInBytes(positionCount);
         }
         result += getPageInstancesRetainedSizeInBytes(channels);
-        result += switch (getPagesHashType(addresses, singleBigintJoinChannel)) {
+        result += switch (getPagesHashType(addresses, singleBigintJoinChannel, isJoinOffHeapHashTableEnabled(session))) {
             case BIGINT -> BigintPagesHash.getEstimatedRetainedSizeInBytes(positionCount, hashArraySizeSupplier, addresses, channels, blocksSizeInBytes);
             case DEFAULT -> DefaultPagesHash.getEstimatedRetainedSizeInBytes(positionCount, hashArraySizeSupplier, addresses, channels, blocksSizeInBytes);
+            case OFF_HEAP -> OffHeapPagesHash.getEstimatedRetainedSizeInBytes(positionCount, hashArraySizeSupplier, addresses, channels, blocksSizeInBytes);
         };
         return result;
     }
@@ -155,14 +190,18 @@ public class JoinHashSupplier
 
     public enum PagesHashType {
         BIGINT,
-        DEFAULT
+        DEFAULT,
+        OFF_HEAP,
     }
 
-    private static PagesHashType getPagesHashType(LongArrayList addresses, OptionalInt singleBigintJoinChannel)
+    private static PagesHashType getPagesHashType(LongArrayList addresses, OptionalInt singleBigintJoinChannel, boolean offHeapHashTableEnabled)
     {
         if (singleBigintJoinChannel.isPresent() && addresses.size() <= JOIN_POSITIONS_ARRAY_CUTOFF) {
             return BIGINT;
         }
+        if (offHeapHashTableEnabled) {
+            return OFF_HEAP;
+        }
         return DEFAULT;
     }
 }
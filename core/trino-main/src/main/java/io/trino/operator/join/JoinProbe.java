@@ -15,7 +15,9 @@ package io.trino.operator.join;
 
 import com.google.common.primitives.Ints;
 import io.trino.spi.Page;
+import jakarta.annotation.Nullable;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static com.google.common.base.Verify.verify;
@@ -47,6 +49,12 @@ public class JoinProbe
     private final boolean probeMayHaveNull;
     private int position = -1;
 
+    // join positions of the page are looked up in batches, see fillJoinPositionCache
+    @Nullable
+    private LookupSource cachedLookupSource;
+    @Nullable
+    private long[] joinPositionCache;
+
     private JoinProbe(int[] probeOutputChannels, Page page, Page probePage)
     {
         this.probeOutputChannels = probeOutputChannels;
@@ -74,10 +82,10 @@ public class JoinProbe
 
     public long getCurrentJoinPosition(LookupSource lookupSource)
     {
-        if (probeMayHaveNull && currentRowContainsNull()) {
-            return -1;
+        if (lookupSource != cachedLookupSource) {
+            fillJoinPositionCache(lookupSource);
         }
-        return lookupSource.getJoinPosition(position, probePage, page);
+        return joinPositionCache[position];
     }
 
     public int getPosition()
@@ -90,7 +98,34 @@ public class JoinProbe
         return page;
     }
 
-    private boolean currentRowContainsNull()
+    /**
+     * Looks up join positions of the current and all following positions at once, so that the lookup source
+     * can hash the keys and read the hash table slots in separate loops instead of resolving one position at a time.
+     * The lookup is repeated only if a different lookup source is used for the same probe.
+     */
+    private void fillJoinPositionCache(LookupSource lookupSource)
+    {
+        if (joinPositionCache == null) {
+            joinPositionCache = new long[positionCount];
+        }
+        Arrays.fill(joinPositionCache, position, positionCount, -1);
+
+        int[] positions = new int[positionCount - position];
+        int positionsCount = 0;
+        for (int i = position; i < positionCount; i++) {
+            // Null values cannot be joined
+            if (!probeMayHaveNull || !rowContainsNull(i)) {
+                positions[positionsCount++] = i;
+            }
+        }
+        if (positionsCount < positions.length) {
+            positions = Arrays.copyOf(positions, positionsCount);
+        }
+        lookupSource.getJoinPosition(positions, probePage, page, joinPositionCache);
+        cachedLookupSource = lookupSource;
+    }
+
+    private boolean rowContainsNull(int position)
     {
         for (int i = 0; i < probePage.getChannelCount(); i++) {
             if (probePage.getBlock(i).isNull(position)) {
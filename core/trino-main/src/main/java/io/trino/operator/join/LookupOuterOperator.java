@@ -29,6 +29,7 @@ import java.util.List;
 
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.MoreFutures.addSuccessCallback;
 import static io.airlift.concurrent.MoreFutures.tryGetFutureValue;
 import static java.util.Objects.requireNonNull;
 
@@ -214,6 +215,8 @@ public class LookupOuterOperator
         }
         closed = true;
         pageBuilder.reset();
+        // the outer positions may only become available after the operator is closed
+        addSuccessCallback(outerPositionsFuture, OuterPositionIterator::close, directExecutor());
         onClose.run();
     }
 }
@@ -22,4 +22,10 @@ public interface LookupSourceSupplier
      * @return checksum of this entity for heuristic checking equivalence of two instances
      */
     long checksum();
+
+    /**
+     * Called when the supplier is no longer used to create lookup sources. The memory shared
+     * by the lookup sources may stay allocated until the created lookup sources are closed.
+     */
+    default void close() {}
 }
@@ -0,0 +1,131 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.join;
+
+import io.trino.operator.HashArraySizeSupplier;
+import io.trino.operator.PagesHashStrategy;
+import io.trino.spi.block.Block;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.List;
+
+import static io.airlift.slice.SizeOf.instanceSize;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+
+/**
+ * The PagesHash object that handles all cases - single/multi channel joins
+ * with any types, same as {@link DefaultPagesHash}, but keeps the hash table
+ * and the per-position hash bytes in off-heap memory segments. For large builds
+ * this removes the biggest arrays of the lookup source from the Java heap, so they
+ * are neither scanned nor copied by the garbage collector.
+ * <p>
+ * The segments are allocated from a shared arena owned by this object, as a single instance
+ * is used by all {@link JoinHash} instances created from one {@link JoinHashSupplier}. The memory
+ * is released by {@link #close()}, once none of them is in use.
+ * <p>
+ * This implementation assumes the hash table size is always a power of 2
+ */
+public final class OffHeapPagesHash
+        extends AbstractPagesHash
+{
+    private static final int INSTANCE_SIZE = instanceSize(OffHeapPagesHash.class);
+
+    private final Arena arena;
+    // open addressing table of address indexes, EMPTY_SLOT marks a free slot
+    private final MemorySegment keys;
+    // lowest byte of the hash of every position, see DefaultPagesHash#positionToHashes
+    private final MemorySegment positionToHashes;
+    private final long size;
+
+    public OffHeapPagesHash(
+            LongArrayList addresses,
+            PagesHashStrategy pagesHashStrategy,
+            PositionLinks.FactoryBuilder positionLinks,
+            HashArraySizeSupplier hashArraySizeSupplier)
+    {
+        super(addresses, pagesHashStrategy, hashArraySizeSupplier);
+
+        arena = Arena.ofShared();
+        try {
+            keys = arena.allocate(JAVA_INT, getHashSize());
+            // every byte set to 0xFF makes every int slot equal to EMPTY_SLOT
+            keys.fill((byte) EMPTY_SLOT);
+            positionToHashes = arena.allocate(JAVA_BYTE, addresses.size());
+
+            buildHash(positionLinks);
+        }
+        catch (RuntimeException | Error e) {
+            arena.close();
+            throw e;
+        }
+
+        size = sizeOf(addresses.elements()) + pagesHashStrategy.getSizeInBytes() +
+                keys.byteSize() + positionToHashes.byteSize();
+    }
+
+    @Override
+    public long getInMemorySizeInBytes()
+    {
+        return INSTANCE_SIZE + size;
+    }
+
+    @Override
+    public void close()
+    {
+        arena.close();
+    }
+
+    @Override
+    protected int getKey(int pos)
+    {
+        return keys.getAtIndex(JAVA_INT, pos);
+    }
+
+    @Override
+    protected void setKey(int pos, int addressIndex)
+    {
+        keys.setAtIndex(JAVA_INT, pos, addressIndex);
+    }
+
+    @Override
+    protected byte getPositionHash(int position)
+    {
+        return positionToHashes.get(JAVA_BYTE, position);
+    }
+
+    @Override
+    protected void setPositionHash(int position, byte hash)
+    {
+        positionToHashes.set(JAVA_BYTE, position, hash);
+    }
+
+    public static long getEstimatedRetainedSizeInBytes(
+            int positionCount,
+            HashArraySizeSupplier hashArraySizeSupplier,
+            LongArrayList addresses,
+            List<ObjectArrayList<Block>> channels,
+            long blocksSizeInBytes)
+    {
+        return sizeOf(addresses.elements()) +
+                (channels.size() > 0 ? sizeOf(channels.get(0).elements()) * channels.size() : 0) +
+                blocksSizeInBytes +
+                (long) hashArraySizeSupplier.getHashArraySize(positionCount) * Integer.BYTES +
+                positionCount;
+    }
+}
@@ -135,6 +135,12 @@ public final class OuterLookupSource
             }
             return false;
         }
+
+        @Override
+        public void close()
+        {
+            lookupSource.close();
+        }
     }
 
     @ThreadSafe
@@ -192,6 +198,7 @@ public final class OuterLookupSource
         public synchronized OuterPositionIterator getOuterPositionIterator()
         {
             finished = true;
+            // the iterator owns the lookup source, and closes it when it is closed
             return new SharedLookupOuterPositionIterator(lookupSourceSupplier.get(), visitedPositions);
         }
     }
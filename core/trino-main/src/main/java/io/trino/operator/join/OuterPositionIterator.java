@@ -15,7 +15,16 @@ package io.trino.operator.join;
 
 import io.trino.spi.PageBuilder;
 
+import java.io.Closeable;
+
 public interface OuterPositionIterator
+        extends Closeable
 {
     boolean appendToNext(PageBuilder pageBuilder, int outputChannelOffset);
+
+    /**
+     * Releases the lookup sources of the iterator, and with them the build side hashes.
+     */
+    @Override
+    void close();
 }
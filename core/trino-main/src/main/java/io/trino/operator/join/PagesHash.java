@@ -46,6 +46,12 @@ public interface PagesHash
 
     void appendTo(long position, PageBuilder pageBuilder, int outputChannelOffset);
 
+    /**
+     * Releases the memory which is not managed by the garbage collector.
+     * The hash must not be used afterward.
+     */
+    default void close() {}
+
     static int getHashPosition(long rawHash, long mask)
     {
         // Avalanches the bits of a long integer by applying the finalisation step of MurmurHash3.
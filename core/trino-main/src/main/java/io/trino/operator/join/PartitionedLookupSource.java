@@ -13,6 +13,7 @@
  */
 package io.trino.operator.join;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.io.Closer;
 import com.google.errorprone.annotations.concurrent.GuardedBy;
 import io.trino.annotation.NotThreadSafe;
@@ -138,6 +139,62 @@ public class PartitionedLookupSource
         return encodePartitionedJoinPosition(partition, toIntExact(joinPosition));
     }
 
+    @Override
+    public void getJoinPosition(int[] positions, Page hashChannelsPage, Page allChannelsPage, long[] rawHashes, long[] result)
+    {
+        int positionCount = positions.length;
+        int partitionCount = partitionGenerator.partitionCount();
+
+        int[] partitions = new int[positionCount];
+        int[] partitionPositionsCount = new int[partitionCount];
+
+        // Get the partitions for every position and calculate the size of every partition
+        for (int i = 0; i < positionCount; i++) {
+            int partition = partitionGenerator.getPartition(rawHashes[positions[i]]);
+            partitions[i] = partition;
+            partitionPositionsCount[partition]++;
+        }
+
+        int[][] positionsPerPartition = new int[partitionCount][];
+        for (int partition = 0; partition < partitionCount; partition++) {
+            positionsPerPartition[partition] = new int[partitionPositionsCount[partition]];
+        }
+
+        // Split input positions into partitions
+        int[] positionsPerPartitionCount = new int[partitionCount];
+        for (int i = 0; i < positionCount; i++) {
+            int partition = partitions[i];
+            positionsPerPartition[partition][positionsPerPartitionCount[partition]] = positions[i];
+            positionsPerPartitionCount[partition]++;
+        }
+
+        // Delegate partitioned positions to designated lookup sources
+        for (int partition = 0; partition < partitionCount; partition++) {
+            if (positionsPerPartition[partition].length > 0) {
+                lookupSources[partition].getJoinPosition(positionsPerPartition[partition], hashChannelsPage, allChannelsPage, rawHashes, result);
+            }
+        }
+
+        for (int i = 0; i < positionCount; i++) {
+            long joinPosition = result[positions[i]];
+            if (joinPosition >= 0) {
+                result[positions[i]] = encodePartitionedJoinPosition(partitions[i], toIntExact(joinPosition));
+            }
+        }
+    }
+
+    @Override
+    public void getJoinPosition(int[] positions, Page hashChannelsPage, Page allChannelsPage, long[] result)
+    {
+        int positionCount = positions.length;
+        long[] rawHashes = new long[result.length];
+        for (int i = 0; i < positionCount; i++) {
+            rawHashes[positions[i]] = partitionGenerator.getRawHash(hashChannelsPage, positions[i]);
+        }
+
+        getJoinPosition(positions, hashChannelsPage, allChannelsPage, rawHashes, result);
+    }
+
     @Override
     public long getNextJoinPosition(long currentJoinPosition, int probePosition, Page allProbeChannelsPage)
     {
@@ -248,6 +305,17 @@ public class PartitionedLookupSource
             }
             return false;
         }
+
+        @Override
+        public void close()
+        {
+            try (Closer closer = Closer.create()) {
+                Arrays.stream(lookupSources).forEach(closer::register);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 
     /**
@@ -268,21 +336,22 @@ public class PartitionedLookupSource
     {
         public static class Factory
         {
-            private final LookupSource[] lookupSources;
+            private final List<Supplier<LookupSource>> partitions;
             private final boolean[][] visitedPositions;
             private final AtomicBoolean finished = new AtomicBoolean();
             private final AtomicLong referenceCount = new AtomicLong();
 
             public Factory(List<Supplier<LookupSource>> partitions)
             {
-                this.lookupSources = partitions.stream()
-                        .map(Supplier::get)
-                        .toArray(LookupSource[]::new);
-
-                visitedPositions = Arrays.stream(this.lookupSources)
-                        .map(LookupSource::getJoinPositionCount)
-                        .map(Math::toIntExact)
-                        .map(boolean[]::new)
+                this.partitions = ImmutableList.copyOf(partitions);
+
+                // the lookup sources are only needed for the position counts, and they hold references to the build side hashes
+                visitedPositions = this.partitions.stream()
+                        .map(partition -> {
+                            try (LookupSource lookupSource = partition.get()) {
+                                return new boolean[toIntExact(lookupSource.getJoinPositionCount())];
+                            }
+                        })
                         .toArray(boolean[][]::new);
             }
 
@@ -296,6 +365,10 @@ public class PartitionedLookupSource
                 // touching atomic values ensures memory visibility between commit and getVisitedPositions
                 verify(referenceCount.get() == 0);
                 finished.set(true);
+                // the iterator owns these lookup sources, and closes them when it is closed
+                LookupSource[] lookupSources = partitions.stream()
+                        .map(Supplier::get)
+                        .toArray(LookupSource[]::new);
                 return new PartitionedLookupOuterPositionIterator(lookupSources, visitedPositions);
             }
         }
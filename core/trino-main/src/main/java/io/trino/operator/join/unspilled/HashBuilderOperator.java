@@ -316,6 +316,7 @@ public class HashBuilderOperator
 
         checkState(index != null, "index is null");
         ListenableFuture<Void> reserved = localUserMemoryContext.setBytes(index.getEstimatedMemoryRequiredToCreateLookupSource(
+                operatorContext.getSession(),
                 hashArraySizeSupplier,
                 sortChannel,
                 hashChannels));
@@ -371,6 +372,9 @@ public class HashBuilderOperator
         }
         // close() can be called in any state, due for example to query failure, and must clean resource up unconditionally
 
+        if (lookupSourceSupplier != null) {
+            lookupSourceSupplier.close();
+        }
         lookupSourceSupplier = null;
         index = null;
         localUserMemoryContext.setBytes(0);
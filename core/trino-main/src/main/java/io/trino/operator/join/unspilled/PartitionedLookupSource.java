@@ -13,6 +13,7 @@
  */
 package io.trino.operator.join.unspilled;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.io.Closer;
 import com.google.errorprone.annotations.concurrent.GuardedBy;
 import io.trino.annotation.NotThreadSafe;
@@ -307,6 +308,17 @@ public class PartitionedLookupSource
             }
             return false;
         }
+
+        @Override
+        public void close()
+        {
+            try (Closer closer = Closer.create()) {
+                Arrays.stream(lookupSources).forEach(closer::register);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 
     /**
@@ -327,21 +339,22 @@ public class PartitionedLookupSource
     {
         public static class Factory
         {
-            private final LookupSource[] lookupSources;
+            private final List<Supplier<LookupSource>> partitions;
             private final boolean[][] visitedPositions;
             private final AtomicBoolean finished = new AtomicBoolean();
             private final AtomicLong referenceCount = new AtomicLong();
 
             public Factory(List<Supplier<LookupSource>> partitions)
             {
-                this.lookupSources = partitions.stream()
-                        .map(Supplier::get)
-                        .toArray(LookupSource[]::new);
-
-                visitedPositions = Arrays.stream(this.lookupSources)
-                        .map(LookupSource::getJoinPositionCount)
-                        .map(Math::toIntExact)
-                        .map(boolean[]::new)
+                this.partitions = ImmutableList.copyOf(partitions);
+
+                // the lookup sources are only needed for the position counts, and they hold references to the build side hashes
+                visitedPositions = this.partitions.stream()
+                        .map(partition -> {
+                            try (LookupSource lookupSource = partition.get()) {
+                                return new boolean[toIntExact(lookupSource.getJoinPositionCount())];
+                            }
+                        })
                         .toArray(boolean[][]::new);
             }
 
@@ -355,6 +368,10 @@ public class PartitionedLookupSource
                 // touching atomic values ensures memory visibility between commit and getVisitedPositions
                 verify(referenceCount.get() == 0);
                 finished.set(true);
+                // the iterator owns these lookup sources, and closes them when it is closed
+                LookupSource[] lookupSources = partitions.stream()
+                        .map(Supplier::get)
+                        .toArray(LookupSource[]::new);
                 return new PartitionedLookupOuterPositionIterator(lookupSources, visitedPositions);
             }
         }
@@ -91,6 +91,7 @@ import io.trino.operator.DirectExchangeClientSupplier;
 import io.trino.operator.FlatHashStrategyCompiler;
 import io.trino.operator.ForExchange;
 import io.trino.operator.GroupByHashPageIndexerFactory;
+import io.trino.operator.LocalTaskResults;
 import io.trino.operator.PagesIndex;
 import io.trino.operator.PagesIndexPageSorter;
 import io.trino.operator.RetryPolicy;
@@ -114,6 +115,7 @@ import io.trino.spi.type.Type;
 import io.trino.spi.type.TypeManager;
 import io.trino.spi.type.TypeOperators;
 import io.trino.spi.type.TypeSignature;
+import io.trino.spiller.ExchangeSingleStreamSpillerFactory;
 import io.trino.spiller.FileSingleStreamSpillerFactory;
 import io.trino.spiller.GenericPartitioningSpillerFactory;
 import io.trino.spiller.GenericSpillerFactory;
@@ -123,6 +125,7 @@ import io.trino.spiller.PartitioningSpillerFactory;
 import io.trino.spiller.SingleStreamSpillerFactory;
 import io.trino.spiller.SpillerFactory;
 import io.trino.spiller.SpillerStats;
+import io.trino.spiller.StripedFileSingleStreamSpillerFactory;
 import io.trino.split.PageSinkManager;
 import io.trino.split.PageSinkProvider;
 import io.trino.split.PageSourceManager;
@@ -139,6 +142,7 @@ import io.trino.sql.gen.JoinFilterFunctionCompiler;
 import io.trino.sql.gen.OrderingCompiler;
 import io.trino.sql.gen.PageFunctionCompiler;
 import io.trino.sql.gen.columnar.ColumnarFilterCompiler;
+import io.trino.sql.gen.columnar.ColumnarProjectionCompiler;
 import io.trino.sql.parser.SqlParser;
 import io.trino.sql.planner.CompilerConfig;
 import io.trino.sql.planner.LocalExecutionPlanner;
@@ -311,10 +315,15 @@ public class ServerMainModule
         newExporter(binder).export(PageFunctionCompiler.class).withGeneratedName();
         binder.bind(ColumnarFilterCompiler.class).in(Scopes.SINGLETON);
         newExporter(binder).export(ColumnarFilterCompiler.class).withGeneratedName();
+        binder.bind(ColumnarProjectionCompiler.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(ColumnarProjectionCompiler.class).withGeneratedName();
         binder.bind(CursorProcessorCompiler.class).in(Scopes.SINGLETON);
         newExporter(binder).export(CursorProcessorCompiler.class).withGeneratedName();
         configBinder(binder).bindConfig(TaskManagerConfig.class);
 
+        jaxrsBinder(binder).bind(TaskExecutorResource.class);
+        newExporter(binder).export(TaskExecutorResource.class).withGeneratedName();
+
         // TODO: use conditional module
         TaskManagerConfig taskManagerConfig = buildConfigObject(TaskManagerConfig.class);
         if (taskManagerConfig.isThreadPerDriverSchedulerEnabled()) {
@@ -326,8 +335,6 @@ public class ServerMainModule
             binder.bind(ThreadPerDriverTaskExecutor.class).in(Scopes.SINGLETON);
         }
         else {
-            jaxrsBinder(binder).bind(TaskExecutorResource.class);
-            newExporter(binder).export(TaskExecutorResource.class).withGeneratedName();
             newExporter(binder).export(TimeSharingTaskExecutor.class).withGeneratedName();
 
             binder.bind(TaskExecutor.class)
@@ -357,6 +364,7 @@ public class ServerMainModule
 
         // exchange client
         binder.bind(DirectExchangeClientSupplier.class).to(DirectExchangeClientFactory.class).in(Scopes.SINGLETON);
+        binder.bind(LocalTaskResults.class).in(Scopes.SINGLETON);
 
         InternalCommunicationConfig internalCommunicationConfig = buildConfigObject(InternalCommunicationConfig.class);
 
@@ -490,7 +498,18 @@ public class ServerMainModule
 
         // Spiller
         binder.bind(SpillerFactory.class).to(GenericSpillerFactory.class).in(Scopes.SINGLETON);
-        binder.bind(SingleStreamSpillerFactory.class).to(FileSingleStreamSpillerFactory.class).in(Scopes.SINGLETON);
+        install(conditionalModule(
+                NodeSpillConfig.class,
+                config -> !config.isSpillStripingEnabled() && !config.isSpillExchangeManagerEnabled(),
+                spillerBinder -> spillerBinder.bind(SingleStreamSpillerFactory.class).to(FileSingleStreamSpillerFactory.class).in(Scopes.SINGLETON)));
+        install(conditionalModule(
+                NodeSpillConfig.class,
+                config -> config.isSpillStripingEnabled() && !config.isSpillExchangeManagerEnabled(),
+                spillerBinder -> spillerBinder.bind(SingleStreamSpillerFactory.class).to(StripedFileSingleStreamSpillerFactory.class).in(Scopes.SINGLETON)));
+        install(conditionalModule(
+                NodeSpillConfig.class,
+                NodeSpillConfig::isSpillExchangeManagerEnabled,
+                spillerBinder -> spillerBinder.bind(SingleStreamSpillerFactory.class).to(ExchangeSingleStreamSpillerFactory.class).in(Scopes.SINGLETON)));
         binder.bind(PartitioningSpillerFactory.class).to(GenericPartitioningSpillerFactory.class).in(Scopes.SINGLETON);
         binder.bind(SpillerStats.class).in(Scopes.SINGLETON);
         newExporter(binder).export(SpillerStats.class).withGeneratedName();
@@ -14,9 +14,12 @@
 package io.trino.server;
 
 import com.google.inject.Inject;
+import io.trino.execution.executor.TaskExecutor;
+import io.trino.execution.executor.TaskExecutorMetrics;
 import io.trino.execution.executor.timesharing.TimeSharingTaskExecutor;
 import io.trino.server.security.ResourceSecurity;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
@@ -24,23 +27,35 @@ import jakarta.ws.rs.core.MediaType;
 import static io.trino.server.security.ResourceSecurity.AccessType.MANAGEMENT_READ;
 import static java.util.Objects.requireNonNull;
 
-@Path("/v1/maxActiveSplits")
+@Path("/v1")
 @ResourceSecurity(MANAGEMENT_READ)
 public class TaskExecutorResource
 {
-    private final TimeSharingTaskExecutor taskExecutor;
+    private final TaskExecutor taskExecutor;
 
     @Inject
     public TaskExecutorResource(
-            TimeSharingTaskExecutor taskExecutor)
+            TaskExecutor taskExecutor)
     {
         this.taskExecutor = requireNonNull(taskExecutor, "taskExecutor is null");
     }
 
     @GET
+    @Path("maxActiveSplits")
     @Produces(MediaType.TEXT_PLAIN)
     public String getMaxActiveSplit()
     {
-        return taskExecutor.getMaxActiveSplitsInfo();
+        if (!(taskExecutor instanceof TimeSharingTaskExecutor timeSharingTaskExecutor)) {
+            throw new NotFoundException("Max active splits are only tracked by the time sharing task executor");
+        }
+        return timeSharingTaskExecutor.getMaxActiveSplitsInfo();
+    }
+
+    @GET
+    @Path("taskExecutor")
+    @Produces(MediaType.APPLICATION_JSON)
+    public TaskExecutorMetrics getMetrics()
+    {
+        return taskExecutor.getMetrics();
     }
 }
@@ -0,0 +1,390 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.spiller;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import io.airlift.log.Logger;
+import io.airlift.slice.Slice;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.opentelemetry.api.trace.Span;
+import io.trino.annotation.NotThreadSafe;
+import io.trino.exchange.ExchangeContextInstance;
+import io.trino.execution.buffer.PageDeserializer;
+import io.trino.execution.buffer.PageSerializer;
+import io.trino.execution.buffer.PagesSerdeFactory;
+import io.trino.memory.context.LocalMemoryContext;
+import io.trino.operator.SpillContext;
+import io.trino.spi.Page;
+import io.trino.spi.QueryId;
+import io.trino.spi.TrinoException;
+import io.trino.spi.exchange.Exchange;
+import io.trino.spi.exchange.ExchangeId;
+import io.trino.spi.exchange.ExchangeManager;
+import io.trino.spi.exchange.ExchangeSink;
+import io.trino.spi.exchange.ExchangeSinkHandle;
+import io.trino.spi.exchange.ExchangeSinkInstanceHandle;
+import io.trino.spi.exchange.ExchangeSource;
+import io.trino.spi.exchange.ExchangeSourceHandle;
+import io.trino.spi.exchange.ExchangeSourceOutputSelector;
+
+import javax.crypto.SecretKey;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.airlift.concurrent.MoreFutures.toListenableFuture;
+import static io.trino.execution.scheduler.Exchanges.getAllSourceHandles;
+import static io.trino.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static io.trino.spi.exchange.ExchangeId.createRandomExchangeId;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Spills a stream to the storage of the exchange manager, e.g. an object store, as a single
+ * exchange with one sink and one partition. The exchange manager batches the pages into large
+ * files and reads them back concurrently, so no local disk is needed.
+ */
+@NotThreadSafe
+public class ExchangeSingleStreamSpiller
+        implements SingleStreamSpiller
+{
+    private static final Logger log = Logger.get(ExchangeSingleStreamSpiller.class);
+
+    // spills are not part of a query's exchanges, the exchange id makes the storage location unique
+    private static final QueryId SPILL_QUERY_ID = new QueryId("spill");
+    private static final Duration SINK_INSTANCE_HANDLE_GET_TIMEOUT = Duration.succinctDuration(60, SECONDS);
+
+    private final PagesSerdeFactory serdeFactory;
+    private volatile Optional<SecretKey> encryptionKey;
+    private final boolean encrypted;
+    private final ListeningExecutorService executor;
+    private final ExchangeManager exchangeManager;
+    private final ExchangeId exchangeId = createRandomExchangeId();
+    private final SpillerStats spillerStats;
+    private final SpillContext localSpillContext;
+    private final LocalMemoryContext memoryContext;
+
+    // the sink is created and written by one spill at a time, and read after spilling is finished
+    @GuardedBy("this")
+    private Exchange exchange;
+    @GuardedBy("this")
+    private ExchangeSinkHandle sinkHandle;
+    @GuardedBy("this")
+    private ExchangeSink exchangeSink;
+    @GuardedBy("this")
+    private ExchangeSource exchangeSource;
+    @GuardedBy("this")
+    private boolean closed;
+
+    private final AtomicBoolean writable = new AtomicBoolean(true);
+    private final AtomicLong spilledPagesInMemorySize = new AtomicLong();
+    private ListenableFuture<DataSize> spillInProgress = immediateFuture(DataSize.ofBytes(0L));
+
+    public ExchangeSingleStreamSpiller(
+            PagesSerdeFactory serdeFactory,
+            Optional<SecretKey> encryptionKey,
+            ListeningExecutorService executor,
+            ExchangeManager exchangeManager,
+            SpillerStats spillerStats,
+            SpillContext spillContext,
+            LocalMemoryContext memoryContext)
+    {
+        this.serdeFactory = requireNonNull(serdeFactory, "serdeFactory is null");
+        this.encryptionKey = requireNonNull(encryptionKey, "encryptionKey is null");
+        this.encrypted = encryptionKey.isPresent();
+        this.executor = requireNonNull(executor, "executor is null");
+        this.exchangeManager = requireNonNull(exchangeManager, "exchangeManager is null");
+        this.spillerStats = requireNonNull(spillerStats, "spillerStats is null");
+        this.localSpillContext = spillContext.newLocalSpillContext();
+        this.memoryContext = requireNonNull(memoryContext, "memoryContext is null");
+    }
+
+    @Override
+    public ListenableFuture<DataSize> spill(Iterator<Page> pageIterator)
+    {
+        requireNonNull(pageIterator, "pageIterator is null");
+        checkNoSpillInProgress();
+        spillInProgress = Futures.submit(() -> writePages(pageIterator), executor);
+        return spillInProgress;
+    }
+
+    @Override
+    public long getSpilledPagesInMemorySize()
+    {
+        return spilledPagesInMemorySize.longValue();
+    }
+
+    @Override
+    public Iterator<Page> getSpilledPages()
+    {
+        checkNoSpillInProgress();
+        return readPages();
+    }
+
+    @Override
+    public ListenableFuture<List<Page>> getAllSpilledPages()
+    {
+        checkNoSpillInProgress();
+        PageDeserializer deserializer = createDeserializer();
+        // the pages are read by the spiller executor once the exchange source is ready, so the caller never waits on the exchange
+        return Futures.transformAsync(
+                createExchangeSource(),
+                source -> {
+                    if (source.isEmpty()) {
+                        return immediateFuture(ImmutableList.of());
+                    }
+                    return readAllPages(source.get(), deserializer, ImmutableList.builder());
+                },
+                executor);
+    }
+
+    private DataSize writePages(Iterator<Page> pageIterator)
+    {
+        checkState(writable.get(), "Spilling no longer allowed. The spiller has been made non-writable on first read for subsequent reads to be consistent");
+
+        Optional<SecretKey> encryptionKey = this.encryptionKey;
+        checkState(encrypted == encryptionKey.isPresent(), "encryptionKey has been discarded");
+        PageSerializer serializer = serdeFactory.createSerializer(encryptionKey);
+        ExchangeSink sink = getExchangeSink();
+        long spilledPagesBytes = 0;
+        while (pageIterator.hasNext()) {
+            Page page = pageIterator.next();
+            long pageSizeInBytes = page.getSizeInBytes();
+            spilledPagesBytes += pageSizeInBytes;
+            spilledPagesInMemorySize.addAndGet(pageSizeInBytes);
+            Slice serializedPage = serializer.serialize(page);
+            long pageSize = serializedPage.length();
+            localSpillContext.updateRemoteBytes(pageSize);
+            spillerStats.addToTotalSpilledBytes(pageSize);
+            waitForSink(sink);
+            sink.add(0, serializedPage);
+            updateMemoryReservation(sink);
+        }
+        return DataSize.ofBytes(spilledPagesBytes);
+    }
+
+    private synchronized ExchangeSink getExchangeSink()
+    {
+        checkState(!closed, "Spiller is closed");
+        if (exchangeSink == null) {
+            exchange = exchangeManager.createExchange(new ExchangeContextInstance(SPILL_QUERY_ID, exchangeId, Span.getInvalid()), 1, true);
+            sinkHandle = exchange.addSink(0);
+            exchange.noMoreSinks();
+            exchangeSink = exchangeManager.createSink(getSinkInstanceHandle(exchange.instantiateSink(sinkHandle, 0)));
+        }
+        return exchangeSink;
+    }
+
+    private void waitForSink(ExchangeSink sink)
+    {
+        while (true) {
+            try {
+                sink.isBlocked().get(1, SECONDS);
+                return;
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+            catch (ExecutionException e) {
+                throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to spill pages", e.getCause());
+            }
+            catch (TimeoutException e) {
+                updateSinkInstanceHandleIfNecessary(sink);
+            }
+        }
+    }
+
+    private synchronized void updateSinkInstanceHandleIfNecessary(ExchangeSink sink)
+    {
+        checkState(!closed, "Spiller is closed");
+        if (sink.isHandleUpdateRequired()) {
+            sink.updateHandle(getSinkInstanceHandle(exchange.updateSinkInstanceHandle(sinkHandle, 0)));
+        }
+    }
+
+    private synchronized void updateMemoryReservation(ExchangeSink sink)
+    {
+        // the reservation is released on close, and must not be updated afterwards
+        if (!closed) {
+            memoryContext.setBytes(sink.getMemoryUsage());
+        }
+    }
+
+    private static ExchangeSinkInstanceHandle getSinkInstanceHandle(CompletableFuture<ExchangeSinkInstanceHandle> sinkInstanceHandle)
+    {
+        try {
+            return sinkInstanceHandle.get(SINK_INSTANCE_HANDLE_GET_TIMEOUT.toMillis(), MILLISECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        catch (Exception e) {
+            throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to create spill exchange sink", e);
+        }
+    }
+
+    private Iterator<Page> readPages()
+    {
+        PageDeserializer deserializer = createDeserializer();
+        // the iterator is synchronous, use getAllSpilledPages to read without blocking the caller
+        Optional<ExchangeSource> exchangeSource = getFutureValue(createExchangeSource());
+        if (exchangeSource.isEmpty()) {
+            return Collections.emptyIterator();
+        }
+        ExchangeSource source = exchangeSource.get();
+        return new AbstractIterator<>()
+        {
+            @Override
+            protected Page computeNext()
+            {
+                while (!source.isFinished()) {
+                    Slice serializedPage = source.read();
+                    if (serializedPage != null) {
+                        return deserializer.deserialize(serializedPage);
+                    }
+                    getFutureValue(source.isBlocked());
+                }
+                return endOfData();
+            }
+        };
+    }
+
+    private PageDeserializer createDeserializer()
+    {
+        checkState(writable.getAndSet(false), "Repeated reads are disallowed to prevent potential resource leaks");
+
+        Optional<SecretKey> encryptionKey = this.encryptionKey;
+        checkState(encrypted == encryptionKey.isPresent(), "encryptionKey has been discarded");
+        PageDeserializer deserializer = serdeFactory.createDeserializer(encryptionKey);
+        // encryption key is safe to discard since it now belongs to the PageDeserializer and repeated reads are disallowed
+        this.encryptionKey = Optional.empty();
+        return deserializer;
+    }
+
+    private ListenableFuture<List<Page>> readAllPages(ExchangeSource source, PageDeserializer deserializer, ImmutableList.Builder<Page> pages)
+    {
+        while (!source.isFinished()) {
+            Slice serializedPage = source.read();
+            if (serializedPage != null) {
+                pages.add(deserializer.deserialize(serializedPage));
+                continue;
+            }
+            CompletableFuture<Void> blocked = source.isBlocked();
+            if (!blocked.isDone()) {
+                return Futures.transformAsync(toListenableFuture(blocked), _ -> readAllPages(source, deserializer, pages), executor);
+            }
+        }
+        return immediateFuture(pages.build());
+    }
+
+    private synchronized ListenableFuture<Optional<ExchangeSource>> createExchangeSource()
+    {
+        checkState(!closed, "Spiller is closed");
+        if (exchangeSink == null) {
+            // nothing was spilled
+            return immediateFuture(Optional.empty());
+        }
+
+        // wait for all the pages to be written out, as the source only sees finished files
+        ListenableFuture<List<ExchangeSourceHandle>> handles = Futures.transformAsync(
+                toListenableFuture(exchangeSink.finish()),
+                _ -> finishExchange(),
+                directExecutor());
+        return Futures.transform(handles, this::createSource, directExecutor());
+    }
+
+    private synchronized ListenableFuture<List<ExchangeSourceHandle>> finishExchange()
+    {
+        checkState(!closed, "Spiller is closed");
+        exchangeSink = null;
+        memoryContext.setBytes(0);
+        exchange.sinkFinished(sinkHandle, 0);
+        exchange.allRequiredSinksFinished();
+        return getAllSourceHandles(exchange.getSourceHandles());
+    }
+
+    private synchronized Optional<ExchangeSource> createSource(List<ExchangeSourceHandle> handles)
+    {
+        checkState(!closed, "Spiller is closed");
+        exchangeSource = exchangeManager.createSource();
+        exchangeSource.setOutputSelector(ExchangeSourceOutputSelector.builder(ImmutableSet.of(exchangeId))
+                .include(exchangeId, 0, 0)
+                .setPartitionCount(exchangeId, 1)
+                .setFinal()
+                .build());
+        exchangeSource.addSourceHandles(handles);
+        exchangeSource.noMoreSourceHandles();
+        return Optional.of(exchangeSource);
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        encryptionKey = Optional.empty();
+
+        try {
+            if (exchangeSink != null) {
+                exchangeSink.abort().whenComplete((_, failure) -> {
+                    if (failure != null) {
+                        log.warn(failure, "Error aborting spill exchange sink");
+                    }
+                });
+                exchangeSink = null;
+            }
+            if (exchangeSource != null) {
+                exchangeSource.close();
+                exchangeSource = null;
+            }
+            if (exchange != null) {
+                // removes the spilled files
+                exchange.close();
+                exchange = null;
+            }
+        }
+        finally {
+            localSpillContext.close();
+            memoryContext.setBytes(0);
+        }
+    }
+
+    private void checkNoSpillInProgress()
+    {
+        checkState(spillInProgress.isDone(), "spill in progress");
+    }
+}
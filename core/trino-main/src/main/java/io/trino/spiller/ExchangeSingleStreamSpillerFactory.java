@@ -0,0 +1,111 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.spiller;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.inject.Inject;
+import io.trino.FeaturesConfig;
+import io.trino.exchange.ExchangeManagerRegistry;
+import io.trino.execution.buffer.CompressionCodec;
+import io.trino.execution.buffer.PagesSerdeFactory;
+import io.trino.memory.context.LocalMemoryContext;
+import io.trino.operator.SpillContext;
+import io.trino.spi.block.BlockEncodingSerde;
+import io.trino.spi.exchange.ExchangeManager;
+import io.trino.spi.type.Type;
+import jakarta.annotation.PreDestroy;
+
+import javax.crypto.SecretKey;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.trino.execution.buffer.PagesSerdes.createSpillingPagesSerdeFactory;
+import static io.trino.util.Ciphers.createRandomAesEncryptionKey;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+
+/**
+ * Creates spillers which write to the storage of the exchange manager instead of local disks,
+ * for workers without local storage for spilling.
+ */
+public class ExchangeSingleStreamSpillerFactory
+        implements SingleStreamSpillerFactory
+{
+    private final ListeningExecutorService executor;
+    private final PagesSerdeFactory serdeFactory;
+    private final Supplier<ExchangeManager> exchangeManager;
+    private final SpillerStats spillerStats;
+    private final boolean spillEncryptionEnabled;
+
+    @Inject
+    public ExchangeSingleStreamSpillerFactory(
+            ExchangeManagerRegistry exchangeManagerRegistry,
+            BlockEncodingSerde blockEncodingSerde,
+            SpillerStats spillerStats,
+            FeaturesConfig featuresConfig,
+            NodeSpillConfig nodeSpillConfig)
+    {
+        this(
+                listeningDecorator(newFixedThreadPool(
+                        featuresConfig.getSpillerThreads(),
+                        daemonThreadsNamed("exchange-spiller-%s"))),
+                // the exchange manager is loaded after the injector is created
+                exchangeManagerRegistry::getExchangeManager,
+                requireNonNull(blockEncodingSerde, "blockEncodingSerde is null"),
+                spillerStats,
+                nodeSpillConfig.getSpillCompressionCodec(),
+                nodeSpillConfig.isSpillEncryptionEnabled());
+    }
+
+    @VisibleForTesting
+    public ExchangeSingleStreamSpillerFactory(
+            ListeningExecutorService executor,
+            Supplier<ExchangeManager> exchangeManager,
+            BlockEncodingSerde blockEncodingSerde,
+            SpillerStats spillerStats,
+            CompressionCodec compressionCodec,
+            boolean spillEncryptionEnabled)
+    {
+        this.executor = requireNonNull(executor, "executor is null");
+        this.exchangeManager = requireNonNull(exchangeManager, "exchangeManager is null");
+        this.serdeFactory = createSpillingPagesSerdeFactory(blockEncodingSerde, compressionCodec);
+        this.spillerStats = requireNonNull(spillerStats, "spillerStats is null");
+        this.spillEncryptionEnabled = spillEncryptionEnabled;
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public SingleStreamSpiller create(List<Type> types, SpillContext spillContext, LocalMemoryContext memoryContext)
+    {
+        Optional<SecretKey> encryptionKey = spillEncryptionEnabled ? Optional.of(createRandomAesEncryptionKey()) : Optional.empty();
+        return new ExchangeSingleStreamSpiller(
+                serdeFactory,
+                encryptionKey,
+                executor,
+                exchangeManager.get(),
+                spillerStats,
+                spillContext,
+                memoryContext);
+    }
+}
@@ -113,17 +113,7 @@ public class FileSingleStreamSpillerFactory
         this.spillerStats = requireNonNull(spillerStats, "spillerStats cannot be null");
         requireNonNull(spillPaths, "spillPaths is null");
         this.spillPaths = ImmutableList.copyOf(spillPaths);
-        spillPaths.forEach(path -> {
-            try {
-                createDirectories(path);
-            }
-            catch (IOException e) {
-                throw new IllegalArgumentException(format("could not create spill path %s; adjust %s config property or filesystem permissions", path, SPILLER_SPILL_PATH), e);
-            }
-            if (!isAccessible(path)) {
-                throw new IllegalArgumentException(format("spill path %s is not accessible, it must be +rwx; adjust %s config property or filesystem permissions", path, SPILLER_SPILL_PATH));
-            }
-        });
+        spillPaths.forEach(FileSingleStreamSpillerFactory::createSpillPath);
         this.maxUsedSpaceThreshold = maxUsedSpaceThreshold;
         this.spillEncryptionEnabled = spillEncryptionEnabled;
         this.roundRobinIndex = 0;
@@ -146,7 +136,20 @@ public class FileSingleStreamSpillerFactory
         executor.shutdownNow();
     }
 
-    private static void cleanupOldSpillFiles(Path path)
+    static void createSpillPath(Path path)
+    {
+        try {
+            createDirectories(path);
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException(format("could not create spill path %s; adjust %s config property or filesystem permissions", path, SPILLER_SPILL_PATH), e);
+        }
+        if (!isAccessible(path)) {
+            throw new IllegalArgumentException(format("spill path %s is not accessible, it must be +rwx; adjust %s config property or filesystem permissions", path, SPILLER_SPILL_PATH));
+        }
+    }
+
+    static void cleanupOldSpillFiles(Path path)
     {
         try (DirectoryStream<Path> stream = newDirectoryStream(path, SPILL_FILE_GLOB)) {
             stream.forEach(spillFile -> {
@@ -185,7 +188,7 @@ public class FileSingleStreamSpillerFactory
         for (int i = 0; i < spillPathsCount; ++i) {
             int pathIndex = (roundRobinIndex + i) % spillPathsCount;
             Path path = spillPaths.get(pathIndex);
-            if (hasEnoughDiskSpace(path) && spillPathHealthCache.getUnchecked(path)) {
+            if (hasEnoughDiskSpace(path, maxUsedSpaceThreshold) && spillPathHealthCache.getUnchecked(path)) {
                 roundRobinIndex = (roundRobinIndex + i + 1) % spillPathsCount;
                 return path;
             }
@@ -196,7 +199,7 @@ public class FileSingleStreamSpillerFactory
         throw new TrinoException(OUT_OF_SPILL_SPACE, "No free or healthy space available for spill");
     }
 
-    private boolean hasEnoughDiskSpace(Path path)
+    static boolean hasEnoughDiskSpace(Path path, double maxUsedSpaceThreshold)
     {
         try {
             FileStore fileStore = getFileStore(path);
@@ -207,12 +210,12 @@ public class FileSingleStreamSpillerFactory
         }
     }
 
-    private boolean isAccessible(Path path)
+    static boolean isAccessible(Path path)
     {
         return isReadable(path) && isWritable(path) && isExecutable(path);
     }
 
-    private boolean isSeeminglyHealthy(Path path)
+    static boolean isSeeminglyHealthy(Path path)
     {
         try {
             Path healthTemp = createTempFile(path, "spill", "healthcheck");
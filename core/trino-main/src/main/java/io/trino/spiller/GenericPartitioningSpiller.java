@@ -100,6 +100,15 @@ public class GenericPartitioningSpiller
         return getSpiller(partition).getSpilledPages();
     }
 
+    @Override
+    public synchronized ListenableFuture<List<Page>> getAllSpilledPages(int partition)
+    {
+        readingStarted = true;
+        spilledPartitions.remove(partition);
+        SingleStreamSpiller spiller = getSpiller(partition);
+        return Futures.transformAsync(flush(partition), _ -> spiller.getAllSpilledPages(), directExecutor());
+    }
+
     @Override
     public synchronized void verifyAllPartitionsRead()
     {
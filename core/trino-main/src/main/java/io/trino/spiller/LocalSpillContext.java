@@ -24,6 +24,7 @@ public final class LocalSpillContext
 {
     private final SpillContext parentSpillContext;
     private long spilledBytes;
+    private long remoteSpilledBytes;
     private boolean closed;
 
     public LocalSpillContext(SpillContext parentSpillContext)
@@ -39,6 +40,14 @@ public final class LocalSpillContext
         spilledBytes += bytes;
     }
 
+    @Override
+    public synchronized void updateRemoteBytes(long bytes)
+    {
+        checkState(!closed, "Already closed");
+        parentSpillContext.updateRemoteBytes(bytes);
+        remoteSpilledBytes += bytes;
+    }
+
     @Override
     public synchronized void close()
     {
@@ -48,5 +57,6 @@ public final class LocalSpillContext
 
         closed = true;
         parentSpillContext.updateBytes(-spilledBytes);
+        parentSpillContext.updateRemoteBytes(-remoteSpilledBytes);
     }
 }
@@ -18,6 +18,8 @@ import io.airlift.configuration.ConfigDescription;
 import io.airlift.configuration.DefunctConfig;
 import io.airlift.configuration.LegacyConfig;
 import io.airlift.units.DataSize;
+import io.airlift.units.MaxDataSize;
+import io.airlift.units.MinDataSize;
 import io.trino.execution.buffer.CompressionCodec;
 import jakarta.validation.constraints.NotNull;
 
@@ -33,6 +35,11 @@ public class NodeSpillConfig
     private CompressionCodec spillCompressionCodec = NONE;
     private boolean spillEncryptionEnabled;
 
+    private boolean spillStripingEnabled;
+    private DataSize spillStripeSize = DataSize.of(1, DataSize.Unit.MEGABYTE);
+    private boolean spillDirectIoEnabled;
+    private boolean spillExchangeManagerEnabled;
+
     @NotNull
     public DataSize getMaxSpillPerNode()
     {
@@ -94,4 +101,59 @@ public class NodeSpillConfig
         this.spillEncryptionEnabled = spillEncryptionEnabled;
         return this;
     }
+
+    public boolean isSpillStripingEnabled()
+    {
+        return spillStripingEnabled;
+    }
+
+    @Config("spill-striping-enabled")
+    @ConfigDescription("Stripe every spilled stream over all spill paths")
+    public NodeSpillConfig setSpillStripingEnabled(boolean spillStripingEnabled)
+    {
+        this.spillStripingEnabled = spillStripingEnabled;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("64kB")
+    @MaxDataSize("64MB")
+    public DataSize getSpillStripeSize()
+    {
+        return spillStripeSize;
+    }
+
+    @Config("spill-stripe-size")
+    @ConfigDescription("Size of the chunks a spilled stream is striped in, when striping is enabled")
+    public NodeSpillConfig setSpillStripeSize(DataSize spillStripeSize)
+    {
+        this.spillStripeSize = spillStripeSize;
+        return this;
+    }
+
+    public boolean isSpillDirectIoEnabled()
+    {
+        return spillDirectIoEnabled;
+    }
+
+    @Config("spill-direct-io-enabled")
+    @ConfigDescription("Write striped spills bypassing the page cache, where supported")
+    public NodeSpillConfig setSpillDirectIoEnabled(boolean spillDirectIoEnabled)
+    {
+        this.spillDirectIoEnabled = spillDirectIoEnabled;
+        return this;
+    }
+
+    public boolean isSpillExchangeManagerEnabled()
+    {
+        return spillExchangeManagerEnabled;
+    }
+
+    @Config("spill-exchange-manager-enabled")
+    @ConfigDescription("Spill to the storage of the exchange manager instead of local disks, takes precedence over striping")
+    public NodeSpillConfig setSpillExchangeManagerEnabled(boolean spillExchangeManagerEnabled)
+    {
+        this.spillExchangeManagerEnabled = spillExchangeManagerEnabled;
+        return this;
+    }
 }
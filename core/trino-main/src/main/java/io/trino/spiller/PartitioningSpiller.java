@@ -20,6 +20,7 @@ import io.trino.spi.Page;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.function.IntPredicate;
 
 import static java.util.Objects.requireNonNull;
@@ -46,6 +47,14 @@ public interface PartitioningSpiller
     // TODO getSpilledPages should not need flush last buffer to disk
     Iterator<Page> getSpilledPages(int partition);
 
+    /**
+     * Returns all previously spilled pages from given partition. Callers are expected to call
+     * this method or {@link #getSpilledPages} once per partition.
+     * <p>
+     * This method may not be called if previously initiated spilling is not finished yet.
+     */
+    ListenableFuture<List<Page>> getAllSpilledPages(int partition);
+
     void verifyAllPartitionsRead();
 
     /**
@@ -0,0 +1,38 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.spiller;
+
+import java.nio.file.Path;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Spill path used by {@link StripedFileSingleStreamSpiller}, with the way files on it are written.
+ *
+ * @param directIoAlignment alignment of the file offsets, lengths and buffers of direct writes,
+ * or 0 when the path is written through the page cache
+ */
+record SpillDisk(Path path, SpillPathStats stats, int directIoAlignment)
+{
+    SpillDisk
+    {
+        requireNonNull(path, "path is null");
+        requireNonNull(stats, "stats is null");
+    }
+
+    public boolean isDirectIo()
+    {
+        return directIoAlignment > 0;
+    }
+}
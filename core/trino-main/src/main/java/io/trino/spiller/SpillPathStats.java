@@ -0,0 +1,124 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.spiller;
+
+import com.google.errorprone.annotations.ThreadSafe;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import io.airlift.stats.CounterStat;
+import io.airlift.stats.TimeStat;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Throughput and load of a single spill path. Besides being exported, the load is used to
+ * pick the spill path that is expected to complete a write the soonest.
+ */
+@ThreadSafe
+public class SpillPathStats
+{
+    // weight of the latest write in the moving average of the write cost
+    private static final double WRITE_COST_DECAY = 0.1;
+
+    private final CounterStat writtenBytes = new CounterStat();
+    private final CounterStat readBytes = new CounterStat();
+    private final TimeStat writeTime = new TimeStat(MILLISECONDS);
+    private final TimeStat readTime = new TimeStat(MILLISECONDS);
+    private final AtomicLong pendingWriteBytes = new AtomicLong();
+
+    @GuardedBy("this")
+    private double writeNanosPerByte;
+
+    public void writeStarted(long bytes)
+    {
+        pendingWriteBytes.addAndGet(bytes);
+    }
+
+    public void writeFinished(long bytes, long nanos)
+    {
+        pendingWriteBytes.addAndGet(-bytes);
+        writtenBytes.update(bytes);
+        writeTime.addNanos(nanos);
+        if (bytes > 0) {
+            updateWriteCost((double) nanos / bytes);
+        }
+    }
+
+    public void readFinished(long bytes, long nanos)
+    {
+        readBytes.update(bytes);
+        readTime.addNanos(nanos);
+    }
+
+    /**
+     * Estimates the time to write the given number of bytes after the writes already queued for this path.
+     */
+    public double estimateWriteNanos(long bytes)
+    {
+        return (pendingWriteBytes.get() + bytes) * getWriteNanosPerByte();
+    }
+
+    private synchronized void updateWriteCost(double nanosPerByte)
+    {
+        if (writeNanosPerByte == 0) {
+            writeNanosPerByte = nanosPerByte;
+        }
+        else {
+            writeNanosPerByte += WRITE_COST_DECAY * (nanosPerByte - writeNanosPerByte);
+        }
+    }
+
+    @Managed
+    public synchronized double getWriteNanosPerByte()
+    {
+        return writeNanosPerByte;
+    }
+
+    @Managed
+    public long getPendingWriteBytes()
+    {
+        return pendingWriteBytes.get();
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getWrittenBytes()
+    {
+        return writtenBytes;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getReadBytes()
+    {
+        return readBytes;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getWriteTime()
+    {
+        return writeTime;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getReadTime()
+    {
+        return readTime;
+    }
+}
@@ -33,6 +33,8 @@ public class SpillSpaceTracker
 
     @GuardedBy("this")
     private long currentBytes;
+    @GuardedBy("this")
+    private long currentRemoteBytes;
 
     public SpillSpaceTracker(DataSize maxSize)
     {
@@ -63,6 +65,22 @@ public class SpillSpaceTracker
         currentBytes -= bytes;
     }
 
+    /**
+     * Tracks bytes spilled to remote storage. These do not use the local disk, so they are not limited.
+     */
+    public synchronized void reserveRemote(long bytes)
+    {
+        checkArgument(bytes >= 0, "bytes is negative");
+        currentRemoteBytes += bytes;
+    }
+
+    public synchronized void freeRemote(long bytes)
+    {
+        checkArgument(bytes >= 0, "bytes is negative");
+        checkArgument(currentRemoteBytes - bytes >= 0, "tried to free more remote spill than is reserved");
+        currentRemoteBytes -= bytes;
+    }
+
     /**
      * Returns the number of bytes currently on disk.
      */
@@ -72,6 +90,15 @@ public class SpillSpaceTracker
         return currentBytes;
     }
 
+    /**
+     * Returns the number of bytes currently in remote storage.
+     */
+    @Managed
+    public synchronized long getCurrentRemoteBytes()
+    {
+        return currentRemoteBytes;
+    }
+
     @Managed
     public synchronized long getMaxBytes()
     {
@@ -84,6 +111,7 @@ public class SpillSpaceTracker
         return toStringHelper(this)
                 .add("maxBytes", maxBytes)
                 .add("currentBytes", currentBytes)
+                .add("currentRemoteBytes", currentRemoteBytes)
                 .toString();
     }
 }
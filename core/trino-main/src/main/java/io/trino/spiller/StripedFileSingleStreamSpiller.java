@@ -0,0 +1,426 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.spiller;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Closer;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.SettableFuture;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.airlift.units.DataSize;
+import io.trino.annotation.NotThreadSafe;
+import io.trino.execution.buffer.PageDeserializer;
+import io.trino.execution.buffer.PageSerializer;
+import io.trino.execution.buffer.PagesSerdeFactory;
+import io.trino.execution.buffer.PagesSerdeUtil;
+import io.trino.memory.context.LocalMemoryContext;
+import io.trino.operator.SpillContext;
+import io.trino.spi.Page;
+import io.trino.spi.TrinoException;
+
+import javax.crypto.SecretKey;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.trino.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static io.trino.spiller.FileSingleStreamSpillerFactory.SPILL_FILE_PREFIX;
+import static io.trino.spiller.FileSingleStreamSpillerFactory.SPILL_FILE_SUFFIX;
+import static io.trino.spiller.StripedFileSingleStreamSpillerFactory.getDirectOpenOption;
+import static java.lang.Math.max;
+import static java.lang.Math.toIntExact;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Spills a stream into chunks of serialized pages, writing every chunk to the spill path
+ * expected to complete the write the soonest. While the pages of a chunk are read back,
+ * the next chunk is read ahead on the spiller executor.
+ */
+@NotThreadSafe
+public class StripedFileSingleStreamSpiller
+        implements SingleStreamSpiller
+{
+    private final List<SpillDisk> disks;
+    private final int stripeSize;
+    private final int directIoAlignment;
+    private final Closer closer = Closer.create();
+    private final PagesSerdeFactory serdeFactory;
+    private volatile Optional<SecretKey> encryptionKey;
+    private final boolean encrypted;
+    private final SpillerStats spillerStats;
+    private final SpillContext localSpillContext;
+    private final LocalMemoryContext memoryContext;
+
+    private final ListeningExecutorService executor;
+
+    // accessed by one spill at a time, or after spilling is finished
+    private final List<Chunk> chunks = new ArrayList<>();
+    private ByteBuffer writeBuffer;
+
+    // files are created on first write, so they need to be guarded against a concurrent close
+    private final Map<SpillDisk, StripeFile> files = new HashMap<>();
+    private boolean closed;
+
+    private final AtomicBoolean writable = new AtomicBoolean(true);
+    private final AtomicLong spilledPagesInMemorySize = new AtomicLong();
+    private ListenableFuture<DataSize> spillInProgress = immediateFuture(DataSize.ofBytes(0L));
+
+    private final Runnable fileSystemErrorHandler;
+
+    public StripedFileSingleStreamSpiller(
+            PagesSerdeFactory serdeFactory,
+            Optional<SecretKey> encryptionKey,
+            ListeningExecutorService executor,
+            List<SpillDisk> disks,
+            int stripeSize,
+            SpillerStats spillerStats,
+            SpillContext spillContext,
+            LocalMemoryContext memoryContext,
+            Runnable fileSystemErrorHandler)
+    {
+        this.serdeFactory = requireNonNull(serdeFactory, "serdeFactory is null");
+        this.encryptionKey = requireNonNull(encryptionKey, "encryptionKey is null");
+        this.encrypted = encryptionKey.isPresent();
+        this.executor = requireNonNull(executor, "executor is null");
+        this.disks = ImmutableList.copyOf(requireNonNull(disks, "disks is null"));
+        checkArgument(!disks.isEmpty(), "disks is empty");
+        checkArgument(stripeSize > 0, "stripeSize must be positive");
+        this.stripeSize = stripeSize;
+        this.directIoAlignment = disks.stream()
+                .mapToInt(SpillDisk::directIoAlignment)
+                .max()
+                .orElseThrow();
+        this.spillerStats = requireNonNull(spillerStats, "spillerStats is null");
+        this.localSpillContext = spillContext.newLocalSpillContext();
+        this.memoryContext = requireNonNull(memoryContext, "memoryContext is null");
+        // Same as in FileSingleStreamSpiller, the memory is reserved up front and released on close, as the
+        // spiller threads may still hold the buffers when the spiller is closed. While spilling, the write
+        // buffer is used. While reading, the chunk being read and the chunk being read ahead are held.
+        this.memoryContext.setBytes(2L * stripeSize);
+        this.fileSystemErrorHandler = requireNonNull(fileSystemErrorHandler, "filesystemErrorHandler is null");
+    }
+
+    @Override
+    public ListenableFuture<DataSize> spill(Iterator<Page> pageIterator)
+    {
+        requireNonNull(pageIterator, "pageIterator is null");
+        checkNoSpillInProgress();
+        spillInProgress = Futures.submit(() -> writePages(pageIterator), executor);
+        return spillInProgress;
+    }
+
+    @Override
+    public long getSpilledPagesInMemorySize()
+    {
+        return spilledPagesInMemorySize.longValue();
+    }
+
+    @Override
+    public Iterator<Page> getSpilledPages()
+    {
+        checkNoSpillInProgress();
+        return readPages();
+    }
+
+    @Override
+    public ListenableFuture<List<Page>> getAllSpilledPages()
+    {
+        return executor.submit(() -> ImmutableList.copyOf(getSpilledPages()));
+    }
+
+    private DataSize writePages(Iterator<Page> pageIterator)
+    {
+        checkState(writable.get(), "Spilling no longer allowed. The spiller has been made non-writable on first read for subsequent reads to be consistent");
+
+        Optional<SecretKey> encryptionKey = this.encryptionKey;
+        checkState(encrypted == encryptionKey.isPresent(), "encryptionKey has been discarded");
+        PageSerializer serializer = serdeFactory.createSerializer(encryptionKey);
+        long spilledPagesBytes = 0;
+        try {
+            while (pageIterator.hasNext()) {
+                Page page = pageIterator.next();
+                long pageSizeInBytes = page.getSizeInBytes();
+                spilledPagesBytes += pageSizeInBytes;
+                spilledPagesInMemorySize.addAndGet(pageSizeInBytes);
+                Slice serializedPage = serializer.serialize(page);
+                long pageSize = serializedPage.length();
+                localSpillContext.updateBytes(pageSize);
+                spillerStats.addToTotalSpilledBytes(pageSize);
+
+                // chunks hold whole pages, so that every chunk can be deserialized on its own
+                if (writeBuffer != null && writeBuffer.position() > 0 && writeBuffer.remaining() < serializedPage.length()) {
+                    writeChunk();
+                }
+                ensureWriteBufferCapacity(serializedPage.length());
+                writeBuffer.put(serializedPage.byteArray(), serializedPage.byteArrayOffset(), serializedPage.length());
+            }
+            // the chunk is written before the spill completes, so the spilled pages are readable once it does
+            if (writeBuffer != null && writeBuffer.position() > 0) {
+                writeChunk();
+            }
+        }
+        catch (UncheckedIOException | IOException e) {
+            fileSystemErrorHandler.run();
+            throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to spill pages", e);
+        }
+        return DataSize.ofBytes(spilledPagesBytes);
+    }
+
+    private void ensureWriteBufferCapacity(int length)
+    {
+        if (writeBuffer != null && writeBuffer.capacity() >= length) {
+            return;
+        }
+        int capacity = max(stripeSize, length);
+        if (directIoAlignment == 0) {
+            writeBuffer = ByteBuffer.allocate(capacity);
+        }
+        else {
+            // direct I/O requires the buffer address and the length of the write to be aligned
+            capacity = alignUp(capacity, directIoAlignment);
+            writeBuffer = ByteBuffer.allocateDirect(capacity + directIoAlignment).alignedSlice(directIoAlignment);
+        }
+    }
+
+    private void writeChunk()
+            throws IOException
+    {
+        int length = writeBuffer.position();
+        SpillDisk disk = selectDisk(length);
+        int writeLength = disk.isDirectIo() ? alignUp(length, disk.directIoAlignment()) : length;
+        // padding of direct writes is never read back, so it is left as is
+        writeBuffer.position(0).limit(writeLength);
+
+        StripeFile file = getStripeFile(disk);
+        long offset = file.size;
+        disk.stats().writeStarted(writeLength);
+        long start = System.nanoTime();
+        try (FileChannel channel = file.holder.newFileChannel(file.writeOptions())) {
+            while (writeBuffer.hasRemaining()) {
+                channel.write(writeBuffer, offset + writeBuffer.position());
+            }
+        }
+        finally {
+            disk.stats().writeFinished(writeLength, System.nanoTime() - start);
+            writeBuffer.clear();
+        }
+        file.size += writeLength;
+        chunks.add(new Chunk(file, offset, length));
+    }
+
+    private SpillDisk selectDisk(long length)
+    {
+        SpillDisk selected = disks.get(0);
+        double selectedCost = selected.stats().estimateWriteNanos(length);
+        for (int i = 1; i < disks.size(); i++) {
+            SpillDisk disk = disks.get(i);
+            double cost = disk.stats().estimateWriteNanos(length);
+            // paths without writes yet have no cost estimate, so the queued bytes decide between them
+            if (cost < selectedCost || (cost == selectedCost && disk.stats().getPendingWriteBytes() < selected.stats().getPendingWriteBytes())) {
+                selected = disk;
+                selectedCost = cost;
+            }
+        }
+        return selected;
+    }
+
+    private synchronized StripeFile getStripeFile(SpillDisk disk)
+    {
+        checkState(!closed, "Spiller is closed");
+        StripeFile file = files.get(disk);
+        if (file == null) {
+            try {
+                file = new StripeFile(disk, closer.register(new FileHolder(Files.createTempFile(disk.path(), SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX))));
+            }
+            catch (IOException e) {
+                fileSystemErrorHandler.run();
+                throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to create spill file", e);
+            }
+            files.put(disk, file);
+        }
+        return file;
+    }
+
+    private Iterator<Page> readPages()
+    {
+        checkState(writable.getAndSet(false), "Repeated reads are disallowed to prevent potential resource leaks");
+
+        Optional<SecretKey> encryptionKey = this.encryptionKey;
+        checkState(encrypted == encryptionKey.isPresent(), "encryptionKey has been discarded");
+        PageDeserializer deserializer = serdeFactory.createDeserializer(encryptionKey);
+        // encryption key is safe to discard since it now belongs to the PageDeserializer and repeated reads are disallowed
+        this.encryptionKey = Optional.empty();
+        writeBuffer = null;
+
+        List<Chunk> chunks = ImmutableList.copyOf(this.chunks);
+        return new AbstractIterator<>()
+        {
+            private Iterator<Page> pages = Collections.emptyIterator();
+            private int nextChunk;
+            private ChunkRead readAhead;
+
+            @Override
+            protected Page computeNext()
+            {
+                while (!pages.hasNext()) {
+                    if (nextChunk == chunks.size()) {
+                        return endOfData();
+                    }
+                    ChunkRead chunkRead = readAhead != null ? readAhead : new ChunkRead(chunks.get(nextChunk));
+                    nextChunk++;
+                    readAhead = null;
+                    if (nextChunk < chunks.size()) {
+                        readAhead = new ChunkRead(chunks.get(nextChunk));
+                        executor.execute(readAhead::tryRead);
+                    }
+                    pages = PagesSerdeUtil.readPages(deserializer, chunkRead.getData().getInput());
+                }
+                return pages.next();
+            }
+        };
+    }
+
+    private Slice readChunk(Chunk chunk)
+    {
+        byte[] data = new byte[chunk.length()];
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        long start = System.nanoTime();
+        // the chunks are read through the page cache, the reads are not aligned
+        try (FileChannel channel = chunk.file().holder.newFileChannel(READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, chunk.offset() + buffer.position()) < 0) {
+                    throw new EOFException("Unexpected end of spill file");
+                }
+            }
+        }
+        catch (IOException e) {
+            fileSystemErrorHandler.run();
+            throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to read spilled pages", e);
+        }
+        chunk.file().disk.stats().readFinished(data.length, System.nanoTime() - start);
+        return Slices.wrappedBuffer(data);
+    }
+
+    @Override
+    public void close()
+    {
+        encryptionKey = Optional.empty();
+
+        synchronized (this) {
+            closed = true;
+            closer.register(localSpillContext);
+            closer.register(() -> memoryContext.setBytes(0));
+            try {
+                closer.close();
+            }
+            catch (IOException e) {
+                fileSystemErrorHandler.run();
+                throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to close spiller", e);
+            }
+        }
+    }
+
+    private void checkNoSpillInProgress()
+    {
+        checkState(spillInProgress.isDone(), "spill in progress");
+    }
+
+    private static int alignUp(int value, int alignment)
+    {
+        return toIntExact((((long) value + alignment - 1) / alignment) * alignment);
+    }
+
+    private static final class StripeFile
+    {
+        private final SpillDisk disk;
+        private final FileHolder holder;
+        private long size;
+
+        private StripeFile(SpillDisk disk, FileHolder holder)
+        {
+            this.disk = requireNonNull(disk, "disk is null");
+            this.holder = requireNonNull(holder, "holder is null");
+        }
+
+        private OpenOption[] writeOptions()
+        {
+            if (disk.isDirectIo()) {
+                return new OpenOption[] {WRITE, getDirectOpenOption().orElseThrow()};
+            }
+            return new OpenOption[] {WRITE};
+        }
+    }
+
+    private record Chunk(StripeFile file, long offset, int length) {}
+
+    /**
+     * Read of a chunk which is started by whichever comes first: the read ahead on the executor,
+     * or the iterator needing the chunk. The iterator never waits for a read that has not started,
+     * so reading ahead cannot stall on a saturated executor.
+     */
+    private final class ChunkRead
+    {
+        private final Chunk chunk;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final SettableFuture<Slice> data = SettableFuture.create();
+
+        private ChunkRead(Chunk chunk)
+        {
+            this.chunk = requireNonNull(chunk, "chunk is null");
+        }
+
+        public void tryRead()
+        {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                data.set(readChunk(chunk));
+            }
+            catch (Throwable t) {
+                data.setException(t);
+            }
+        }
+
+        public Slice getData()
+        {
+            tryRead();
+            return getFutureValue(data);
+        }
+    }
+}
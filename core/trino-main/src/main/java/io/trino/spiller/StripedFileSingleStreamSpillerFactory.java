@@ -0,0 +1,266 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.spiller;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import com.google.inject.Inject;
+import io.airlift.log.Logger;
+import io.airlift.units.DataSize;
+import io.trino.FeaturesConfig;
+import io.trino.cache.NonKeyEvictableLoadingCache;
+import io.trino.execution.buffer.CompressionCodec;
+import io.trino.execution.buffer.PagesSerdeFactory;
+import io.trino.memory.context.LocalMemoryContext;
+import io.trino.operator.SpillContext;
+import io.trino.spi.TrinoException;
+import io.trino.spi.block.BlockEncodingSerde;
+import io.trino.spi.type.Type;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.weakref.jmx.JmxException;
+import org.weakref.jmx.MBeanExport;
+import org.weakref.jmx.MBeanExporter;
+
+import javax.crypto.SecretKey;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.trino.cache.SafeCaches.buildNonEvictableCacheWithWeakInvalidateAll;
+import static io.trino.execution.buffer.PagesSerdes.createSpillingPagesSerdeFactory;
+import static io.trino.spi.StandardErrorCode.OUT_OF_SPILL_SPACE;
+import static io.trino.spiller.FileSingleStreamSpillerFactory.SPILL_FILE_PREFIX;
+import static io.trino.spiller.FileSingleStreamSpillerFactory.SPILL_FILE_SUFFIX;
+import static io.trino.spiller.FileSingleStreamSpillerFactory.hasEnoughDiskSpace;
+import static io.trino.spiller.FileSingleStreamSpillerFactory.isAccessible;
+import static io.trino.spiller.FileSingleStreamSpillerFactory.isSeeminglyHealthy;
+import static io.trino.util.Ciphers.createRandomAesEncryptionKey;
+import static java.lang.Math.max;
+import static java.lang.Math.toIntExact;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.Files.getFileStore;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+
+/**
+ * Creates spillers which stripe every stream over all spill paths, instead of writing each
+ * stream to a single spill path chosen round-robin.
+ */
+public class StripedFileSingleStreamSpillerFactory
+        implements SingleStreamSpillerFactory
+{
+    private static final Logger log = Logger.get(StripedFileSingleStreamSpillerFactory.class);
+
+    private static final Duration SPILL_PATH_HEALTH_EXPIRY_INTERVAL = Duration.ofMinutes(5);
+    private static final int MIN_DIRECT_IO_ALIGNMENT = 4096;
+    private static final Optional<OpenOption> DIRECT_OPEN_OPTION = findDirectOpenOption();
+
+    private final ListeningExecutorService executor;
+    private final PagesSerdeFactory serdeFactory;
+    private final List<SpillDisk> disks;
+    private final SpillerStats spillerStats;
+    private final double maxUsedSpaceThreshold;
+    private final boolean spillEncryptionEnabled;
+    private final int stripeSize;
+    private final NonKeyEvictableLoadingCache<Path, Boolean> spillPathHealthCache;
+
+    @GuardedBy("this")
+    private final List<MBeanExport> mbeanExports = new ArrayList<>();
+
+    @Inject
+    public StripedFileSingleStreamSpillerFactory(
+            BlockEncodingSerde blockEncodingSerde,
+            SpillerStats spillerStats,
+            FeaturesConfig featuresConfig,
+            NodeSpillConfig nodeSpillConfig,
+            MBeanExporter exporter)
+    {
+        this(
+                listeningDecorator(newFixedThreadPool(
+                        featuresConfig.getSpillerThreads(),
+                        daemonThreadsNamed("striped-spiller-%s"))),
+                requireNonNull(blockEncodingSerde, "blockEncodingSerde is null"),
+                spillerStats,
+                featuresConfig.getSpillerSpillPaths(),
+                featuresConfig.getSpillMaxUsedSpaceThreshold(),
+                nodeSpillConfig.getSpillCompressionCodec(),
+                nodeSpillConfig.isSpillEncryptionEnabled(),
+                nodeSpillConfig.getSpillStripeSize(),
+                nodeSpillConfig.isSpillDirectIoEnabled());
+
+        requireNonNull(exporter, "exporter is null");
+        synchronized (this) {
+            for (SpillDisk disk : disks) {
+                try {
+                    mbeanExports.add(exporter.exportWithGeneratedName(disk.stats(), SpillPathStats.class, ImmutableMap.of("path", disk.path().toString())));
+                }
+                catch (JmxException e) {
+                    // ignored
+                }
+            }
+        }
+    }
+
+    @VisibleForTesting
+    public StripedFileSingleStreamSpillerFactory(
+            ListeningExecutorService executor,
+            BlockEncodingSerde blockEncodingSerde,
+            SpillerStats spillerStats,
+            List<Path> spillPaths,
+            double maxUsedSpaceThreshold,
+            CompressionCodec compressionCodec,
+            boolean spillEncryptionEnabled,
+            DataSize stripeSize,
+            boolean directIoEnabled)
+    {
+        this.serdeFactory = createSpillingPagesSerdeFactory(blockEncodingSerde, compressionCodec);
+        this.executor = requireNonNull(executor, "executor is null");
+        this.spillerStats = requireNonNull(spillerStats, "spillerStats cannot be null");
+        requireNonNull(spillPaths, "spillPaths is null");
+        spillPaths.forEach(FileSingleStreamSpillerFactory::createSpillPath);
+        this.disks = spillPaths.stream()
+                .map(path -> new SpillDisk(path, spillerStats.getSpillPathStats(path), directIoEnabled ? getDirectIoAlignment(path) : 0))
+                .collect(toImmutableList());
+        this.maxUsedSpaceThreshold = maxUsedSpaceThreshold;
+        this.spillEncryptionEnabled = spillEncryptionEnabled;
+        this.stripeSize = toIntExact(stripeSize.toBytes());
+        checkArgument(this.stripeSize > 0, "stripeSize must be positive");
+
+        this.spillPathHealthCache = buildNonEvictableCacheWithWeakInvalidateAll(
+                CacheBuilder.newBuilder()
+                        .expireAfterWrite(SPILL_PATH_HEALTH_EXPIRY_INTERVAL),
+                CacheLoader.from(path -> isAccessible(path) && isSeeminglyHealthy(path)));
+    }
+
+    @PostConstruct
+    public void cleanupOldSpillFiles()
+    {
+        disks.forEach(disk -> FileSingleStreamSpillerFactory.cleanupOldSpillFiles(disk.path()));
+    }
+
+    @PreDestroy
+    public synchronized void destroy()
+    {
+        executor.shutdownNow();
+        for (MBeanExport mbeanExport : mbeanExports) {
+            try {
+                mbeanExport.unexport();
+            }
+            catch (JmxException e) {
+                // ignored
+            }
+        }
+        mbeanExports.clear();
+    }
+
+    @Override
+    public SingleStreamSpiller create(List<Type> types, SpillContext spillContext, LocalMemoryContext memoryContext)
+    {
+        Optional<SecretKey> encryptionKey = spillEncryptionEnabled ? Optional.of(createRandomAesEncryptionKey()) : Optional.empty();
+        return new StripedFileSingleStreamSpiller(
+                serdeFactory,
+                encryptionKey,
+                executor,
+                getAvailableDisks(),
+                stripeSize,
+                spillerStats,
+                spillContext,
+                memoryContext,
+                spillPathHealthCache::invalidateAll);
+    }
+
+    private List<SpillDisk> getAvailableDisks()
+    {
+        if (disks.isEmpty()) {
+            throw new TrinoException(OUT_OF_SPILL_SPACE, "No spill paths configured");
+        }
+        List<SpillDisk> availableDisks = disks.stream()
+                .filter(disk -> hasEnoughDiskSpace(disk.path(), maxUsedSpaceThreshold) && spillPathHealthCache.getUnchecked(disk.path()))
+                .collect(toImmutableList());
+        if (availableDisks.isEmpty()) {
+            throw new TrinoException(OUT_OF_SPILL_SPACE, "No free or healthy space available for spill");
+        }
+        return availableDisks;
+    }
+
+    private static int getDirectIoAlignment(Path path)
+    {
+        if (DIRECT_OPEN_OPTION.isEmpty()) {
+            log.warn("Direct I/O is not supported by the JVM, spilling to %s through the page cache", path);
+            return 0;
+        }
+        Path probe = null;
+        try {
+            int alignment = toIntExact(max(MIN_DIRECT_IO_ALIGNMENT, getFileStore(path).getBlockSize()));
+            probe = createTempFile(path, SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX);
+            try (FileChannel channel = FileChannel.open(probe, WRITE, DIRECT_OPEN_OPTION.get())) {
+                channel.write(ByteBuffer.allocateDirect(alignment * 2).alignedSlice(alignment).limit(alignment));
+            }
+            return alignment;
+        }
+        catch (IOException | UnsupportedOperationException e) {
+            log.warn(e, "Direct I/O is not supported for spill path %s, spilling through the page cache", path);
+            return 0;
+        }
+        finally {
+            if (probe != null) {
+                try {
+                    deleteIfExists(probe);
+                }
+                catch (IOException e) {
+                    log.warn(e, "Could not delete spill probe file: %s", probe);
+                }
+            }
+        }
+    }
+
+    private static Optional<OpenOption> findDirectOpenOption()
+    {
+        // ExtendedOpenOption is a JDK specific API, so it is looked up instead of being linked against
+        try {
+            for (Object option : Class.forName("com.sun.nio.file.ExtendedOpenOption").getEnumConstants()) {
+                if (((Enum<?>) option).name().equals("DIRECT")) {
+                    return Optional.of((OpenOption) option);
+                }
+            }
+        }
+        catch (ClassNotFoundException e) {
+            // not available
+        }
+        return Optional.empty();
+    }
+
+    static Optional<OpenOption> getDirectOpenOption()
+    {
+        return DIRECT_OPEN_OPTION;
+    }
+}
@@ -14,6 +14,7 @@
 package io.trino.sql.gen;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
 import io.trino.operator.project.CursorProcessor;
 import io.trino.operator.project.PageFilter;
@@ -21,9 +22,12 @@ import io.trino.operator.project.PageProcessor;
 import io.trino.operator.project.PageProjection;
 import io.trino.spi.connector.DynamicFilter;
 import io.trino.sql.gen.columnar.ColumnarFilterCompiler;
+import io.trino.sql.gen.columnar.ColumnarProjectionCompiler;
 import io.trino.sql.gen.columnar.DynamicPageFilter;
 import io.trino.sql.gen.columnar.FilterEvaluator;
 import io.trino.sql.gen.columnar.PageFilterEvaluator;
+import io.trino.sql.relational.ConstantExpression;
+import io.trino.sql.relational.InputReferenceExpression;
 import io.trino.sql.relational.RowExpression;
 
 import java.util.List;
@@ -41,13 +45,19 @@ public class ExpressionCompiler
     private final CursorProcessorCompiler cursorProcessorCompiler;
     private final PageFunctionCompiler pageFunctionCompiler;
     private final ColumnarFilterCompiler columnarFilterCompiler;
+    private final ColumnarProjectionCompiler columnarProjectionCompiler;
 
     @Inject
-    public ExpressionCompiler(CursorProcessorCompiler cursorProcessorCompiler, PageFunctionCompiler pageFunctionCompiler, ColumnarFilterCompiler columnarFilterCompiler)
+    public ExpressionCompiler(
+            CursorProcessorCompiler cursorProcessorCompiler,
+            PageFunctionCompiler pageFunctionCompiler,
+            ColumnarFilterCompiler columnarFilterCompiler,
+            ColumnarProjectionCompiler columnarProjectionCompiler)
     {
         this.cursorProcessorCompiler = requireNonNull(cursorProcessorCompiler, "cursorProcessorCompiler is null");
         this.pageFunctionCompiler = requireNonNull(pageFunctionCompiler, "pageFunctionCompiler is null");
         this.columnarFilterCompiler = requireNonNull(columnarFilterCompiler, "columnarFilterCompiler is null");
+        this.columnarProjectionCompiler = requireNonNull(columnarProjectionCompiler, "columnarProjectionCompiler is null");
     }
 
     public Supplier<CursorProcessor> compileCursorProcessor(Optional<RowExpression> filter, List<RowExpression> projections, Object uniqueKey)
@@ -62,6 +72,18 @@ public class ExpressionCompiler
             List<? extends RowExpression> projections,
             Optional<String> classNameSuffix,
             OptionalInt initialBatchSize)
+    {
+        return compilePageProcessor(columnarFilterEvaluationEnabled, false, filter, dynamicPageFilter, projections, classNameSuffix, initialBatchSize);
+    }
+
+    public Function<DynamicFilter, PageProcessor> compilePageProcessor(
+            boolean columnarFilterEvaluationEnabled,
+            boolean columnarProjectionEvaluationEnabled,
+            Optional<RowExpression> filter,
+            Optional<DynamicPageFilter> dynamicPageFilter,
+            List<? extends RowExpression> projections,
+            Optional<String> classNameSuffix,
+            OptionalInt initialBatchSize)
     {
         Optional<Supplier<PageFilter>> filterFunctionSupplier = Optional.empty();
         Optional<Supplier<FilterEvaluator>> columnarFilterEvaluatorSupplier = createColumnarFilterEvaluator(columnarFilterEvaluationEnabled, filter, columnarFilterCompiler);
@@ -69,9 +91,14 @@ public class ExpressionCompiler
             filterFunctionSupplier = filter.map(expression -> pageFunctionCompiler.compileFilter(expression, classNameSuffix));
         }
 
-        List<Supplier<PageProjection>> pageProjectionSuppliers = projections.stream()
-                .map(projection -> pageFunctionCompiler.compileProjection(projection, classNameSuffix))
-                .collect(toImmutableList());
+        Optional<List<Supplier<PageProjection>>> columnarProjectionSuppliers = Optional.empty();
+        if (columnarProjectionEvaluationEnabled) {
+            columnarProjectionSuppliers = compileColumnarProjections(projections, classNameSuffix);
+        }
+        List<Supplier<PageProjection>> pageProjectionSuppliers = columnarProjectionSuppliers
+                .orElseGet(() -> projections.stream()
+                        .map(projection -> pageFunctionCompiler.compileProjection(projection, classNameSuffix))
+                        .collect(toImmutableList()));
 
         Optional<Supplier<PageFilter>> finalFilterFunctionSupplier = filterFunctionSupplier;
         return (dynamicFilter) -> {
@@ -91,6 +118,27 @@ public class ExpressionCompiler
         };
     }
 
+    /**
+     * Columnar projections are used only when every projection which needs evaluation is supported,
+     * so the projections of a page are either all columnar or all generated per position.
+     */
+    private Optional<List<Supplier<PageProjection>>> compileColumnarProjections(List<? extends RowExpression> projections, Optional<String> classNameSuffix)
+    {
+        ImmutableList.Builder<Supplier<PageProjection>> pageProjectionSuppliers = ImmutableList.builder();
+        for (RowExpression projection : projections) {
+            if (projection instanceof InputReferenceExpression || projection instanceof ConstantExpression) {
+                pageProjectionSuppliers.add(pageFunctionCompiler.compileProjection(projection, classNameSuffix));
+                continue;
+            }
+            Optional<Supplier<PageProjection>> columnarProjection = columnarProjectionCompiler.generateProjection(projection);
+            if (columnarProjection.isEmpty()) {
+                return Optional.empty();
+            }
+            pageProjectionSuppliers.add(columnarProjection.get());
+        }
+        return Optional.of(pageProjectionSuppliers.build());
+    }
+
     @VisibleForTesting
     public Supplier<PageProcessor> compilePageProcessor(Optional<RowExpression> filter, List<? extends RowExpression> projections)
     {
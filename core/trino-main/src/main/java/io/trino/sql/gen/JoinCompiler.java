@@ -38,11 +38,13 @@ import io.trino.cache.CacheStatsMBean;
 import io.trino.cache.NonEvictableLoadingCache;
 import io.trino.operator.HashArraySizeSupplier;
 import io.trino.operator.PagesHashStrategy;
+import io.trino.operator.join.AbstractPagesHash;
 import io.trino.operator.join.BigintPagesHash;
 import io.trino.operator.join.DefaultPagesHash;
 import io.trino.operator.join.JoinHash;
 import io.trino.operator.join.JoinHashSupplier;
 import io.trino.operator.join.LookupSourceSupplier;
+import io.trino.operator.join.OffHeapPagesHash;
 import io.trino.operator.join.PagesHash;
 import io.trino.operator.join.unspilled.PartitionedLookupSource;
 import io.trino.spi.Page;
@@ -194,7 +196,9 @@ public class JoinCompiler
                 JoinHash.class,
                 PagesHash.class,
                 BigintPagesHash.class,
+                AbstractPagesHash.class,
                 DefaultPagesHash.class,
+                OffHeapPagesHash.class,
                 PartitionedLookupSource.class);
         return new LookupSourceSupplierFactory(joinHashSupplierClass, new PagesHashStrategyFactory(pagesHashStrategyClass), singleBigintJoinChannel);
     }
@@ -282,7 +282,7 @@ public class CallColumnarFilterGenerator
                 position);
     }
 
-    private static BytecodeBlock generateFullInvocation(
+    static BytecodeBlock generateFullInvocation(
             FunctionManager functionManager,
             Function<MethodHandle, BytecodeNode> instanceFactory,
             CallSiteBinder binder,
@@ -398,7 +398,7 @@ public class CallColumnarFilterGenerator
                 .append(loadConstant(binding));
     }
 
-    private static void generateConstructor(ClassDefinition classDefinition, CachedInstanceBinder cachedInstanceBinder)
+    static void generateConstructor(ClassDefinition classDefinition, CachedInstanceBinder cachedInstanceBinder)
     {
         MethodDefinition constructorDefinition = classDefinition.declareConstructor(a(PUBLIC));
 
@@ -413,7 +413,7 @@ public class CallColumnarFilterGenerator
         body.ret();
     }
 
-    private static final class CachedInstanceBinder
+    static final class CachedInstanceBinder
     {
         private final ClassDefinition classDefinition;
         private final CallSiteBinder callSiteBinder;
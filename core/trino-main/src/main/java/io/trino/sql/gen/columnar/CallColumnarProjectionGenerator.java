@@ -0,0 +1,279 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.sql.gen.columnar;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.bytecode.BytecodeBlock;
+import io.airlift.bytecode.BytecodeNode;
+import io.airlift.bytecode.ClassDefinition;
+import io.airlift.bytecode.MethodDefinition;
+import io.airlift.bytecode.Parameter;
+import io.airlift.bytecode.Scope;
+import io.airlift.bytecode.Variable;
+import io.airlift.bytecode.control.ForLoop;
+import io.airlift.bytecode.control.IfStatement;
+import io.airlift.bytecode.expression.BytecodeExpression;
+import io.trino.metadata.FunctionManager;
+import io.trino.operator.project.PageProjection;
+import io.trino.spi.connector.ConnectorSession;
+import io.trino.spi.connector.SourcePage;
+import io.trino.spi.function.FunctionNullability;
+import io.trino.sql.gen.CallSiteBinder;
+import io.trino.sql.gen.columnar.CallColumnarFilterGenerator.CachedInstanceBinder;
+import io.trino.sql.relational.CallExpression;
+import io.trino.sql.relational.ConstantExpression;
+import io.trino.sql.relational.InputReferenceExpression;
+import io.trino.type.FunctionType;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static io.airlift.bytecode.Access.FINAL;
+import static io.airlift.bytecode.Access.PUBLIC;
+import static io.airlift.bytecode.Access.a;
+import static io.airlift.bytecode.Parameter.arg;
+import static io.airlift.bytecode.ParameterizedType.type;
+import static io.airlift.bytecode.expression.BytecodeExpressions.add;
+import static io.airlift.bytecode.expression.BytecodeExpressions.constantFalse;
+import static io.airlift.bytecode.expression.BytecodeExpressions.constantInt;
+import static io.airlift.bytecode.expression.BytecodeExpressions.constantTrue;
+import static io.airlift.bytecode.expression.BytecodeExpressions.inlineIf;
+import static io.airlift.bytecode.expression.BytecodeExpressions.invokeStatic;
+import static io.airlift.bytecode.expression.BytecodeExpressions.lessThan;
+import static io.trino.sql.gen.columnar.CallColumnarFilterGenerator.generateConstructor;
+import static io.trino.sql.gen.columnar.CallColumnarFilterGenerator.generateFullInvocation;
+import static io.trino.sql.gen.columnar.ColumnarFilterCompiler.declareBlockVariables;
+import static io.trino.sql.gen.columnar.ColumnarFilterCompiler.generateBlockMayHaveNull;
+import static io.trino.sql.gen.columnar.ColumnarFilterCompiler.generateBlockPositionNotNull;
+import static io.trino.sql.gen.columnar.ColumnarFilterCompiler.generateGetInputChannels;
+import static io.trino.sql.gen.columnar.ColumnarPageProjection.getValuesArrayType;
+import static io.trino.sql.gen.columnar.ColumnarPageProjection.isSupportedType;
+import static io.trino.sql.gen.columnar.ColumnarProjectionCompiler.createClassInstance;
+import static io.trino.sql.relational.DeterminismEvaluator.isDeterministic;
+import static io.trino.util.CompilerUtils.makeClassName;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Generates a {@link ColumnarProjection} for a function call whose arguments are input references or constants,
+ * e.g. arithmetic, casts and scalar string functions. The generated loops write the results into the values
+ * array of the output block, so they have no per position block builder calls.
+ */
+public class CallColumnarProjectionGenerator
+{
+    private final CallExpression callExpression;
+    private final FunctionManager functionManager;
+    private final Class<?> valuesArrayType;
+
+    public CallColumnarProjectionGenerator(CallExpression callExpression, FunctionManager functionManager)
+    {
+        callExpression.arguments().forEach(rowExpression -> {
+            if (!(rowExpression instanceof InputReferenceExpression) && !(rowExpression instanceof ConstantExpression)) {
+                throw new UnsupportedOperationException("Call expression with unsupported argument: " + rowExpression);
+            }
+            if (rowExpression instanceof ConstantExpression constant) {
+                if (constant.value() == null) {
+                    throw new UnsupportedOperationException("Call expressions with null constant are not supported");
+                }
+            }
+        });
+        callExpression.resolvedFunction().signature().getArgumentTypes().forEach(type -> {
+            if (type instanceof FunctionType) {
+                throw new UnsupportedOperationException("Functions with lambda arguments are not supported");
+            }
+        });
+        if (callExpression.resolvedFunction().functionNullability().isReturnNullable()) {
+            throw new UnsupportedOperationException("Functions with nullable return are not supported");
+        }
+        if (!isSupportedType(callExpression.type())) {
+            throw new UnsupportedOperationException("Functions returning " + callExpression.type() + " are not supported");
+        }
+        this.callExpression = callExpression;
+        this.functionManager = requireNonNull(functionManager, "functionManager is null");
+        this.valuesArrayType = getValuesArrayType(callExpression.type().getValueBlockType());
+    }
+
+    public Supplier<PageProjection> generateColumnarProjection()
+    {
+        ClassDefinition classDefinition = new ClassDefinition(
+                a(PUBLIC, FINAL),
+                makeClassName(ColumnarProjection.class.getSimpleName() + callExpression.resolvedFunction().signature().getName(), Optional.empty()),
+                type(Object.class),
+                type(ColumnarProjection.class));
+
+        CallSiteBinder callSiteBinder = new CallSiteBinder();
+        CachedInstanceBinder cachedInstanceBinder = new CachedInstanceBinder(classDefinition, callSiteBinder);
+
+        generateGetInputChannels(callSiteBinder, classDefinition, callExpression);
+
+        generateProjectRangeMethod(classDefinition, callSiteBinder, cachedInstanceBinder);
+        generateProjectListMethod(classDefinition, callSiteBinder, cachedInstanceBinder);
+
+        generateConstructor(classDefinition, cachedInstanceBinder);
+        Supplier<ColumnarProjection> columnarProjection = createClassInstance(callSiteBinder, classDefinition);
+        boolean isDeterministic = isDeterministic(callExpression);
+        return () -> new ColumnarPageProjection(callExpression, isDeterministic, columnarProjection.get());
+    }
+
+    private void generateProjectRangeMethod(ClassDefinition classDefinition, CallSiteBinder callSiteBinder, CachedInstanceBinder cachedInstanceBinder)
+    {
+        Parameter session = arg("session", ConnectorSession.class);
+        Parameter valueIsNull = arg("valueIsNull", boolean[].class);
+        Parameter values = arg("values", Object.class);
+        Parameter offset = arg("offset", int.class);
+        Parameter size = arg("size", int.class);
+        Parameter page = arg("page", SourcePage.class);
+
+        MethodDefinition method = classDefinition.declareMethod(
+                a(PUBLIC),
+                "projectPositionsRange",
+                type(boolean.class),
+                ImmutableList.of(session, valueIsNull, values, offset, size, page));
+        Scope scope = method.getScope();
+        BytecodeBlock body = method.getBody();
+
+        /* for (index = 0; index < size; index++) {
+         *     position = offset + index;
+         *     ...
+         * }
+         */
+        generateProjectLoops(scope, body, callSiteBinder, cachedInstanceBinder, page, valueIsNull, values, size, index -> add(offset, index));
+    }
+
+    private void generateProjectListMethod(ClassDefinition classDefinition, CallSiteBinder callSiteBinder, CachedInstanceBinder cachedInstanceBinder)
+    {
+        Parameter session = arg("session", ConnectorSession.class);
+        Parameter valueIsNull = arg("valueIsNull", boolean[].class);
+        Parameter values = arg("values", Object.class);
+        Parameter activePositions = arg("activePositions", int[].class);
+        Parameter offset = arg("offset", int.class);
+        Parameter size = arg("size", int.class);
+        Parameter page = arg("page", SourcePage.class);
+
+        MethodDefinition method = classDefinition.declareMethod(
+                a(PUBLIC),
+                "projectPositionsList",
+                type(boolean.class),
+                ImmutableList.of(session, valueIsNull, values, activePositions, offset, size, page));
+        Scope scope = method.getScope();
+        BytecodeBlock body = method.getBody();
+
+        /* for (index = 0; index < size; index++) {
+         *     position = activePositions[offset + index];
+         *     ...
+         * }
+         */
+        generateProjectLoops(scope, body, callSiteBinder, cachedInstanceBinder, page, valueIsNull, values, size, index -> activePositions.getElement(add(offset, index)));
+    }
+
+    private void generateProjectLoops(
+            Scope scope,
+            BytecodeBlock body,
+            CallSiteBinder callSiteBinder,
+            CachedInstanceBinder cachedInstanceBinder,
+            Parameter page,
+            Parameter valueIsNull,
+            Parameter values,
+            Parameter size,
+            Function<Variable, BytecodeExpression> positionOfIndex)
+    {
+        declareBlockVariables(callExpression.arguments(), page, scope, body);
+
+        Variable output = scope.declareVariable("output", body, values.cast(valuesArrayType));
+        Variable hasNull = scope.declareVariable("hasNull", body, constantFalse());
+        Variable index = scope.declareVariable(int.class, "index");
+        Variable position = scope.declareVariable(int.class, "position");
+        Variable result = scope.declareVariable(callExpression.type().getJavaType(), "result");
+
+        FunctionNullability functionNullability = callExpression.resolvedFunction().functionNullability();
+        IfStatement ifStatement = new IfStatement()
+                .condition(generateBlockMayHaveNull(callExpression.arguments(), functionNullability.getArgumentNullable(), scope));
+        body.append(ifStatement);
+        Function<MethodHandle, BytecodeNode> instance = instanceFactory -> scope.getThis().getField(cachedInstanceBinder.getCachedInstance(instanceFactory));
+
+        /* if (block_0.mayHaveNull() || block_1.mayHaveNull()...) {
+         *     for (index = 0; index < size; index++) {
+         *         if (!block_0.isNull(position) && !block_1.isNull(position)...) {
+         *             output[index] = call_function(position, block_0, block_1, ...);
+         *         }
+         *         else {
+         *             valueIsNull[index] = true;
+         *             hasNull = true;
+         *         }
+         *     }
+         * }
+         */
+        ifStatement.ifTrue(new ForLoop("nullable loop")
+                .initialize(index.set(constantInt(0)))
+                .condition(lessThan(index, size))
+                .update(index.increment())
+                .body(new BytecodeBlock()
+                        .append(position.set(positionOfIndex.apply(index)))
+                        .append(new IfStatement()
+                                .condition(generateBlockPositionNotNull(callExpression.arguments(), functionNullability.getArgumentNullable(), scope, position))
+                                .ifTrue(new BytecodeBlock()
+                                        .append(generateFullInvocation(functionManager, instance, callSiteBinder, callExpression, scope, position)
+                                                .putVariable(result))
+                                        .append(output.setElement(index, toArrayElement(result))))
+                                .ifFalse(new BytecodeBlock()
+                                        .append(valueIsNull.setElement(index, constantTrue()))
+                                        .append(hasNull.set(constantTrue()))))));
+
+        /* for (index = 0; index < size; index++) {
+         *     output[index] = call_function(position, block_0, block_1, ...);
+         * }
+         */
+        ifStatement.ifFalse(new ForLoop("non-nullable loop")
+                .initialize(index.set(constantInt(0)))
+                .condition(lessThan(index, size))
+                .update(index.increment())
+                .body(new BytecodeBlock()
+                        .append(position.set(positionOfIndex.apply(index)))
+                        .append(generateFullInvocation(functionManager, instance, callSiteBinder, callExpression, scope, position)
+                                .putVariable(result))
+                        .append(output.setElement(index, toArrayElement(result)))));
+
+        body.append(hasNull.ret());
+    }
+
+    /**
+     * Converts the stack representation of the result to the element type of the values array,
+     * the same way as the write methods of the type.
+     */
+    private BytecodeExpression toArrayElement(Variable result)
+    {
+        Class<?> javaType = callExpression.type().getJavaType();
+        if (valuesArrayType == long[].class) {
+            if (javaType == double.class) {
+                return invokeStatic(Double.class, "doubleToLongBits", long.class, result);
+            }
+            return result;
+        }
+        if (valuesArrayType == int[].class) {
+            return result.cast(int.class);
+        }
+        if (valuesArrayType == short[].class) {
+            return result.cast(short.class);
+        }
+        if (valuesArrayType == byte[].class) {
+            if (javaType == boolean.class) {
+                // same encoding as BooleanType
+                return inlineIf(result, constantInt(1), constantInt(0)).cast(byte.class);
+            }
+            return result.cast(byte.class);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.sql.gen.columnar;
+
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.trino.operator.CompletedWork;
+import io.trino.operator.DriverYieldSignal;
+import io.trino.operator.Work;
+import io.trino.operator.project.InputChannels;
+import io.trino.operator.project.PageProjection;
+import io.trino.operator.project.SelectedPositions;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.ByteArrayBlock;
+import io.trino.spi.block.IntArrayBlock;
+import io.trino.spi.block.LongArrayBlock;
+import io.trino.spi.block.ShortArrayBlock;
+import io.trino.spi.block.ValueBlock;
+import io.trino.spi.block.VariableWidthBlock;
+import io.trino.spi.connector.ConnectorSession;
+import io.trino.spi.connector.SourcePage;
+import io.trino.spi.type.Type;
+import io.trino.sql.relational.RowExpression;
+
+import java.util.Optional;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.lang.Math.addExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Evaluates a projection with a {@link ColumnarProjection} and builds the output block
+ * directly from the array of projected values.
+ */
+public final class ColumnarPageProjection
+        implements PageProjection
+{
+    private final RowExpression projection;
+    private final boolean isDeterministic;
+    private final ColumnarProjection columnarProjection;
+    private final Class<? extends ValueBlock> valueBlockType;
+
+    public ColumnarPageProjection(RowExpression projection, boolean isDeterministic, ColumnarProjection columnarProjection)
+    {
+        this.projection = requireNonNull(projection, "projection is null");
+        this.isDeterministic = isDeterministic;
+        this.columnarProjection = requireNonNull(columnarProjection, "columnarProjection is null");
+        this.valueBlockType = projection.type().getValueBlockType();
+    }
+
+    @Override
+    public Type getType()
+    {
+        return projection.type();
+    }
+
+    @Override
+    public boolean isDeterministic()
+    {
+        return isDeterministic;
+    }
+
+    @Override
+    public InputChannels getInputChannels()
+    {
+        return columnarProjection.getInputChannels();
+    }
+
+    @Override
+    public Work<Block> project(ConnectorSession session, DriverYieldSignal yieldSignal, SourcePage page, SelectedPositions selectedPositions)
+    {
+        int positionCount = selectedPositions.size();
+        boolean[] valueIsNull = new boolean[positionCount];
+        Object values = createValues(valueBlockType, positionCount);
+        boolean hasNull;
+        if (selectedPositions.isList()) {
+            hasNull = columnarProjection.projectPositionsList(session, valueIsNull, values, selectedPositions.getPositions(), selectedPositions.getOffset(), positionCount, page);
+        }
+        else {
+            hasNull = columnarProjection.projectPositionsRange(session, valueIsNull, values, selectedPositions.getOffset(), positionCount, page);
+        }
+        return new CompletedWork<>(createBlock(valueBlockType, positionCount, hasNull ? Optional.of(valueIsNull) : Optional.empty(), values));
+    }
+
+    static boolean isSupportedType(Type type)
+    {
+        Class<? extends ValueBlock> valueBlockType = type.getValueBlockType();
+        Class<?> javaType = type.getJavaType();
+        if (valueBlockType == LongArrayBlock.class) {
+            return javaType == long.class || javaType == double.class;
+        }
+        if (valueBlockType == IntArrayBlock.class || valueBlockType == ShortArrayBlock.class) {
+            return javaType == long.class;
+        }
+        if (valueBlockType == ByteArrayBlock.class) {
+            return javaType == long.class || javaType == boolean.class;
+        }
+        if (valueBlockType == VariableWidthBlock.class) {
+            return javaType == Slice.class;
+        }
+        return false;
+    }
+
+    static Class<?> getValuesArrayType(Class<? extends ValueBlock> valueBlockType)
+    {
+        if (valueBlockType == LongArrayBlock.class) {
+            return long[].class;
+        }
+        if (valueBlockType == IntArrayBlock.class) {
+            return int[].class;
+        }
+        if (valueBlockType == ShortArrayBlock.class) {
+            return short[].class;
+        }
+        if (valueBlockType == ByteArrayBlock.class) {
+            return byte[].class;
+        }
+        if (valueBlockType == VariableWidthBlock.class) {
+            return Slice[].class;
+        }
+        throw new UnsupportedOperationException("Unsupported value block type: " + valueBlockType.getSimpleName());
+    }
+
+    private static Object createValues(Class<? extends ValueBlock> valueBlockType, int positionCount)
+    {
+        if (valueBlockType == LongArrayBlock.class) {
+            return new long[positionCount];
+        }
+        if (valueBlockType == IntArrayBlock.class) {
+            return new int[positionCount];
+        }
+        if (valueBlockType == ShortArrayBlock.class) {
+            return new short[positionCount];
+        }
+        if (valueBlockType == ByteArrayBlock.class) {
+            return new byte[positionCount];
+        }
+        if (valueBlockType == VariableWidthBlock.class) {
+            return new Slice[positionCount];
+        }
+        throw new UnsupportedOperationException("Unsupported value block type: " + valueBlockType.getSimpleName());
+    }
+
+    private static Block createBlock(Class<? extends ValueBlock> valueBlockType, int positionCount, Optional<boolean[]> valueIsNull, Object values)
+    {
+        if (valueBlockType == LongArrayBlock.class) {
+            return new LongArrayBlock(positionCount, valueIsNull, (long[]) values);
+        }
+        if (valueBlockType == IntArrayBlock.class) {
+            return new IntArrayBlock(positionCount, valueIsNull, (int[]) values);
+        }
+        if (valueBlockType == ShortArrayBlock.class) {
+            return new ShortArrayBlock(positionCount, valueIsNull, (short[]) values);
+        }
+        if (valueBlockType == ByteArrayBlock.class) {
+            return new ByteArrayBlock(positionCount, valueIsNull, (byte[]) values);
+        }
+        if (valueBlockType == VariableWidthBlock.class) {
+            return createVariableWidthBlock(positionCount, valueIsNull, (Slice[]) values);
+        }
+        throw new UnsupportedOperationException("Unsupported value block type: " + valueBlockType.getSimpleName());
+    }
+
+    private static Block createVariableWidthBlock(int positionCount, Optional<boolean[]> valueIsNull, Slice[] values)
+    {
+        // the sizes of all values are known upfront, so the values are copied once into an exactly sized slice
+        int[] offsets = new int[positionCount + 1];
+        for (int i = 0; i < positionCount; i++) {
+            Slice value = values[i];
+            offsets[i + 1] = addExact(offsets[i], value == null ? 0 : value.length());
+        }
+        Slice slice = Slices.allocate(offsets[positionCount]);
+        for (int i = 0; i < positionCount; i++) {
+            Slice value = values[i];
+            if (value != null) {
+                slice.setBytes(offsets[i], value);
+            }
+        }
+        return new VariableWidthBlock(positionCount, slice, offsets, valueIsNull);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("projection", projection)
+                .toString();
+    }
+}
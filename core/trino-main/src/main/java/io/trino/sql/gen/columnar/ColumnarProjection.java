@@ -0,0 +1,58 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.sql.gen.columnar;
+
+import io.trino.operator.project.InputChannels;
+import io.trino.spi.connector.ConnectorSession;
+import io.trino.spi.connector.SourcePage;
+
+/**
+ * Implementations of this interface evaluate a projection on the input Page, writing the results
+ * into a primitive array of values and a null mask instead of appending them to a BlockBuilder.
+ * <p>
+ * The values array matches the value block of the projection type: {@code long[]} for
+ * {@link io.trino.spi.block.LongArrayBlock}, {@code int[]} for {@link io.trino.spi.block.IntArrayBlock},
+ * {@code short[]} for {@link io.trino.spi.block.ShortArrayBlock}, {@code byte[]} for
+ * {@link io.trino.spi.block.ByteArrayBlock} and {@code Slice[]} for {@link io.trino.spi.block.VariableWidthBlock}.
+ * <p>
+ * Implementations are expected to operate on a Page containing only the required channels specified by getInputChannels.
+ */
+public interface ColumnarProjection
+{
+    /**
+     * @param valueIsNull null mask, set for every output index where the projected value is null
+     * @param values array of values, where the value of input position {@code offset + i} is written at index {@code i}
+     * @param offset start of input positions range evaluated by this projection
+     * @param size length of input positions range evaluated by this projection
+     * @param loadedPage input Page after using {@link ColumnarProjection#getInputChannels} to load only the required channels
+     * @return true if any of the projected values is null
+     */
+    boolean projectPositionsRange(ConnectorSession session, boolean[] valueIsNull, Object values, int offset, int size, SourcePage loadedPage);
+
+    /**
+     * @param valueIsNull null mask, set for every output index where the projected value is null
+     * @param values array of values, where the value of input position {@code activePositions[offset + i]} is written at index {@code i}
+     * @param activePositions input positions list evaluated by this projection
+     * @param offset index in activePositions where the input positions evaluated by this projection start
+     * @param size length after offset in activePositions where the input positions evaluated by this projection end
+     * @param loadedPage input Page after using {@link ColumnarProjection#getInputChannels} to load only the required channels
+     * @return true if any of the projected values is null
+     */
+    boolean projectPositionsList(ConnectorSession session, boolean[] valueIsNull, Object values, int[] activePositions, int offset, int size, SourcePage loadedPage);
+
+    /**
+     * @return InputChannels of input Page that this projection operates on
+     */
+    InputChannels getInputChannels();
+}
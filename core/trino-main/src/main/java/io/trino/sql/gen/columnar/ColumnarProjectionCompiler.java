@@ -0,0 +1,143 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.sql.gen.columnar;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.inject.Inject;
+import io.airlift.bytecode.ClassDefinition;
+import io.airlift.log.Logger;
+import io.trino.cache.CacheStatsMBean;
+import io.trino.cache.NonEvictableLoadingCache;
+import io.trino.metadata.FunctionManager;
+import io.trino.operator.project.PageProjection;
+import io.trino.spi.TrinoException;
+import io.trino.sql.gen.CallSiteBinder;
+import io.trino.sql.planner.CompilerConfig;
+import io.trino.sql.relational.CallExpression;
+import io.trino.sql.relational.RowExpression;
+import jakarta.annotation.Nullable;
+import org.objectweb.asm.MethodTooLargeException;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import java.lang.reflect.Constructor;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static io.trino.cache.SafeCaches.buildNonEvictableCache;
+import static io.trino.spi.StandardErrorCode.COMPILER_ERROR;
+import static io.trino.spi.StandardErrorCode.QUERY_EXCEEDED_COMPILER_LIMIT;
+import static io.trino.util.CompilerUtils.defineClass;
+import static java.util.Objects.requireNonNull;
+
+public class ColumnarProjectionCompiler
+{
+    private static final Logger log = Logger.get(ColumnarProjectionCompiler.class);
+
+    private final FunctionManager functionManager;
+    // Optional is used to cache failure to generate projection for unsupported cases
+    private final NonEvictableLoadingCache<RowExpression, Optional<Supplier<PageProjection>>> projectionCache;
+    private final CacheStatsMBean projectionCacheStats;
+
+    @Inject
+    public ColumnarProjectionCompiler(FunctionManager functionManager, CompilerConfig config)
+    {
+        this(functionManager, config.getExpressionCacheSize());
+    }
+
+    public ColumnarProjectionCompiler(FunctionManager functionManager, int expressionCacheSize)
+    {
+        this.functionManager = requireNonNull(functionManager, "functionManager is null");
+        if (expressionCacheSize > 0) {
+            projectionCache = buildNonEvictableCache(
+                    CacheBuilder.newBuilder()
+                            .recordStats()
+                            .maximumSize(expressionCacheSize),
+                    CacheLoader.from(this::generateProjectionInternal));
+            projectionCacheStats = new CacheStatsMBean(projectionCache);
+        }
+        else {
+            projectionCache = null;
+            projectionCacheStats = null;
+        }
+    }
+
+    @Nullable
+    @Managed
+    @Nested
+    public CacheStatsMBean getProjectionCache()
+    {
+        return projectionCacheStats;
+    }
+
+    /**
+     * Returns a columnar implementation of the projection, or empty if the projection is not supported.
+     * Only a single function call over input references and non-null constants is supported. Nested calls
+     * and special forms like CASE are left to the row at a time projection, as are input references and
+     * constants, which are projected without evaluation.
+     */
+    public Optional<Supplier<PageProjection>> generateProjection(RowExpression projection)
+    {
+        if (projectionCache == null) {
+            return generateProjectionInternal(projection);
+        }
+        return projectionCache.getUnchecked(projection);
+    }
+
+    private Optional<Supplier<PageProjection>> generateProjectionInternal(RowExpression projection)
+    {
+        try {
+            if (projection instanceof CallExpression callExpression) {
+                return Optional.of(new CallColumnarProjectionGenerator(callExpression, functionManager).generateColumnarProjection());
+            }
+            return Optional.empty();
+        }
+        catch (Throwable t) {
+            if (t instanceof UnsupportedOperationException || t.getCause() instanceof UnsupportedOperationException) {
+                log.debug("Unsupported projection for columnar evaluation %s, %s", projection, t);
+            }
+            else {
+                log.warn("Failed to compile projection %s for columnar evaluation, %s", projection, t);
+            }
+            return Optional.empty();
+        }
+    }
+
+    static Supplier<ColumnarProjection> createClassInstance(CallSiteBinder binder, ClassDefinition classDefinition)
+    {
+        Constructor<? extends ColumnarProjection> projectionConstructor;
+        try {
+            Class<? extends ColumnarProjection> functionClass = defineClass(classDefinition, ColumnarProjection.class, binder.getBindings(), ColumnarProjectionCompiler.class.getClassLoader());
+            projectionConstructor = functionClass.getConstructor();
+        }
+        catch (Exception e) {
+            if (Throwables.getRootCause(e) instanceof MethodTooLargeException) {
+                throw new TrinoException(QUERY_EXCEEDED_COMPILER_LIMIT,
+                        "Failed to execute query; there may be too many columns used or expressions are too complex", e);
+            }
+            throw new TrinoException(COMPILER_ERROR, e.getCause());
+        }
+
+        return () -> {
+            try {
+                return projectionConstructor.newInstance();
+            }
+            catch (ReflectiveOperationException e) {
+                throw new TrinoException(COMPILER_ERROR, e);
+            }
+        };
+    }
+}
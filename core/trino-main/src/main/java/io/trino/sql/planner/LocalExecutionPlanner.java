@@ -322,7 +322,9 @@ import static io.trino.SystemSessionProperties.getTaskMaxWriterCount;
 import static io.trino.SystemSessionProperties.getTaskMinWriterCount;
 import static io.trino.SystemSessionProperties.getWriterScalingMinDataProcessed;
 import static io.trino.SystemSessionProperties.isAdaptivePartialAggregationEnabled;
+import static io.trino.SystemSessionProperties.isAdaptivePartialAggregationHotKeysEnabled;
 import static io.trino.SystemSessionProperties.isColumnarFilterEvaluationEnabled;
+import static io.trino.SystemSessionProperties.isColumnarProjectionEvaluationEnabled;
 import static io.trino.SystemSessionProperties.isEnableDynamicRowFiltering;
 import static io.trino.SystemSessionProperties.isEnableLargeDynamicFilters;
 import static io.trino.SystemSessionProperties.isForceSpillingOperator;
@@ -1086,7 +1088,10 @@ public class LocalExecutionPlanner
                     maxPartialTopNMemorySize,
                     hashStrategyCompiler,
                     orderingCompiler.compilePageWithPositionComparator(sortTypes, sortChannels, sortOrder),
-                    blockTypeOperators);
+                    blockTypeOperators,
+                    isSpillEnabled(session),
+                    partitioningSpillerFactory,
+                    typeOperators);
 
             return new PhysicalOperation(operatorFactory, makeLayout(node), source);
         }
@@ -1917,7 +1922,10 @@ public class LocalExecutionPlanner
                     source.getTypes(),
                     distinctChannels,
                     node.getLimit(),
-                    hashStrategyCompiler);
+                    hashStrategyCompiler,
+                    isSpillEnabled(session),
+                    partitioningSpillerFactory,
+                    typeOperators);
             return new PhysicalOperation(operatorFactory, makeLayout(node), source);
         }
 
@@ -1992,7 +2000,15 @@ public class LocalExecutionPlanner
             PhysicalOperation source = node.getSource().accept(this, context);
 
             List<Integer> channels = getChannelsForSymbols(node.getDistinctSymbols(), source.getLayout());
-            MarkDistinctOperatorFactory operator = new MarkDistinctOperatorFactory(context.getNextOperatorId(), node.getId(), source.getTypes(), channels, hashStrategyCompiler);
+            MarkDistinctOperatorFactory operator = new MarkDistinctOperatorFactory(
+                    context.getNextOperatorId(),
+                    node.getId(),
+                    source.getTypes(),
+                    channels,
+                    hashStrategyCompiler,
+                    isSpillEnabled(session),
+                    partitioningSpillerFactory,
+                    typeOperators);
             return new PhysicalOperation(operator, makeLayout(node), source);
         }
 
@@ -2118,6 +2134,7 @@ public class LocalExecutionPlanner
 
             try {
                 boolean columnarFilterEvaluationEnabled = isColumnarFilterEvaluationEnabled(session);
+                boolean columnarProjectionEvaluationEnabled = isColumnarProjectionEvaluationEnabled(session);
                 Optional<DynamicPageFilter> dynamicPageFilterFactory = Optional.empty();
                 if (dynamicFilter != DynamicFilter.EMPTY && isEnableDynamicRowFiltering(session)) {
                     dynamicPageFilterFactory = Optional.of(new DynamicPageFilter(
@@ -2129,6 +2146,7 @@ public class LocalExecutionPlanner
                 }
                 Function<DynamicFilter, PageProcessor> pageProcessor = expressionCompiler.compilePageProcessor(
                         columnarFilterEvaluationEnabled,
+                        columnarProjectionEvaluationEnabled,
                         translatedFilter,
                         dynamicPageFilterFactory,
                         translatedProjections,
@@ -3278,7 +3296,9 @@ public class LocalExecutionPlanner
                     buildChannel,
                     10_000,
                     joinCompiler,
-                    typeOperators);
+                    typeOperators,
+                    isSpillEnabled(session),
+                    partitioningSpillerFactory);
             SetSupplier setProvider = setBuilderOperatorFactory.getSetProvider();
             context.addDriverFactory(
                     false,
@@ -3291,7 +3311,7 @@ public class LocalExecutionPlanner
                     .put(node.getSemiJoinOutput(), probeSource.getLayout().size())
                     .buildOrThrow();
 
-            OperatorFactory operator = HashSemiJoinOperator.createOperatorFactory(context.getNextOperatorId(), node.getId(), setProvider, probeSource.getTypes(), probeChannel);
+            OperatorFactory operator = HashSemiJoinOperator.createOperatorFactory(context.getNextOperatorId(), node.getId(), setProvider, probeSource.getTypes(), probeChannel, partitioningSpillerFactory);
             return new PhysicalOperation(operator, outputMappings, probeSource);
         }
 
@@ -4122,7 +4142,8 @@ public class LocalExecutionPlanner
         return maxPartialAggregationMemorySize.isPresent() && step.isOutputPartial() && isAdaptivePartialAggregationEnabled(session) ?
                 Optional.of(new PartialAggregationController(
                         maxPartialAggregationMemorySize.get(),
-                        getAdaptivePartialAggregationUniqueRowsRatioThreshold(session))) :
+                        getAdaptivePartialAggregationUniqueRowsRatioThreshold(session),
+                        isAdaptivePartialAggregationHotKeysEnabled(session))) :
                 Optional.empty();
     }
 
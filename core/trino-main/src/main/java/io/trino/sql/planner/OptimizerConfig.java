@@ -96,6 +96,7 @@ public class OptimizerConfig
     // adaptive partial aggregation
     private boolean adaptivePartialAggregationEnabled = true;
     private double adaptivePartialAggregationUniqueRowsRatioThreshold = 0.8;
+    private boolean adaptivePartialAggregationHotKeysEnabled;
     private long joinPartitionedBuildMinRowCount = 1_000_000L;
     private DataSize minInputSizePerTask = DataSize.of(5, GIGABYTE);
     private long minInputRowsPerTask = 10_000_000L;
@@ -729,6 +730,19 @@ public class OptimizerConfig
         return this;
     }
 
+    public boolean isAdaptivePartialAggregationHotKeysEnabled()
+    {
+        return adaptivePartialAggregationHotKeysEnabled;
+    }
+
+    @Config("adaptive-partial-aggregation.hot-keys.enabled")
+    @ConfigDescription("Pre-aggregate frequent keys when partial aggregation is adaptively turned off")
+    public OptimizerConfig setAdaptivePartialAggregationHotKeysEnabled(boolean adaptivePartialAggregationHotKeysEnabled)
+    {
+        this.adaptivePartialAggregationHotKeysEnabled = adaptivePartialAggregationHotKeysEnabled;
+        return this;
+    }
+
     @Min(0)
     public long getJoinPartitionedBuildMinRowCount()
     {
@@ -85,6 +85,7 @@ public class TestOptimizerConfig
                 .setForceSingleNodeOutput(false)
                 .setAdaptivePartialAggregationEnabled(true)
                 .setAdaptivePartialAggregationUniqueRowsRatioThreshold(0.8)
+                .setAdaptivePartialAggregationHotKeysEnabled(false)
                 .setJoinPartitionedBuildMinRowCount(1_000_000)
                 .setMinInputSizePerTask(DataSize.of(5, GIGABYTE))
                 .setMinInputRowsPerTask(10_000_000L)
@@ -143,6 +144,7 @@ public class TestOptimizerConfig
                 .put("optimizer.merge-project-with-values", "false")
                 .put("adaptive-partial-aggregation.enabled", "false")
                 .put("adaptive-partial-aggregation.unique-rows-ratio-threshold", "0.99")
+                .put("adaptive-partial-aggregation.hot-keys.enabled", "true")
                 .put("optimizer.join-partitioned-build-min-row-count", "1")
                 .put("optimizer.min-input-size-per-task", "1MB")
                 .put("optimizer.min-input-rows-per-task", "1000000")
@@ -198,6 +200,7 @@ public class TestOptimizerConfig
                 .setForceSingleNodeOutput(true)
                 .setAdaptivePartialAggregationEnabled(false)
                 .setAdaptivePartialAggregationUniqueRowsRatioThreshold(0.99)
+                .setAdaptivePartialAggregationHotKeysEnabled(true)
                 .setJoinPartitionedBuildMinRowCount(1)
                 .setMinInputSizePerTask(DataSize.of(1, MEGABYTE))
                 .setMinInputRowsPerTask(1_000_000L)
@@ -13,11 +13,15 @@
  */
 package io.trino.execution;
 
+import com.google.common.base.Ticker;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.SettableFuture;
 import io.airlift.configuration.secrets.SecretsResolver;
+import io.airlift.http.client.testing.TestingHttpClient;
 import io.airlift.node.NodeInfo;
+import io.airlift.slice.Slice;
 import io.airlift.stats.TestingGcMonitor;
 import io.airlift.tracing.Tracing;
 import io.airlift.units.DataSize;
@@ -25,6 +29,7 @@ import io.airlift.units.DataSize.Unit;
 import io.airlift.units.Duration;
 import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.api.trace.Span;
+import io.trino.FeaturesConfig.DataIntegrityVerification;
 import io.trino.Session;
 import io.trino.connector.ConnectorServices;
 import io.trino.connector.ConnectorServicesProvider;
@@ -39,11 +44,17 @@ import io.trino.memory.LocalMemoryManager;
 import io.trino.memory.NodeMemoryConfig;
 import io.trino.memory.QueryContext;
 import io.trino.memory.context.LocalMemoryContext;
+import io.trino.metadata.InMemoryNodeManager;
 import io.trino.metadata.InternalNode;
 import io.trino.metadata.LanguageFunctionEngineManager;
 import io.trino.metadata.WorkerLanguageFunctionProvider;
 import io.trino.operator.DirectExchangeClient;
+import io.trino.operator.DirectExchangeClientConfig;
 import io.trino.operator.DirectExchangeClientSupplier;
+import io.trino.operator.HttpPageBufferClient;
+import io.trino.operator.HttpPageBufferClient.ClientCallback;
+import io.trino.operator.HttpPageBufferClient.PagesResponse;
+import io.trino.operator.LocalTaskResults;
 import io.trino.operator.RetryPolicy;
 import io.trino.spi.QueryId;
 import io.trino.spi.catalog.CatalogProperties;
@@ -63,7 +74,9 @@ import java.net.URI;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -80,6 +93,7 @@ import static io.trino.execution.TaskTestUtils.createTestingPlanner;
 import static io.trino.execution.buffer.PagesSerdeUtil.getSerializedPagePositionCount;
 import static io.trino.execution.buffer.PipelinedOutputBuffers.BufferType.PARTITIONED;
 import static io.trino.testing.TestingSession.testSessionBuilder;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
@@ -167,6 +181,141 @@ public abstract class BaseTestSqlTaskManager
         }
     }
 
+    @Test
+    @Timeout(30)
+    public void testLocalTaskResults()
+            throws Exception
+    {
+        ScheduledExecutorService timeoutExecutor = newSingleThreadScheduledExecutor();
+        try (SqlTaskManager sqlTaskManager = createSqlTaskManager(new TaskManagerConfig())) {
+            TaskId taskId = newTaskId();
+            createTask(sqlTaskManager, taskId, ImmutableSet.of(SPLIT), PipelinedOutputBuffers.createInitial(PARTITIONED).withBuffer(OUT, 0).withNoMoreBufferIds());
+
+            TaskInfo taskInfo = sqlTaskManager.getTaskInfo(taskId, TaskStatus.STARTING_VERSION).get();
+            assertThat(taskInfo.taskStatus().getState()).isEqualTo(TaskState.FLUSHING);
+
+            LocalTaskResults localTaskResults = new LocalTaskResults(
+                    new DirectExchangeClientConfig().setLocalTransferEnabled(true),
+                    () -> sqlTaskManager,
+                    InMemoryNodeManager::new);
+            URI location = URI.create("http://127.0.0.1:8080/v1/task/" + taskId + "/results/" + OUT);
+
+            PagesResponse response = localTaskResults.getResults(taskId, location, 0, DataSize.of(1, Unit.MEGABYTE), timeoutExecutor).get();
+            assertThat(response.getToken()).isEqualTo(0);
+            assertThat(response.getNextToken()).isEqualTo(1);
+            assertThat(response.getPages()).hasSize(1);
+            assertThat(getSerializedPagePositionCount(response.getPages().get(0))).isEqualTo(1);
+            assertThat(response.isClientComplete()).isFalse();
+
+            // pages are kept until they are acknowledged, so the same token can be retried
+            response = localTaskResults.getResults(taskId, location, 0, DataSize.of(1, Unit.MEGABYTE), timeoutExecutor).get();
+            assertThat(response.getPages()).hasSize(1);
+            assertThat(response.getNextToken()).isEqualTo(1);
+
+            // acknowledging frees the pages, a request for the old token gets no pages
+            localTaskResults.acknowledgeResults(taskId, location, 1);
+            response = localTaskResults.getResults(taskId, location, 0, DataSize.of(1, Unit.MEGABYTE), timeoutExecutor).get();
+            assertThat(response.getPages()).isEmpty();
+
+            // the token advances to the end of the buffer
+            long token = 1;
+            do {
+                response = localTaskResults.getResults(taskId, location, token, DataSize.of(1, Unit.MEGABYTE), timeoutExecutor).get();
+                assertThat(response.getToken()).isEqualTo(token);
+                token = response.getNextToken();
+            }
+            while (!response.isClientComplete());
+            assertThat(response.getPages()).isEmpty();
+            assertThat(token).isEqualTo(1);
+
+            // destroying the results completes the task
+            localTaskResults.destroyResults(taskId, location, directExecutor()).get();
+            taskInfo = sqlTaskManager.getTaskInfo(taskId, taskInfo.taskStatus().getVersion()).get();
+            assertThat(taskInfo.taskStatus().getState()).isEqualTo(TaskState.FINISHED);
+            assertThat(taskInfo.outputBuffers().getState()).isEqualTo(BufferState.FINISHED);
+        }
+        finally {
+            timeoutExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    @Timeout(30)
+    public void testLocalPageBufferClient()
+            throws Exception
+    {
+        ScheduledExecutorService scheduledExecutor = newSingleThreadScheduledExecutor();
+        try (SqlTaskManager sqlTaskManager = createSqlTaskManager(new TaskManagerConfig())) {
+            TaskId taskId = newTaskId();
+            createTask(sqlTaskManager, taskId, ImmutableSet.of(SPLIT), PipelinedOutputBuffers.createInitial(PARTITIONED).withBuffer(OUT, 0).withNoMoreBufferIds());
+
+            LocalTaskResults localTaskResults = new LocalTaskResults(
+                    new DirectExchangeClientConfig().setLocalTransferEnabled(true),
+                    () -> sqlTaskManager,
+                    InMemoryNodeManager::new);
+            URI location = URI.create("http://127.0.0.1:8080/v1/task/" + taskId + "/results/" + OUT);
+
+            List<Slice> pages = new CopyOnWriteArrayList<>();
+            SettableFuture<Void> finished = SettableFuture.create();
+            HttpPageBufferClient client = new HttpPageBufferClient(
+                    "localhost",
+                    new TestingHttpClient(request -> {
+                        throw new AssertionError("Unexpected HTTP request: " + request.getUri());
+                    }),
+                    DataIntegrityVerification.ABORT,
+                    DataSize.of(1, Unit.MEGABYTE),
+                    new Duration(1, TimeUnit.MINUTES),
+                    true,
+                    taskId,
+                    Optional.of(new InMemoryNodeManager().getCurrentNode().getNodeIdentifier()),
+                    location,
+                    new ClientCallback()
+                    {
+                        @Override
+                        public boolean addPages(HttpPageBufferClient client, List<Slice> newPages)
+                        {
+                            pages.addAll(newPages);
+                            return true;
+                        }
+
+                        @Override
+                        public void requestComplete(HttpPageBufferClient client)
+                        {
+                            client.scheduleRequest();
+                        }
+
+                        @Override
+                        public void clientFinished(HttpPageBufferClient client)
+                        {
+                            finished.set(null);
+                        }
+
+                        @Override
+                        public void clientFailed(HttpPageBufferClient client, Throwable cause)
+                        {
+                            finished.setException(cause);
+                        }
+                    },
+                    scheduledExecutor,
+                    Ticker.systemTicker(),
+                    directExecutor(),
+                    localTaskResults);
+
+            // the results are read from the output buffer of the task, and the buffer is destroyed once they are all read
+            client.scheduleRequest();
+            finished.get();
+            assertThat(pages).hasSize(1);
+            assertThat(getSerializedPagePositionCount(pages.get(0))).isEqualTo(1);
+
+            TaskInfo taskInfo = sqlTaskManager.getTaskInfo(taskId, TaskStatus.STARTING_VERSION).get();
+            assertThat(taskInfo.taskStatus().getState()).isEqualTo(TaskState.FINISHED);
+            assertThat(taskInfo.outputBuffers().getState()).isEqualTo(BufferState.FINISHED);
+        }
+        finally {
+            scheduledExecutor.shutdownNow();
+        }
+    }
+
     @Test
     public void testCancel()
             throws InterruptedException, ExecutionException, TimeoutException
@@ -188,6 +188,7 @@ public class MockManagedQueryExecution
                         new Duration(150, NANOSECONDS),
                         new Duration(160, NANOSECONDS),
                         new Duration(200, NANOSECONDS),
+                        new Duration(0, NANOSECONDS),
 
                         9,
                         10,
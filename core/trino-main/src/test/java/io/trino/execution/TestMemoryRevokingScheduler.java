@@ -225,6 +225,32 @@ public class TestMemoryRevokingScheduler
         assertMemoryRevokingRequestedFor(operatorContext);
     }
 
+    @Test
+    public void testRequestMemoryRevokingOfQueries()
+    {
+        QueryId queryId1 = new QueryId("q1");
+        QueryId queryId2 = new QueryId("q2");
+        SqlTask sqlTask1 = newSqlTask(queryId1);
+        SqlTask sqlTask2 = newSqlTask(queryId2);
+        OperatorContext operatorContext1 = createContexts(sqlTask1);
+        OperatorContext operatorContext2 = createContexts(sqlTask2);
+
+        allOperatorContexts = ImmutableSet.of(operatorContext1, operatorContext2);
+        List<SqlTask> tasks = ImmutableList.of(sqlTask1, sqlTask2);
+        MemoryRevokingScheduler scheduler = new MemoryRevokingScheduler(memoryPool, () -> tasks, executor, 1.0, 1.0);
+
+        operatorContext1.localRevocableMemoryContext().setBytes(2);
+        operatorContext2.localRevocableMemoryContext().setBytes(3);
+
+        // revoking is requested for the given queries only, even though the pool is below the revoking threshold
+        assertThat(scheduler.requestMemoryRevoking(ImmutableSet.of(queryId2))).isEqualTo(3);
+        assertMemoryRevokingRequestedFor(operatorContext2);
+
+        // memory which is already being revoked is not requested again
+        assertThat(scheduler.requestMemoryRevoking(ImmutableSet.of(queryId2))).isEqualTo(0);
+        assertMemoryRevokingRequestedFor(operatorContext2);
+    }
+
     private OperatorContext createContexts(SqlTask sqlTask)
     {
         TaskContext taskContext = getOrCreateTaskContext(sqlTask);
@@ -196,6 +196,7 @@ public class TestQueryStats
             new Duration(150, NANOSECONDS),
             new Duration(160, NANOSECONDS),
             new Duration(200, NANOSECONDS),
+            new Duration(210, NANOSECONDS),
 
             9,
             10,
@@ -311,6 +312,7 @@ public class TestQueryStats
         assertThat(actual.getPlanningCpuTime()).isEqualTo(new Duration(150, NANOSECONDS));
         assertThat(actual.getStartingTime()).isEqualTo(new Duration(160, NANOSECONDS));
         assertThat(actual.getFinishingTime()).isEqualTo(new Duration(200, NANOSECONDS));
+        assertThat(actual.getMemoryPressureTime()).isEqualTo(new Duration(210, NANOSECONDS));
 
         assertThat(actual.getTotalTasks()).isEqualTo(9);
         assertThat(actual.getRunningTasks()).isEqualTo(10);
@@ -40,6 +40,7 @@ public class TestTaskManagerConfig
     {
         assertRecordedDefaults(recordDefaults(TaskManagerConfig.class)
                 .setThreadPerDriverSchedulerEnabled(true)
+                .setThreadPerDriverSchedulerVirtualThreadsEnabled(false)
                 .setInitialSplitsPerNode(Runtime.getRuntime().availableProcessors() * 2)
                 .setSplitConcurrencyAdjustmentInterval(new Duration(100, TimeUnit.MILLISECONDS))
                 .setStatusRefreshMaxWait(new Duration(1, TimeUnit.SECONDS))
@@ -72,6 +73,8 @@ public class TestTaskManagerConfig
                 .setTaskYieldThreads("3")
                 .setDriverTimeoutThreads("5")
                 .setLevelTimeMultiplier(new BigDecimal("2"))
+                .setCpuGroupAffinityEnabled(false)
+                .setCpuTopologyPath("/sys/devices/system/node")
                 .setStatisticsCpuTimerEnabled(true)
                 .setInterruptStuckSplitTasksEnabled(true)
                 .setInterruptStuckSplitTasksWarningThreshold(new Duration(10, TimeUnit.MINUTES))
@@ -86,6 +89,7 @@ public class TestTaskManagerConfig
         int maxWriterCount = DEFAULT_MAX_WRITER_COUNT == 32 ? 16 : 32;
         Map<String, String> properties = ImmutableMap.<String, String>builder()
                 .put("experimental.thread-per-driver-scheduler-enabled", "false")
+                .put("experimental.thread-per-driver-scheduler-virtual-threads-enabled", "true")
                 .put("task.initial-splits-per-node", "1")
                 .put("task.split-concurrency-adjustment-interval", "3s")
                 .put("task.status-refresh-max-wait", "2s")
@@ -118,6 +122,8 @@ public class TestTaskManagerConfig
                 .put("task.task-yield-threads", "8")
                 .put("task.driver-timeout-threads", "10")
                 .put("task.level-time-multiplier", "2.1")
+                .put("task.cpu-group-affinity.enabled", "true")
+                .put("task.cpu-topology-path", "/tmp/node")
                 .put("task.statistics-cpu-timer-enabled", "false")
                 .put("task.interrupt-stuck-split-tasks-enabled", "false")
                 .put("task.interrupt-stuck-split-tasks-warning-threshold", "3m")
@@ -127,6 +133,7 @@ public class TestTaskManagerConfig
 
         TaskManagerConfig expected = new TaskManagerConfig()
                 .setThreadPerDriverSchedulerEnabled(false)
+                .setThreadPerDriverSchedulerVirtualThreadsEnabled(true)
                 .setInitialSplitsPerNode(1)
                 .setSplitConcurrencyAdjustmentInterval(new Duration(3, TimeUnit.SECONDS))
                 .setStatusRefreshMaxWait(new Duration(2, TimeUnit.SECONDS))
@@ -159,6 +166,8 @@ public class TestTaskManagerConfig
                 .setTaskYieldThreads("8")
                 .setDriverTimeoutThreads("10")
                 .setLevelTimeMultiplier(new BigDecimal("2.1"))
+                .setCpuGroupAffinityEnabled(true)
+                .setCpuTopologyPath("/tmp/node")
                 .setStatisticsCpuTimerEnabled(false)
                 .setInterruptStuckSplitTasksEnabled(false)
                 .setInterruptStuckSplitTasksWarningThreshold(new Duration(3, TimeUnit.MINUTES))
@@ -13,6 +13,7 @@
  */
 package io.trino.execution.executor.scheduler;
 
+import com.google.common.base.Ticker;
 import com.google.common.util.concurrent.AbstractFuture;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
@@ -27,6 +28,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static com.google.common.util.concurrent.Uninterruptibles.awaitUninterruptibly;
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class TestFairScheduler
@@ -136,6 +138,129 @@ public class TestFairScheduler
         }
     }
 
+    @Test
+    @Timeout(5)
+    public void testVirtualThreads()
+            throws InterruptedException, ExecutionException
+    {
+        FairScheduler scheduler = new FairScheduler(1, "fair-scheduler-runner-%d", true, Ticker.systemTicker());
+        scheduler.start();
+        try (scheduler) {
+            Group group = scheduler.createGroup("G");
+
+            CountDownLatch task1Started = new CountDownLatch(1);
+            AtomicBoolean task1Virtual = new AtomicBoolean();
+            AtomicBoolean task2Ran = new AtomicBoolean();
+
+            SettableFuture<Void> task1Blocked = SettableFuture.create();
+
+            ListenableFuture<Void> task1 = scheduler.submit(group, 1, context -> {
+                task1Virtual.set(Thread.currentThread().isVirtual());
+                task1Started.countDown();
+                context.block(task1Blocked);
+            });
+
+            task1Started.await();
+            while (scheduler.getBlockedTasks() == 0) {
+                Thread.onSpinWait();
+            }
+
+            // the blocked task releases its slot, so the second task can run
+            ListenableFuture<Void> task2 = scheduler.submit(group, 2, context -> task2Ran.set(true));
+            task2.get();
+
+            task1Blocked.set(null);
+            task1.get();
+
+            assertThat(scheduler.isVirtualThreads()).isTrue();
+            assertThat(task1Virtual.get())
+                    .describedAs("Task 1 ran on a virtual thread")
+                    .isTrue();
+            assertThat(task2Ran.get())
+                    .describedAs("Task 2 run")
+                    .isTrue();
+            assertThat(scheduler.getBlockedTasks()).isEqualTo(0);
+        }
+    }
+
+    @Test
+    @Timeout(5)
+    public void testBlockingCall()
+            throws InterruptedException, ExecutionException
+    {
+        FairScheduler scheduler = new FairScheduler(1, "fair-scheduler-runner-%d", true, Ticker.systemTicker());
+        scheduler.start();
+        try (scheduler) {
+            Group group = scheduler.createGroup("G");
+
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            CountDownLatch task1Blocked = new CountDownLatch(1);
+            CountDownLatch task1Unblock = new CountDownLatch(1);
+            CountDownLatch task2Started = new CountDownLatch(1);
+            CountDownLatch task2Finish = new CountDownLatch(1);
+            AtomicBoolean task1Continued = new AtomicBoolean();
+
+            ListenableFuture<Void> task1 = scheduler.submit(group, 1, _ -> {
+                enter(running, maxRunning);
+                leave(running);
+                BlockingCalls.runBlocking(() -> {
+                    task1Blocked.countDown();
+                    awaitUninterruptibly(task1Unblock);
+                    return null;
+                });
+                enter(running, maxRunning);
+                task1Continued.set(true);
+                leave(running);
+            });
+
+            task1Blocked.await();
+            assertThat(scheduler.getBlockedTasks()).isEqualTo(1);
+
+            // the slot of the task in the blocking call is released, so the second task can run
+            ListenableFuture<Void> task2 = scheduler.submit(group, 2, _ -> {
+                enter(running, maxRunning);
+                task2Started.countDown();
+                awaitUninterruptibly(task2Finish);
+                leave(running);
+            });
+            task2Started.await();
+
+            // when the blocking call returns, the first task waits for the slot held by the second task
+            task1Unblock.countDown();
+            while (scheduler.getWaitingTasks() == 0) {
+                Thread.onSpinWait();
+            }
+            assertThat(task1Continued.get()).isFalse();
+
+            task2Finish.countDown();
+            task2.get();
+            task1.get();
+
+            assertThat(task1Continued.get()).isTrue();
+            assertThat(maxRunning.get())
+                    .describedAs("Tasks running at the same time")
+                    .isEqualTo(1);
+            assertThat(scheduler.getBlockedTasks()).isEqualTo(0);
+        }
+    }
+
+    @Test
+    public void testBlockingCallOutsideOfTask()
+    {
+        assertThat(BlockingCalls.runBlocking(() -> "result")).isEqualTo("result");
+    }
+
+    private static void enter(AtomicInteger running, AtomicInteger maxRunning)
+    {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+    }
+
+    private static void leave(AtomicInteger running)
+    {
+        running.decrementAndGet();
+    }
+
     @Test
     public void testCancelWhileYielding()
             throws InterruptedException, ExecutionException
@@ -0,0 +1,86 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.executor.timesharing;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TestCpuTopology
+{
+    @Test
+    public void testParseCpuList()
+    {
+        assertThat(CpuTopology.parseCpuList("0-3,8,10-11\n")).containsExactly(0, 1, 2, 3, 8, 10, 11);
+        assertThat(CpuTopology.parseCpuList("5")).containsExactly(5);
+        assertThat(CpuTopology.parseCpuList("\n")).isEmpty();
+        assertThatThrownBy(() -> CpuTopology.parseCpuList("0-x"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid CPU list: 0-x");
+    }
+
+    @Test
+    public void testLoad()
+            throws IOException
+    {
+        Path nodeDirectory = Files.createTempDirectory("cpu-topology");
+        try {
+            writeCpuList(nodeDirectory, "node1", "64-127,192-255");
+            writeCpuList(nodeDirectory, "node0", "0-63,128-191");
+            // memory only node
+            writeCpuList(nodeDirectory, "node2", "");
+            Files.createDirectory(nodeDirectory.resolve("power"));
+
+            CpuTopology topology = CpuTopology.load(nodeDirectory);
+            assertThat(topology.getGroupCount()).isEqualTo(2);
+            assertThat(topology.cpuGroups().get(0)).hasSize(128).startsWith(0, 1).endsWith(190, 191);
+            assertThat(topology.cpuGroups().get(1)).hasSize(128).startsWith(64, 65).endsWith(254, 255);
+        }
+        finally {
+            deleteRecursively(nodeDirectory, ALLOW_INSECURE);
+        }
+    }
+
+    @Test
+    public void testLoadMissingDirectory()
+    {
+        CpuTopology topology = CpuTopology.load(Path.of("/non-existent-directory"));
+        assertThat(topology.getGroupCount()).isEqualTo(1);
+        assertThat(topology.cpuGroups().getFirst()).hasSize(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Test
+    public void testAssignRunnerThreads()
+    {
+        CpuTopology topology = new CpuTopology(ImmutableList.of(ImmutableList.of(0, 1), ImmutableList.of(2, 3, 4, 5)));
+        assertThat(topology.assignRunnerThreads(6)).containsExactly(0, 0, 1, 1, 1, 1);
+        assertThat(topology.assignRunnerThreads(3)).containsExactly(0, 1, 1);
+        assertThat(topology.assignRunnerThreads(1)).containsExactly(1);
+    }
+
+    private static void writeCpuList(Path nodeDirectory, String node, String cpuList)
+            throws IOException
+    {
+        Path directory = Files.createDirectory(nodeDirectory.resolve(node));
+        Files.writeString(directory.resolve("cpulist"), cpuList + "\n");
+    }
+}
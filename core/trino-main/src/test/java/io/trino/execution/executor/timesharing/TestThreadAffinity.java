@@ -0,0 +1,54 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.executor.timesharing;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestThreadAffinity
+{
+    @Test
+    public void testSetCurrentThreadAffinity()
+    {
+        Optional<BitSet> originalAffinity = ThreadAffinity.getCurrentThreadAffinity();
+        assertThat(originalAffinity.isPresent()).isEqualTo(ThreadAffinity.isSupported());
+        if (originalAffinity.isEmpty()) {
+            assertThat(ThreadAffinity.setCurrentThreadAffinity(ImmutableList.of(0))).isFalse();
+            return;
+        }
+
+        int cpu = originalAffinity.get().nextSetBit(0);
+        try {
+            assertThat(ThreadAffinity.setCurrentThreadAffinity(ImmutableList.of(cpu))).isTrue();
+            BitSet expected = new BitSet();
+            expected.set(cpu);
+            assertThat(ThreadAffinity.getCurrentThreadAffinity()).contains(expected);
+        }
+        finally {
+            assertThat(ThreadAffinity.setCurrentThreadAffinity(originalAffinity.get())).isTrue();
+        }
+        assertThat(ThreadAffinity.getCurrentThreadAffinity()).isEqualTo(originalAffinity);
+    }
+
+    @Test
+    public void testEmptyCpuSet()
+    {
+        assertThat(ThreadAffinity.setCurrentThreadAffinity(new BitSet())).isFalse();
+    }
+}
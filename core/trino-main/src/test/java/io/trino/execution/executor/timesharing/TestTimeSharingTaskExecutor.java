@@ -376,6 +376,41 @@ public class TestTimeSharingTaskExecutor
         }
     }
 
+    @Test
+    @Timeout(30)
+    public void testCpuGroupAffinity()
+            throws Exception
+    {
+        CpuTopology cpuTopology = new CpuTopology(ImmutableList.of(ImmutableList.of(0, 1), ImmutableList.of(2, 3)));
+        MultilevelSplitQueue splitQueue = new MultilevelSplitQueue(2, cpuTopology);
+        TestingTicker ticker = new TestingTicker();
+        TimeSharingTaskExecutor taskExecutor = new TimeSharingTaskExecutor(4, 8, 1, 4, splitQueue, ticker);
+
+        taskExecutor.start();
+        try {
+            // tasks are spread over the groups
+            TimeSharingTaskHandle taskHandle0 = taskExecutor.addTask(new TaskId(new StageId("test", 0), 0, 0), () -> 0, 10, new Duration(1, MILLISECONDS), OptionalInt.empty());
+            TimeSharingTaskHandle taskHandle1 = taskExecutor.addTask(new TaskId(new StageId("test", 0), 1, 0), () -> 0, 10, new Duration(1, MILLISECONDS), OptionalInt.empty());
+            TimeSharingTaskHandle taskHandle2 = taskExecutor.addTask(new TaskId(new StageId("test", 0), 2, 0), () -> 0, 10, new Duration(1, MILLISECONDS), OptionalInt.empty());
+            assertThat(taskHandle0.getCpuGroup()).isEqualTo(0);
+            assertThat(taskHandle1.getCpuGroup()).isEqualTo(1);
+            assertThat(taskHandle2.getCpuGroup()).isEqualTo(0);
+            assertThat(splitQueue.getCpuGroups()).isEqualTo(2);
+
+            for (TimeSharingTaskHandle taskHandle : ImmutableList.of(taskHandle0, taskHandle1, taskHandle2)) {
+                TestingJob job = new TestingJob(ticker, new Phaser(), new Phaser(), new Phaser(), 1, 0);
+                getOnlyElement(taskExecutor.enqueueSplits(taskHandle, false, ImmutableList.of(job))).get();
+                assertThat(job.getCompletedPhases()).isEqualTo(1);
+            }
+            assertThat(taskExecutor.getCpuGroupUtilization())
+                    .contains("group 0: runnerThreads=2")
+                    .contains("group 1: runnerThreads=2");
+        }
+        finally {
+            taskExecutor.stop();
+        }
+    }
+
     @Test
     @Timeout(30)
     public void testMinMaxDriversPerTask()
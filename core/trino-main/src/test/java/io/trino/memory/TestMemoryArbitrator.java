@@ -0,0 +1,162 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.memory;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.testing.TestingTicker;
+import io.airlift.units.Duration;
+import io.trino.memory.MemoryArbitrator.Arbitration;
+import io.trino.spi.QueryId;
+import io.trino.spi.memory.MemoryPoolInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestMemoryArbitrator
+{
+    private static final QueryId QUERY_1 = new QueryId("query_1");
+    private static final QueryId QUERY_2 = new QueryId("query_2");
+    private static final QueryId QUERY_3 = new QueryId("query_3");
+
+    @Test
+    public void testNoPressure()
+    {
+        TestingTicker ticker = new TestingTicker();
+        MemoryArbitrator arbitrator = new MemoryArbitrator(new Duration(10, SECONDS), ticker);
+        Map<String, MemoryPoolInfo> nodes = ImmutableMap.of("node", pool(100, ImmutableMap.of(QUERY_1, 50L), ImmutableMap.of(QUERY_1, 10L)));
+
+        arbitrator.arbitrate(nodes, ImmutableMap.of(QUERY_1, 60L));
+        ticker.increment(1, SECONDS);
+        Arbitration arbitration = arbitrator.arbitrate(nodes, ImmutableMap.of(QUERY_1, 70L));
+
+        assertThat(arbitration.revokeRequests()).isEmpty();
+        assertThat(arbitration.throttledQueries()).isEmpty();
+        assertThat(arbitration.memoryPressureTime()).isEmpty();
+        assertThat(arbitration.killAllowed()).isFalse();
+    }
+
+    @Test
+    public void testRevokeLargestConsumers()
+    {
+        MemoryArbitrator arbitrator = new MemoryArbitrator(new Duration(10, SECONDS), new TestingTicker());
+        // 20 bytes over the limit, covered by the two largest revocable consumers
+        Map<String, MemoryPoolInfo> nodes = ImmutableMap.of(
+                "node1", pool(100, ImmutableMap.of(QUERY_1, 40L), ImmutableMap.of(QUERY_1, 5L, QUERY_2, 15L, QUERY_3, 60L)),
+                "node2", pool(100, ImmutableMap.of(QUERY_1, 50L), ImmutableMap.of(QUERY_2, 10L)));
+
+        Arbitration arbitration = arbitrator.arbitrate(nodes, ImmutableMap.of());
+
+        assertThat(arbitration.revokeRequests()).isEqualTo(ImmutableMap.of("node1", ImmutableSet.of(QUERY_3)));
+        // the node still has user memory to spare, so killing is not allowed
+        assertThat(arbitration.killAllowed()).isFalse();
+    }
+
+    @Test
+    public void testThrottleGrowingQueries()
+    {
+        TestingTicker ticker = new TestingTicker();
+        MemoryArbitrator arbitrator = new MemoryArbitrator(new Duration(10, SECONDS), ticker);
+        Map<String, MemoryPoolInfo> underPressure = ImmutableMap.of("node", pool(100, ImmutableMap.of(QUERY_1, 60L, QUERY_2, 20L), ImmutableMap.of(QUERY_2, 30L)));
+        Map<String, MemoryPoolInfo> noPressure = ImmutableMap.of("node", pool(100, ImmutableMap.of(QUERY_1, 60L, QUERY_2, 20L), ImmutableMap.of()));
+
+        assertThat(arbitrator.arbitrate(underPressure, ImmutableMap.of(QUERY_1, 60L, QUERY_2, 50L)).throttledQueries()).isEmpty();
+
+        ticker.increment(1, SECONDS);
+        Arbitration arbitration = arbitrator.arbitrate(underPressure, ImmutableMap.of(QUERY_1, 70L, QUERY_2, 50L));
+        assertThat(arbitration.throttledQueries()).containsExactly(QUERY_1);
+        assertThat(arbitration.memoryPressureTime()).isEqualTo(ImmutableMap.of(
+                QUERY_1, new Duration(1, SECONDS),
+                QUERY_2, new Duration(1, SECONDS)));
+
+        // throttled queries stay throttled while the pressure lasts, even when they stop growing
+        ticker.increment(1, SECONDS);
+        assertThat(arbitrator.arbitrate(underPressure, ImmutableMap.of(QUERY_1, 65L, QUERY_2, 50L)).throttledQueries()).containsExactly(QUERY_1);
+
+        ticker.increment(1, SECONDS);
+        arbitration = arbitrator.arbitrate(noPressure, ImmutableMap.of(QUERY_1, 80L, QUERY_2, 50L));
+        assertThat(arbitration.throttledQueries()).isEmpty();
+        assertThat(arbitration.memoryPressureTime()).isEmpty();
+    }
+
+    @Test
+    public void testThrottleOnlyQueriesOnNodesUnderPressure()
+    {
+        TestingTicker ticker = new TestingTicker();
+        MemoryArbitrator arbitrator = new MemoryArbitrator(new Duration(10, SECONDS), ticker);
+        Map<String, MemoryPoolInfo> nodes = ImmutableMap.of(
+                "node1", pool(100, ImmutableMap.of(QUERY_1, 100L), ImmutableMap.of()),
+                "node2", pool(100, ImmutableMap.of(QUERY_2, 20L), ImmutableMap.of()));
+        Map<String, MemoryPoolInfo> query1Gone = ImmutableMap.of(
+                "node1", pool(100, ImmutableMap.of(QUERY_3, 100L), ImmutableMap.of()),
+                "node2", pool(100, ImmutableMap.of(QUERY_1, 10L, QUERY_2, 20L), ImmutableMap.of()));
+
+        arbitrator.arbitrate(nodes, ImmutableMap.of(QUERY_1, 90L, QUERY_2, 10L));
+
+        // both queries grow, but only the one holding memory on the exhausted node is throttled
+        ticker.increment(1, SECONDS);
+        Arbitration arbitration = arbitrator.arbitrate(nodes, ImmutableMap.of(QUERY_1, 100L, QUERY_2, 20L));
+        assertThat(arbitration.throttledQueries()).containsExactly(QUERY_1);
+        assertThat(arbitration.memoryPressureTime()).containsOnlyKeys(QUERY_1);
+
+        // a query is no longer throttled once it stops holding memory on the nodes under pressure
+        ticker.increment(1, SECONDS);
+        assertThat(arbitrator.arbitrate(query1Gone, ImmutableMap.of(QUERY_1, 10L, QUERY_2, 20L, QUERY_3, 100L)).throttledQueries()).isEmpty();
+    }
+
+    @Test
+    public void testKillAfterRevokeTimeout()
+    {
+        TestingTicker ticker = new TestingTicker();
+        MemoryArbitrator arbitrator = new MemoryArbitrator(new Duration(10, SECONDS), ticker);
+        Map<String, MemoryPoolInfo> blocked = ImmutableMap.of("node", pool(100, ImmutableMap.of(QUERY_1, 100L), ImmutableMap.of(QUERY_2, 20L)));
+
+        Arbitration arbitration = arbitrator.arbitrate(blocked, ImmutableMap.of());
+        assertThat(arbitration.killAllowed()).isFalse();
+        assertThat(arbitration.revokeRequests()).isEqualTo(ImmutableMap.of("node", ImmutableSet.of(QUERY_2)));
+
+        ticker.increment(9, SECONDS);
+        assertThat(arbitrator.arbitrate(blocked, ImmutableMap.of()).killAllowed()).isFalse();
+
+        ticker.increment(1, SECONDS);
+        assertThat(arbitrator.arbitrate(blocked, ImmutableMap.of()).killAllowed()).isTrue();
+    }
+
+    @Test
+    public void testKillWithoutRevocableMemory()
+    {
+        MemoryArbitrator arbitrator = new MemoryArbitrator(new Duration(10, SECONDS), new TestingTicker());
+        Map<String, MemoryPoolInfo> blocked = ImmutableMap.of("node", pool(100, ImmutableMap.of(QUERY_1, 100L), ImmutableMap.of()));
+
+        Arbitration arbitration = arbitrator.arbitrate(blocked, ImmutableMap.of());
+        assertThat(arbitration.revokeRequests()).isEmpty();
+        assertThat(arbitration.killAllowed()).isTrue();
+    }
+
+    private static MemoryPoolInfo pool(long maxBytes, Map<QueryId, Long> reservations, Map<QueryId, Long> revocableReservations)
+    {
+        return new MemoryPoolInfo(
+                maxBytes,
+                reservations.values().stream().mapToLong(Long::longValue).sum(),
+                revocableReservations.values().stream().mapToLong(Long::longValue).sum(),
+                reservations,
+                ImmutableMap.of(),
+                revocableReservations,
+                ImmutableMap.of(),
+                ImmutableMap.of());
+    }
+}
@@ -15,6 +15,7 @@ package io.trino.memory;
 
 import com.google.common.collect.ImmutableMap;
 import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
 import io.trino.memory.MemoryManagerConfig.LowMemoryQueryKillerPolicy;
 import io.trino.memory.MemoryManagerConfig.LowMemoryTaskKillerPolicy;
 import org.junit.jupiter.api.Test;
@@ -26,6 +27,8 @@ import static io.airlift.configuration.testing.ConfigAssertions.assertRecordedDe
 import static io.airlift.configuration.testing.ConfigAssertions.recordDefaults;
 import static io.airlift.units.DataSize.Unit.GIGABYTE;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 public class TestMemoryManagerConfig
 {
@@ -43,7 +46,9 @@ public class TestMemoryManagerConfig
                 .setFaultTolerantExecutionMemoryRequirementIncreaseOnWorkerCrashEnabled(true)
                 .setFaultTolerantExecutionEagerSpeculativeTasksNodeMemoryOvercommit(DataSize.of(20, GIGABYTE))
                 .setLowMemoryQueryKillerPolicy(LowMemoryQueryKillerPolicy.TOTAL_RESERVATION_ON_BLOCKED_NODES)
-                .setLowMemoryTaskKillerPolicy(LowMemoryTaskKillerPolicy.TOTAL_RESERVATION_ON_BLOCKED_NODES));
+                .setLowMemoryTaskKillerPolicy(LowMemoryTaskKillerPolicy.TOTAL_RESERVATION_ON_BLOCKED_NODES)
+                .setMemoryArbitrationEnabled(false)
+                .setMemoryArbitrationRevokeTimeout(new Duration(30, SECONDS)));
     }
 
     @Test
@@ -61,6 +66,8 @@ public class TestMemoryManagerConfig
                 .put("fault-tolerant-execution-eager-speculative-tasks-node-memory-overcommit", "21GB")
                 .put("query.low-memory-killer.policy", "none")
                 .put("task.low-memory-killer.policy", "none")
+                .put("query.memory-arbitration.enabled", "true")
+                .put("query.memory-arbitration.revoke-timeout", "1m")
                 .buildOrThrow();
 
         MemoryManagerConfig expected = new MemoryManagerConfig()
@@ -74,7 +81,9 @@ public class TestMemoryManagerConfig
                 .setFaultTolerantExecutionMemoryRequirementIncreaseOnWorkerCrashEnabled(false)
                 .setFaultTolerantExecutionEagerSpeculativeTasksNodeMemoryOvercommit(DataSize.of(21, GIGABYTE))
                 .setLowMemoryQueryKillerPolicy(LowMemoryQueryKillerPolicy.NONE)
-                .setLowMemoryTaskKillerPolicy(LowMemoryTaskKillerPolicy.NONE);
+                .setLowMemoryTaskKillerPolicy(LowMemoryTaskKillerPolicy.NONE)
+                .setMemoryArbitrationEnabled(true)
+                .setMemoryArbitrationRevokeTimeout(new Duration(1, MINUTES));
 
         assertFullMapping(properties, expected);
     }
@@ -28,6 +28,7 @@ import io.trino.sql.gen.CursorProcessorCompiler;
 import io.trino.sql.gen.ExpressionCompiler;
 import io.trino.sql.gen.PageFunctionCompiler;
 import io.trino.sql.gen.columnar.ColumnarFilterCompiler;
+import io.trino.sql.gen.columnar.ColumnarProjectionCompiler;
 import io.trino.sql.ir.Call;
 import io.trino.sql.ir.Expression;
 import io.trino.sql.planner.TestingPlannerContext;
@@ -107,7 +108,7 @@ public class TestingFunctionResolution
 
     public ExpressionCompiler getExpressionCompiler()
     {
-        return new ExpressionCompiler(getCursorProcessorCompiler(), getPageFunctionCompiler(), getColumnarFilterCompiler());
+        return new ExpressionCompiler(getCursorProcessorCompiler(), getPageFunctionCompiler(), getColumnarFilterCompiler(), getColumnarProjectionCompiler());
     }
 
     public CursorProcessorCompiler getCursorProcessorCompiler()
@@ -140,6 +141,11 @@ public class TestingFunctionResolution
         return new ColumnarFilterCompiler(plannerContext.getFunctionManager(), expressionCacheSize);
     }
 
+    public ColumnarProjectionCompiler getColumnarProjectionCompiler()
+    {
+        return new ColumnarProjectionCompiler(plannerContext.getFunctionManager(), 0);
+    }
+
     public ResolvedFunction resolveOperator(OperatorType operatorType, List<? extends Type> argumentTypes)
             throws OperatorNotFoundException
     {
@@ -75,6 +75,22 @@ public class BenchmarkGroupByHash
         return groupByHash;
     }
 
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object addPagesHighCardinality(HighCardinalityBenchmarkData data)
+    {
+        GroupByHash groupByHash = new FlatGroupByHash(
+                data.getTypes(),
+                data.getFlatGroupByHashMode(),
+                EXPECTED_SIZE,
+                data.getRadixPartitioningGroupCount(),
+                false,
+                new FlatHashStrategyCompiler(TYPE_OPERATORS),
+                NOOP);
+        addInputPagesToHash(groupByHash, data.getPages());
+        return groupByHash;
+    }
+
     @Benchmark
     @OperationsPerInvocation(POSITIONS)
     public Object writeData(WriteMultiChannelBenchmarkData data)
@@ -231,6 +247,63 @@ public class BenchmarkGroupByHash
         }
     }
 
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Thread)
+    public static class HighCardinalityBenchmarkData
+    {
+        // every position is a new group, so the number of operations changes with the group count
+        @Param({"1000000", "10000000", "100000000"})
+        private int groupCount = 1_000_000;
+
+        @Param({"CACHED", "ON_DEMAND"})
+        private GroupByHashMode hashMode = GroupByHashMode.ON_DEMAND;
+
+        @Param({"true", "false"})
+        private boolean radixPartitioning = true;
+
+        private List<Page> pages;
+        private List<Type> types;
+
+        @Setup
+        public void setup()
+        {
+            types = ImmutableList.of(BIGINT, BIGINT);
+            ImmutableList.Builder<Page> pages = ImmutableList.builder();
+            PageBuilder pageBuilder = new PageBuilder(types);
+            for (int position = 0; position < groupCount; position++) {
+                pageBuilder.declarePosition();
+                BIGINT.writeLong(pageBuilder.getBlockBuilder(0), ThreadLocalRandom.current().nextLong());
+                BIGINT.writeLong(pageBuilder.getBlockBuilder(1), position);
+                if (pageBuilder.isFull()) {
+                    pages.add(pageBuilder.build());
+                    pageBuilder.reset();
+                }
+            }
+            pages.add(pageBuilder.build());
+            this.pages = pages.build();
+        }
+
+        public List<Page> getPages()
+        {
+            return pages;
+        }
+
+        public List<Type> getTypes()
+        {
+            return types;
+        }
+
+        public GroupByHashMode getFlatGroupByHashMode()
+        {
+            return hashMode;
+        }
+
+        public int getRadixPartitioningGroupCount()
+        {
+            return radixPartitioning ? hashMode.getRadixPartitioningGroupCount() : Integer.MAX_VALUE;
+        }
+    }
+
     @SuppressWarnings("FieldMayBeFinal")
     @State(Scope.Thread)
     public static class WriteMultiChannelBenchmarkData
@@ -281,6 +354,10 @@ public class BenchmarkGroupByHash
         writeData.setup(data);
         new BenchmarkGroupByHash().writeData(writeData);
 
+        HighCardinalityBenchmarkData highCardinalityData = new HighCardinalityBenchmarkData();
+        highCardinalityData.setup();
+        new BenchmarkGroupByHash().addPagesHighCardinality(highCardinalityData);
+
         benchmark(BenchmarkGroupByHash.class)
                 .withOptions(optionsBuilder -> optionsBuilder
                         .addProfiler(GCProfiler.class)
@@ -23,6 +23,7 @@ import io.trino.sql.gen.CursorProcessorCompiler;
 import io.trino.sql.gen.ExpressionCompiler;
 import io.trino.sql.gen.PageFunctionCompiler;
 import io.trino.sql.gen.columnar.ColumnarFilterCompiler;
+import io.trino.sql.gen.columnar.ColumnarProjectionCompiler;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -83,7 +84,7 @@ public class TestColumnarPageProcessor
 
     private PageProcessor newPageProcessor()
     {
-        return new ExpressionCompiler(new CursorProcessorCompiler(functionManager), new PageFunctionCompiler(functionManager, 0), new ColumnarFilterCompiler(functionManager, 0))
+        return new ExpressionCompiler(new CursorProcessorCompiler(functionManager), new PageFunctionCompiler(functionManager, 0), new ColumnarFilterCompiler(functionManager, 0), new ColumnarProjectionCompiler(functionManager, 0))
                 .compilePageProcessor(Optional.empty(), ImmutableList.of(field(0, types.get(0)), field(1, types.get(1))), MAX_BATCH_SIZE).get();
     }
 }
@@ -40,6 +40,7 @@ public class TestDirectExchangeClientConfig
                 .setPageBufferClientMaxCallbackThreads("25")
                 .setClientThreads("25")
                 .setAcknowledgePages(true)
+                .setLocalTransferEnabled(false)
                 .setDeduplicationBufferSize(DataSize.of(32, Unit.MEGABYTE)));
     }
 
@@ -54,6 +55,7 @@ public class TestDirectExchangeClientConfig
                 .put("exchange.client-threads", "2")
                 .put("exchange.page-buffer-client.max-callback-threads", "16")
                 .put("exchange.acknowledge-pages", "false")
+                .put("exchange.local-transfer.enabled", "true")
                 .put("exchange.deduplication-buffer-size", "2MB")
                 .buildOrThrow();
 
@@ -65,6 +67,7 @@ public class TestDirectExchangeClientConfig
                 .setClientThreads("2")
                 .setPageBufferClientMaxCallbackThreads("16")
                 .setAcknowledgePages(false)
+                .setLocalTransferEnabled(true)
                 .setDeduplicationBufferSize(DataSize.of(2, Unit.MEGABYTE));
 
         assertFullMapping(properties, expected);
@@ -369,6 +369,40 @@ public class TestGroupByHash
         assertThat(groupByHash.getEstimatedSize()).isLessThan(memoryUsageAfterFirstRelease);
     }
 
+    @Test
+    public void testRadixPartitioning()
+    {
+        for (GroupByHashMode hashMode : GroupByHashMode.values()) {
+            Block valuesBlock = createStringSequenceBlock(0, 100_000);
+            Page page = new Page(valuesBlock);
+
+            // partition the table once it grows beyond 1000 groups
+            FlatGroupByHash groupByHash = new FlatGroupByHash(ImmutableList.of(VARCHAR), hashMode, 1, 1000, false, new FlatHashStrategyCompiler(new TypeOperators()), NOOP);
+            assertThat(groupByHash.addPage(new Page(valuesBlock.getRegion(0, 500))).process()).isTrue();
+            assertThat(groupByHash.isRadixPartitioned()).isFalse();
+
+            // new group ids are still assigned in the order of the rows
+            int[] groupIds = getGroupIds(groupByHash, page);
+            assertThat(groupByHash.isRadixPartitioned()).isTrue();
+            assertThat(groupByHash.getGroupCount()).isEqualTo(valuesBlock.getPositionCount());
+            for (int position = 0; position < groupIds.length; position++) {
+                assertThat(groupIds[position]).isEqualTo(position);
+            }
+
+            GroupByHash copy = groupByHash.copy();
+            assertThat(getGroupIds(copy, page)).isEqualTo(groupIds);
+            assertThat(copy.getGroupCount()).isEqualTo(valuesBlock.getPositionCount());
+
+            groupByHash.startReleasingOutput();
+            PageBuilder pageBuilder = new PageBuilder(valuesBlock.getPositionCount(), ImmutableList.of(VARCHAR));
+            for (int groupId = 0; groupId < groupByHash.getGroupCount(); groupId++) {
+                pageBuilder.declarePosition();
+                groupByHash.appendValuesTo(groupId, pageBuilder);
+            }
+            BlockAssertions.assertBlockEquals(VARCHAR, pageBuilder.build().getBlock(0), valuesBlock);
+        }
+    }
+
     @Test
     public void testMemoryReservationYield()
     {
@@ -786,7 +786,7 @@ public class TestHashAggregationOperator
         List<Integer> hashChannels = Ints.asList(0);
 
         DataSize maxPartialMemory = DataSize.ofBytes(1);
-        PartialAggregationController partialAggregationController = new PartialAggregationController(maxPartialMemory, 0.8);
+        PartialAggregationController partialAggregationController = new PartialAggregationController(maxPartialMemory, 0.8, false);
         HashAggregationOperatorFactory operatorFactory = new HashAggregationOperatorFactory(
                 0,
                 new PlanNodeId("test"),
@@ -861,12 +861,65 @@ public class TestHashAggregationOperator
         assertThat(partialAggregationController.isPartialAggregationDisabled()).isFalse();
     }
 
+    @Test
+    public void testAdaptivePartialAggregationHotKeys()
+    {
+        List<Integer> hashChannels = Ints.asList(0);
+
+        DataSize maxPartialMemory = DataSize.ofBytes(1);
+        PartialAggregationController partialAggregationController = new PartialAggregationController(maxPartialMemory, 0.8, true);
+        HashAggregationOperatorFactory operatorFactory = new HashAggregationOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT),
+                hashChannels,
+                ImmutableList.of(),
+                PARTIAL,
+                ImmutableList.of(COUNT.createAggregatorFactory(PARTIAL, ImmutableList.of(0), OptionalInt.empty())),
+                Optional.empty(),
+                100,
+                Optional.of(maxPartialMemory), // this setting makes operator to flush after each page
+                hashStrategyCompiler,
+                Optional.of(partialAggregationController));
+
+        // almost unique values disable partial aggregation
+        List<Page> operator1Input = rowPagesBuilder(hashChannels, BIGINT)
+                .addBlocksPage(createLongsBlock(0, 1, 2, 3, 4, 5, 6, 7, 8, 8))
+                .build();
+        List<Page> operator1Expected = rowPagesBuilder(BIGINT, BIGINT)
+                .addBlocksPage(createLongsBlock(0, 1, 2, 3, 4, 5, 6, 7, 8), createLongsBlock(1, 1, 1, 1, 1, 1, 1, 1, 2))
+                .build();
+        assertOperatorEquals(operatorFactory, operator1Input, operator1Expected);
+        assertThat(partialAggregationController.isPartialAggregationDisabled()).isTrue();
+
+        // the key becomes hot after it was seen 16 times, from then on its rows are still aggregated
+        List<Page> operator2Input = rowPagesBuilder(hashChannels, BIGINT)
+                .addBlocksPage(createRepeatedValuesBlock(7, 20))
+                .addBlocksPage(createRepeatedValuesBlock(7, 20))
+                .build();
+        RowPagesBuilder operator2Expected = rowPagesBuilder(BIGINT, BIGINT);
+        for (int i = 0; i < 15; i++) {
+            operator2Expected.row(7L, 1L);
+        }
+        operator2Expected.row(7L, 5L);
+        operator2Expected.row(7L, 20L);
+        assertOperatorEquals(operatorFactory, operator2Input, operator2Expected.build());
+        assertThat(partialAggregationController.isPartialAggregationDisabled()).isTrue();
+
+        // the hot key cache is accounted in the memory of the operator until it is closed
+        DriverContext driverContext = createDriverContext();
+        Operator operator = operatorFactory.createOperator(driverContext);
+        assertThat(driverContext.getMemoryUsage()).isGreaterThan(0);
+        operator.close();
+        assertThat(driverContext.getMemoryUsage()).isEqualTo(0);
+    }
+
     @Test
     public void testAdaptivePartialAggregationTriggeredOnlyOnFlush()
     {
         List<Integer> hashChannels = Ints.asList(0);
 
-        PartialAggregationController partialAggregationController = new PartialAggregationController(DataSize.ofBytes(1), 0.8);
+        PartialAggregationController partialAggregationController = new PartialAggregationController(DataSize.ofBytes(1), 0.8, false);
         HashAggregationOperatorFactory operatorFactory = new HashAggregationOperatorFactory(
                 0,
                 new PlanNodeId("test"),
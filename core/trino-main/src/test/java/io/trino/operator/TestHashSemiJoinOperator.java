@@ -19,9 +19,11 @@ import io.airlift.units.DataSize;
 import io.trino.ExceededMemoryLimitException;
 import io.trino.RowPagesBuilder;
 import io.trino.operator.SetBuilderOperator.SetBuilderOperatorFactory;
+import io.trino.operator.join.JoinTestUtils.DummySpillerFactory;
 import io.trino.spi.Page;
 import io.trino.spi.type.Type;
 import io.trino.spi.type.TypeOperators;
+import io.trino.spiller.GenericPartitioningSpillerFactory;
 import io.trino.sql.gen.JoinCompiler;
 import io.trino.sql.planner.plan.PlanNodeId;
 import io.trino.testing.MaterializedResult;
@@ -36,16 +38,20 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 
 import static com.google.common.collect.Iterables.concat;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.trino.RowPagesBuilder.rowPagesBuilder;
 import static io.trino.SessionTestUtils.TEST_SESSION;
 import static io.trino.spi.type.BigintType.BIGINT;
 import static io.trino.spi.type.BooleanType.BOOLEAN;
 import static io.trino.spi.type.VarcharType.VARCHAR;
+import static io.trino.spiller.PartitioningSpillerFactory.unsupportedPartitioningSpillerFactory;
 import static io.trino.testing.MaterializedResult.resultBuilder;
 import static io.trino.testing.TestingTaskContext.createTaskContext;
+import static java.util.Collections.emptyIterator;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_METHOD;
 import static org.junit.jupiter.api.parallel.ExecutionMode.SAME_THREAD;
@@ -99,7 +105,9 @@ public class TestHashSemiJoinOperator
                 0,
                 10,
                 new JoinCompiler(typeOperators),
-                typeOperators);
+                typeOperators,
+                false,
+                unsupportedPartitioningSpillerFactory());
         Operator setBuilderOperator = setBuilderOperatorFactory.createOperator(driverContext);
 
         Driver driver = Driver.createDriver(driverContext, buildOperator, setBuilderOperator);
@@ -118,7 +126,8 @@ public class TestHashSemiJoinOperator
                 new PlanNodeId("test"),
                 setBuilderOperatorFactory.getSetProvider(),
                 rowPagesBuilderProbe.getTypes(),
-                0);
+                0,
+                unsupportedPartitioningSpillerFactory());
 
         // expected
         MaterializedResult expected = resultBuilder(driverContext.getSession(), concat(probeTypes, ImmutableList.of(BOOLEAN)))
@@ -161,7 +170,9 @@ public class TestHashSemiJoinOperator
                 0,
                 10,
                 new JoinCompiler(typeOperators),
-                typeOperators);
+                typeOperators,
+                false,
+                unsupportedPartitioningSpillerFactory());
         Operator setBuilderOperator = setBuilderOperatorFactory.createOperator(driverContext);
 
         Driver driver = Driver.createDriver(driverContext, buildOperator, setBuilderOperator);
@@ -180,7 +191,8 @@ public class TestHashSemiJoinOperator
                 new PlanNodeId("test"),
                 setBuilderOperatorFactory.getSetProvider(),
                 rowPagesBuilderProbe.getTypes(),
-                0);
+                0,
+                unsupportedPartitioningSpillerFactory());
 
         // expected
         MaterializedResult expected = resultBuilder(driverContext.getSession(), concat(probeTypes, ImmutableList.of(BOOLEAN)))
@@ -223,7 +235,9 @@ public class TestHashSemiJoinOperator
                 0,
                 10,
                 new JoinCompiler(typeOperators),
-                typeOperators);
+                typeOperators,
+                false,
+                unsupportedPartitioningSpillerFactory());
         Operator setBuilderOperator = setBuilderOperatorFactory.createOperator(driverContext);
 
         Driver driver = Driver.createDriver(driverContext, buildOperator, setBuilderOperator);
@@ -242,7 +256,8 @@ public class TestHashSemiJoinOperator
                 new PlanNodeId("test"),
                 setBuilderOperatorFactory.getSetProvider(),
                 rowPagesBuilderProbe.getTypes(),
-                0);
+                0,
+                unsupportedPartitioningSpillerFactory());
 
         // expected
         MaterializedResult expected = resultBuilder(driverContext.getSession(), concat(probeTypes, ImmutableList.of(BOOLEAN)))
@@ -276,7 +291,9 @@ public class TestHashSemiJoinOperator
                 0,
                 10,
                 new JoinCompiler(typeOperators),
-                typeOperators);
+                typeOperators,
+                false,
+                unsupportedPartitioningSpillerFactory());
         Operator setBuilderOperator = setBuilderOperatorFactory.createOperator(driverContext);
 
         Driver driver = Driver.createDriver(driverContext, buildOperator, setBuilderOperator);
@@ -298,7 +315,8 @@ public class TestHashSemiJoinOperator
                 new PlanNodeId("test"),
                 setBuilderOperatorFactory.getSetProvider(),
                 rowPagesBuilderProbe.getTypes(),
-                0);
+                0,
+                unsupportedPartitioningSpillerFactory());
 
         // expected
         MaterializedResult expected = resultBuilder(driverContext.getSession(), concat(probeTypes, ImmutableList.of(BOOLEAN)))
@@ -333,7 +351,9 @@ public class TestHashSemiJoinOperator
                 0,
                 10,
                 new JoinCompiler(typeOperators),
-                typeOperators);
+                typeOperators,
+                false,
+                unsupportedPartitioningSpillerFactory());
         Operator setBuilderOperator = setBuilderOperatorFactory.createOperator(driverContext);
 
         Driver driver = Driver.createDriver(driverContext, buildOperator, setBuilderOperator);
@@ -355,7 +375,8 @@ public class TestHashSemiJoinOperator
                 new PlanNodeId("test"),
                 setBuilderOperatorFactory.getSetProvider(),
                 rowPagesBuilderProbe.getTypes(),
-                0);
+                0,
+                unsupportedPartitioningSpillerFactory());
 
         // expected
         MaterializedResult expected = resultBuilder(driverContext.getSession(), concat(probeTypes, ImmutableList.of(BOOLEAN)))
@@ -368,6 +389,135 @@ public class TestHashSemiJoinOperator
         OperatorAssertion.assertOperatorEquals(joinOperatorFactory, driverContext, probeInput, expected);
     }
 
+    @Test
+    public void testSpilledSet()
+    {
+        DriverContext driverContext = taskContext.addPipelineContext(0, true, true, false).addDriverContext();
+
+        // build, the set is spilled after the first page
+        List<Page> buildInput = rowPagesBuilder(BIGINT)
+                .addSequencePage(100, 0)
+                .row(5L)
+                .row((Object) null)
+                .pageBreak()
+                .addSequencePage(100, 200)
+                .build();
+        SetBuilderOperatorFactory setBuilderOperatorFactory = new SetBuilderOperatorFactory(
+                1,
+                new PlanNodeId("test"),
+                BIGINT,
+                0,
+                10,
+                new JoinCompiler(typeOperators),
+                typeOperators,
+                true,
+                new GenericPartitioningSpillerFactory(new DummySpillerFactory()));
+        SetBuilderOperator setBuilderOperator = (SetBuilderOperator) setBuilderOperatorFactory.createOperator(driverContext);
+        setBuilderOperator.addInput(buildInput.get(0));
+        getFutureValue(setBuilderOperator.startMemoryRevoke());
+        setBuilderOperator.finishMemoryRevoke();
+        for (Page page : buildInput.subList(1, buildInput.size())) {
+            setBuilderOperator.addInput(page);
+        }
+        setBuilderOperator.finish();
+        assertThat(setBuilderOperatorFactory.getSetProvider().getSpilledChannelSet()).isDone();
+        // the spilled set is kept until the probe operators release it
+        assertThat(setBuilderOperator.isFinished()).isFalse();
+        assertThat(setBuilderOperator.isBlocked()).isNotDone();
+
+        // probe
+        List<Type> probeTypes = ImmutableList.of(BIGINT);
+        List<Page> probeInput = rowPagesBuilder(probeTypes)
+                .addSequencePage(300, 0)
+                .row((Object) null)
+                .build();
+        OperatorFactory joinOperatorFactory = HashSemiJoinOperator.createOperatorFactory(
+                2,
+                new PlanNodeId("test"),
+                setBuilderOperatorFactory.getSetProvider(),
+                probeTypes,
+                0,
+                new GenericPartitioningSpillerFactory(new DummySpillerFactory()));
+
+        // expected, the set contains null so values not in the set are null
+        MaterializedResult.Builder expected = resultBuilder(driverContext.getSession(), concat(probeTypes, ImmutableList.of(BOOLEAN)));
+        for (long value = 0; value < 300; value++) {
+            expected.row(value, value < 100 || value >= 200 ? true : null);
+        }
+        expected.row(null, null);
+
+        OperatorAssertion.assertOperatorEqualsIgnoreOrder(joinOperatorFactory, driverContext, probeInput, expected.build());
+
+        assertThat(setBuilderOperator.isBlocked()).isDone();
+        setBuilderOperator.finish();
+        assertThat(setBuilderOperator.isFinished()).isTrue();
+    }
+
+    @Test
+    public void testSpilledSetWithMultipleProbeOperators()
+            throws Exception
+    {
+        PipelineContext pipelineContext = taskContext.addPipelineContext(0, true, true, false);
+        DriverContext driverContext = pipelineContext.addDriverContext();
+
+        // build, the set is spilled before the number of probe operators is known
+        List<Page> buildInput = rowPagesBuilder(BIGINT)
+                .addSequencePage(100, 0)
+                .pageBreak()
+                .addSequencePage(100, 200)
+                .build();
+        SetBuilderOperatorFactory setBuilderOperatorFactory = new SetBuilderOperatorFactory(
+                1,
+                new PlanNodeId("test"),
+                BIGINT,
+                0,
+                10,
+                new JoinCompiler(typeOperators),
+                typeOperators,
+                true,
+                new GenericPartitioningSpillerFactory(new DummySpillerFactory()));
+        SetBuilderOperator setBuilderOperator = (SetBuilderOperator) setBuilderOperatorFactory.createOperator(driverContext);
+        setBuilderOperator.addInput(buildInput.get(0));
+        getFutureValue(setBuilderOperator.startMemoryRevoke());
+        setBuilderOperator.finishMemoryRevoke();
+        setBuilderOperator.addInput(buildInput.get(1));
+        setBuilderOperator.finish();
+        assertThat(setBuilderOperatorFactory.getSetProvider().getSpilledChannelSet()).isDone();
+
+        // probe, with one operator per driver as for a broadcast or source distributed probe side
+        List<Type> probeTypes = ImmutableList.of(BIGINT);
+        List<Page> probeInput = rowPagesBuilder(probeTypes)
+                .addSequencePage(300, 0)
+                .build();
+        OperatorFactory joinOperatorFactory = HashSemiJoinOperator.createOperatorFactory(
+                2,
+                new PlanNodeId("test"),
+                setBuilderOperatorFactory.getSetProvider(),
+                probeTypes,
+                0,
+                new GenericPartitioningSpillerFactory(new DummySpillerFactory()));
+        OperatorFactory duplicateJoinOperatorFactory = joinOperatorFactory.duplicate();
+        try (Operator joinOperator = joinOperatorFactory.createOperator(pipelineContext.addDriverContext());
+                Operator emptyJoinOperator = duplicateJoinOperatorFactory.createOperator(pipelineContext.addDriverContext())) {
+            joinOperatorFactory.noMoreOperators();
+            duplicateJoinOperatorFactory.noMoreOperators();
+
+            // an operator without input releases the set without loading it
+            assertThat(OperatorAssertion.toPages(emptyJoinOperator, emptyIterator())).isEmpty();
+            assertThat(setBuilderOperator.isBlocked()).isNotDone();
+
+            MaterializedResult.Builder expected = resultBuilder(driverContext.getSession(), concat(probeTypes, ImmutableList.of(BOOLEAN)));
+            for (long value = 0; value < 300; value++) {
+                expected.row(value, value < 100 || value >= 200);
+            }
+            OperatorAssertion.assertPagesEqualIgnoreOrder(driverContext, OperatorAssertion.toPages(joinOperator, probeInput.iterator()), expected.build());
+        }
+
+        assertThat(setBuilderOperator.isBlocked()).isDone();
+        setBuilderOperator.finish();
+        assertThat(setBuilderOperator.isFinished()).isTrue();
+    }
+
     @Test
     public void testMemoryLimit()
     {
@@ -389,7 +539,9 @@ public class TestHashSemiJoinOperator
                     0,
                     10,
                     new JoinCompiler(typeOperators),
-                    typeOperators);
+                    typeOperators,
+                    false,
+                    unsupportedPartitioningSpillerFactory());
             Operator setBuilderOperator = setBuilderOperatorFactory.createOperator(driverContext);
 
             Driver driver = Driver.createDriver(driverContext, buildOperator, setBuilderOperator);
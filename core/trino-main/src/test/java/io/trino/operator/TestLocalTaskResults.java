@@ -0,0 +1,49 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import io.trino.metadata.InMemoryNodeManager;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestLocalTaskResults
+{
+    @Test
+    public void testIsLocal()
+    {
+        LocalTaskResults localTaskResults = new LocalTaskResults(
+                new DirectExchangeClientConfig().setLocalTransferEnabled(true),
+                () -> {
+                    throw new UnsupportedOperationException();
+                },
+                InMemoryNodeManager::new);
+
+        assertThat(localTaskResults.isLocal("local")).isTrue();
+        assertThat(localTaskResults.isLocal("other")).isFalse();
+    }
+
+    @Test
+    public void testDisabled()
+    {
+        LocalTaskResults localTaskResults = new LocalTaskResults(
+                new DirectExchangeClientConfig(),
+                () -> {
+                    throw new UnsupportedOperationException();
+                },
+                InMemoryNodeManager::new);
+        assertThat(localTaskResults.isLocal("local")).isFalse();
+        assertThat(LocalTaskResults.disabled().isLocal("local")).isFalse();
+    }
+}
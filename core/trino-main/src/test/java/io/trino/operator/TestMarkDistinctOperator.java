@@ -15,13 +15,23 @@ package io.trino.operator;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Ints;
+import io.airlift.stats.TestingGcMonitor;
+import io.airlift.units.DataSize;
 import io.trino.RowPagesBuilder;
+import io.trino.execution.StageId;
+import io.trino.execution.TaskId;
+import io.trino.memory.MemoryPool;
+import io.trino.memory.QueryContext;
 import io.trino.operator.MarkDistinctOperator.MarkDistinctOperatorFactory;
+import io.trino.operator.join.JoinTestUtils.DummySpillerFactory;
 import io.trino.spi.Page;
+import io.trino.spi.QueryId;
 import io.trino.spi.block.Block;
 import io.trino.spi.block.RunLengthEncodedBlock;
 import io.trino.spi.type.Type;
 import io.trino.spi.type.TypeOperators;
+import io.trino.spiller.GenericPartitioningSpillerFactory;
+import io.trino.spiller.SpillSpaceTracker;
 import io.trino.sql.planner.plan.PlanNodeId;
 import io.trino.testing.MaterializedResult;
 import org.junit.jupiter.api.AfterAll;
@@ -34,7 +44,10 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 
 import static com.google.common.base.Throwables.throwIfUnchecked;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.trino.RowPagesBuilder.rowPagesBuilder;
 import static io.trino.SessionTestUtils.TEST_SESSION;
 import static io.trino.operator.GroupByHashYieldAssertion.createPages;
@@ -92,6 +105,103 @@ public class TestMarkDistinctOperator
         OperatorAssertion.assertOperatorEqualsIgnoreOrder(operatorFactory, driverContext, input, expected.build());
     }
 
+    @Test
+    public void testMarkDistinctWithSpill()
+    {
+        DriverContext driverContext = newDriverContext();
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(Ints.asList(0), BIGINT);
+        List<Page> input = rowPagesBuilder
+                .addSequencePage(100, 0)
+                .addSequencePage(100, 50)
+                .addSequencePage(100, 0)
+                .build();
+
+        OperatorFactory operatorFactory = new MarkDistinctOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                rowPagesBuilder.getTypes(),
+                ImmutableList.of(0),
+                hashStrategyCompiler,
+                true,
+                new GenericPartitioningSpillerFactory(new DummySpillerFactory()),
+                typeOperators);
+
+        MaterializedResult.Builder expected = resultBuilder(driverContext.getSession(), BIGINT, BOOLEAN);
+        for (long i = 0; i < 150; i++) {
+            expected.row(i, true);
+        }
+        for (long i = 50; i < 100; i++) {
+            expected.row(i, false);
+        }
+        for (long i = 0; i < 100; i++) {
+            expected.row(i, false);
+        }
+
+        // the memory is revoked after the first page
+        OperatorAssertion.assertOperatorEqualsIgnoreOrder(operatorFactory, driverContext, input, expected.build());
+    }
+
+    @Test
+    public void testSpillWhenRevocableMemoryIsExhausted()
+    {
+        MemoryPool memoryPool = new MemoryPool(DataSize.of(1, GIGABYTE));
+        QueryContext queryContext = new QueryContext(
+                new QueryId("test_query"),
+                DataSize.of(512, MEGABYTE),
+                memoryPool,
+                new TestingGcMonitor(),
+                executor,
+                scheduledExecutor,
+                scheduledExecutor,
+                DataSize.of(512, MEGABYTE),
+                new SpillSpaceTracker(DataSize.of(512, MEGABYTE)));
+        DriverContext driverContext = createTaskContext(queryContext, executor, TEST_SESSION)
+                .addPipelineContext(0, true, true, false)
+                .addDriverContext();
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(Ints.asList(0), BIGINT);
+        List<Page> input = rowPagesBuilder
+                .addSequencePage(50_000, 0)
+                .addSequencePage(50_000, 0)
+                .build();
+
+        OperatorFactory operatorFactory = new MarkDistinctOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                rowPagesBuilder.getTypes(),
+                ImmutableList.of(0),
+                hashStrategyCompiler,
+                true,
+                new GenericPartitioningSpillerFactory(new DummySpillerFactory()),
+                typeOperators);
+        Operator operator = operatorFactory.createOperator(driverContext);
+
+        // leave no memory for the hash, so it waits for revocable memory instead of growing
+        TaskId anotherTaskId = new TaskId(new StageId("another_query", 0), 0, 0);
+        long reservedBytes = memoryPool.getFreeBytes();
+        memoryPool.reserve(anotherTaskId, "test", reservedBytes);
+        operator.addInput(input.get(0));
+        assertThat(operator.getOperatorContext().isWaitingForRevocableMemory().isDone()).isFalse();
+        assertThat(operator.getOutput()).isNull();
+
+        // the pending page is marked before the hash is revoked
+        getFutureValue(operator.startMemoryRevoke());
+        operator.finishMemoryRevoke();
+        memoryPool.free(anotherTaskId, "test", reservedBytes);
+
+        MaterializedResult.Builder expected = resultBuilder(driverContext.getSession(), BIGINT, BOOLEAN);
+        for (long i = 0; i < 50_000; i++) {
+            expected.row(i, true);
+        }
+        for (long i = 0; i < 50_000; i++) {
+            expected.row(i, false);
+        }
+        List<Page> output = ImmutableList.<Page>builder()
+                .add(operator.getOutput())
+                .addAll(OperatorAssertion.toPages(operator, input.subList(1, 2).iterator()))
+                .build();
+        OperatorAssertion.assertPagesEqualIgnoreOrder(driverContext, output, expected.build());
+    }
+
     @Test
     public void testRleDistinctMask()
     {
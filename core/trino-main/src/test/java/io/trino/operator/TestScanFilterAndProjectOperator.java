@@ -39,6 +39,7 @@ import io.trino.sql.gen.CursorProcessorCompiler;
 import io.trino.sql.gen.ExpressionCompiler;
 import io.trino.sql.gen.PageFunctionCompiler;
 import io.trino.sql.gen.columnar.ColumnarFilterCompiler;
+import io.trino.sql.gen.columnar.ColumnarProjectionCompiler;
 import io.trino.sql.gen.columnar.PageFilterEvaluator;
 import io.trino.sql.planner.plan.PlanNodeId;
 import io.trino.sql.relational.RowExpression;
@@ -105,7 +106,8 @@ public class TestScanFilterAndProjectOperator
         expressionCompiler = new ExpressionCompiler(
                 new CursorProcessorCompiler(functionManager),
                 new PageFunctionCompiler(functionManager, 0),
-                new ColumnarFilterCompiler(functionManager, 0));
+                new ColumnarFilterCompiler(functionManager, 0),
+                new ColumnarProjectionCompiler(functionManager, 0));
     }
 
     @AfterAll
@@ -296,7 +298,8 @@ public class TestScanFilterAndProjectOperator
         ExpressionCompiler expressionCompiler = new ExpressionCompiler(
                 new CursorProcessorCompiler(functionManager),
                 new PageFunctionCompiler(functionManager, 0),
-                new ColumnarFilterCompiler(functionManager, 0));
+                new ColumnarFilterCompiler(functionManager, 0),
+                new ColumnarProjectionCompiler(functionManager, 0));
         ImmutableList.Builder<RowExpression> projections = ImmutableList.builder();
         for (int i = 0; i < totalColumns; i++) {
             projections.add(call(runner.getPlannerContext().getMetadata().resolveBuiltinFunction("generic_long_page_col" + i, fromTypes(BIGINT)), field(0, BIGINT)));
@@ -364,7 +367,8 @@ public class TestScanFilterAndProjectOperator
         ExpressionCompiler expressionCompiler = new ExpressionCompiler(
                 new CursorProcessorCompiler(functionManager),
                 new PageFunctionCompiler(functionManager, 0),
-                new ColumnarFilterCompiler(functionManager, 0));
+                new ColumnarFilterCompiler(functionManager, 0),
+                new ColumnarProjectionCompiler(functionManager, 0));
 
         List<RowExpression> projections = ImmutableList.of(call(
                 runner.getPlannerContext().getMetadata().resolveBuiltinFunction("generic_long_record_cursor", fromTypes(BIGINT)),
@@ -18,12 +18,15 @@ import com.google.common.primitives.Ints;
 import io.airlift.units.DataSize;
 import io.trino.RowPagesBuilder;
 import io.trino.operator.TopNRankingOperator.TopNRankingOperatorFactory;
+import io.trino.operator.join.JoinTestUtils.DummySpillerFactory;
 import io.trino.spi.Page;
 import io.trino.spi.connector.SortOrder;
 import io.trino.spi.type.Type;
 import io.trino.spi.type.TypeOperators;
+import io.trino.spiller.GenericPartitioningSpillerFactory;
 import io.trino.sql.gen.OrderingCompiler;
 import io.trino.sql.planner.plan.PlanNodeId;
+import io.trino.sql.planner.plan.TopNRankingNode.RankingType;
 import io.trino.testing.MaterializedResult;
 import io.trino.type.BlockTypeOperators;
 import org.junit.jupiter.api.AfterAll;
@@ -43,6 +46,7 @@ import static io.trino.SessionTestUtils.TEST_SESSION;
 import static io.trino.operator.GroupByHashYieldAssertion.createPages;
 import static io.trino.operator.GroupByHashYieldAssertion.finishOperatorWithYieldingGroupByHash;
 import static io.trino.operator.OperatorAssertion.assertOperatorEquals;
+import static io.trino.operator.OperatorAssertion.assertOperatorEqualsIgnoreOrder;
 import static io.trino.spi.connector.SortOrder.ASC_NULLS_FIRST;
 import static io.trino.spi.type.BigintType.BIGINT;
 import static io.trino.spi.type.DoubleType.DOUBLE;
@@ -129,6 +133,65 @@ public class TestTopNRankingOperator
         assertOperatorEquals(operatorFactory, driverContext, input, expected);
     }
 
+    @Test
+    public void testPartitionedWithSpill()
+    {
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(Ints.asList(0), VARCHAR, DOUBLE);
+        List<Page> input = rowPagesBuilder
+                .row("a", 0.3)
+                .row("b", 0.2)
+                .row("c", 0.1)
+                .row("c", 0.91)
+                .pageBreak()
+                .row("a", 0.4)
+                .pageBreak()
+                .row("a", 0.5)
+                .row("a", 0.6)
+                .row("b", 0.7)
+                .row("b", 0.8)
+                .pageBreak()
+                .row("b", 0.9)
+                .row("a", 0.1)
+                .build();
+
+        for (RankingType rankingType : List.of(ROW_NUMBER, RANK)) {
+            DriverContext driverContext = newDriverContext();
+            TopNRankingOperatorFactory operatorFactory = new TopNRankingOperatorFactory(
+                    0,
+                    new PlanNodeId("test"),
+                    rankingType,
+                    ImmutableList.of(VARCHAR, DOUBLE),
+                    Ints.asList(1, 0),
+                    Ints.asList(0),
+                    ImmutableList.of(VARCHAR),
+                    Ints.asList(1),
+                    3,
+                    false,
+                    10,
+                    Optional.empty(),
+                    hashStrategyCompiler,
+                    orderingCompiler.compilePageWithPositionComparator(ImmutableList.of(DOUBLE), Ints.asList(1), ImmutableList.of(SortOrder.ASC_NULLS_LAST)),
+                    blockTypeOperators,
+                    true,
+                    new GenericPartitioningSpillerFactory(new DummySpillerFactory()),
+                    typeOperators);
+
+            // the memory is revoked after every page, the rows spilled for a group are merged when restored
+            MaterializedResult expected = resultBuilder(driverContext.getSession(), DOUBLE, VARCHAR, BIGINT)
+                    .row(0.1, "a", 1L)
+                    .row(0.3, "a", 2L)
+                    .row(0.4, "a", 3L)
+                    .row(0.2, "b", 1L)
+                    .row(0.7, "b", 2L)
+                    .row(0.8, "b", 3L)
+                    .row(0.1, "c", 1L)
+                    .row(0.91, "c", 2L)
+                    .build();
+
+            assertOperatorEqualsIgnoreOrder(operatorFactory, driverContext, input, expected);
+        }
+    }
+
     @Test
     public void testUnPartitioned()
     {
@@ -79,6 +79,7 @@ import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.openjdk.jmh.annotations.Mode.AverageTime;
 
 @SuppressWarnings("MethodMayBeStatic")
@@ -199,6 +200,7 @@ public class BenchmarkHashBuildAndJoinOperators
         protected List<Page> probePages;
         protected List<Integer> outputChannels;
 
+        protected JoinBridgeManager<PartitionedLookupSourceFactory> lookupSourceFactory;
         protected OperatorFactory joinOperatorFactory;
 
         @Override
@@ -221,7 +223,7 @@ public class BenchmarkHashBuildAndJoinOperators
                     throw new UnsupportedOperationException(format("Unknown outputColumns value [%s]", hashColumns));
             }
 
-            JoinBridgeManager<PartitionedLookupSourceFactory> lookupSourceFactory = getLookupSourceFactoryManager(this, outputChannels, partitionCount);
+            lookupSourceFactory = getLookupSourceFactoryManager(this, outputChannels, partitionCount);
             joinOperatorFactory = spillingJoin(
                     innerJoin(false, false),
                     HASH_JOIN_OPERATOR_ID,
@@ -295,6 +297,53 @@ public class BenchmarkHashBuildAndJoinOperators
         }
     }
 
+    @State(Scope.Benchmark)
+    public static class ProbeContext
+            extends JoinContext
+    {
+        protected LookupSourceProvider lookupSourceProvider;
+        protected List<Page> probeHashChannelsPages;
+
+        @Override
+        @Setup
+        public void setup()
+        {
+            super.setup();
+
+            lookupSourceProvider = getFutureValue(lookupSourceFactory.getJoinBridge().createLookupSourceProvider());
+            int[] probeHashChannels = Ints.toArray(hashChannels);
+            probeHashChannelsPages = probePages.stream()
+                    .map(page -> page.getColumns(probeHashChannels))
+                    .collect(toImmutableList());
+        }
+
+        public long probe(boolean batched)
+        {
+            return lookupSourceProvider.withLease(lookupSourceLease -> {
+                LookupSource lookupSource = lookupSourceLease.getLookupSource();
+                long checksum = 0;
+                for (int i = 0; i < probePages.size(); i++) {
+                    Page page = probePages.get(i);
+                    Page hashChannelsPage = probeHashChannelsPages.get(i);
+                    int positionCount = page.getPositionCount();
+                    if (batched) {
+                        long[] joinPositions = new long[positionCount];
+                        lookupSource.getJoinPosition(IntStream.range(0, positionCount).toArray(), hashChannelsPage, page, joinPositions);
+                        for (long joinPosition : joinPositions) {
+                            checksum += joinPosition;
+                        }
+                    }
+                    else {
+                        for (int position = 0; position < positionCount; position++) {
+                            checksum += lookupSource.getJoinPosition(position, hashChannelsPage, page);
+                        }
+                    }
+                }
+                return checksum;
+            });
+        }
+    }
+
     @Benchmark
     public JoinBridgeManager<PartitionedLookupSourceFactory> benchmarkBuildHash(BuildContext buildContext)
     {
@@ -440,6 +489,18 @@ public class BenchmarkHashBuildAndJoinOperators
         return outputPages.build();
     }
 
+    @Benchmark
+    public long benchmarkPerRowProbe(ProbeContext probeContext)
+    {
+        return probeContext.probe(false);
+    }
+
+    @Benchmark
+    public long benchmarkBatchedProbe(ProbeContext probeContext)
+    {
+        return probeContext.probe(true);
+    }
+
     @Test
     public void testBenchmarkJoinHash()
             throws Exception
@@ -455,6 +516,14 @@ public class BenchmarkHashBuildAndJoinOperators
         checkState(pages.get(0).getPositionCount() > 0);
     }
 
+    @Test
+    public void testBenchmarkProbe()
+    {
+        ProbeContext probeContext = new ProbeContext();
+        probeContext.setup();
+        assertThat(benchmarkBatchedProbe(probeContext)).isEqualTo(benchmarkPerRowProbe(probeContext));
+    }
+
     @Test
     public void testBenchmarkBuildHash()
     {
@@ -0,0 +1,235 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.join;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.SettableFuture;
+import io.trino.Session;
+import io.trino.operator.PagesHashStrategy;
+import io.trino.operator.SimplePagesHashStrategy;
+import io.trino.operator.TestingOperatorContext;
+import io.trino.spi.Page;
+import io.trino.spi.PageBuilder;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.TypeOperators;
+import io.trino.type.BlockTypeOperators;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.trino.RowPagesBuilder.rowPagesBuilder;
+import static io.trino.SystemSessionProperties.JOIN_OFF_HEAP_HASH_TABLE_ENABLED;
+import static io.trino.operator.HashArraySizeSupplier.defaultHashArraySizeSupplier;
+import static io.trino.operator.SyntheticAddress.encodeSyntheticAddress;
+import static io.trino.operator.join.OuterLookupSource.createOuterLookupSourceSupplier;
+import static io.trino.operator.join.PartitionedLookupSource.createPartitionedLookupSourceSupplier;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static io.trino.testing.TestingSession.testSessionBuilder;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+@TestInstance(PER_CLASS)
+public class TestOffHeapPagesHash
+{
+    private static final Session OFF_HEAP_SESSION = testSessionBuilder()
+            .setSystemProperty(JOIN_OFF_HEAP_HASH_TABLE_ENABLED, "true")
+            .build();
+    private static final TypeOperators TYPE_OPERATORS = new TypeOperators();
+    private static final int BUILD_POSITIONS = 100;
+    private static final int MATCHED_POSITIONS = 10;
+
+    private final ScheduledExecutorService scheduledExecutor = newSingleThreadScheduledExecutor(daemonThreadsNamed(getClass().getSimpleName() + "-scheduledExecutor-%s"));
+
+    @AfterAll
+    public void tearDown()
+    {
+        scheduledExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testMatchesDefaultPagesHash()
+    {
+        List<Page> buildPages = rowPagesBuilder(VARCHAR)
+                .addSequencePage(1000, 0)
+                .addSequencePage(1000, 500)
+                .row((Object) null)
+                .build();
+        ObjectArrayList<Block> channel = new ObjectArrayList<>();
+        LongArrayList addresses = new LongArrayList();
+        for (int pageIndex = 0; pageIndex < buildPages.size(); pageIndex++) {
+            Page page = buildPages.get(pageIndex);
+            channel.add(page.getBlock(0));
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                addresses.add(encodeSyntheticAddress(pageIndex, position));
+            }
+        }
+        PagesHashStrategy pagesHashStrategy = new SimplePagesHashStrategy(
+                ImmutableList.of(VARCHAR),
+                ImmutableList.of(0),
+                ImmutableList.of(channel),
+                ImmutableList.of(0),
+                Optional.empty(),
+                new BlockTypeOperators());
+
+        PositionLinks.FactoryBuilder defaultPositionLinks = ArrayPositionLinks.builder(addresses.size());
+        DefaultPagesHash defaultPagesHash = new DefaultPagesHash(addresses, pagesHashStrategy, defaultPositionLinks, defaultHashArraySizeSupplier());
+        PositionLinks.FactoryBuilder offHeapPositionLinks = ArrayPositionLinks.builder(addresses.size());
+        OffHeapPagesHash offHeapPagesHash = new OffHeapPagesHash(addresses, pagesHashStrategy, offHeapPositionLinks, defaultHashArraySizeSupplier());
+
+        assertThat(offHeapPagesHash.getPositionCount()).isEqualTo(addresses.size());
+        assertThat(offHeapPagesHash.getInMemorySizeInBytes()).isPositive();
+        // 500 keys are duplicated between the build pages
+        assertThat(offHeapPositionLinks.isEmpty()).isFalse();
+        assertThat(offHeapPositionLinks.build().checksum()).isEqualTo(defaultPositionLinks.build().checksum());
+
+        Page probePage = getOnlyElement(rowPagesBuilder(VARCHAR).addSequencePage(3000, -500).build());
+        int[] positions = IntStream.range(0, probePage.getPositionCount()).toArray();
+        int[] expected = defaultPagesHash.getAddressIndex(positions, probePage);
+        assertThat(offHeapPagesHash.getAddressIndex(positions, probePage)).isEqualTo(expected);
+        for (int position : positions) {
+            assertThat(offHeapPagesHash.getAddressIndex(position, probePage)).isEqualTo(expected[position]);
+        }
+        assertThat(IntStream.of(expected).filter(addressIndex -> addressIndex != -1).count()).isEqualTo(1500);
+
+        // the memory is released on close
+        offHeapPagesHash.close();
+        assertThatThrownBy(() -> offHeapPagesHash.getAddressIndex(0, probePage))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testRightJoinReleasesOffHeapHash()
+    {
+        testOuterJoinReleasesOffHeapHash(1, partitions -> createOuterLookupSourceSupplier(getOnlyElement(partitions)));
+    }
+
+    @Test
+    public void testPartitionedRightJoinReleasesOffHeapHash()
+    {
+        testOuterJoinReleasesOffHeapHash(2, partitions -> createPartitionedLookupSourceSupplier(partitions, ImmutableList.of(VARCHAR), true, TYPE_OPERATORS));
+        testOuterJoinReleasesOffHeapHash(2, partitions -> io.trino.operator.join.unspilled.PartitionedLookupSource.createPartitionedLookupSourceSupplier(partitions, ImmutableList.of(VARCHAR), true, TYPE_OPERATORS));
+    }
+
+    private static void testOuterJoinReleasesOffHeapHash(int partitionCount, Function<List<Supplier<LookupSource>>, TrackingLookupSourceSupplier> lookupSourceSupplierFactory)
+    {
+        List<JoinHashSupplier> joinHashSuppliers = IntStream.range(0, partitionCount)
+                .mapToObj(_ -> createOffHeapJoinHashSupplier())
+                .collect(toImmutableList());
+        TrackingLookupSourceSupplier lookupSourceSupplier = lookupSourceSupplierFactory.apply(ImmutableList.<Supplier<LookupSource>>copyOf(joinHashSuppliers));
+        Page probePage = getOnlyElement(rowPagesBuilder(VARCHAR).addSequencePage(MATCHED_POSITIONS, 0).build());
+
+        PageBuilder pageBuilder = new PageBuilder(ImmutableList.of(VARCHAR));
+        try (LookupSource lookupSource = lookupSourceSupplier.getLookupSource()) {
+            for (int position = 0; position < probePage.getPositionCount(); position++) {
+                long joinPosition = lookupSource.getJoinPosition(position, probePage, probePage);
+                while (joinPosition >= 0) {
+                    lookupSource.appendTo(joinPosition, pageBuilder, 0);
+                    pageBuilder.declarePosition();
+                    joinPosition = lookupSource.getNextJoinPosition(joinPosition, position, probePage);
+                }
+            }
+        }
+        assertThat(pageBuilder.getPositionCount()).isEqualTo(MATCHED_POSITIONS);
+        pageBuilder.reset();
+
+        OuterPositionIterator outerPositions = lookupSourceSupplier.getOuterPositionIterator();
+        while (outerPositions.appendToNext(pageBuilder, 0)) {
+            pageBuilder.declarePosition();
+        }
+        assertThat(pageBuilder.getPositionCount()).isEqualTo(partitionCount * BUILD_POSITIONS - MATCHED_POSITIONS);
+
+        // the build operators close the suppliers, while the outer positions still reference the hashes
+        joinHashSuppliers.forEach(JoinHashSupplier::close);
+        for (JoinHashSupplier joinHashSupplier : joinHashSuppliers) {
+            assertThat(joinHashSupplier.getPagesHash().getAddressIndex(0, probePage)).isNotNegative();
+        }
+
+        outerPositions.close();
+        assertReleased(joinHashSuppliers, probePage);
+    }
+
+    @Test
+    public void testLookupOuterOperatorReleasesOffHeapHash()
+    {
+        JoinHashSupplier joinHashSupplier = createOffHeapJoinHashSupplier();
+        TrackingLookupSourceSupplier lookupSourceSupplier = createOuterLookupSourceSupplier(joinHashSupplier);
+        SettableFuture<OuterPositionIterator> outerPositionsFuture = SettableFuture.create();
+        LookupOuterOperator operator = new LookupOuterOperator(
+                TestingOperatorContext.create(scheduledExecutor),
+                outerPositionsFuture,
+                ImmutableList.of(VARCHAR),
+                ImmutableList.of(VARCHAR),
+                () -> {});
+
+        // a full join that is cancelled before the outer positions are ready
+        operator.close();
+        outerPositionsFuture.set(lookupSourceSupplier.getOuterPositionIterator());
+        joinHashSupplier.close();
+
+        assertReleased(ImmutableList.of(joinHashSupplier), getOnlyElement(rowPagesBuilder(VARCHAR).addSequencePage(1, 0).build()));
+    }
+
+    private static void assertReleased(List<JoinHashSupplier> joinHashSuppliers, Page probePage)
+    {
+        for (JoinHashSupplier joinHashSupplier : joinHashSuppliers) {
+            assertThatThrownBy(() -> joinHashSupplier.getPagesHash().getAddressIndex(0, probePage))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    private static JoinHashSupplier createOffHeapJoinHashSupplier()
+    {
+        Page buildPage = getOnlyElement(rowPagesBuilder(VARCHAR).addSequencePage(BUILD_POSITIONS, 0).build());
+        ObjectArrayList<Block> channel = new ObjectArrayList<>();
+        channel.add(buildPage.getBlock(0));
+        LongArrayList addresses = new LongArrayList();
+        for (int position = 0; position < buildPage.getPositionCount(); position++) {
+            addresses.add(encodeSyntheticAddress(0, position));
+        }
+        PagesHashStrategy pagesHashStrategy = new SimplePagesHashStrategy(
+                ImmutableList.of(VARCHAR),
+                ImmutableList.of(0),
+                ImmutableList.of(channel),
+                ImmutableList.of(0),
+                Optional.empty(),
+                new BlockTypeOperators());
+        JoinHashSupplier joinHashSupplier = new JoinHashSupplier(
+                OFF_HEAP_SESSION,
+                pagesHashStrategy,
+                addresses,
+                ImmutableList.of(channel),
+                Optional.empty(),
+                Optional.empty(),
+                ImmutableList.of(),
+                defaultHashArraySizeSupplier(),
+                OptionalInt.empty());
+        assertThat(joinHashSupplier.getPagesHash()).isInstanceOf(OffHeapPagesHash.class);
+        return joinHashSupplier;
+    }
+}
@@ -122,6 +122,7 @@ public class TestQueryStateInfo
                         new Duration(1, SECONDS),
                         new Duration(2, SECONDS),
                         new Duration(12, MINUTES),
+                        new Duration(3, SECONDS),
                         13,
                         14,
                         15,
@@ -0,0 +1,234 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.spiller;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import io.airlift.configuration.secrets.SecretsResolver;
+import io.airlift.slice.Slices;
+import io.airlift.tracing.Tracing;
+import io.opentelemetry.api.OpenTelemetry;
+import io.trino.exchange.ExchangeManagerRegistry;
+import io.trino.execution.buffer.CompressionCodec;
+import io.trino.memory.context.LocalMemoryContext;
+import io.trino.operator.PageAssertions;
+import io.trino.operator.SpillContext;
+import io.trino.plugin.exchange.filesystem.FileSystemExchangeManagerFactory;
+import io.trino.spi.Page;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.block.TestingBlockEncodingSerde;
+import io.trino.spi.type.Type;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.parallel.Execution;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.trino.execution.buffer.CompressionCodec.LZ4;
+import static io.trino.execution.buffer.CompressionCodec.NONE;
+import static io.trino.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.VarbinaryType.VARBINARY;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@TestInstance(PER_CLASS)
+@Execution(CONCURRENT)
+public class TestExchangeSingleStreamSpiller
+{
+    private static final List<Type> TYPES = ImmutableList.of(BIGINT, DOUBLE, VARBINARY);
+
+    private final ListeningExecutorService executor = listeningDecorator(newCachedThreadPool());
+    private Path exchangeDirectory;
+    private ExchangeManagerRegistry exchangeManagerRegistry;
+
+    @BeforeAll
+    public void setUp()
+            throws Exception
+    {
+        exchangeDirectory = Files.createTempDirectory("exchange-spill");
+        exchangeManagerRegistry = new ExchangeManagerRegistry(OpenTelemetry.noop(), Tracing.noopTracer(), new SecretsResolver(ImmutableMap.of()));
+        exchangeManagerRegistry.addExchangeManagerFactory(new FileSystemExchangeManagerFactory());
+        exchangeManagerRegistry.loadExchangeManager("filesystem", ImmutableMap.of(
+                "exchange.base-directories", exchangeDirectory.toString()));
+    }
+
+    @AfterAll
+    public void tearDown()
+            throws Exception
+    {
+        executor.shutdown();
+        exchangeManagerRegistry.shutdown();
+        exchangeManagerRegistry = null;
+        deleteRecursively(exchangeDirectory, ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testSpill()
+    {
+        assertSpill(NONE, false);
+    }
+
+    @Test
+    public void testSpillCompression()
+    {
+        assertSpill(LZ4, false);
+    }
+
+    @Test
+    public void testSpillEncryption()
+    {
+        assertSpill(NONE, true);
+    }
+
+    @Test
+    public void testSpillEncryptionWithCompression()
+    {
+        assertSpill(LZ4, true);
+    }
+
+    private void assertSpill(CompressionCodec compressionCodec, boolean encryption)
+    {
+        TestingSpillContext spillContext = new TestingSpillContext();
+        LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext("test");
+        SingleStreamSpiller spiller = createSpillerFactory(compressionCodec, encryption).create(TYPES, spillContext, memoryContext);
+        assertThat(spiller).isInstanceOf(ExchangeSingleStreamSpiller.class);
+
+        Page page = buildPage();
+        getFutureValue(spiller.spill(page));
+        getFutureValue(spiller.spill(Iterators.forArray(page, page, page)));
+
+        // remote spill does not use the local spill space
+        assertThat(spillContext.getLocalBytes()).isEqualTo(0);
+        assertThat(spillContext.getRemoteBytes()).isGreaterThan(0);
+
+        List<Page> spilledPages = ImmutableList.copyOf(spiller.getSpilledPages());
+        assertThat(spilledPages).hasSize(4);
+        for (Page spilledPage : spilledPages) {
+            PageAssertions.assertPageEquals(TYPES, page, spilledPage);
+        }
+
+        // Repeated reads are disallowed
+        assertThatThrownBy(spiller::getSpilledPages)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Repeated reads are disallowed to prevent potential resource leaks");
+
+        spiller.close();
+        assertThat(spillContext.getRemoteBytes()).isEqualTo(0);
+        assertThat(memoryContext.getBytes()).isEqualTo(0);
+    }
+
+    @Test
+    public void testGetAllSpilledPages()
+    {
+        TestingSpillContext spillContext = new TestingSpillContext();
+        LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext("test");
+        SingleStreamSpiller spiller = createSpillerFactory(NONE, true).create(TYPES, spillContext, memoryContext);
+
+        Page page = buildPage();
+        getFutureValue(spiller.spill(Iterators.forArray(page, page, page)));
+
+        List<Page> spilledPages = getFutureValue(spiller.getAllSpilledPages());
+        assertThat(spilledPages).hasSize(3);
+        for (Page spilledPage : spilledPages) {
+            PageAssertions.assertPageEquals(TYPES, page, spilledPage);
+        }
+        assertThat(memoryContext.getBytes()).isEqualTo(0);
+
+        // Repeated reads are disallowed
+        assertThatThrownBy(spiller::getAllSpilledPages)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Repeated reads are disallowed to prevent potential resource leaks");
+
+        spiller.close();
+        assertThat(spillContext.getRemoteBytes()).isEqualTo(0);
+    }
+
+    @Test
+    public void testNothingSpilled()
+    {
+        LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext("test");
+        SingleStreamSpiller spiller = createSpillerFactory(NONE, false).create(TYPES, new TestingSpillContext(), memoryContext);
+        assertThat(getFutureValue(spiller.getAllSpilledPages())).isEmpty();
+        spiller.close();
+    }
+
+    private ExchangeSingleStreamSpillerFactory createSpillerFactory(CompressionCodec compressionCodec, boolean encryption)
+    {
+        return new ExchangeSingleStreamSpillerFactory(
+                executor, // executor won't be closed, because we don't call destroy() on the spiller factory
+                exchangeManagerRegistry::getExchangeManager,
+                new TestingBlockEncodingSerde(),
+                new SpillerStats(),
+                compressionCodec,
+                encryption);
+    }
+
+    private static Page buildPage()
+    {
+        BlockBuilder col1 = BIGINT.createFixedSizeBlockBuilder(1);
+        BlockBuilder col2 = DOUBLE.createFixedSizeBlockBuilder(1);
+        BlockBuilder col3 = VARBINARY.createBlockBuilder(null, 1);
+
+        BIGINT.writeLong(col1, 42);
+        DOUBLE.writeDouble(col2, 43.0);
+        VARBINARY.writeSlice(col3, Slices.allocate(16).getOutput().appendDouble(43.0).appendLong(1).slice());
+
+        return new Page(col1.build(), col2.build(), col3.build());
+    }
+
+    private static class TestingSpillContext
+            implements SpillContext
+    {
+        private final AtomicLong localBytes = new AtomicLong();
+        private final AtomicLong remoteBytes = new AtomicLong();
+
+        @Override
+        public void updateBytes(long bytes)
+        {
+            localBytes.addAndGet(bytes);
+        }
+
+        @Override
+        public void updateRemoteBytes(long bytes)
+        {
+            remoteBytes.addAndGet(bytes);
+        }
+
+        public long getLocalBytes()
+        {
+            return localBytes.get();
+        }
+
+        public long getRemoteBytes()
+        {
+            return remoteBytes.get();
+        }
+    }
+}
@@ -36,7 +36,11 @@ public class TestNodeSpillConfig
                 .setMaxSpillPerNode(DataSize.of(100, GIGABYTE))
                 .setQueryMaxSpillPerNode(DataSize.of(100, GIGABYTE))
                 .setSpillCompressionCodec(NONE)
-                .setSpillEncryptionEnabled(false));
+                .setSpillEncryptionEnabled(false)
+                .setSpillStripingEnabled(false)
+                .setSpillStripeSize(DataSize.of(1, MEGABYTE))
+                .setSpillDirectIoEnabled(false)
+                .setSpillExchangeManagerEnabled(false));
     }
 
     @Test
@@ -47,13 +51,21 @@ public class TestNodeSpillConfig
                 .put("query-max-spill-per-node", "15 MB")
                 .put("spill-compression-codec", "ZSTD")
                 .put("spill-encryption-enabled", "true")
+                .put("spill-striping-enabled", "true")
+                .put("spill-stripe-size", "4MB")
+                .put("spill-direct-io-enabled", "true")
+                .put("spill-exchange-manager-enabled", "true")
                 .buildOrThrow();
 
         NodeSpillConfig expected = new NodeSpillConfig()
                 .setMaxSpillPerNode(DataSize.of(10, MEGABYTE))
                 .setQueryMaxSpillPerNode(DataSize.of(15, MEGABYTE))
                 .setSpillCompressionCodec(ZSTD)
-                .setSpillEncryptionEnabled(true);
+                .setSpillEncryptionEnabled(true)
+                .setSpillStripingEnabled(true)
+                .setSpillStripeSize(DataSize.of(4, MEGABYTE))
+                .setSpillDirectIoEnabled(true)
+                .setSpillExchangeManagerEnabled(true);
 
         assertFullMapping(properties, expected);
     }
@@ -73,4 +73,26 @@ public class TestSpillSpaceTracker
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("tried to free more disk space than is reserved");
     }
+
+    @Test
+    public void testRemoteSpill()
+    {
+        SpillSpaceTracker spillSpaceTracker = new SpillSpaceTracker(MAX_DATA_SIZE);
+
+        // remote spill is not limited by the local spill space
+        long remoteBytes = MAX_DATA_SIZE.toBytes() * 2;
+        spillSpaceTracker.reserveRemote(remoteBytes);
+        assertThat(spillSpaceTracker.getCurrentRemoteBytes()).isEqualTo(remoteBytes);
+        assertThat(spillSpaceTracker.getCurrentBytes()).isEqualTo(0);
+
+        spillSpaceTracker.reserve(1000);
+        assertThat(spillSpaceTracker.getCurrentBytes()).isEqualTo(1000);
+
+        assertThatThrownBy(() -> spillSpaceTracker.freeRemote(remoteBytes + 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("tried to free more remote spill than is reserved");
+        spillSpaceTracker.freeRemote(remoteBytes);
+        assertThat(spillSpaceTracker.getCurrentRemoteBytes()).isEqualTo(0);
+        assertThat(spillSpaceTracker.getCurrentBytes()).isEqualTo(1000);
+    }
 }
@@ -0,0 +1,210 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.spiller;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import io.airlift.slice.Slices;
+import io.airlift.units.DataSize;
+import io.trino.execution.buffer.CompressionCodec;
+import io.trino.memory.context.LocalMemoryContext;
+import io.trino.operator.PageAssertions;
+import io.trino.spi.Page;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.block.TestingBlockEncodingSerde;
+import io.trino.spi.type.Type;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.parallel.Execution;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.MoreFiles.listFiles;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.trino.execution.buffer.CompressionCodec.LZ4;
+import static io.trino.execution.buffer.CompressionCodec.NONE;
+import static io.trino.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.VarbinaryType.VARBINARY;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@TestInstance(PER_CLASS)
+@Execution(CONCURRENT)
+public class TestStripedFileSingleStreamSpiller
+{
+    private static final List<Type> TYPES = ImmutableList.of(BIGINT, DOUBLE, VARBINARY);
+    private static final DataSize STRIPE_SIZE = DataSize.of(64, KILOBYTE);
+
+    private final ListeningExecutorService executor = listeningDecorator(newCachedThreadPool());
+
+    @AfterAll
+    public void tearDown()
+    {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testSpill()
+            throws Exception
+    {
+        assertSpill(NONE, false, false);
+    }
+
+    @Test
+    public void testSpillCompression()
+            throws Exception
+    {
+        assertSpill(LZ4, false, false);
+    }
+
+    @Test
+    public void testSpillEncryption()
+            throws Exception
+    {
+        assertSpill(NONE, true, false);
+    }
+
+    @Test
+    public void testSpillDirectIo()
+            throws Exception
+    {
+        // falls back to writing through the page cache where direct I/O is not supported
+        assertSpill(NONE, false, true);
+    }
+
+    private void assertSpill(CompressionCodec compressionCodec, boolean encryption, boolean directIo)
+            throws Exception
+    {
+        Path firstSpillPath = Files.createTempDirectory("tmp");
+        Path secondSpillPath = Files.createTempDirectory("tmp");
+        try {
+            SpillerStats spillerStats = new SpillerStats();
+            StripedFileSingleStreamSpillerFactory spillerFactory = new StripedFileSingleStreamSpillerFactory(
+                    executor, // executor won't be closed, because we don't call destroy() on the spiller factory
+                    new TestingBlockEncodingSerde(),
+                    spillerStats,
+                    ImmutableList.of(firstSpillPath, secondSpillPath),
+                    1.0,
+                    compressionCodec,
+                    encryption,
+                    STRIPE_SIZE,
+                    directIo);
+            LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext("test");
+            SingleStreamSpiller spiller = spillerFactory.create(TYPES, bytes -> {}, memoryContext);
+            assertThat(spiller).isInstanceOf(StripedFileSingleStreamSpiller.class);
+            assertThat(memoryContext.getBytes()).isEqualTo(2 * STRIPE_SIZE.toBytes());
+
+            // every spill ends with a chunk write, so the two spills write at least two chunks
+            Page page = buildPage(10_000);
+            spiller.spill(page).get();
+            spiller.spill(Iterators.forArray(page, page, page)).get();
+
+            // the second chunk goes to the path without a write cost estimate yet
+            assertThat(listFiles(firstSpillPath)).hasSize(1);
+            assertThat(listFiles(secondSpillPath)).hasSize(1);
+            long writtenBytes = spillerStats.getSpillPathStats(firstSpillPath).getWrittenBytes().getTotalCount() +
+                    spillerStats.getSpillPathStats(secondSpillPath).getWrittenBytes().getTotalCount();
+            assertThat(writtenBytes).isEqualTo(Files.size(listFiles(firstSpillPath).get(0)) + Files.size(listFiles(secondSpillPath).get(0)));
+            assertThat(spillerStats.getSpillPathStats(firstSpillPath).getPendingWriteBytes()).isEqualTo(0);
+            assertThat(spillerStats.getSpillPathStats(secondSpillPath).getPendingWriteBytes()).isEqualTo(0);
+
+            List<Page> spilledPages = ImmutableList.copyOf(spiller.getSpilledPages());
+            assertThat(spilledPages).hasSize(4);
+            for (Page spilledPage : spilledPages) {
+                PageAssertions.assertPageEquals(TYPES, page, spilledPage);
+            }
+
+            // Repeated reads are disallowed
+            assertThatThrownBy(spiller::getSpilledPages)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Repeated reads are disallowed to prevent potential resource leaks");
+
+            spiller.close();
+            assertThat(listFiles(firstSpillPath)).isEmpty();
+            assertThat(listFiles(secondSpillPath)).isEmpty();
+            assertThat(memoryContext.getBytes()).isEqualTo(0);
+        }
+        finally {
+            deleteRecursively(firstSpillPath, ALLOW_INSECURE);
+            deleteRecursively(secondSpillPath, ALLOW_INSECURE);
+        }
+    }
+
+    @Test
+    public void testSmallPagesShareChunks()
+            throws Exception
+    {
+        Path spillPath = Files.createTempDirectory("tmp");
+        try {
+            SpillerStats spillerStats = new SpillerStats();
+            StripedFileSingleStreamSpillerFactory spillerFactory = new StripedFileSingleStreamSpillerFactory(
+                    executor,
+                    new TestingBlockEncodingSerde(),
+                    spillerStats,
+                    ImmutableList.of(spillPath),
+                    1.0,
+                    NONE,
+                    false,
+                    STRIPE_SIZE,
+                    false);
+            LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext("test");
+            SingleStreamSpiller spiller = spillerFactory.create(TYPES, bytes -> {}, memoryContext);
+
+            Page page = buildPage(10);
+            spiller.spill(Iterators.limit(Iterators.cycle(page), 1000)).get();
+            assertThat(spillerStats.getSpillPathStats(spillPath).getWriteTime().getAllTime().getCount())
+                    .isGreaterThan(1.0)
+                    .isLessThan(1000.0);
+
+            List<Page> spilledPages = ImmutableList.copyOf(spiller.getSpilledPages());
+            assertThat(spilledPages).hasSize(1000);
+            for (Page spilledPage : spilledPages) {
+                PageAssertions.assertPageEquals(TYPES, page, spilledPage);
+            }
+            assertThat(spillerStats.getSpillPathStats(spillPath).getReadBytes().getTotalCount())
+                    .isEqualTo(spillerStats.getSpillPathStats(spillPath).getWrittenBytes().getTotalCount());
+            spiller.close();
+        }
+        finally {
+            deleteRecursively(spillPath, ALLOW_INSECURE);
+        }
+    }
+
+    private static Page buildPage(int positionCount)
+    {
+        BlockBuilder col1 = BIGINT.createFixedSizeBlockBuilder(positionCount);
+        BlockBuilder col2 = DOUBLE.createFixedSizeBlockBuilder(positionCount);
+        BlockBuilder col3 = VARBINARY.createBlockBuilder(null, positionCount);
+
+        for (int position = 0; position < positionCount; position++) {
+            BIGINT.writeLong(col1, 42 + position);
+            DOUBLE.writeDouble(col2, 43.0);
+            VARBINARY.writeSlice(col3, Slices.allocate(16).getOutput().appendDouble(43.0).appendLong(position).slice());
+        }
+
+        return new Page(col1.build(), col2.build(), col3.build());
+    }
+}
@@ -65,7 +65,9 @@ public class TestFeaturesConfig
                 .setIncrementalHashArrayLoadFactorEnabled(true)
                 .setHideInaccessibleColumns(false)
                 .setForceSpillingJoin(false)
+                .setJoinOffHeapHashTableEnabled(false)
                 .setColumnarFilterEvaluationEnabled(true)
+                .setColumnarProjectionEvaluationEnabled(false)
                 .setFaultTolerantExecutionExchangeEncryptionEnabled(true));
     }
 
@@ -99,7 +101,9 @@ public class TestFeaturesConfig
                 .put("incremental-hash-array-load-factor.enabled", "false")
                 .put("hide-inaccessible-columns", "true")
                 .put("force-spilling-join-operator", "true")
+                .put("experimental.join-off-heap-hash-table.enabled", "true")
                 .put("experimental.columnar-filter-evaluation.enabled", "false")
+                .put("experimental.columnar-projection-evaluation.enabled", "true")
                 .put("fault-tolerant-execution-exchange-encryption-enabled", "false")
                 .buildOrThrow();
 
@@ -130,7 +134,9 @@ public class TestFeaturesConfig
                 .setIncrementalHashArrayLoadFactorEnabled(false)
                 .setHideInaccessibleColumns(true)
                 .setForceSpillingJoin(true)
+                .setJoinOffHeapHashTableEnabled(true)
                 .setColumnarFilterEvaluationEnabled(false)
+                .setColumnarProjectionEvaluationEnabled(true)
                 .setFaultTolerantExecutionExchangeEncryptionEnabled(false);
         assertFullMapping(properties, expected);
     }
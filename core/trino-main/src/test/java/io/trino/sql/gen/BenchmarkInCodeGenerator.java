@@ -30,6 +30,7 @@ import io.trino.spi.function.OperatorType;
 import io.trino.spi.type.StandardTypes;
 import io.trino.spi.type.Type;
 import io.trino.sql.gen.columnar.ColumnarFilterCompiler;
+import io.trino.sql.gen.columnar.ColumnarProjectionCompiler;
 import io.trino.sql.relational.RowExpression;
 import io.trino.sql.relational.SpecialForm;
 import org.junit.jupiter.api.Test;
@@ -190,7 +191,8 @@ public class BenchmarkInCodeGenerator
             processor = new ExpressionCompiler(
                     new CursorProcessorCompiler(functionManager),
                     new PageFunctionCompiler(functionManager, 0),
-                    new ColumnarFilterCompiler(functionManager, 0))
+                    new ColumnarFilterCompiler(functionManager, 0),
+                    new ColumnarProjectionCompiler(functionManager, 0))
                     .compilePageProcessor(
                             columnarEvaluationEnabled,
                             Optional.of(filter),
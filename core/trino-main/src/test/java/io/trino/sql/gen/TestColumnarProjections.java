@@ -0,0 +1,239 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.sql.gen;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slices;
+import io.trino.FullConnectorSession;
+import io.trino.memory.context.LocalMemoryContext;
+import io.trino.metadata.TestingFunctionResolution;
+import io.trino.operator.DriverYieldSignal;
+import io.trino.operator.WorkProcessor;
+import io.trino.operator.project.PageProcessor;
+import io.trino.operator.project.PageProcessorMetrics;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.block.DictionaryBlock;
+import io.trino.spi.connector.DynamicFilter;
+import io.trino.spi.connector.SourcePage;
+import io.trino.spi.security.ConnectorIdentity;
+import io.trino.spi.type.Type;
+import io.trino.sql.gen.columnar.ColumnarProjectionCompiler;
+import io.trino.sql.relational.RowExpression;
+import io.trino.sql.relational.SpecialForm;
+import io.trino.testing.TestingSession;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static io.trino.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.trino.spi.block.BlockTestUtils.assertBlockEquals;
+import static io.trino.spi.function.OperatorType.ADD;
+import static io.trino.spi.function.OperatorType.LESS_THAN;
+import static io.trino.spi.function.OperatorType.MULTIPLY;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static io.trino.sql.analyzer.TypeSignatureProvider.fromTypes;
+import static io.trino.sql.relational.Expressions.call;
+import static io.trino.sql.relational.Expressions.constant;
+import static io.trino.sql.relational.Expressions.field;
+import static io.trino.sql.relational.SpecialForm.Form.IF;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestColumnarProjections
+{
+    private static final Random RANDOM = new Random(2389573413L);
+    private static final int POSITIONS_PER_PAGE = 1000;
+    private static final int BIGINT_CHANNEL_A = 0;
+    private static final int BIGINT_CHANNEL_B = 1;
+    private static final int DOUBLE_CHANNEL = 2;
+    private static final int INT_CHANNEL = 3;
+    private static final int STRING_CHANNEL = 4;
+    private static final FullConnectorSession FULL_CONNECTOR_SESSION = new FullConnectorSession(
+            TestingSession.testSessionBuilder().build(),
+            ConnectorIdentity.ofUser("test"));
+    private static final TestingFunctionResolution FUNCTION_RESOLUTION = new TestingFunctionResolution();
+    private static final ColumnarProjectionCompiler COMPILER = FUNCTION_RESOLUTION.getColumnarProjectionCompiler();
+
+    @Test
+    public void testArithmetic()
+    {
+        // colA + constant
+        verifyProjection(call(
+                FUNCTION_RESOLUTION.resolveOperator(ADD, ImmutableList.of(BIGINT, BIGINT)),
+                field(BIGINT_CHANNEL_A, BIGINT),
+                constant(42L, BIGINT)));
+
+        // colA + colB
+        verifyProjection(call(
+                FUNCTION_RESOLUTION.resolveOperator(ADD, ImmutableList.of(BIGINT, BIGINT)),
+                field(BIGINT_CHANNEL_A, BIGINT),
+                field(BIGINT_CHANNEL_B, BIGINT)));
+
+        // col * constant
+        verifyProjection(call(
+                FUNCTION_RESOLUTION.resolveOperator(MULTIPLY, ImmutableList.of(DOUBLE, DOUBLE)),
+                field(DOUBLE_CHANNEL, DOUBLE),
+                constant(2.5, DOUBLE)));
+    }
+
+    @Test
+    public void testCast()
+    {
+        verifyProjection(call(
+                FUNCTION_RESOLUTION.getCoercion(INTEGER, BIGINT),
+                field(INT_CHANNEL, INTEGER)));
+    }
+
+    @Test
+    public void testStringFunction()
+    {
+        verifyProjection(call(
+                FUNCTION_RESOLUTION.resolveFunction("lower", fromTypes(VARCHAR)),
+                field(STRING_CHANNEL, VARCHAR)));
+    }
+
+    @Test
+    public void testUnsupportedProjections()
+    {
+        // nested calls are evaluated by the generated page projection
+        RowExpression nested = call(
+                FUNCTION_RESOLUTION.resolveOperator(ADD, ImmutableList.of(BIGINT, BIGINT)),
+                call(
+                        FUNCTION_RESOLUTION.getCoercion(INTEGER, BIGINT),
+                        field(INT_CHANNEL, INTEGER)),
+                field(BIGINT_CHANNEL_A, BIGINT));
+        assertThat(COMPILER.generateProjection(nested)).isEmpty();
+
+        // special forms are evaluated by the generated page projection
+        RowExpression ifExpression = new SpecialForm(
+                IF,
+                BIGINT,
+                ImmutableList.of(
+                        call(
+                                FUNCTION_RESOLUTION.resolveOperator(LESS_THAN, ImmutableList.of(INTEGER, INTEGER)),
+                                field(INT_CHANNEL, INTEGER),
+                                constant(500L, INTEGER)),
+                        field(BIGINT_CHANNEL_A, BIGINT),
+                        field(BIGINT_CHANNEL_B, BIGINT)),
+                ImmutableList.of());
+        assertThat(COMPILER.generateProjection(ifExpression)).isEmpty();
+
+        // input references are projected without evaluation
+        assertThat(COMPILER.generateProjection(field(BIGINT_CHANNEL_A, BIGINT))).isEmpty();
+    }
+
+    private static void verifyProjection(RowExpression projection)
+    {
+        assertThat(COMPILER.generateProjection(projection)).isPresent();
+
+        // LESS_THAN over a random column selects a list of positions, no filter selects a range
+        RowExpression filter = call(
+                FUNCTION_RESOLUTION.resolveOperator(LESS_THAN, ImmutableList.of(INTEGER, INTEGER)),
+                field(INT_CHANNEL, INTEGER),
+                constant(500L, INTEGER));
+        for (boolean dictionaryEncoded : ImmutableList.of(false, true)) {
+            List<Page> inputPages = createInputPages(dictionaryEncoded);
+            for (Optional<RowExpression> pageFilter : ImmutableList.of(Optional.<RowExpression>empty(), Optional.of(filter))) {
+                List<Page> expected = processPages(inputPages, false, pageFilter, projection);
+                List<Page> actual = processPages(inputPages, true, pageFilter, projection);
+                assertThat(actual).hasSize(expected.size());
+                for (int page = 0; page < actual.size(); page++) {
+                    assertThat(actual.get(page).getPositionCount()).isEqualTo(expected.get(page).getPositionCount());
+                    assertBlockEquals(projection.type(), actual.get(page).getBlock(0), expected.get(page).getBlock(0));
+                }
+            }
+        }
+    }
+
+    private static List<Page> processPages(List<Page> inputPages, boolean columnarProjectionEvaluationEnabled, Optional<RowExpression> filter, RowExpression projection)
+    {
+        PageProcessor processor = FUNCTION_RESOLUTION.getExpressionCompiler().compilePageProcessor(
+                        true,
+                        columnarProjectionEvaluationEnabled,
+                        filter,
+                        Optional.empty(),
+                        ImmutableList.of(projection),
+                        Optional.empty(),
+                        OptionalInt.empty())
+                .apply(DynamicFilter.EMPTY);
+        LocalMemoryContext context = newSimpleAggregatedMemoryContext().newLocalMemoryContext(PageProcessor.class.getSimpleName());
+        ImmutableList.Builder<Page> outputPages = ImmutableList.builder();
+        for (Page inputPage : inputPages) {
+            WorkProcessor<Page> workProcessor = processor.createWorkProcessor(
+                    FULL_CONNECTOR_SESSION,
+                    new DriverYieldSignal(),
+                    context,
+                    new PageProcessorMetrics(),
+                    SourcePage.create(inputPage));
+            if (workProcessor.process() && !workProcessor.isFinished()) {
+                outputPages.add(workProcessor.getResult());
+            }
+        }
+        return outputPages.build();
+    }
+
+    private static List<Page> createInputPages(boolean dictionaryEncoded)
+    {
+        ImmutableList.Builder<Page> pages = ImmutableList.builder();
+        for (int pageCount = 0; pageCount < 3; pageCount++) {
+            Block[] blocks = new Block[] {
+                    createBlock(BIGINT, dictionaryEncoded),
+                    createBlock(BIGINT, dictionaryEncoded),
+                    createBlock(DOUBLE, dictionaryEncoded),
+                    createBlock(INTEGER, dictionaryEncoded),
+                    createBlock(VARCHAR, dictionaryEncoded)};
+            pages.add(new Page(blocks));
+        }
+        return pages.build();
+    }
+
+    private static Block createBlock(Type type, boolean dictionaryEncoded)
+    {
+        int valueCount = dictionaryEncoded ? 100 : POSITIONS_PER_PAGE;
+        BlockBuilder builder = type.createBlockBuilder(null, valueCount);
+        for (int position = 0; position < valueCount; position++) {
+            if (RANDOM.nextInt(10) == 0) {
+                builder.appendNull();
+            }
+            else if (type == BIGINT) {
+                BIGINT.writeLong(builder, RANDOM.nextInt(2_000_000) - 1_000_000);
+            }
+            else if (type == DOUBLE) {
+                DOUBLE.writeDouble(builder, RANDOM.nextDouble() * 1000);
+            }
+            else if (type == INTEGER) {
+                INTEGER.writeLong(builder, RANDOM.nextInt(1000));
+            }
+            else {
+                VARCHAR.writeSlice(builder, Slices.utf8Slice("Value " + RANDOM.nextInt(1000)));
+            }
+        }
+        Block block = builder.build();
+        if (!dictionaryEncoded) {
+            return block;
+        }
+        int[] ids = IntStream.range(0, POSITIONS_PER_PAGE)
+                .map(_ -> RANDOM.nextInt(valueCount))
+                .toArray();
+        return DictionaryBlock.create(POSITIONS_PER_PAGE, block, ids);
+    }
+}
@@ -24,6 +24,7 @@ public class FileSystemConfig
     private boolean nativeGcsEnabled;
     private boolean nativeLocalEnabled;
     private boolean cacheEnabled;
+    private boolean diskCacheEnabled;
 
     public boolean isHadoopEnabled()
     {
@@ -108,4 +109,16 @@ public class FileSystemConfig
         this.cacheEnabled = enabled;
         return this;
     }
+
+    public boolean isDiskCacheEnabled()
+    {
+        return diskCacheEnabled;
+    }
+
+    @Config("fs.disk-cache.enabled")
+    public FileSystemConfig setDiskCacheEnabled(boolean diskCacheEnabled)
+    {
+        this.diskCacheEnabled = diskCacheEnabled;
+        return this;
+    }
 }
@@ -35,6 +35,7 @@ import io.trino.filesystem.cache.CachingHostAddressProvider;
 import io.trino.filesystem.cache.DefaultCacheKeyProvider;
 import io.trino.filesystem.cache.DefaultCachingHostAddressProvider;
 import io.trino.filesystem.cache.TrinoFileSystemCache;
+import io.trino.filesystem.disk.DiskFileSystemCacheModule;
 import io.trino.filesystem.gcs.GcsFileSystemFactory;
 import io.trino.filesystem.gcs.GcsFileSystemModule;
 import io.trino.filesystem.local.LocalFileSystemConfig;
@@ -51,6 +52,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.inject.multibindings.MapBinder.newMapBinder;
 import static com.google.inject.multibindings.OptionalBinder.newOptionalBinder;
 import static io.airlift.configuration.ConfigBinder.configBinder;
@@ -135,9 +137,13 @@ public class FileSystemModule
         newOptionalBinder(binder, MemoryFileSystemCache.class);
 
         boolean isCoordinator = nodeManager.getCurrentNode().isCoordinator();
+        checkArgument(!config.isCacheEnabled() || !config.isDiskCacheEnabled(), "fs.cache.enabled and fs.disk-cache.enabled cannot be enabled at the same time");
         if (config.isCacheEnabled()) {
             install(new AlluxioFileSystemCacheModule(isCoordinator));
         }
+        if (config.isDiskCacheEnabled()) {
+            install(new DiskFileSystemCacheModule(isCoordinator));
+        }
         if (coordinatorFileCaching) {
             install(new MemoryFileSystemCacheModule(isCoordinator));
         }
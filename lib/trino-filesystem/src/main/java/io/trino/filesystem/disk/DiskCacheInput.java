@@ -0,0 +1,160 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.filesystem.disk;
+
+import io.trino.filesystem.TrinoInput;
+import io.trino.filesystem.TrinoInputFile;
+
+import java.io.IOException;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.checkFromIndexSize;
+import static java.util.Objects.requireNonNull;
+
+class DiskCacheInput
+        implements TrinoInput
+{
+    // bounds the memory used to read missing pages from the file system
+    private static final int MAX_DELEGATE_READ_SIZE = 16 * 1024 * 1024;
+
+    private final TrinoInputFile delegate;
+    private final String key;
+    private final long length;
+    private final DiskFileSystemCache cache;
+    private final int pageSize;
+    private final int maxPagesPerRead;
+    private TrinoInput delegateInput;
+    private boolean closed;
+
+    public DiskCacheInput(TrinoInputFile delegate, String key, long length, DiskFileSystemCache cache)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        this.key = requireNonNull(key, "key is null");
+        this.length = length;
+        this.cache = requireNonNull(cache, "cache is null");
+        this.pageSize = cache.getPageSize();
+        this.maxPagesPerRead = max(1, MAX_DELEGATE_READ_SIZE / pageSize);
+    }
+
+    public long length()
+    {
+        return length;
+    }
+
+    @Override
+    public void readFully(long position, byte[] buffer, int bufferOffset, int bufferLength)
+            throws IOException
+    {
+        ensureOpen();
+        checkFromIndexSize(bufferOffset, bufferLength, buffer.length);
+        if (position < 0 || position + bufferLength > length) {
+            // the file system reports the error
+            delegateInput().readFully(position, buffer, bufferOffset, bufferLength);
+            return;
+        }
+
+        long end = position + bufferLength;
+        while (position < end) {
+            long pageIndex = position / pageSize;
+            long pageStart = pageIndex * pageSize;
+            int pageOffset = toIntExact(position - pageStart);
+            int readLength = toIntExact(min(end, pageStart + pageSize) - position);
+            if (!cache.read(key, pageIndex, pageOffset, buffer, bufferOffset, readLength)) {
+                readLength = readMissingPages(pageIndex, position, end, buffer, bufferOffset);
+            }
+            position += readLength;
+            bufferOffset += readLength;
+        }
+    }
+
+    /**
+     * Reads the run of missing pages starting at the page from the file system, and admits them to the cache.
+     *
+     * @return the number of bytes copied to the buffer
+     */
+    private int readMissingPages(long firstPageIndex, long position, long end, byte[] buffer, int bufferOffset)
+            throws IOException
+    {
+        long lastPageIndex = firstPageIndex;
+        long maxLastPageIndex = min((end - 1) / pageSize, firstPageIndex + maxPagesPerRead - 1);
+        while (lastPageIndex < maxLastPageIndex && !cache.isCached(key, lastPageIndex + 1)) {
+            lastPageIndex++;
+        }
+        cache.recordMisses(toIntExact(lastPageIndex - firstPageIndex + 1));
+
+        // whole pages are read, so they can be cached, and the buffer is owned by the cache afterwards
+        long readStart = firstPageIndex * pageSize;
+        long readEnd = min(length, (lastPageIndex + 1) * pageSize);
+        byte[] data = new byte[toIntExact(readEnd - readStart)];
+        delegateInput().readFully(readStart, data, 0, data.length);
+
+        int copyLength = toIntExact(min(end, readEnd) - position);
+        System.arraycopy(data, toIntExact(position - readStart), buffer, bufferOffset, copyLength);
+
+        for (long pageIndex = firstPageIndex; pageIndex <= lastPageIndex; pageIndex++) {
+            int offset = toIntExact((pageIndex - firstPageIndex) * pageSize);
+            cache.admit(key, pageIndex, data, offset, min(pageSize, data.length - offset));
+        }
+        return copyLength;
+    }
+
+    @Override
+    public int readTail(byte[] buffer, int bufferOffset, int bufferLength)
+            throws IOException
+    {
+        ensureOpen();
+        checkFromIndexSize(bufferOffset, bufferLength, buffer.length);
+
+        int readSize = toIntExact(min(length, bufferLength));
+        readFully(length - readSize, buffer, bufferOffset, readSize);
+        return readSize;
+    }
+
+    private TrinoInput delegateInput()
+            throws IOException
+    {
+        if (delegateInput == null) {
+            delegateInput = delegate.newInput();
+        }
+        return delegateInput;
+    }
+
+    private void ensureOpen()
+            throws IOException
+    {
+        if (closed) {
+            throw new IOException("Input closed: " + delegate.location());
+        }
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        if (!closed) {
+            closed = true;
+            if (delegateInput != null) {
+                delegateInput.close();
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return delegate.location().toString();
+    }
+}
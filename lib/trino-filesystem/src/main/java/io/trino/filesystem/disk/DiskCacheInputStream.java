@@ -0,0 +1,172 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.filesystem.disk;
+
+import io.trino.filesystem.Location;
+import io.trino.filesystem.TrinoInputStream;
+
+import java.io.IOException;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.checkFromIndexSize;
+import static java.util.Objects.requireNonNull;
+
+class DiskCacheInputStream
+        extends TrinoInputStream
+{
+    private final Location location;
+    private final DiskCacheInput input;
+    private final long length;
+    private final int pageSize;
+    private byte[] buffer;
+    // the buffer holds the page of the file starting at bufferStart
+    private long bufferStart;
+    private int bufferLength;
+    private long position;
+    private boolean closed;
+
+    public DiskCacheInputStream(Location location, DiskCacheInput input, int pageSize)
+    {
+        this.location = requireNonNull(location, "location is null");
+        this.input = requireNonNull(input, "input is null");
+        this.length = input.length();
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public int available()
+            throws IOException
+    {
+        ensureOpen();
+        if (position < bufferStart || position >= bufferStart + bufferLength) {
+            return 0;
+        }
+        return toIntExact(bufferStart + bufferLength - position);
+    }
+
+    @Override
+    public long getPosition()
+    {
+        return position;
+    }
+
+    @Override
+    public void seek(long position)
+            throws IOException
+    {
+        ensureOpen();
+        if (position < 0) {
+            throw new IOException("Negative seek offset");
+        }
+        if (position > length) {
+            throw new IOException("Cannot seek to %s. File size is %s: %s".formatted(position, length, location));
+        }
+        this.position = position;
+    }
+
+    @Override
+    public int read()
+            throws IOException
+    {
+        ensureOpen();
+        if (position >= length) {
+            return -1;
+        }
+        fillBuffer();
+        int value = buffer[toIntExact(position - bufferStart)] & 0xFF;
+        position++;
+        return value;
+    }
+
+    @Override
+    public int read(byte[] destination, int destinationIndex, int length)
+            throws IOException
+    {
+        ensureOpen();
+        checkFromIndexSize(destinationIndex, length, destination.length);
+        if (length == 0) {
+            return 0;
+        }
+        if (position >= this.length) {
+            return -1;
+        }
+
+        int readLength = toIntExact(min(length, this.length - position));
+        if (readLength >= pageSize && !isBuffered(position)) {
+            // large reads bypass the buffer
+            input.readFully(position, destination, destinationIndex, readLength);
+        }
+        else {
+            fillBuffer();
+            readLength = min(readLength, toIntExact(bufferStart + bufferLength - position));
+            System.arraycopy(buffer, toIntExact(position - bufferStart), destination, destinationIndex, readLength);
+        }
+        position += readLength;
+        return readLength;
+    }
+
+    @Override
+    public long skip(long n)
+            throws IOException
+    {
+        ensureOpen();
+        if (n <= 0) {
+            return 0;
+        }
+        long skipped = min(n, length - position);
+        position += skipped;
+        return skipped;
+    }
+
+    private boolean isBuffered(long position)
+    {
+        return position >= bufferStart && position < bufferStart + bufferLength;
+    }
+
+    private void fillBuffer()
+            throws IOException
+    {
+        if (isBuffered(position)) {
+            return;
+        }
+        if (buffer == null) {
+            buffer = new byte[toIntExact(min(pageSize, length))];
+        }
+        bufferLength = 0;
+        long start = position / pageSize * pageSize;
+        int length = toIntExact(min(pageSize, this.length - start));
+        input.readFully(start, buffer, 0, length);
+        bufferStart = start;
+        bufferLength = length;
+    }
+
+    private void ensureOpen()
+            throws IOException
+    {
+        if (closed) {
+            throw new IOException("Input stream closed: " + location);
+        }
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        if (!closed) {
+            closed = true;
+            input.close();
+        }
+    }
+}
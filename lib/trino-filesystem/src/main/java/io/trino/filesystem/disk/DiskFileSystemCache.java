@@ -0,0 +1,575 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.filesystem.disk;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.inject.Inject;
+import io.airlift.log.Logger;
+import io.trino.filesystem.Location;
+import io.trino.filesystem.TrinoInput;
+import io.trino.filesystem.TrinoInputFile;
+import io.trino.filesystem.TrinoInputStream;
+import io.trino.filesystem.cache.TrinoFileSystemCache;
+import io.trino.filesystem.disk.DiskPageStore.SlotHeader;
+import jakarta.annotation.PreDestroy;
+import org.weakref.jmx.Managed;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static java.lang.Math.max;
+import static java.lang.Math.toIntExact;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+
+/**
+ * Caches aligned pages of files on a local disk. Reads are served from memory mapped segment
+ * files; pages missing from the cache are read from the file system and written to the cache in
+ * the background, so a miss never waits for the local disk. Pages are evicted with S3-FIFO: new
+ * pages enter a small FIFO queue and only move to the main queue when they are read again before
+ * they reach its end, so large scans read once do not flush the frequently read pages.
+ * <p>
+ * The header of every slot describes the page stored in it, so the cached pages survive a
+ * restart. The checksum of a recovered page is verified the first time it is read.
+ */
+public final class DiskFileSystemCache
+        implements TrinoFileSystemCache
+{
+    private static final Logger log = Logger.get(DiskFileSystemCache.class);
+
+    private static final int MAX_FREQUENCY = 3;
+    private static final int SMALL_QUEUE_PERCENT = 10;
+    // separates the path of a file from its version in the cache keys, e.g. its modification time and length
+    private static final char KEY_VERSION_SEPARATOR = '#';
+
+    private final DiskPageStore store;
+    private final int pageSize;
+    private final long maxPendingAdmissionBytes;
+    private final ExecutorService admissionExecutor;
+
+    private final Map<PageId, CachedPage> pages = new ConcurrentHashMap<>();
+    private final Set<PageId> pendingAdmissions = ConcurrentHashMap.newKeySet();
+    private final AtomicLong pendingAdmissionBytes = new AtomicLong();
+    // incremented every time a slot is reused, so readers can detect that a slot was overwritten while they read it
+    private final AtomicLongArray slotVersions;
+
+    // guarded by this
+    private final int[] freeSlots;
+    private int freeSlotCount;
+    // cached pages by key, so the pages of a location are expired without scanning the whole cache
+    private final NavigableMap<String, Set<CachedPage>> pagesByKey = new TreeMap<>();
+    private final Deque<CachedPage> smallQueue = new ArrayDeque<>();
+    private final Deque<CachedPage> mainQueue = new ArrayDeque<>();
+    private final Set<PageId> ghostQueue = new LinkedHashSet<>();
+    private final int smallQueueCapacity;
+    private final int ghostQueueCapacity;
+    private int smallQueueSize;
+    private int mainQueueSize;
+    // removed pages still held by the queues, which are purged once they outnumber the queued pages
+    private int removedQueuedPageCount;
+
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong admissionCount = new AtomicLong();
+    private final AtomicLong skippedAdmissionCount = new AtomicLong();
+    private final AtomicLong failedAdmissionCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong corruptedPageCount = new AtomicLong();
+
+    @Inject
+    public DiskFileSystemCache(DiskFileSystemCacheConfig config)
+            throws IOException
+    {
+        this(config, newSingleThreadExecutor(daemonThreadsNamed("disk-file-system-cache-admission-%s")));
+    }
+
+    @VisibleForTesting
+    DiskFileSystemCache(DiskFileSystemCacheConfig config, ExecutorService admissionExecutor)
+            throws IOException
+    {
+        this.pageSize = toIntExact(config.getPageSize().toBytes());
+        this.maxPendingAdmissionBytes = config.getMaxPendingAdmissionSize().toBytes();
+        this.admissionExecutor = requireNonNull(admissionExecutor, "admissionExecutor is null");
+        this.store = new DiskPageStore(
+                Path.of(config.getDirectory()),
+                config.getMaxSize().toBytes(),
+                pageSize,
+                config.getSegmentSize().toBytes());
+
+        int slotCount = store.getSlotCount();
+        this.slotVersions = new AtomicLongArray(slotCount);
+        this.freeSlots = new int[slotCount];
+        this.smallQueueCapacity = max(1, slotCount * SMALL_QUEUE_PERCENT / 100);
+        this.ghostQueueCapacity = slotCount;
+        recover();
+    }
+
+    private synchronized void recover()
+    {
+        // recovered pages were worth caching before the restart, so they skip the small queue
+        for (int slot = store.getSlotCount() - 1; slot >= 0; slot--) {
+            Optional<SlotHeader> header = store.readHeader(slot);
+            if (header.isEmpty()) {
+                freeSlots[freeSlotCount++] = slot;
+                continue;
+            }
+            PageId id = new PageId(header.get().key(), header.get().pageIndex());
+            CachedPage page = new CachedPage(id, slot, 0, header.get().length(), header.get().checksum(), false);
+            if (pages.putIfAbsent(id, page) != null) {
+                freeSlots[freeSlotCount++] = slot;
+                continue;
+            }
+            index(page);
+            page.inMainQueue = true;
+            mainQueue.add(page);
+            mainQueueSize++;
+            cachedBytes.addAndGet(page.length);
+        }
+        if (!pages.isEmpty()) {
+            log.info("Recovered %s cached pages", pages.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown()
+            throws IOException
+    {
+        admissionExecutor.shutdownNow();
+        store.close();
+    }
+
+    @Override
+    public TrinoInput cacheInput(TrinoInputFile delegate, String key)
+            throws IOException
+    {
+        return new DiskCacheInput(delegate, key, delegate.length(), this);
+    }
+
+    @Override
+    public TrinoInputStream cacheStream(TrinoInputFile delegate, String key)
+            throws IOException
+    {
+        return new DiskCacheInputStream(delegate.location(), new DiskCacheInput(delegate, key, delegate.length(), this), pageSize);
+    }
+
+    @Override
+    public long cacheLength(TrinoInputFile delegate, String key)
+            throws IOException
+    {
+        return delegate.length();
+    }
+
+    @Override
+    public void expire(Location location)
+            throws IOException
+    {
+        expire(List.of(location));
+    }
+
+    @Override
+    public synchronized void expire(Collection<Location> locations)
+            throws IOException
+    {
+        List<CachedPage> expired = new ArrayList<>();
+        for (Location location : locations) {
+            // the key of a file is its path, optionally followed by its version
+            String path = location.path();
+            Set<CachedPage> filePages = pagesByKey.get(path);
+            if (filePages != null) {
+                expired.addAll(filePages);
+            }
+            pagesByKey.subMap(path + KEY_VERSION_SEPARATOR, path + (char) (KEY_VERSION_SEPARATOR + 1))
+                    .values()
+                    .forEach(expired::addAll);
+        }
+        expired.forEach(this::remove);
+    }
+
+    int getPageSize()
+    {
+        return pageSize;
+    }
+
+    /**
+     * Copies a range of a cached page into the buffer.
+     *
+     * @return false if the page is not cached
+     */
+    boolean read(String key, long pageIndex, int pageOffset, byte[] buffer, int bufferOffset, int length)
+    {
+        CachedPage page = pages.get(new PageId(key, pageIndex));
+        if (page == null || pageOffset + length > page.length) {
+            return false;
+        }
+        if (slotVersions.get(page.slot) != page.version || (!page.verified && !verify(page))) {
+            return false;
+        }
+        store.read(page.slot, pageOffset, buffer, bufferOffset, length);
+        // the slot could have been reused while it was read
+        VarHandle.acquireFence();
+        if (slotVersions.get(page.slot) != page.version) {
+            return false;
+        }
+        if (page.frequency < MAX_FREQUENCY) {
+            page.frequency++;
+        }
+        hitCount.incrementAndGet();
+        return true;
+    }
+
+    boolean isCached(String key, long pageIndex)
+    {
+        return pages.containsKey(new PageId(key, pageIndex));
+    }
+
+    void recordMisses(int pageCount)
+    {
+        missCount.addAndGet(pageCount);
+    }
+
+    /**
+     * Writes the page to the cache in the background. The page is skipped when too much data is
+     * already waiting to be written. The data must not be modified after this call.
+     */
+    void admit(String key, long pageIndex, byte[] data, int offset, int length)
+    {
+        PageId id = new PageId(key, pageIndex);
+        if (pages.containsKey(id) || !pendingAdmissions.add(id)) {
+            return;
+        }
+        if (pendingAdmissionBytes.addAndGet(length) > maxPendingAdmissionBytes) {
+            pendingAdmissionBytes.addAndGet(-length);
+            pendingAdmissions.remove(id);
+            skippedAdmissionCount.incrementAndGet();
+            return;
+        }
+        try {
+            admissionExecutor.execute(() -> {
+                try {
+                    write(id, data, offset, length);
+                }
+                finally {
+                    pendingAdmissionBytes.addAndGet(-length);
+                    pendingAdmissions.remove(id);
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            pendingAdmissionBytes.addAndGet(-length);
+            pendingAdmissions.remove(id);
+            skippedAdmissionCount.incrementAndGet();
+        }
+    }
+
+    private void write(PageId id, byte[] data, int offset, int length)
+    {
+        byte[] key = id.key().getBytes(UTF_8);
+        if (key.length > DiskPageStore.MAX_KEY_LENGTH) {
+            skippedAdmissionCount.incrementAndGet();
+            return;
+        }
+
+        int slot;
+        long version;
+        synchronized (this) {
+            slot = allocateSlot();
+            if (slot < 0) {
+                skippedAdmissionCount.incrementAndGet();
+                return;
+            }
+            version = slotVersions.incrementAndGet(slot);
+        }
+
+        try {
+            store.write(slot, key, id.pageIndex(), data, offset, length);
+        }
+        catch (IOException | RuntimeException e) {
+            log.warn(e, "Failed to write page %s of %s to the cache", id.pageIndex(), id.key());
+            failedAdmissionCount.incrementAndGet();
+            synchronized (this) {
+                freeSlots[freeSlotCount++] = slot;
+            }
+            return;
+        }
+
+        synchronized (this) {
+            insert(new CachedPage(id, slot, version, length, 0, true));
+        }
+        admissionCount.incrementAndGet();
+    }
+
+    private boolean verify(CachedPage page)
+    {
+        if (store.verify(page.slot, new SlotHeader(page.id.key(), page.id.pageIndex(), page.length, page.checksum))) {
+            page.verified = true;
+            return true;
+        }
+        synchronized (this) {
+            // the page could have been evicted while it was verified
+            if (!page.removed) {
+                log.warn("Dropping corrupted page %s of %s from the cache", page.id.pageIndex(), page.id.key());
+                corruptedPageCount.incrementAndGet();
+                remove(page);
+            }
+        }
+        return false;
+    }
+
+    // guarded by this
+    private void insert(CachedPage page)
+    {
+        if (pages.putIfAbsent(page.id, page) != null) {
+            freeSlots[freeSlotCount++] = page.slot;
+            return;
+        }
+        index(page);
+        if (ghostQueue.remove(page.id)) {
+            page.inMainQueue = true;
+            mainQueue.add(page);
+            mainQueueSize++;
+        }
+        else {
+            smallQueue.add(page);
+            smallQueueSize++;
+        }
+        cachedBytes.addAndGet(page.length);
+    }
+
+    // guarded by this
+    private void remove(CachedPage page)
+    {
+        if (page.removed || !pages.remove(page.id, page)) {
+            return;
+        }
+        // the page stays in its queue until the eviction reaches it or the queues are purged
+        page.removed = true;
+        unindex(page);
+        if (page.inMainQueue) {
+            mainQueueSize--;
+        }
+        else {
+            smallQueueSize--;
+        }
+        cachedBytes.addAndGet(-page.length);
+        freeSlots[freeSlotCount++] = page.slot;
+
+        removedQueuedPageCount++;
+        if (removedQueuedPageCount > smallQueueSize + mainQueueSize) {
+            smallQueue.removeIf(queued -> queued.removed);
+            mainQueue.removeIf(queued -> queued.removed);
+            removedQueuedPageCount = 0;
+        }
+    }
+
+    /**
+     * @return the allocated slot, or -1 if every slot is being written
+     */
+    // guarded by this
+    private int allocateSlot()
+    {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        while (true) {
+            if (smallQueueSize > smallQueueCapacity || mainQueueSize == 0) {
+                CachedPage page = smallQueue.poll();
+                if (page == null) {
+                    return -1;
+                }
+                if (page.removed) {
+                    removedQueuedPageCount--;
+                    continue;
+                }
+                smallQueueSize--;
+                if (page.frequency > 0) {
+                    page.frequency = 0;
+                    page.inMainQueue = true;
+                    mainQueue.add(page);
+                    mainQueueSize++;
+                    continue;
+                }
+                ghostQueue.add(page.id);
+                if (ghostQueue.size() > ghostQueueCapacity) {
+                    Iterator<PageId> oldest = ghostQueue.iterator();
+                    oldest.next();
+                    oldest.remove();
+                }
+                return evict(page);
+            }
+
+            CachedPage page = mainQueue.poll();
+            if (page == null) {
+                return -1;
+            }
+            if (page.removed) {
+                removedQueuedPageCount--;
+                continue;
+            }
+            if (page.frequency > 0) {
+                page.frequency--;
+                mainQueue.add(page);
+                continue;
+            }
+            mainQueueSize--;
+            return evict(page);
+        }
+    }
+
+    // guarded by this
+    private int evict(CachedPage page)
+    {
+        page.removed = true;
+        pages.remove(page.id, page);
+        unindex(page);
+        cachedBytes.addAndGet(-page.length);
+        evictionCount.incrementAndGet();
+        return page.slot;
+    }
+
+    // guarded by this
+    private void index(CachedPage page)
+    {
+        pagesByKey.computeIfAbsent(page.id.key(), _ -> new HashSet<>()).add(page);
+    }
+
+    // guarded by this
+    private void unindex(CachedPage page)
+    {
+        Set<CachedPage> keyPages = pagesByKey.get(page.id.key());
+        if (keyPages != null && keyPages.remove(page) && keyPages.isEmpty()) {
+            pagesByKey.remove(page.id.key());
+        }
+    }
+
+    @Managed
+    public synchronized void flushCache()
+    {
+        pages.values().forEach(this::remove);
+    }
+
+    @Managed
+    public long getCachedBytes()
+    {
+        return cachedBytes.get();
+    }
+
+    @Managed
+    public long getCachedPageCount()
+    {
+        return pages.size();
+    }
+
+    @Managed
+    public long getHitCount()
+    {
+        return hitCount.get();
+    }
+
+    @Managed
+    public long getMissCount()
+    {
+        return missCount.get();
+    }
+
+    @Managed
+    public long getAdmissionCount()
+    {
+        return admissionCount.get();
+    }
+
+    @Managed
+    public long getSkippedAdmissionCount()
+    {
+        return skippedAdmissionCount.get();
+    }
+
+    @Managed
+    public long getFailedAdmissionCount()
+    {
+        return failedAdmissionCount.get();
+    }
+
+    @Managed
+    public long getEvictionCount()
+    {
+        return evictionCount.get();
+    }
+
+    @Managed
+    public long getCorruptedPageCount()
+    {
+        return corruptedPageCount.get();
+    }
+
+    @Managed
+    public long getPendingAdmissionBytes()
+    {
+        return pendingAdmissionBytes.get();
+    }
+
+    private record PageId(String key, long pageIndex)
+    {
+        private PageId
+        {
+            requireNonNull(key, "key is null");
+        }
+    }
+
+    private static final class CachedPage
+    {
+        private final PageId id;
+        private final int slot;
+        private final long version;
+        private final int length;
+        private final int checksum;
+        private volatile boolean verified;
+        // updated without synchronization, a lost update only makes the page slightly colder
+        private volatile int frequency;
+        // guarded by the cache
+        private boolean inMainQueue;
+        private boolean removed;
+
+        private CachedPage(PageId id, int slot, long version, int length, int checksum, boolean verified)
+        {
+            this.id = id;
+            this.slot = slot;
+            this.version = version;
+            this.length = length;
+            this.checksum = checksum;
+            this.verified = verified;
+        }
+    }
+}
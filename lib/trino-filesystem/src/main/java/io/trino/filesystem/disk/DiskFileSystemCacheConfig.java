@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.filesystem.disk;
+
+import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
+import io.airlift.units.DataSize;
+import io.airlift.units.MaxDataSize;
+import io.airlift.units.MinDataSize;
+import jakarta.validation.constraints.NotNull;
+
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+
+public class DiskFileSystemCacheConfig
+{
+    private String directory;
+    private DataSize maxSize = DataSize.of(100, GIGABYTE);
+    private DataSize pageSize = DataSize.of(1, MEGABYTE);
+    private DataSize segmentSize = DataSize.of(256, MEGABYTE);
+    private DataSize maxPendingAdmissionSize = DataSize.of(64, MEGABYTE);
+
+    @NotNull
+    public String getDirectory()
+    {
+        return directory;
+    }
+
+    @Config("fs.disk-cache.directory")
+    @ConfigDescription("Local directory to store the cached data in, it must not be shared with any other catalog")
+    public DiskFileSystemCacheConfig setDirectory(String directory)
+    {
+        this.directory = directory;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("1MB")
+    public DataSize getMaxSize()
+    {
+        return maxSize;
+    }
+
+    @Config("fs.disk-cache.max-size")
+    @ConfigDescription("Maximum total size of the cache")
+    public DiskFileSystemCacheConfig setMaxSize(DataSize maxSize)
+    {
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("4kB")
+    @MaxDataSize("16MB")
+    public DataSize getPageSize()
+    {
+        return pageSize;
+    }
+
+    @Config("fs.disk-cache.page-size")
+    @ConfigDescription("Size of the aligned file ranges stored in the cache")
+    public DiskFileSystemCacheConfig setPageSize(DataSize pageSize)
+    {
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("1MB")
+    @MaxDataSize("1GB")
+    public DataSize getSegmentSize()
+    {
+        return segmentSize;
+    }
+
+    @Config("fs.disk-cache.segment-size")
+    @ConfigDescription("Size of the files the cache is stored in")
+    public DiskFileSystemCacheConfig setSegmentSize(DataSize segmentSize)
+    {
+        this.segmentSize = segmentSize;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getMaxPendingAdmissionSize()
+    {
+        return maxPendingAdmissionSize;
+    }
+
+    @Config("fs.disk-cache.max-pending-admission-size")
+    @ConfigDescription("Maximum size of the data waiting to be written to the cache, data read beyond this limit is not cached")
+    public DiskFileSystemCacheConfig setMaxPendingAdmissionSize(DataSize maxPendingAdmissionSize)
+    {
+        this.maxPendingAdmissionSize = maxPendingAdmissionSize;
+        return this;
+    }
+}
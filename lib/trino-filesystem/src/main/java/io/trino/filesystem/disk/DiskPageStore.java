@@ -0,0 +1,252 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.filesystem.disk;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.log.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static java.lang.Math.ceilDiv;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Fixed size slots stored in memory mapped segment files. Every slot starts with a header
+ * describing the page stored in it, so the content of the store can be recovered when it is
+ * reopened. The header holds a magic number, the length of the key, the page index, the length
+ * of the data, the key, and is padded to {@link #HEADER_SIZE}. The checksum in the header is the
+ * CRC32 of the key, the page index, the length and the data, so a slot whose header describes
+ * another page than the one it holds is detected as well as corrupted data.
+ * <p>
+ * The data of a slot is written before its header, so a partially written slot is either
+ * ignored on recovery or detected by its checksum.
+ */
+final class DiskPageStore
+        implements Closeable
+{
+    private static final Logger log = Logger.get(DiskPageStore.class);
+
+    static final int HEADER_SIZE = 4096;
+    private static final int MAGIC = 0x5452_4443;
+    private static final int FIXED_HEADER_SIZE = Integer.BYTES * 4 + Long.BYTES;
+    static final int MAX_KEY_LENGTH = HEADER_SIZE - FIXED_HEADER_SIZE;
+
+    private static final Pattern SEGMENT_FILE_NAME = Pattern.compile("segment-.*\\.data");
+
+    private final int pageSize;
+    private final long slotSize;
+    private final int slotsPerSegment;
+    private final int slotCount;
+    private final List<FileChannel> channels;
+    private final List<MappedByteBuffer> segments;
+
+    public DiskPageStore(Path directory, long maxSize, int pageSize, long segmentSize)
+            throws IOException
+    {
+        checkArgument(pageSize > 0, "pageSize must be positive");
+        this.pageSize = pageSize;
+        this.slotSize = HEADER_SIZE + pageSize;
+        this.slotsPerSegment = toIntExact(max(1, segmentSize / slotSize));
+        this.slotCount = toIntExact(max(1, maxSize / slotSize));
+        int segmentCount = ceilDiv(slotCount, slotsPerSegment);
+
+        // the layout is part of the file names, so segments written with a different layout are discarded
+        Files.createDirectories(directory);
+        List<Path> segmentFiles = Stream.iterate(0, segment -> segment + 1)
+                .limit(segmentCount)
+                .map(segment -> directory.resolve("segment-%s-%s-%s.data".formatted(pageSize, slotsPerSegment, segment)))
+                .toList();
+        deleteStaleSegments(directory, segmentFiles.stream().collect(toImmutableSet()));
+
+        ImmutableList.Builder<FileChannel> channels = ImmutableList.builder();
+        ImmutableList.Builder<MappedByteBuffer> segments = ImmutableList.builder();
+        try {
+            for (int segment = 0; segment < segmentCount; segment++) {
+                long length = min(slotsPerSegment, slotCount - (long) segment * slotsPerSegment) * slotSize;
+                try (RandomAccessFile file = new RandomAccessFile(segmentFiles.get(segment).toFile(), "rw")) {
+                    // sparse file, the space is only allocated when slots are written
+                    file.setLength(length);
+                }
+                FileChannel channel = FileChannel.open(segmentFiles.get(segment), READ, WRITE);
+                channels.add(channel);
+                segments.add(channel.map(READ_ONLY, 0, length));
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            for (FileChannel channel : channels.build()) {
+                try {
+                    channel.close();
+                }
+                catch (IOException closeException) {
+                    e.addSuppressed(closeException);
+                }
+            }
+            throw e;
+        }
+        this.channels = channels.build();
+        this.segments = segments.build();
+    }
+
+    private static void deleteStaleSegments(Path directory, Set<Path> segmentFiles)
+            throws IOException
+    {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (SEGMENT_FILE_NAME.matcher(file.getFileName().toString()).matches() && !segmentFiles.contains(file)) {
+                    log.info("Deleting cache segment %s with a different layout", file);
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    public int getSlotCount()
+    {
+        return slotCount;
+    }
+
+    /**
+     * Returns the header of the slot, or empty if the slot was never written.
+     */
+    public Optional<SlotHeader> readHeader(int slot)
+    {
+        ByteBuffer header = segment(slot).slice(slotOffset(slot), HEADER_SIZE).order(LITTLE_ENDIAN);
+        if (header.getInt() != MAGIC) {
+            return Optional.empty();
+        }
+        int keyLength = header.getInt();
+        long pageIndex = header.getLong();
+        int dataLength = header.getInt();
+        int checksum = header.getInt();
+        if (keyLength <= 0 || keyLength > MAX_KEY_LENGTH || pageIndex < 0 || dataLength <= 0 || dataLength > pageSize) {
+            return Optional.empty();
+        }
+        byte[] key = new byte[keyLength];
+        header.get(key);
+        return Optional.of(new SlotHeader(new String(key, UTF_8), pageIndex, dataLength, checksum));
+    }
+
+    public void read(int slot, int offset, byte[] buffer, int bufferOffset, int length)
+    {
+        segment(slot).get(slotOffset(slot) + HEADER_SIZE + offset, buffer, bufferOffset, length);
+    }
+
+    /**
+     * Returns whether the content of the slot matches the header.
+     */
+    public boolean verify(int slot, SlotHeader header)
+    {
+        ByteBuffer data = segment(slot).slice(slotOffset(slot) + HEADER_SIZE, header.length());
+        return checksum(header.key().getBytes(UTF_8), header.pageIndex(), data) == header.checksum();
+    }
+
+    public void write(int slot, byte[] key, long pageIndex, byte[] data, int offset, int length)
+            throws IOException
+    {
+        checkArgument(key.length <= MAX_KEY_LENGTH, "key is too long");
+        checkArgument(length <= pageSize, "length is larger than the page size");
+
+        int checksum = checksum(key, pageIndex, ByteBuffer.wrap(data, offset, length));
+        ByteBuffer header = ByteBuffer.allocate(FIXED_HEADER_SIZE + key.length).order(LITTLE_ENDIAN)
+                .putInt(MAGIC)
+                .putInt(key.length)
+                .putLong(pageIndex)
+                .putInt(length)
+                .putInt(checksum)
+                .put(key)
+                .flip();
+
+        FileChannel channel = channels.get(slot / slotsPerSegment);
+        long position = (long) (slot % slotsPerSegment) * slotSize;
+        writeFully(channel, ByteBuffer.wrap(data, offset, length), position + HEADER_SIZE);
+        writeFully(channel, header, position);
+    }
+
+    private static int checksum(byte[] key, long pageIndex, ByteBuffer data)
+    {
+        CRC32 crc = new CRC32();
+        crc.update(key);
+        crc.update(ByteBuffer.allocate(Long.BYTES + Integer.BYTES).order(LITTLE_ENDIAN)
+                .putLong(pageIndex)
+                .putInt(data.remaining())
+                .flip());
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException
+    {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private MappedByteBuffer segment(int slot)
+    {
+        return segments.get(slot / slotsPerSegment);
+    }
+
+    private int slotOffset(int slot)
+    {
+        return toIntExact((slot % slotsPerSegment) * slotSize);
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        IOException exception = null;
+        for (FileChannel channel : channels) {
+            try {
+                channel.close();
+            }
+            catch (IOException e) {
+                if (exception == null) {
+                    exception = e;
+                }
+                else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    public record SlotHeader(String key, long pageIndex, int length, int checksum) {}
+}
@@ -20,6 +20,8 @@ import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 import static io.trino.filesystem.local.LocalUtils.handleException;
 import static java.lang.Math.min;
@@ -32,6 +34,7 @@ class LocalInput
     private final Location location;
     private final File file;
     private final RandomAccessFile input;
+    private final FileChannel channel;
     private boolean closed;
 
     public LocalInput(Location location, File file)
@@ -40,6 +43,7 @@ class LocalInput
         this.location = requireNonNull(location, "location is null");
         this.file = requireNonNull(file, "file is null");
         this.input = new RandomAccessFile(file, "r");
+        this.channel = input.getChannel();
     }
 
     @Override
@@ -56,8 +60,13 @@ class LocalInput
         }
 
         try {
-            input.seek(position);
-            input.readFully(buffer, bufferOffset, bufferLength);
+            // positional reads do not move the file pointer, so concurrent reads of one input are safe
+            ByteBuffer target = ByteBuffer.wrap(buffer, bufferOffset, bufferLength);
+            while (target.hasRemaining()) {
+                if (channel.read(target, position + target.position() - bufferOffset) < 0) {
+                    throw new EOFException();
+                }
+            }
         }
         catch (IOException e) {
             throw handleException(location, e);
@@ -0,0 +1,420 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.filesystem.disk;
+
+import io.airlift.units.DataSize;
+import io.trino.filesystem.AbstractTestTrinoFileSystem;
+import io.trino.filesystem.Location;
+import io.trino.filesystem.TrinoFileSystem;
+import io.trino.filesystem.TrinoInput;
+import io.trino.filesystem.TrinoInputFile;
+import io.trino.filesystem.cache.CacheFileSystem;
+import io.trino.filesystem.cache.CacheKeyProvider;
+import io.trino.filesystem.cache.DefaultCacheKeyProvider;
+import io.trino.filesystem.memory.MemoryFileSystem;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.trino.filesystem.disk.DiskPageStore.HEADER_SIZE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestDiskFileSystemCache
+        extends AbstractTestTrinoFileSystem
+{
+    private static final int PAGE_SIZE = 4 * 1024;
+    // the page index follows the magic number and the length of the key in the slot header
+    private static final int PAGE_INDEX_OFFSET = Integer.BYTES * 2;
+
+    private Path cacheDirectory;
+    private MemoryFileSystem delegate;
+    private CacheFileSystem fileSystem;
+    private DiskFileSystemCache cache;
+    private CacheKeyProvider cacheKeyProvider;
+
+    @BeforeAll
+    void beforeAll()
+            throws IOException
+    {
+        cacheDirectory = Files.createTempDirectory("disk-cache");
+        delegate = new MemoryFileSystem();
+        cache = createCache();
+        cacheKeyProvider = new DefaultCacheKeyProvider();
+        fileSystem = new CacheFileSystem(delegate, cache, cacheKeyProvider);
+    }
+
+    @AfterAll
+    void afterAll()
+            throws IOException
+    {
+        cache.shutdown();
+        deleteRecursively(cacheDirectory, ALLOW_INSECURE);
+    }
+
+    private DiskFileSystemCache createCache()
+            throws IOException
+    {
+        // 128 slots of 4kB pages, in 4 segments
+        return createCache(cacheDirectory, DataSize.of(1, MEGABYTE), DataSize.of(256, KILOBYTE));
+    }
+
+    private static DiskFileSystemCache createCache(Path directory, DataSize maxSize, DataSize segmentSize)
+            throws IOException
+    {
+        DiskFileSystemCacheConfig config = new DiskFileSystemCacheConfig()
+                .setDirectory(directory.toString())
+                .setMaxSize(maxSize)
+                .setPageSize(DataSize.ofBytes(PAGE_SIZE))
+                .setSegmentSize(segmentSize);
+        // admit pages synchronously, so the tests are deterministic
+        return new DiskFileSystemCache(config, newDirectExecutorService());
+    }
+
+    @Override
+    protected boolean isHierarchical()
+    {
+        return false;
+    }
+
+    @Override
+    protected TrinoFileSystem getFileSystem()
+    {
+        return fileSystem;
+    }
+
+    @Override
+    protected Location getRootLocation()
+    {
+        return Location.of("memory://");
+    }
+
+    @Override
+    protected void verifyFileSystemIsEmpty()
+    {
+        assertThat(delegate.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testCachedReads()
+            throws IOException
+    {
+        int fileSize = 10 * PAGE_SIZE + 100;
+        Location location = writeFile(fileSize);
+        TrinoInputFile inputFile = getFileSystem().newInputFile(location);
+
+        byte[] expected = readFully(inputFile, fileSize);
+        long hitCount = cache.getHitCount();
+        long missCount = cache.getMissCount();
+
+        // unaligned reads are served from the cached pages
+        try (TrinoInput input = inputFile.newInput()) {
+            byte[] buffer = new byte[3 * PAGE_SIZE];
+            input.readFully(PAGE_SIZE / 2, buffer, 0, buffer.length);
+            assertThat(buffer).isEqualTo(Arrays.copyOfRange(expected, PAGE_SIZE / 2, PAGE_SIZE / 2 + buffer.length));
+        }
+        assertThat(readFully(inputFile, fileSize)).isEqualTo(expected);
+        assertThat(cache.getHitCount()).isGreaterThan(hitCount);
+        assertThat(cache.getMissCount()).isEqualTo(missCount);
+
+        getFileSystem().deleteFile(location);
+    }
+
+    @Test
+    public void testRecovery()
+            throws IOException
+    {
+        int fileSize = 5 * PAGE_SIZE;
+        Location location = writeFile(fileSize);
+        TrinoInputFile inputFile = getFileSystem().newInputFile(location);
+        byte[] expected = readFully(inputFile, fileSize);
+        String key = cacheKeyProvider.getCacheKey(inputFile).orElseThrow();
+
+        // the pages are recovered from the slot headers
+        DiskFileSystemCache recovered = createCache();
+        try {
+            for (int page = 0; page < 5; page++) {
+                assertThat(recovered.isCached(key, page)).isTrue();
+            }
+            TrinoInputFile recoveredFile = new CacheFileSystem(delegate, recovered, cacheKeyProvider).newInputFile(location);
+            assertThat(readFully(recoveredFile, fileSize)).isEqualTo(expected);
+            assertThat(recovered.getMissCount()).isEqualTo(0);
+            assertThat(recovered.getCorruptedPageCount()).isEqualTo(0);
+        }
+        finally {
+            recovered.shutdown();
+        }
+
+        getFileSystem().deleteFile(location);
+    }
+
+    @Test
+    public void testScanResistance()
+            throws IOException
+    {
+        cache.flushCache();
+        int hotFileSize = 8 * PAGE_SIZE;
+        Location hotLocation = writeFile(hotFileSize);
+        TrinoInputFile hotFile = getFileSystem().newInputFile(hotLocation);
+        String hotKey = cacheKeyProvider.getCacheKey(hotFile).orElseThrow();
+        readFully(hotFile, hotFileSize);
+        readFully(hotFile, hotFileSize);
+
+        // a scan much larger than the cache does not evict the pages which were read again
+        int scanFileSize = 4 * 1024 * 1024;
+        Location scanLocation = writeFile(scanFileSize);
+        readFully(getFileSystem().newInputFile(scanLocation), scanFileSize);
+
+        for (int page = 0; page < 8; page++) {
+            assertThat(cache.isCached(hotKey, page)).isTrue();
+        }
+        assertThat(cache.getEvictionCount()).isGreaterThan(0);
+
+        getFileSystem().deleteFile(hotLocation);
+        getFileSystem().deleteFile(scanLocation);
+    }
+
+    @Test
+    public void testExpire()
+            throws IOException
+    {
+        int fileSize = 3 * PAGE_SIZE;
+        Location location = writeFile(fileSize);
+        TrinoInputFile inputFile = getFileSystem().newInputFile(location);
+        readFully(inputFile, fileSize);
+        String key = cacheKeyProvider.getCacheKey(inputFile).orElseThrow();
+        assertThat(cache.isCached(key, 0)).isTrue();
+
+        // the location is matched exactly, not as a prefix of other locations
+        Location otherLocation = writeFile(Location.of(location + "0"), fileSize);
+        TrinoInputFile otherInputFile = getFileSystem().newInputFile(otherLocation);
+        readFully(otherInputFile, fileSize);
+        String otherKey = cacheKeyProvider.getCacheKey(otherInputFile).orElseThrow();
+
+        cache.expire(location);
+        assertThat(cache.isCached(key, 0)).isFalse();
+        assertThat(cache.isCached(otherKey, 0)).isTrue();
+
+        cache.expire(List.of(otherLocation));
+        assertThat(cache.isCached(otherKey, 0)).isFalse();
+
+        getFileSystem().deleteFile(location);
+        getFileSystem().deleteFile(otherLocation);
+    }
+
+    @Test
+    public void testCorruptedPageData()
+            throws IOException
+    {
+        Path directory = Files.createTempDirectory("disk-cache-corrupted-data");
+        try {
+            int fileSize = 2 * PAGE_SIZE;
+            Location location = writeFile(fileSize);
+            byte[] expected = cacheFile(directory, location, fileSize);
+
+            try (FileChannel channel = FileChannel.open(getSegmentFile(directory), READ, WRITE)) {
+                for (long position : getWrittenSlotPositions(channel)) {
+                    ByteBuffer data = ByteBuffer.allocate(1);
+                    channel.read(data, position + HEADER_SIZE + 100);
+                    channel.write(ByteBuffer.wrap(new byte[] {(byte) ~data.get(0)}), position + HEADER_SIZE + 100);
+                }
+            }
+
+            assertCorruptionDetected(directory, location, expected);
+            getFileSystem().deleteFile(location);
+        }
+        finally {
+            deleteRecursively(directory, ALLOW_INSECURE);
+        }
+    }
+
+    @Test
+    public void testCorruptedPageHeader()
+            throws IOException
+    {
+        Path directory = Files.createTempDirectory("disk-cache-corrupted-header");
+        try {
+            int fileSize = 2 * PAGE_SIZE;
+            Location location = writeFile(fileSize);
+            byte[] expected = cacheFile(directory, location, fileSize);
+
+            // swap the page indexes of the two slots, so each header describes the data of the other page
+            try (FileChannel channel = FileChannel.open(getSegmentFile(directory), READ, WRITE)) {
+                List<Long> positions = getWrittenSlotPositions(channel);
+                assertThat(positions).hasSize(2);
+                ByteBuffer first = ByteBuffer.allocate(Long.BYTES);
+                ByteBuffer second = ByteBuffer.allocate(Long.BYTES);
+                channel.read(first, positions.get(0) + PAGE_INDEX_OFFSET);
+                channel.read(second, positions.get(1) + PAGE_INDEX_OFFSET);
+                channel.write(first.flip(), positions.get(1) + PAGE_INDEX_OFFSET);
+                channel.write(second.flip(), positions.get(0) + PAGE_INDEX_OFFSET);
+            }
+
+            assertCorruptionDetected(directory, location, expected);
+            getFileSystem().deleteFile(location);
+        }
+        finally {
+            deleteRecursively(directory, ALLOW_INSECURE);
+        }
+    }
+
+    @Test
+    public void testConcurrentReadAndOverwrite()
+            throws Exception
+    {
+        Path directory = Files.createTempDirectory("disk-cache-concurrent");
+        int threads = 4;
+        ExecutorService executor = newFixedThreadPool(threads);
+        // 8 slots, so the readers constantly overwrite the slots of the pages the other readers are reading
+        DiskFileSystemCache concurrentCache = createCache(directory, DataSize.of(64, KILOBYTE), DataSize.of(64, KILOBYTE));
+        try {
+            TrinoFileSystem concurrentFileSystem = new CacheFileSystem(delegate, concurrentCache, cacheKeyProvider);
+            int fileSize = 6 * PAGE_SIZE + 100;
+            List<Location> locations = new ArrayList<>();
+            List<Callable<Void>> readers = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                Location location = writeFile(fileSize);
+                locations.add(location);
+                byte[] expected = readFully(delegate.newInputFile(location), fileSize);
+                readers.add(() -> {
+                    TrinoInputFile inputFile = concurrentFileSystem.newInputFile(location);
+                    for (int i = 0; i < 200; i++) {
+                        assertThat(readFully(inputFile, fileSize)).isEqualTo(expected);
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> future : executor.invokeAll(readers)) {
+                future.get();
+            }
+            assertThat(concurrentCache.getEvictionCount()).isGreaterThan(0);
+            assertThat(concurrentCache.getCorruptedPageCount()).isEqualTo(0);
+
+            for (Location location : locations) {
+                getFileSystem().deleteFile(location);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+            concurrentCache.shutdown();
+            deleteRecursively(directory, ALLOW_INSECURE);
+        }
+    }
+
+    private byte[] cacheFile(Path directory, Location location, int fileSize)
+            throws IOException
+    {
+        // a single segment, so the slots can be located in the segment file
+        DiskFileSystemCache fileCache = createCache(directory, DataSize.of(64, KILOBYTE), DataSize.of(64, KILOBYTE));
+        try {
+            return readFully(new CacheFileSystem(delegate, fileCache, cacheKeyProvider).newInputFile(location), fileSize);
+        }
+        finally {
+            fileCache.shutdown();
+        }
+    }
+
+    private void assertCorruptionDetected(Path directory, Location location, byte[] expected)
+            throws IOException
+    {
+        DiskFileSystemCache recovered = createCache(directory, DataSize.of(64, KILOBYTE), DataSize.of(64, KILOBYTE));
+        try {
+            TrinoInputFile recoveredFile = new CacheFileSystem(delegate, recovered, cacheKeyProvider).newInputFile(location);
+            String key = cacheKeyProvider.getCacheKey(recoveredFile).orElseThrow();
+            assertThat(recovered.isCached(key, 0)).isTrue();
+            assertThat(recovered.isCached(key, 1)).isTrue();
+
+            // the corrupted pages are read from the file system instead
+            assertThat(readFully(recoveredFile, expected.length)).isEqualTo(expected);
+            assertThat(recovered.getCorruptedPageCount()).isEqualTo(2);
+            assertThat(recovered.getMissCount()).isEqualTo(2);
+            assertThat(readFully(recoveredFile, expected.length)).isEqualTo(expected);
+        }
+        finally {
+            recovered.shutdown();
+        }
+    }
+
+    private static Path getSegmentFile(Path directory)
+            throws IOException
+    {
+        try (Stream<Path> files = Files.list(directory)) {
+            return getOnlyElement(files.toList());
+        }
+    }
+
+    private static List<Long> getWrittenSlotPositions(FileChannel channel)
+            throws IOException
+    {
+        List<Long> positions = new ArrayList<>();
+        for (long position = 0; position < channel.size(); position += HEADER_SIZE + PAGE_SIZE) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(magic, position);
+            if (magic.flip().getInt() != 0) {
+                positions.add(position);
+            }
+        }
+        return positions;
+    }
+
+    private static byte[] readFully(TrinoInputFile inputFile, int fileSize)
+            throws IOException
+    {
+        byte[] buffer = new byte[fileSize];
+        try (TrinoInput input = inputFile.newInput()) {
+            input.readFully(0, buffer, 0, fileSize);
+        }
+        return buffer;
+    }
+
+    private Location writeFile(int fileSize)
+            throws IOException
+    {
+        return writeFile(getRootLocation().appendPath("test-%s".formatted(UUID.randomUUID())), fileSize);
+    }
+
+    private Location writeFile(Location location, int fileSize)
+            throws IOException
+    {
+        try (OutputStream outputStream = getFileSystem().newOutputFile(location).create()) {
+            for (int i = 0; i < fileSize; i++) {
+                outputStream.write(i * 31 + (i >> 12));
+            }
+        }
+        return location;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.filesystem.disk;
+
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static io.airlift.configuration.testing.ConfigAssertions.assertFullMapping;
+import static io.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
+import static io.airlift.configuration.testing.ConfigAssertions.recordDefaults;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+
+public class TestDiskFileSystemCacheConfig
+{
+    @Test
+    void testDefaults()
+    {
+        assertRecordedDefaults(recordDefaults(DiskFileSystemCacheConfig.class)
+                .setDirectory(null)
+                .setMaxSize(DataSize.of(100, GIGABYTE))
+                .setPageSize(DataSize.of(1, MEGABYTE))
+                .setSegmentSize(DataSize.of(256, MEGABYTE))
+                .setMaxPendingAdmissionSize(DataSize.of(64, MEGABYTE)));
+    }
+
+    @Test
+    public void testExplicitPropertyMappings()
+    {
+        Map<String, String> properties = ImmutableMap.<String, String>builder()
+                .put("fs.disk-cache.directory", "/mnt/cache")
+                .put("fs.disk-cache.max-size", "10GB")
+                .put("fs.disk-cache.page-size", "64kB")
+                .put("fs.disk-cache.segment-size", "512MB")
+                .put("fs.disk-cache.max-pending-admission-size", "16MB")
+                .buildOrThrow();
+
+        DiskFileSystemCacheConfig expected = new DiskFileSystemCacheConfig()
+                .setDirectory("/mnt/cache")
+                .setMaxSize(DataSize.of(10, GIGABYTE))
+                .setPageSize(DataSize.of(64, KILOBYTE))
+                .setSegmentSize(DataSize.of(512, MEGABYTE))
+                .setMaxPendingAdmissionSize(DataSize.of(16, MEGABYTE));
+
+        assertFullMapping(properties, expected);
+    }
+}
@@ -29,6 +29,7 @@ public class OrcReaderOptions
     private static final boolean DEFAULT_LAZY_READ_SMALL_RANGES = true;
     private static final boolean DEFAULT_NESTED_LAZY = true;
     private static final boolean DEFAULT_READ_LEGACY_SHORT_ZONE_ID = false;
+    private static final boolean DEFAULT_ENCODED_PREDICATE_EVALUATION_ENABLED = false;
 
     private final boolean bloomFiltersEnabled;
 
@@ -40,6 +41,7 @@ public class OrcReaderOptions
     private final boolean lazyReadSmallRanges;
     private final boolean nestedLazy;
     private final boolean readLegacyShortZoneId;
+    private final boolean encodedPredicateEvaluationEnabled;
 
     public OrcReaderOptions()
     {
@@ -52,7 +54,8 @@ public class OrcReaderOptions
                 DEFAULT_MAX_BLOCK_SIZE,
                 DEFAULT_LAZY_READ_SMALL_RANGES,
                 DEFAULT_NESTED_LAZY,
-                DEFAULT_READ_LEGACY_SHORT_ZONE_ID);
+                DEFAULT_READ_LEGACY_SHORT_ZONE_ID,
+                DEFAULT_ENCODED_PREDICATE_EVALUATION_ENABLED);
     }
 
     private OrcReaderOptions(
@@ -64,7 +67,8 @@ public class OrcReaderOptions
             DataSize maxBlockSize,
             boolean lazyReadSmallRanges,
             boolean nestedLazy,
-            boolean readLegacyShortZoneId)
+            boolean readLegacyShortZoneId,
+            boolean encodedPredicateEvaluationEnabled)
     {
         this.maxMergeDistance = requireNonNull(maxMergeDistance, "maxMergeDistance is null");
         this.maxBufferSize = requireNonNull(maxBufferSize, "maxBufferSize is null");
@@ -75,6 +79,7 @@ public class OrcReaderOptions
         this.bloomFiltersEnabled = bloomFiltersEnabled;
         this.nestedLazy = nestedLazy;
         this.readLegacyShortZoneId = readLegacyShortZoneId;
+        this.encodedPredicateEvaluationEnabled = encodedPredicateEvaluationEnabled;
     }
 
     public boolean isBloomFiltersEnabled()
@@ -122,6 +127,16 @@ public class OrcReaderOptions
         return readLegacyShortZoneId;
     }
 
+    /**
+     * Whether the record reader filters rows on the dictionary ids and runs of columns with a domain in the predicate,
+     * before the other columns are decoded. The positions of the rows in the returned pages are then no longer
+     * contiguous, so this must only be enabled when rows are not identified by their position in the page.
+     */
+    public boolean isEncodedPredicateEvaluationEnabled()
+    {
+        return encodedPredicateEvaluationEnabled;
+    }
+
     public OrcReaderOptions withBloomFiltersEnabled(boolean bloomFiltersEnabled)
     {
         return new Builder(this)
@@ -190,6 +205,13 @@ public class OrcReaderOptions
                 .build();
     }
 
+    public OrcReaderOptions withEncodedPredicateEvaluationEnabled(boolean encodedPredicateEvaluationEnabled)
+    {
+        return new Builder(this)
+                .withEncodedPredicateEvaluationEnabled(encodedPredicateEvaluationEnabled)
+                .build();
+    }
+
     private static class Builder
     {
         private boolean bloomFiltersEnabled;
@@ -201,6 +223,7 @@ public class OrcReaderOptions
         private boolean lazyReadSmallRanges;
         private boolean nestedLazy;
         private boolean readLegacyShortZoneId;
+        private boolean encodedPredicateEvaluationEnabled;
 
         private Builder(OrcReaderOptions orcReaderOptions)
         {
@@ -214,6 +237,7 @@ public class OrcReaderOptions
             this.lazyReadSmallRanges = orcReaderOptions.lazyReadSmallRanges;
             this.nestedLazy = orcReaderOptions.nestedLazy;
             this.readLegacyShortZoneId = orcReaderOptions.readLegacyShortZoneId;
+            this.encodedPredicateEvaluationEnabled = orcReaderOptions.encodedPredicateEvaluationEnabled;
         }
 
         public Builder withBloomFiltersEnabled(boolean bloomFiltersEnabled)
@@ -270,6 +294,12 @@ public class OrcReaderOptions
             return this;
         }
 
+        public Builder withEncodedPredicateEvaluationEnabled(boolean encodedPredicateEvaluationEnabled)
+        {
+            this.encodedPredicateEvaluationEnabled = encodedPredicateEvaluationEnabled;
+            return this;
+        }
+
         private OrcReaderOptions build()
         {
             return new OrcReaderOptions(
@@ -281,7 +311,8 @@ public class OrcReaderOptions
                     maxBlockSize,
                     lazyReadSmallRanges,
                     nestedLazy,
-                    readLegacyShortZoneId);
+                    readLegacyShortZoneId,
+                    encodedPredicateEvaluationEnabled);
         }
     }
 }
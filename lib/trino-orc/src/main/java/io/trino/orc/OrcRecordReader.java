@@ -32,6 +32,7 @@ import io.trino.orc.OrcWriteValidation.WriteChecksumBuilder;
 import io.trino.orc.metadata.ColumnEncoding;
 import io.trino.orc.metadata.ColumnMetadata;
 import io.trino.orc.metadata.MetadataReader;
+import io.trino.orc.metadata.OrcColumnId;
 import io.trino.orc.metadata.OrcType;
 import io.trino.orc.metadata.PostScript.HiveWriterVersion;
 import io.trino.orc.metadata.StripeInformation;
@@ -39,10 +40,12 @@ import io.trino.orc.metadata.statistics.ColumnStatistics;
 import io.trino.orc.metadata.statistics.StripeStatistics;
 import io.trino.orc.reader.ColumnReader;
 import io.trino.orc.stream.InputStreamSources;
+import io.trino.plugin.base.filter.DomainBlockFilter;
 import io.trino.spi.Page;
 import io.trino.spi.block.Block;
 import io.trino.spi.block.LongArrayBlock;
 import io.trino.spi.connector.SourcePage;
+import io.trino.spi.predicate.Domain;
 import io.trino.spi.type.Type;
 import jakarta.annotation.Nullable;
 import org.joda.time.DateTimeZone;
@@ -137,6 +140,10 @@ public class OrcRecordReader
     private final Optional<Long> startRowPosition;
     private final Optional<Long> endRowPosition;
 
+    // filters of the predicate evaluated on dictionary and run length encoded blocks, by channel
+    private final Map<Integer, DomainBlockFilter> encodedPredicateFilters;
+    private int[] selectedPositions = new int[0];
+
     public OrcRecordReader(
             List<OrcColumn> readColumns,
             List<Type> readTypes,
@@ -283,6 +290,31 @@ public class OrcRecordReader
         currentBytesPerCell = new long[columnReaders.length];
         maxBytesPerCell = new long[columnReaders.length];
         nextBatchSize = initialBatchSize;
+
+        encodedPredicateFilters = createEncodedPredicateFilters(readColumns, readTypes, predicate, options, writeValidation);
+    }
+
+    private static Map<Integer, DomainBlockFilter> createEncodedPredicateFilters(
+            List<OrcColumn> readColumns,
+            List<Type> readTypes,
+            OrcPredicate predicate,
+            OrcReaderOptions options,
+            Optional<OrcWriteValidation> writeValidation)
+    {
+        // write validation needs every row of the file
+        if (!options.isEncodedPredicateEvaluationEnabled() || !(predicate instanceof TupleDomainOrcPredicate tupleDomainPredicate) || writeValidation.isPresent()) {
+            return ImmutableMap.of();
+        }
+        Map<OrcColumnId, Domain> domains = tupleDomainPredicate.getColumnDomains();
+        ImmutableMap.Builder<Integer, DomainBlockFilter> filters = ImmutableMap.builder();
+        for (int channel = 0; channel < readColumns.size(); channel++) {
+            Domain domain = domains.get(readColumns.get(channel).getColumnId());
+            // the values must be read with the type of the domain
+            if (domain != null && !domain.isAll() && domain.getType().equals(readTypes.get(channel))) {
+                filters.put(channel, new DomainBlockFilter(domain));
+            }
+        }
+        return filters.buildOrThrow();
     }
 
     private static boolean splitContainsStripe(long splitOffset, long splitLength, StripeInformation stripe)
@@ -421,6 +453,46 @@ public class OrcRecordReader
 
     public SourcePage nextPage()
             throws IOException
+    {
+        while (true) {
+            SourcePage page = nextBatchPage();
+            // the other columns of a batch without matching rows are never decoded, their readers skip the batch
+            if (page == null || applyEncodedPredicate(page)) {
+                return page;
+            }
+        }
+    }
+
+    /**
+     * Filters the page on the columns of the predicate which are dictionary or run length encoded.
+     *
+     * @return false if no row of the page matches the predicate
+     */
+    private boolean applyEncodedPredicate(SourcePage page)
+    {
+        for (Map.Entry<Integer, DomainBlockFilter> entry : encodedPredicateFilters.entrySet()) {
+            Block block = page.getBlock(entry.getKey());
+            if (!DomainBlockFilter.isEncoded(block)) {
+                // decoded values are left to the engine
+                continue;
+            }
+            int positionCount = block.getPositionCount();
+            if (selectedPositions.length < positionCount) {
+                selectedPositions = new int[positionCount];
+            }
+            int selectedCount = entry.getValue().filter(block, selectedPositions);
+            if (selectedCount == 0) {
+                return false;
+            }
+            if (selectedCount < positionCount) {
+                page.selectPositions(selectedPositions, 0, selectedCount);
+            }
+        }
+        return true;
+    }
+
+    private SourcePage nextBatchPage()
+            throws IOException
     {
         // update position for current row group (advancing resets them)
         filePosition += currentBatchSize;
@@ -57,6 +57,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -77,6 +78,7 @@ import static io.trino.orc.metadata.OrcColumnId.ROOT_COLUMN;
 import static io.trino.orc.metadata.PostScript.MAGIC;
 import static io.trino.orc.stream.OrcDataOutput.createDataOutput;
 import static io.trino.orc.writer.ColumnWriters.createColumnWriter;
+import static io.trino.plugin.base.util.ExecutorUtil.forEachWithAdditionalThreads;
 import static java.lang.Integer.min;
 import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
@@ -104,6 +106,8 @@ public final class OrcWriter
     private final int stripeMaxRowCount;
     private final int rowGroupMaxRowCount;
     private final int maxCompressionBufferSize;
+    private final Executor encodingExecutor;
+    private final int encodingParallelism;
     private final Map<String, String> userMetadata = new HashMap<>();
     private final CompressedMetadataWriter metadataWriter;
 
@@ -158,6 +162,8 @@ public final class OrcWriter
         this.rowGroupMaxRowCount = options.getRowGroupMaxRowCount();
         recordValidation(validation -> validation.setRowGroupMaxRowCount(rowGroupMaxRowCount));
         this.maxCompressionBufferSize = toIntExact(options.getMaxCompressionBufferSize().toBytes());
+        this.encodingExecutor = options.getEncodingExecutor();
+        this.encodingParallelism = options.getEncodingParallelism();
 
         this.userMetadata.putAll(requireNonNull(userMetadata, "userMetadata is null"));
         this.userMetadata.put(TRINO_ORC_WRITER_VERSION_METADATA_KEY, TRINO_ORC_WRITER_VERSION);
@@ -286,13 +292,13 @@ public final class OrcWriter
             columnWriters.forEach(ColumnWriter::beginRowGroup);
         }
 
-        // write chunks
-        bufferedBytes = 0;
-        for (int channel = 0; channel < chunk.getChannelCount(); channel++) {
-            ColumnWriter writer = columnWriters.get(channel);
-            writer.writeBlock(chunk.getBlock(channel));
-            bufferedBytes += writer.getBufferedBytes();
-        }
+        // write chunks, column writers do not share any state so they can encode the chunk in parallel
+        forEachWithAdditionalThreads(
+                columnWriters,
+                (writer, channel) -> writer.writeBlock(chunk.getBlock(channel)),
+                encodingParallelism,
+                encodingExecutor);
+        bufferedBytes = columnWriters.stream().mapToLong(ColumnWriter::getBufferedBytes).sum();
 
         // update stats
         rowGroupRowCount += chunk.getPositionCount();
@@ -379,7 +385,7 @@ public final class OrcWriter
         // convert any dictionary encoded column with a low compression ratio to direct
         dictionaryCompressionOptimizer.finalOptimize(toIntExact(bufferedBytes));
 
-        columnWriters.forEach(ColumnWriter::close);
+        forEachWithAdditionalThreads(columnWriters, (writer, _) -> writer.close(), encodingParallelism, encodingExecutor);
 
         List<OrcDataOutput> outputData = new ArrayList<>();
         List<Stream> allStreams = new ArrayList<>(columnWriters.size() * 3);
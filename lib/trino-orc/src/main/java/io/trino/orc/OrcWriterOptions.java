@@ -18,9 +18,11 @@ import com.google.common.collect.ImmutableSet;
 import io.airlift.units.DataSize;
 
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.units.DataSize.Unit.KILOBYTE;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static java.util.Objects.requireNonNull;
@@ -50,6 +52,7 @@ public class OrcWriterOptions
     private static final int DEFAULT_STRIPE_MAX_ROW_COUNT = 10_000_000;
     private static final int DEFAULT_ROW_GROUP_MAX_ROW_COUNT = 10_000;
     private static final DataSize DEFAULT_DICTIONARY_MAX_MEMORY = DataSize.of(16, MEGABYTE);
+    private static final int DEFAULT_ENCODING_PARALLELISM = 1;
 
     private final WriterIdentification writerIdentification;
     private final DataSize stripeMinSize;
@@ -62,6 +65,8 @@ public class OrcWriterOptions
     private final Set<String> bloomFilterColumns;
     private final double bloomFilterFpp;
     private final boolean shouldCompactMinMax;
+    private final Executor encodingExecutor;
+    private final int encodingParallelism;
 
     public OrcWriterOptions()
     {
@@ -76,7 +81,9 @@ public class OrcWriterOptions
                 DEFAULT_MAX_COMPRESSION_BUFFER_SIZE,
                 ImmutableSet.of(),
                 DEFAULT_BLOOM_FILTER_FPP,
-                true);
+                true,
+                directExecutor(),
+                DEFAULT_ENCODING_PARALLELISM);
     }
 
     private OrcWriterOptions(
@@ -90,7 +97,9 @@ public class OrcWriterOptions
             DataSize maxCompressionBufferSize,
             Set<String> bloomFilterColumns,
             double bloomFilterFpp,
-            boolean shouldCompactMinMax)
+            boolean shouldCompactMinMax,
+            Executor encodingExecutor,
+            int encodingParallelism)
     {
         requireNonNull(stripeMinSize, "stripeMinSize is null");
         requireNonNull(stripeMaxSize, "stripeMaxSize is null");
@@ -101,6 +110,7 @@ public class OrcWriterOptions
         requireNonNull(maxCompressionBufferSize, "maxCompressionBufferSize is null");
         requireNonNull(bloomFilterColumns, "bloomFilterColumns is null");
         checkArgument(bloomFilterFpp > 0.0 && bloomFilterFpp < 1.0, "bloomFilterFpp should be > 0.0 & < 1.0");
+        checkArgument(encodingParallelism >= 1, "encodingParallelism must be at least 1");
 
         this.writerIdentification = requireNonNull(writerIdentification, "writerIdentification is null");
         this.stripeMinSize = stripeMinSize;
@@ -113,6 +123,8 @@ public class OrcWriterOptions
         this.bloomFilterColumns = ImmutableSet.copyOf(bloomFilterColumns);
         this.bloomFilterFpp = bloomFilterFpp;
         this.shouldCompactMinMax = shouldCompactMinMax;
+        this.encodingExecutor = requireNonNull(encodingExecutor, "encodingExecutor is null");
+        this.encodingParallelism = encodingParallelism;
     }
 
     public WriterIdentification getWriterIdentification()
@@ -247,6 +259,30 @@ public class OrcWriterOptions
                 .build();
     }
 
+    /**
+     * Executor encoding the columns of a stripe in addition to the thread writing the data.
+     */
+    public Executor getEncodingExecutor()
+    {
+        return encodingExecutor;
+    }
+
+    /**
+     * Maximum number of threads encoding the columns of a stripe, including the thread writing the data.
+     */
+    public int getEncodingParallelism()
+    {
+        return encodingParallelism;
+    }
+
+    public OrcWriterOptions withEncodingExecutor(Executor encodingExecutor, int encodingParallelism)
+    {
+        return builderFrom(this)
+                .setEncodingExecutor(encodingExecutor)
+                .setEncodingParallelism(encodingParallelism)
+                .build();
+    }
+
     @Override
     public String toString()
     {
@@ -260,6 +296,7 @@ public class OrcWriterOptions
                 .add("maxCompressionBufferSize", maxCompressionBufferSize)
                 .add("bloomFilterColumns", bloomFilterColumns)
                 .add("bloomFilterFpp", bloomFilterFpp)
+                .add("encodingParallelism", encodingParallelism)
                 .toString();
     }
 
@@ -286,6 +323,8 @@ public class OrcWriterOptions
         private Set<String> bloomFilterColumns;
         private double bloomFilterFpp;
         private boolean shouldCompactMinMax;
+        private Executor encodingExecutor;
+        private int encodingParallelism;
 
         private Builder(OrcWriterOptions options)
         {
@@ -302,6 +341,8 @@ public class OrcWriterOptions
             this.bloomFilterColumns = ImmutableSet.copyOf(options.bloomFilterColumns);
             this.bloomFilterFpp = options.bloomFilterFpp;
             this.shouldCompactMinMax = options.shouldCompactMinMax;
+            this.encodingExecutor = options.encodingExecutor;
+            this.encodingParallelism = options.encodingParallelism;
         }
 
         public Builder setWriterIdentification(WriterIdentification writerIdentification)
@@ -370,6 +411,18 @@ public class OrcWriterOptions
             return this;
         }
 
+        public Builder setEncodingExecutor(Executor encodingExecutor)
+        {
+            this.encodingExecutor = requireNonNull(encodingExecutor, "encodingExecutor is null");
+            return this;
+        }
+
+        public Builder setEncodingParallelism(int encodingParallelism)
+        {
+            this.encodingParallelism = encodingParallelism;
+            return this;
+        }
+
         public OrcWriterOptions build()
         {
             return new OrcWriterOptions(
@@ -383,7 +436,9 @@ public class OrcWriterOptions
                     maxCompressionBufferSize,
                     bloomFilterColumns,
                     bloomFilterFpp,
-                    shouldCompactMinMax);
+                    shouldCompactMinMax,
+                    encodingExecutor,
+                    encodingParallelism);
         }
     }
 }
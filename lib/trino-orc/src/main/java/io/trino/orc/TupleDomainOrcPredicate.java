@@ -40,10 +40,12 @@ import io.trino.spi.type.VarcharType;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static io.trino.spi.type.BigintType.BIGINT;
 import static io.trino.spi.type.BooleanType.BOOLEAN;
 import static io.trino.spi.type.Chars.truncateToLengthAndTrimSpaces;
@@ -88,6 +90,15 @@ public class TupleDomainOrcPredicate
         this.domainCompactionThreshold = domainCompactionThreshold;
     }
 
+    /**
+     * Returns the domain of every column of the predicate.
+     */
+    public Map<OrcColumnId, Domain> getColumnDomains()
+    {
+        return columnDomains.stream()
+                .collect(toImmutableMap(ColumnDomain::getColumnId, ColumnDomain::getDomain, Domain::intersect));
+    }
+
     @Override
     public boolean matches(long numberOfRows, ColumnMetadata<ColumnStatistics> allColumnStatistics)
     {
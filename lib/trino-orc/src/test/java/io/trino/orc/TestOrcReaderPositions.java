@@ -13,6 +13,7 @@
  */
 package io.trino.orc;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import io.airlift.slice.Slice;
@@ -23,7 +24,9 @@ import io.trino.orc.metadata.OrcColumnId;
 import io.trino.orc.metadata.statistics.IntegerStatistics;
 import io.trino.spi.Page;
 import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
 import io.trino.spi.connector.SourcePage;
+import io.trino.spi.predicate.Domain;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.ql.exec.FileSinkOperator;
@@ -42,16 +45,22 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Map;
 
+import static com.google.common.collect.Iterators.singletonIterator;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.trino.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.trino.orc.OrcReader.BATCH_SIZE_GROWTH_FACTOR;
 import static io.trino.orc.OrcReader.INITIAL_BATCH_SIZE;
 import static io.trino.orc.OrcReader.MAX_BATCH_SIZE;
 import static io.trino.orc.OrcTester.Format.ORC_12;
+import static io.trino.orc.OrcTester.HIVE_STORAGE_TIME_ZONE;
 import static io.trino.orc.OrcTester.READER_OPTIONS;
 import static io.trino.orc.OrcTester.createCustomOrcRecordReader;
 import static io.trino.orc.OrcTester.createOrcRecordWriter;
 import static io.trino.orc.OrcTester.createSettableStructObjectInspector;
+import static io.trino.orc.OrcTester.writeOrcPages;
 import static io.trino.spi.type.BigintType.BIGINT;
 import static io.trino.spi.type.VarcharType.VARCHAR;
 import static java.lang.Math.min;
@@ -294,6 +303,67 @@ public class TestOrcReaderPositions
         }
     }
 
+    @Test
+    public void testEncodedPredicateEvaluation()
+            throws Exception
+    {
+        // the keys alternate between runs of nulls, read as run length encoded blocks, and dictionary encoded values
+        int rowCount = 20_000;
+        BlockBuilder keys = VARCHAR.createBlockBuilder(null, rowCount);
+        BlockBuilder values = BIGINT.createFixedSizeBlockBuilder(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            if (row % 5_000 < 2_500) {
+                keys.appendNull();
+            }
+            else {
+                VARCHAR.writeSlice(keys, utf8Slice(String.valueOf((char) ('a' + row % 3))));
+            }
+            BIGINT.writeLong(values, row);
+        }
+
+        try (TempFile tempFile = new TempFile()) {
+            writeOrcPages(tempFile.getFile(), CompressionKind.NONE, ImmutableList.of(VARCHAR, BIGINT), singletonIterator(new Page(keys.build(), values.build())), new OrcWriterStats());
+
+            OrcReaderOptions options = READER_OPTIONS.withEncodedPredicateEvaluationEnabled(true);
+            OrcReader orcReader = OrcReader.createOrcReader(new FileOrcDataSource(tempFile.getFile(), options), options)
+                    .orElseThrow(() -> new RuntimeException("File is empty"));
+            List<OrcColumn> columns = orcReader.getRootColumn().getNestedColumns();
+            OrcPredicate predicate = TupleDomainOrcPredicate.builder()
+                    .addColumn(columns.get(0).getColumnId(), Domain.singleValue(VARCHAR, utf8Slice("b")))
+                    .build();
+
+            try (OrcRecordReader reader = orcReader.createRecordReader(
+                    columns,
+                    ImmutableList.of(VARCHAR, BIGINT),
+                    true,
+                    predicate,
+                    HIVE_STORAGE_TIME_ZONE,
+                    newSimpleAggregatedMemoryContext(),
+                    1_000,
+                    RuntimeException::new)) {
+                // only the rows with the key are returned, and the row numbers are the positions of the rows in the file
+                ImmutableList.Builder<Long> expectedRows = ImmutableList.builder();
+                for (long row = 0; row < rowCount; row++) {
+                    if (row % 5_000 >= 2_500 && row % 3 == 1) {
+                        expectedRows.add(row);
+                    }
+                }
+                ImmutableList.Builder<Long> rows = ImmutableList.builder();
+                for (SourcePage page = reader.nextPage(); page != null; page = reader.nextPage()) {
+                    Block keyBlock = page.getBlock(0);
+                    Block valueBlock = page.getBlock(1);
+                    Block rowNumberBlock = page.getBlock(2);
+                    for (int position = 0; position < page.getPositionCount(); position++) {
+                        assertThat(VARCHAR.getSlice(keyBlock, position).toStringUtf8()).isEqualTo("b");
+                        assertThat(BIGINT.getLong(rowNumberBlock, position)).isEqualTo(BIGINT.getLong(valueBlock, position));
+                        rows.add(BIGINT.getLong(valueBlock, position));
+                    }
+                }
+                assertThat(rows.build()).isEqualTo(expectedRows.build());
+            }
+        }
+    }
+
     @Test
     public void testReadUserMetadata()
             throws Exception
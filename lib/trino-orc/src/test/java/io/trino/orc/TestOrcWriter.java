@@ -40,7 +40,10 @@ import java.io.InputStream;
 import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.trino.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.trino.orc.OrcTester.READER_OPTIONS;
@@ -51,6 +54,7 @@ import static io.trino.orc.metadata.CompressionKind.NONE;
 import static io.trino.spi.type.VarcharType.VARCHAR;
 import static java.lang.Math.toIntExact;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.Executors.newCachedThreadPool;
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class TestOrcWriter
@@ -60,7 +64,25 @@ public class TestOrcWriter
             throws IOException
     {
         testWriteOutput(ImmutableList.of("test1", "test2", "test3", "test4", "test5"),
-                new String[] {"a", "bbbbb", "ccc", "dd", "eeee"});
+                new String[] {"a", "bbbbb", "ccc", "dd", "eeee"},
+                directExecutor(),
+                1);
+    }
+
+    @Test
+    public void testWriteOutputStreamsInOrderWithEncodingParallelism()
+            throws IOException
+    {
+        ExecutorService executor = newCachedThreadPool();
+        try {
+            testWriteOutput(ImmutableList.of("test1", "test2", "test3", "test4", "test5"),
+                    new String[] {"a", "bbbbb", "ccc", "dd", "eeee"},
+                    executor,
+                    3);
+        }
+        finally {
+            executor.shutdownNow();
+        }
     }
 
     @Test
@@ -75,10 +97,10 @@ public class TestOrcWriter
             columnNameBuilder.add(String.valueOf(i));
             data[i] = "LONG_STRING";
         }
-        testWriteOutput(columnNameBuilder.build(), data);
+        testWriteOutput(columnNameBuilder.build(), data, directExecutor(), 1);
     }
 
-    private void testWriteOutput(List<String> columnNames, String[] data)
+    private void testWriteOutput(List<String> columnNames, String[] data, Executor encodingExecutor, int encodingParallelism)
             throws IOException
     {
         for (OrcWriteValidationMode validationMode : OrcWriteValidationMode.values()) {
@@ -102,7 +124,8 @@ public class TestOrcWriter
                             .withStripeMaxRowCount(ORC_STRIPE_SIZE)
                             .withRowGroupMaxRowCount(ORC_ROW_GROUP_SIZE)
                             .withDictionaryMaxMemory(DataSize.of(32, MEGABYTE))
-                            .withBloomFilterColumns(ImmutableSet.copyOf(columnNames)),
+                            .withBloomFilterColumns(ImmutableSet.copyOf(columnNames))
+                            .withEncodingExecutor(encodingExecutor, encodingParallelism),
                     ImmutableMap.of(),
                     true,
                     validationMode,
@@ -18,37 +18,59 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ListMultimap;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
 import io.trino.memory.context.AggregatedMemoryContext;
 import io.trino.memory.context.LocalMemoryContext;
 import io.trino.parquet.reader.ChunkedInputStream;
+import io.trino.plugin.base.metrics.DurationTiming;
+import io.trino.plugin.base.metrics.LongCount;
+import io.trino.spi.metrics.Metrics;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Throwables.throwIfInstanceOf;
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
 import static java.util.Comparator.comparingLong;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 public abstract class AbstractParquetDataSource
         implements ParquetDataSource
 {
+    public static final String PREFETCH_HITS = "ParquetPrefetchHits";
+    public static final String PREFETCH_MISSES = "ParquetPrefetchMisses";
+    public static final String PREFETCH_BYTES = "ParquetPrefetchBytes";
+    public static final String PREFETCH_WAIT_TIME = "ParquetPrefetchWaitTime";
+
     private final ParquetDataSourceId id;
     private final long estimatedSize;
     private final ParquetReaderOptions options;
+    // reads of prefetched chunks run on other threads, so the read statistics are guarded by this
     private long readTimeNanos;
     private long readBytes;
+    private long prefetchHits;
+    private long prefetchMisses;
+    private long prefetchBytes;
+    private long prefetchWaitNanos;
 
     protected AbstractParquetDataSource(ParquetDataSourceId id, long estimatedSize, ParquetReaderOptions options)
     {
@@ -74,17 +96,30 @@ public abstract class AbstractParquetDataSource
     }
 
     @Override
-    public final long getReadBytes()
+    public final synchronized long getReadBytes()
     {
         return readBytes;
     }
 
     @Override
-    public final long getReadTimeNanos()
+    public final synchronized long getReadTimeNanos()
     {
         return readTimeNanos;
     }
 
+    @Override
+    public final synchronized Metrics getMetrics()
+    {
+        if (prefetchHits == 0 && prefetchMisses == 0) {
+            return Metrics.EMPTY;
+        }
+        return new Metrics(ImmutableMap.of(
+                PREFETCH_HITS, new LongCount(prefetchHits),
+                PREFETCH_MISSES, new LongCount(prefetchMisses),
+                PREFETCH_BYTES, new LongCount(prefetchBytes),
+                PREFETCH_WAIT_TIME, new DurationTiming(new Duration(prefetchWaitNanos, NANOSECONDS))));
+    }
+
     @Override
     public final long getEstimatedSize()
     {
@@ -99,8 +134,10 @@ public abstract class AbstractParquetDataSource
 
         Slice tailSlice = readTailInternal(length);
 
-        readTimeNanos += System.nanoTime() - start;
-        readBytes += tailSlice.length();
+        synchronized (this) {
+            readTimeNanos += System.nanoTime() - start;
+            readBytes += tailSlice.length();
+        }
 
         return tailSlice;
     }
@@ -119,10 +156,13 @@ public abstract class AbstractParquetDataSource
     {
         long start = System.nanoTime();
 
+        // prefetched chunks are read on other threads, so this can run concurrently with other reads
         readInternal(position, buffer, bufferOffset, bufferLength);
 
-        readTimeNanos += System.nanoTime() - start;
-        readBytes += bufferLength;
+        synchronized (this) {
+            readTimeNanos += System.nanoTime() - start;
+            readBytes += bufferLength;
+        }
     }
 
     @Override
@@ -231,6 +271,12 @@ public abstract class AbstractParquetDataSource
                         {
                             mergedRangeLoader.free();
                         }
+
+                        @Override
+                        public void prefetch(Executor executor)
+                        {
+                            mergedRangeLoader.prefetch(executor);
+                        }
                     });
                 }
             }
@@ -291,6 +337,18 @@ public abstract class AbstractParquetDataSource
         return result.build();
     }
 
+    private synchronized void recordPrefetch(boolean hit, long bytes, long waitNanos)
+    {
+        if (hit) {
+            prefetchHits++;
+        }
+        else {
+            prefetchMisses++;
+        }
+        prefetchBytes += bytes;
+        prefetchWaitNanos += waitNanos;
+    }
+
     private class ReferenceCountedReader
             implements ChunkReader
     {
@@ -298,7 +356,10 @@ public abstract class AbstractParquetDataSource
         private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
         private final DiskRange range;
         private final LocalMemoryContext readerMemoryUsage;
+        // guarded by this, as a prefetch loads the data on another thread
         private Slice data;
+        private ListenableFuture<Slice> prefetchedData;
+        private boolean prefetchStarted;
         private int referenceCount = 1;
 
         public ReferenceCountedReader(DiskRange range, AggregatedMemoryContext memoryContext)
@@ -308,7 +369,7 @@ public abstract class AbstractParquetDataSource
             this.readerMemoryUsage = memoryContext.newLocalMemoryContext(ReferenceCountedReader.class.getSimpleName());
         }
 
-        public void addReference()
+        public synchronized void addReference()
         {
             checkState(referenceCount > 0, "Chunk reader is already closed");
             referenceCount++;
@@ -324,32 +385,107 @@ public abstract class AbstractParquetDataSource
         public Slice read()
                 throws IOException
         {
-            checkState(referenceCount > 0, "Chunk reader is already closed");
+            ListenableFuture<Slice> prefetchedData;
+            synchronized (this) {
+                checkState(referenceCount > 0, "Chunk reader is already closed");
+                if (data != null) {
+                    return data;
+                }
+                prefetchedData = this.prefetchedData;
+                if (prefetchedData != null && !prefetchStarted) {
+                    // the prefetch is still queued, so reading the data right away is faster than waiting for it
+                    this.prefetchedData = null;
+                    prefetchedData = null;
+                    recordPrefetch(false, 0, 0);
+                }
+            }
+
+            Slice slice = prefetchedData == null ? load() : getPrefetchedData(prefetchedData);
+            synchronized (this) {
+                data = slice;
+                this.prefetchedData = null;
+            }
+            return slice;
+        }
+
+        @Override
+        public synchronized void prefetch(Executor executor)
+        {
+            if (referenceCount > 0 && data == null && prefetchedData == null) {
+                prefetchedData = Futures.submit(this::loadPrefetch, executor);
+            }
+        }
 
-            if (data == null) {
-                byte[] buffer = new byte[toIntExact(range.getLength())];
+        private Slice loadPrefetch()
+                throws IOException
+        {
+            synchronized (this) {
+                if (prefetchedData == null) {
+                    // the data was read directly or the reader was freed in the meantime
+                    return null;
+                }
+                prefetchStarted = true;
+            }
+            return load();
+        }
+
+        private Slice getPrefetchedData(ListenableFuture<Slice> prefetchedData)
+                throws IOException
+        {
+            boolean hit = prefetchedData.isDone();
+            long start = System.nanoTime();
+            try {
+                Slice slice = prefetchedData.get();
+                recordPrefetch(hit, slice.length(), System.nanoTime() - start);
+                return slice;
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for prefetched data");
+            }
+            catch (ExecutionException e) {
+                throwIfInstanceOf(e.getCause(), IOException.class);
+                throwIfUnchecked(e.getCause());
+                throw new IOException(e.getCause());
+            }
+        }
+
+        private Slice load()
+                throws IOException
+        {
+            byte[] buffer = new byte[toIntExact(range.getLength())];
+            synchronized (this) {
+                checkState(referenceCount > 0, "Chunk reader is already closed");
                 readerMemoryUsage.setBytes(buffer.length);
+            }
+            try {
                 readFully(range.getOffset(), buffer, 0, buffer.length);
-                data = Slices.wrappedBuffer(buffer);
             }
-
-            return data;
+            finally {
+                synchronized (this) {
+                    if (referenceCount == 0) {
+                        readerMemoryUsage.setBytes(0);
+                    }
+                }
+            }
+            return Slices.wrappedBuffer(buffer);
         }
 
         @Override
-        public void free()
+        public synchronized void free()
         {
             checkState(referenceCount > 0, "Reference count is already 0");
 
             referenceCount--;
             if (referenceCount == 0) {
                 data = null;
+                prefetchedData = null;
                 readerMemoryUsage.setBytes(0);
             }
         }
 
         @Override
-        public String toString()
+        public synchronized String toString()
         {
             return toStringHelper(this)
                     .add("range", range)
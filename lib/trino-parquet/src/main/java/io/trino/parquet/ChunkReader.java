@@ -17,6 +17,7 @@ import io.airlift.slice.Slice;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.concurrent.Executor;
 
 public interface ChunkReader
 {
@@ -36,4 +37,9 @@ public interface ChunkReader
     }
 
     void free();
+
+    /**
+     * Starts loading the data on the executor, so that a later {@link #read()} does not wait for the I/O.
+     */
+    default void prefetch(Executor executor) {}
 }
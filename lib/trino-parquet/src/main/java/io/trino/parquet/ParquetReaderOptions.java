@@ -15,6 +15,9 @@ package io.trino.parquet;
 
 import io.airlift.units.DataSize;
 
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
 import static com.google.common.base.Preconditions.checkArgument;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static java.util.Objects.requireNonNull;
@@ -27,6 +30,7 @@ public class ParquetReaderOptions
     private static final DataSize DEFAULT_MAX_BUFFER_SIZE = DataSize.of(8, MEGABYTE);
     private static final DataSize DEFAULT_SMALL_FILE_THRESHOLD = DataSize.of(3, MEGABYTE);
     private static final DataSize DEFAULT_MAX_FOOTER_READ_SIZE = DataSize.of(15, MEGABYTE);
+    private static final DataSize DEFAULT_MAX_PREFETCH_SIZE = DataSize.of(64, MEGABYTE);
 
     private final boolean ignoreStatistics;
     private final DataSize maxReadBlockSize;
@@ -38,6 +42,10 @@ public class ParquetReaderOptions
     private final DataSize smallFileThreshold;
     private final boolean vectorizedDecodingEnabled;
     private final DataSize maxFooterReadSize;
+    private final boolean encodedPredicateEvaluationEnabled;
+    private final int prefetchRowGroupCount;
+    private final DataSize maxPrefetchSize;
+    private final Optional<Executor> prefetchExecutor;
 
     private ParquetReaderOptions()
     {
@@ -51,6 +59,10 @@ public class ParquetReaderOptions
         smallFileThreshold = DEFAULT_SMALL_FILE_THRESHOLD;
         vectorizedDecodingEnabled = true;
         maxFooterReadSize = DEFAULT_MAX_FOOTER_READ_SIZE;
+        encodedPredicateEvaluationEnabled = false;
+        prefetchRowGroupCount = 0;
+        maxPrefetchSize = DEFAULT_MAX_PREFETCH_SIZE;
+        prefetchExecutor = Optional.empty();
     }
 
     private ParquetReaderOptions(
@@ -63,7 +75,11 @@ public class ParquetReaderOptions
             boolean useBloomFilter,
             DataSize smallFileThreshold,
             boolean vectorizedDecodingEnabled,
-            DataSize maxFooterReadSize)
+            DataSize maxFooterReadSize,
+            boolean encodedPredicateEvaluationEnabled,
+            int prefetchRowGroupCount,
+            DataSize maxPrefetchSize,
+            Optional<Executor> prefetchExecutor)
     {
         this.ignoreStatistics = ignoreStatistics;
         this.maxReadBlockSize = requireNonNull(maxReadBlockSize, "maxReadBlockSize is null");
@@ -76,6 +92,11 @@ public class ParquetReaderOptions
         this.smallFileThreshold = requireNonNull(smallFileThreshold, "smallFileThreshold is null");
         this.vectorizedDecodingEnabled = vectorizedDecodingEnabled;
         this.maxFooterReadSize = requireNonNull(maxFooterReadSize, "maxFooterReadSize is null");
+        this.encodedPredicateEvaluationEnabled = encodedPredicateEvaluationEnabled;
+        checkArgument(prefetchRowGroupCount >= 0, "prefetchRowGroupCount is negative");
+        this.prefetchRowGroupCount = prefetchRowGroupCount;
+        this.maxPrefetchSize = requireNonNull(maxPrefetchSize, "maxPrefetchSize is null");
+        this.prefetchExecutor = requireNonNull(prefetchExecutor, "prefetchExecutor is null");
     }
 
     public static Builder builder()
@@ -143,6 +164,41 @@ public class ParquetReaderOptions
         return maxFooterReadSize;
     }
 
+    /**
+     * Whether the reader filters rows on the dictionary ids and runs of columns with a domain in the predicate,
+     * before the other columns are decoded. The positions of the rows in the returned pages are then no longer
+     * contiguous, so this must only be enabled when rows are not identified by their position in the page.
+     */
+    public boolean isEncodedPredicateEvaluationEnabled()
+    {
+        return encodedPredicateEvaluationEnabled;
+    }
+
+    /**
+     * Number of row groups after the current one whose column chunks are read in the background,
+     * or zero if column chunks are only read when they are decoded.
+     */
+    public int getPrefetchRowGroupCount()
+    {
+        return prefetchRowGroupCount;
+    }
+
+    /**
+     * Maximum size of the column chunks of the row groups read ahead of the current one.
+     */
+    public DataSize getMaxPrefetchSize()
+    {
+        return maxPrefetchSize;
+    }
+
+    /**
+     * Executor that reads the prefetched column chunks. Column chunks are not prefetched without it.
+     */
+    public Optional<Executor> getPrefetchExecutor()
+    {
+        return prefetchExecutor;
+    }
+
     public static class Builder
     {
         private boolean ignoreStatistics;
@@ -155,6 +211,10 @@ public class ParquetReaderOptions
         private DataSize smallFileThreshold;
         private boolean vectorizedDecodingEnabled;
         private DataSize maxFooterReadSize;
+        private boolean encodedPredicateEvaluationEnabled;
+        private int prefetchRowGroupCount;
+        private DataSize maxPrefetchSize;
+        private Optional<Executor> prefetchExecutor;
 
         private Builder(ParquetReaderOptions parquetReaderOptions)
         {
@@ -169,6 +229,10 @@ public class ParquetReaderOptions
             this.smallFileThreshold = parquetReaderOptions.smallFileThreshold;
             this.vectorizedDecodingEnabled = parquetReaderOptions.vectorizedDecodingEnabled;
             this.maxFooterReadSize = parquetReaderOptions.maxFooterReadSize;
+            this.encodedPredicateEvaluationEnabled = parquetReaderOptions.encodedPredicateEvaluationEnabled;
+            this.prefetchRowGroupCount = parquetReaderOptions.prefetchRowGroupCount;
+            this.maxPrefetchSize = parquetReaderOptions.maxPrefetchSize;
+            this.prefetchExecutor = parquetReaderOptions.prefetchExecutor;
         }
 
         public Builder withIgnoreStatistics(boolean ignoreStatistics)
@@ -231,6 +295,30 @@ public class ParquetReaderOptions
             return this;
         }
 
+        public Builder withEncodedPredicateEvaluationEnabled(boolean encodedPredicateEvaluationEnabled)
+        {
+            this.encodedPredicateEvaluationEnabled = encodedPredicateEvaluationEnabled;
+            return this;
+        }
+
+        public Builder withPrefetchRowGroupCount(int prefetchRowGroupCount)
+        {
+            this.prefetchRowGroupCount = prefetchRowGroupCount;
+            return this;
+        }
+
+        public Builder withMaxPrefetchSize(DataSize maxPrefetchSize)
+        {
+            this.maxPrefetchSize = requireNonNull(maxPrefetchSize, "maxPrefetchSize is null");
+            return this;
+        }
+
+        public Builder withPrefetchExecutor(Executor prefetchExecutor)
+        {
+            this.prefetchExecutor = Optional.of(prefetchExecutor);
+            return this;
+        }
+
         public ParquetReaderOptions build()
         {
             return new ParquetReaderOptions(
@@ -243,7 +331,11 @@ public class ParquetReaderOptions
                     useBloomFilter,
                     smallFileThreshold,
                     vectorizedDecodingEnabled,
-                    maxFooterReadSize);
+                    maxFooterReadSize,
+                    encodedPredicateEvaluationEnabled,
+                    prefetchRowGroupCount,
+                    maxPrefetchSize,
+                    prefetchExecutor);
         }
     }
 }
@@ -16,6 +16,7 @@ package io.trino.parquet.predicate;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.VerifyException;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import io.trino.parquet.BloomFilterStore;
@@ -99,6 +100,14 @@ public class TupleDomainParquetPredicate
         this.timeZone = requireNonNull(timeZone, "timeZone is null");
     }
 
+    /**
+     * Returns the domains of the columns of the predicate, or an empty map if the predicate does not match any row.
+     */
+    public Map<ColumnDescriptor, Domain> getColumnDomains()
+    {
+        return effectivePredicate.getDomains().orElse(ImmutableMap.of());
+    }
+
     /**
      * Should the Parquet Reader process a file section with the specified statistics,
      * and if it should, then return the columns are candidates for further inspection of more
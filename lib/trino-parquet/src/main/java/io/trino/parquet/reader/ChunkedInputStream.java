@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.concurrent.Executor;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkPositionIndexes;
@@ -40,6 +41,7 @@ import static java.util.Objects.requireNonNull;
 public final class ChunkedInputStream
         extends InputStream
 {
+    private final Collection<? extends ChunkReader> allChunks;
     private final Iterator<? extends ChunkReader> chunks;
     private ChunkReader currentChunkReader;
     // current is explicitly initialized to EMPTY_SLICE as this field is set to null when the stream is closed
@@ -49,9 +51,23 @@ public final class ChunkedInputStream
     {
         requireNonNull(chunks, "chunks is null");
         checkArgument(!chunks.isEmpty(), "At least one chunk is expected but got none");
+        this.allChunks = chunks;
         this.chunks = chunks.iterator();
     }
 
+    /**
+     * Starts loading all chunks of the stream on the executor. Does nothing once reading has started.
+     */
+    public void prefetch(Executor executor)
+    {
+        if (currentChunkReader != null || current == null) {
+            return;
+        }
+        for (ChunkReader chunk : allChunks) {
+            chunk.prefetch(executor);
+        }
+    }
+
     public Slice getSlice(int length)
             throws IOException
     {
@@ -17,6 +17,7 @@ import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ListMultimap;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.errorprone.annotations.CheckReturnValue;
 import com.google.errorprone.annotations.FormatMethod;
 import io.airlift.log.Logger;
@@ -38,6 +39,7 @@ import io.trino.parquet.metadata.PrunedBlockMetadata;
 import io.trino.parquet.predicate.TupleDomainParquetPredicate;
 import io.trino.parquet.reader.FilteredOffsetIndex.OffsetRange;
 import io.trino.parquet.spark.Variant;
+import io.trino.plugin.base.filter.DomainBlockFilter;
 import io.trino.plugin.base.metrics.LongCount;
 import io.trino.spi.Page;
 import io.trino.spi.block.ArrayBlock;
@@ -50,6 +52,7 @@ import io.trino.spi.block.RunLengthEncodedBlock;
 import io.trino.spi.connector.SourcePage;
 import io.trino.spi.metrics.Metric;
 import io.trino.spi.metrics.Metrics;
+import io.trino.spi.predicate.Domain;
 import io.trino.spi.type.ArrayType;
 import io.trino.spi.type.MapType;
 import io.trino.spi.type.RowType;
@@ -73,6 +76,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.ObjLongConsumer;
 
@@ -108,6 +112,7 @@ public class ParquetReader
     private static final int BATCH_SIZE_GROWTH_FACTOR = 2;
     public static final String PARQUET_CODEC_METRIC_PREFIX = "ParquetReaderCompressionFormat_";
     public static final String COLUMN_INDEX_ROWS_FILTERED = "ParquetColumnIndexRowsFiltered";
+    public static final String ENCODED_PREDICATE_ROWS_FILTERED = "ParquetEncodedPredicateRowsFiltered";
 
     private final Optional<String> fileCreatedBy;
     private final List<RowGroupInfo> rowGroups;
@@ -140,6 +145,10 @@ public class ParquetReader
 
     private AggregatedMemoryContext currentRowGroupMemoryContext;
     private final Map<ChunkKey, ChunkedInputStream> chunkReaders;
+    private final long[] rowGroupDataSizes;
+    // the executor is shared by all readers, each reader prefetches its column chunks one after another
+    private final Optional<Executor> prefetchExecutor;
+    private int lastPrefetchedRowGroup = -1;
     private final Optional<ParquetWriteValidation> writeValidation;
     private final Optional<WriteChecksumBuilder> writeChecksumBuilder;
     private final Optional<StatisticsValidation> rowGroupStatisticsValidation;
@@ -151,6 +160,11 @@ public class ParquetReader
 
     private long columnIndexRowsFiltered = -1;
 
+    // filters of the predicate evaluated on dictionary and run length encoded blocks, by channel
+    private final Map<Integer, DomainBlockFilter> encodedPredicateFilters;
+    private int[] selectedPositions = new int[0];
+    private long encodedPredicateRowsFiltered;
+
     public ParquetReader(
             Optional<String> fileCreatedBy,
             List<Column> columnFields,
@@ -177,6 +191,7 @@ public class ParquetReader
         this.memoryContext = requireNonNull(memoryContext, "memoryContext is null");
         this.currentRowGroupMemoryContext = memoryContext.newAggregatedMemoryContext();
         this.options = requireNonNull(options, "options is null");
+        this.prefetchExecutor = options.getPrefetchExecutor().map(MoreExecutors::newSequentialExecutor);
         this.maxBatchSize = options.getMaxReadBlockRowCount();
         this.columnReaders = new HashMap<>();
         this.maxBytesPerCell = new HashMap<>();
@@ -197,10 +212,12 @@ public class ParquetReader
             filter = parquetPredicate.get().toParquetFilter(timeZone);
         }
         this.blockRowRanges = calculateFilteredRowRanges(rowGroups, filter, primitiveFields);
+        this.encodedPredicateFilters = createEncodedPredicateFilters(columnFields, parquetPredicate, options, writeValidation);
 
         this.exceptionTransform = exceptionTransform;
         ListMultimap<ChunkKey, DiskRange> ranges = ArrayListMultimap.create();
         Map<String, LongCount> codecMetrics = new HashMap<>();
+        this.rowGroupDataSizes = new long[rowGroups.size()];
         for (int rowGroup = 0; rowGroup < rowGroups.size(); rowGroup++) {
             PrunedBlockMetadata blockMetadata = rowGroups.get(rowGroup).prunedBlockMetadata();
             long rowGroupRowCount = blockMetadata.getRowCount();
@@ -231,6 +248,7 @@ public class ParquetReader
                     // Initialize columnIndexRowsFiltered only when column indexes are found and used
                     columnIndexRowsFiltered = 0;
                 }
+                rowGroupDataSizes[rowGroup] += totalDataSize;
                 // Update the metrics which records the codecs used along with data size
                 codecMetrics.merge(
                         PARQUET_CODEC_METRIC_PREFIX + chunkMetadata.getCodec().name(),
@@ -264,15 +282,49 @@ public class ParquetReader
     public SourcePage nextPage()
             throws IOException
     {
-        int batchSize = nextBatch();
-        if (batchSize <= 0) {
-            return null;
+        while (true) {
+            int batchSize = nextBatch();
+            if (batchSize <= 0) {
+                return null;
+            }
+            // create a lazy page
+            currentPageId++;
+            SourcePage page = new ParquetSourcePage(batchSize);
+            // the other columns of a batch without matching rows are never decoded, their readers skip the batch
+            if (applyEncodedPredicate(page)) {
+                validateWritePageChecksum(page);
+                return page;
+            }
+        }
+    }
+
+    /**
+     * Filters the page on the columns of the predicate which are dictionary or run length encoded.
+     *
+     * @return false if no row of the page matches the predicate
+     */
+    private boolean applyEncodedPredicate(SourcePage page)
+    {
+        for (Map.Entry<Integer, DomainBlockFilter> entry : encodedPredicateFilters.entrySet()) {
+            Block block = page.getBlock(entry.getKey());
+            if (!DomainBlockFilter.isEncoded(block)) {
+                // decoded values are left to the engine
+                continue;
+            }
+            int positionCount = block.getPositionCount();
+            if (selectedPositions.length < positionCount) {
+                selectedPositions = new int[positionCount];
+            }
+            int selectedCount = entry.getValue().filter(block, selectedPositions);
+            if (selectedCount < positionCount) {
+                encodedPredicateRowsFiltered += positionCount - selectedCount;
+                if (selectedCount == 0) {
+                    return false;
+                }
+                page.selectPositions(selectedPositions, 0, selectedCount);
+            }
         }
-        // create a lazy page
-        currentPageId++;
-        SourcePage page = new ParquetSourcePage(batchSize);
-        validateWritePageChecksum(page);
-        return page;
+        return true;
     }
 
     private class ParquetSourcePage
@@ -495,9 +547,41 @@ public class ParquetReader
         }
         nextRowInGroup = 0L;
         initializeColumnReaders();
+        prefetchRowGroups();
         return true;
     }
 
+    /**
+     * Starts reading the column chunks of the current row group and of the following row groups
+     * in the background, as long as the following row groups fit in the prefetch size.
+     */
+    private void prefetchRowGroups()
+    {
+        if (options.getPrefetchRowGroupCount() == 0 || prefetchExecutor.isEmpty()) {
+            return;
+        }
+        long maxPrefetchSize = options.getMaxPrefetchSize().toBytes();
+        long prefetchSize = 0;
+        int lastRowGroup = min(currentRowGroup + options.getPrefetchRowGroupCount(), rowGroups.size() - 1);
+        for (int rowGroup = currentRowGroup; rowGroup <= lastRowGroup; rowGroup++) {
+            if (rowGroup > currentRowGroup) {
+                prefetchSize += rowGroupDataSizes[rowGroup];
+                if (prefetchSize > maxPrefetchSize) {
+                    return;
+                }
+            }
+            if (rowGroup > lastPrefetchedRowGroup) {
+                for (PrimitiveField field : primitiveFields) {
+                    ChunkedInputStream chunkedStream = chunkReaders.get(new ChunkKey(field.getId(), rowGroup));
+                    if (chunkedStream != null) {
+                        chunkedStream.prefetch(prefetchExecutor.get());
+                    }
+                }
+                lastPrefetchedRowGroup = rowGroup;
+            }
+        }
+    }
+
     private void freeCurrentRowGroupBuffers()
     {
         if (currentRowGroup < 0) {
@@ -693,10 +777,14 @@ public class ParquetReader
     public Metrics getMetrics()
     {
         ImmutableMap.Builder<String, Metric<?>> metrics = ImmutableMap.<String, Metric<?>>builder()
-                .putAll(codecMetrics);
+                .putAll(codecMetrics)
+                .putAll(dataSource.getMetrics().getMetrics());
         if (columnIndexRowsFiltered >= 0) {
             metrics.put(COLUMN_INDEX_ROWS_FILTERED, new LongCount(columnIndexRowsFiltered));
         }
+        if (!encodedPredicateFilters.isEmpty()) {
+            metrics.put(ENCODED_PREDICATE_ROWS_FILTERED, new LongCount(encodedPredicateRowsFiltered));
+        }
 
         return new Metrics(metrics.buildOrThrow());
     }
@@ -710,6 +798,30 @@ public class ParquetReader
         }
     }
 
+    private static Map<Integer, DomainBlockFilter> createEncodedPredicateFilters(
+            List<Column> columnFields,
+            Optional<TupleDomainParquetPredicate> parquetPredicate,
+            ParquetReaderOptions options,
+            Optional<ParquetWriteValidation> writeValidation)
+    {
+        // write validation needs every row of the file
+        if (!options.isEncodedPredicateEvaluationEnabled() || parquetPredicate.isEmpty() || writeValidation.isPresent()) {
+            return ImmutableMap.of();
+        }
+        Map<ColumnDescriptor, Domain> domains = parquetPredicate.get().getColumnDomains();
+        ImmutableMap.Builder<Integer, DomainBlockFilter> filters = ImmutableMap.builder();
+        for (int channel = 0; channel < columnFields.size(); channel++) {
+            // only top level columns, whose values are read with the type of the domain
+            if (columnFields.get(channel).field() instanceof PrimitiveField field) {
+                Domain domain = domains.get(field.getDescriptor());
+                if (domain != null && !domain.isAll() && domain.getType().equals(field.getType())) {
+                    filters.put(channel, new DomainBlockFilter(domain));
+                }
+            }
+        }
+        return filters.buildOrThrow();
+    }
+
     public static List<PrimitiveField> getPrimitiveFields(List<Field> fields)
     {
         Map<Integer, PrimitiveField> primitiveFields = new HashMap<>();
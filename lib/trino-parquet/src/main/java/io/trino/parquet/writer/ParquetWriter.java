@@ -58,6 +58,7 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -80,6 +81,7 @@ import static io.trino.parquet.ParquetTypeUtils.lookupColumnByName;
 import static io.trino.parquet.ParquetWriteValidation.ParquetWriteValidationBuilder;
 import static io.trino.parquet.metadata.PrunedBlockMetadata.createPrunedColumnsMetadata;
 import static io.trino.parquet.writer.ParquetDataOutput.createDataOutput;
+import static io.trino.plugin.base.util.ExecutorUtil.forEachWithAdditionalThreads;
 import static io.trino.spi.type.BigintType.BIGINT;
 import static io.trino.spi.type.DoubleType.DOUBLE;
 import static io.trino.spi.type.IntegerType.INTEGER;
@@ -90,6 +92,7 @@ import static io.trino.spi.type.VarcharType.VARCHAR;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.Collections.nCopies;
 import static java.util.Objects.requireNonNull;
 
 public class ParquetWriter
@@ -194,12 +197,8 @@ public class ParquetWriter
     private void writeChunk(Page page)
             throws IOException
     {
-        bufferedBytes = 0;
-        for (int channel = 0; channel < page.getChannelCount(); channel++) {
-            ColumnWriter writer = columnWriters.get(channel);
-            writer.writeBlock(new ColumnChunk(page.getBlock(channel)));
-            bufferedBytes += writer.getBufferedBytes();
-        }
+        forEachColumnWriter((writer, channel) -> writer.writeBlock(new ColumnChunk(page.getBlock(channel))));
+        bufferedBytes = columnWriters.stream().mapToLong(ColumnWriter::getBufferedBytes).sum();
         rows += page.getPositionCount();
 
         if (bufferedBytes >= writerOption.getMaxRowGroupSize()) {
@@ -318,11 +317,11 @@ public class ParquetWriter
             writeHeader = true;
         }
 
-        // get all data in buffer
+        // get all data in buffer, the last pages of the columns are compressed in parallel
+        List<List<BufferData>> columnBuffers = new ArrayList<>(nCopies(columnWriters.size(), null));
+        forEachColumnWriter((writer, channel) -> columnBuffers.set(channel, writer.getBuffer()));
         ImmutableList.Builder<BufferData> builder = ImmutableList.builder();
-        for (ColumnWriter columnWriter : columnWriters) {
-            columnWriter.getBuffer().forEach(builder::add);
-        }
+        columnBuffers.forEach(builder::addAll);
         List<BufferData> bufferDataList = builder.build();
 
         if (rows == 0) {
@@ -359,6 +358,32 @@ public class ParquetWriter
         bloomFilterGroups.add(bufferDataList.stream().map(BufferData::getBloomFilter).collect(toImmutableList()));
     }
 
+    /**
+     * Runs the task for the column writer of every channel. Column writers do not share any state,
+     * so they may run in parallel on the encoding executor of the writer options.
+     */
+    private void forEachColumnWriter(ColumnWriterTask task)
+            throws IOException
+    {
+        try {
+            forEachWithAdditionalThreads(
+                    columnWriters,
+                    (writer, channel) -> {
+                        try {
+                            task.run(writer, channel);
+                        }
+                        catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    },
+                    writerOption.getEncodingParallelism(),
+                    writerOption.getEncodingExecutor());
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     private void writeFooter()
             throws IOException
     {
@@ -452,6 +477,12 @@ public class ParquetWriter
                 parquetTimeZone);
     }
 
+    private interface ColumnWriterTask
+    {
+        void run(ColumnWriter writer, int channel)
+                throws IOException;
+    }
+
     private static class FileFooter
     {
         private final MessageType messageType;
@@ -19,9 +19,12 @@ import io.airlift.units.DataSize;
 import org.apache.parquet.column.ParquetProperties;
 
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.Objects.requireNonNull;
 
 public class ParquetWriterOptions
 {
@@ -33,6 +36,7 @@ public class ParquetWriterOptions
     public static final int DEFAULT_BATCH_SIZE = 10_000;
     public static final DataSize DEFAULT_MAX_BLOOM_FILTER_SIZE = DataSize.of(1, MEGABYTE);
     public static final double DEFAULT_BLOOM_FILTER_FPP = 0.05;
+    private static final int DEFAULT_ENCODING_PARALLELISM = 1;
 
     public static ParquetWriterOptions.Builder builder()
     {
@@ -47,6 +51,8 @@ public class ParquetWriterOptions
     private final double bloomFilterFpp;
     // Set of column dot paths to columns with bloom filters
     private final Set<String> bloomFilterColumns;
+    private final Executor encodingExecutor;
+    private final int encodingParallelism;
 
     private ParquetWriterOptions(
             DataSize maxBlockSize,
@@ -55,7 +61,9 @@ public class ParquetWriterOptions
             int batchSize,
             DataSize maxBloomFilterSize,
             double bloomFilterFpp,
-            Set<String> bloomFilterColumns)
+            Set<String> bloomFilterColumns,
+            Executor encodingExecutor,
+            int encodingParallelism)
     {
         this.maxRowGroupSize = Ints.saturatedCast(maxBlockSize.toBytes());
         this.maxPageSize = Ints.saturatedCast(maxPageSize.toBytes());
@@ -64,7 +72,10 @@ public class ParquetWriterOptions
         this.maxBloomFilterSize = Ints.saturatedCast(maxBloomFilterSize.toBytes());
         this.bloomFilterFpp = bloomFilterFpp;
         this.bloomFilterColumns = ImmutableSet.copyOf(bloomFilterColumns);
+        this.encodingExecutor = requireNonNull(encodingExecutor, "encodingExecutor is null");
+        this.encodingParallelism = encodingParallelism;
         checkArgument(this.bloomFilterFpp > 0.0 && this.bloomFilterFpp < 1.0, "bloomFilterFpp should be > 0.0 & < 1.0");
+        checkArgument(encodingParallelism >= 1, "encodingParallelism must be at least 1");
     }
 
     public int getMaxRowGroupSize()
@@ -102,6 +113,22 @@ public class ParquetWriterOptions
         return bloomFilterFpp;
     }
 
+    /**
+     * Executor encoding the columns of a row group in addition to the thread writing the data.
+     */
+    public Executor getEncodingExecutor()
+    {
+        return encodingExecutor;
+    }
+
+    /**
+     * Maximum number of threads encoding the columns of a row group, including the thread writing the data.
+     */
+    public int getEncodingParallelism()
+    {
+        return encodingParallelism;
+    }
+
     public static class Builder
     {
         private DataSize maxBlockSize = DEFAULT_MAX_ROW_GROUP_SIZE;
@@ -111,6 +138,8 @@ public class ParquetWriterOptions
         private DataSize maxBloomFilterSize = DEFAULT_MAX_BLOOM_FILTER_SIZE;
         private Set<String> bloomFilterColumns = ImmutableSet.of();
         private double bloomFilterFpp = DEFAULT_BLOOM_FILTER_FPP;
+        private Executor encodingExecutor = directExecutor();
+        private int encodingParallelism = DEFAULT_ENCODING_PARALLELISM;
 
         public Builder setMaxBlockSize(DataSize maxBlockSize)
         {
@@ -154,6 +183,13 @@ public class ParquetWriterOptions
             return this;
         }
 
+        public Builder setEncodingExecutor(Executor encodingExecutor, int encodingParallelism)
+        {
+            this.encodingExecutor = encodingExecutor;
+            this.encodingParallelism = encodingParallelism;
+            return this;
+        }
+
         public ParquetWriterOptions build()
         {
             return new ParquetWriterOptions(
@@ -163,7 +199,9 @@ public class ParquetWriterOptions
                     batchSize,
                     maxBloomFilterSize,
                     bloomFilterFpp,
-                    bloomFilterColumns);
+                    bloomFilterColumns,
+                    encodingExecutor,
+                    encodingParallelism);
         }
     }
 }
@@ -25,14 +25,21 @@ import io.trino.memory.context.AggregatedMemoryContext;
 import io.trino.parquet.ChunkReader;
 import io.trino.parquet.DiskRange;
 import io.trino.parquet.ParquetReaderOptions;
+import io.trino.plugin.base.metrics.LongCount;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.IntStream;
 
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.trino.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.trino.parquet.AbstractParquetDataSource.PREFETCH_BYTES;
+import static io.trino.parquet.AbstractParquetDataSource.PREFETCH_HITS;
+import static io.trino.parquet.AbstractParquetDataSource.PREFETCH_MISSES;
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class TestParquetDataSource
@@ -181,6 +188,51 @@ public class TestParquetDataSource
         assertThat(memoryContext.getBytes()).isEqualTo(50);
     }
 
+    @Test
+    public void testPrefetch()
+            throws IOException
+    {
+        Slice testingInput = createTestingInput();
+        TestingParquetDataSource dataSource = new TestingParquetDataSource(
+                testingInput,
+                ParquetReaderOptions.builder()
+                        .withMaxBufferSize(DataSize.ofBytes(500))
+                        .withMaxMergeDistance(DataSize.ofBytes(0))
+                        .build());
+        AggregatedMemoryContext memoryContext = newSimpleAggregatedMemoryContext();
+        Map<String, ChunkedInputStream> inputStreams = dataSource.planRead(
+                ImmutableListMultimap.<String, DiskRange>builder()
+                        .put("1", new DiskRange(0, 200))
+                        .put("1", new DiskRange(250, 50))
+                        .put("2", new DiskRange(400, 100))
+                        .build(),
+                memoryContext);
+
+        inputStreams.get("1").prefetch(directExecutor());
+        // all chunks of the stream are loaded
+        assertThat(memoryContext.getBytes()).isEqualTo(250);
+        assertThat(inputStreams.get("1").getSlice(200)).isEqualTo(testingInput.slice(0, 200));
+
+        // a queued prefetch does not delay the read
+        List<Runnable> queuedTasks = new ArrayList<>();
+        inputStreams.get("2").prefetch(queuedTasks::add);
+        assertThat(memoryContext.getBytes()).isEqualTo(250);
+        assertThat(inputStreams.get("2").getSlice(100)).isEqualTo(testingInput.slice(400, 100));
+        assertThat(memoryContext.getBytes()).isEqualTo(350);
+        queuedTasks.forEach(Runnable::run);
+        assertThat(memoryContext.getBytes()).isEqualTo(350);
+
+        assertThat(dataSource.getMetrics().getMetrics())
+                .containsEntry(PREFETCH_HITS, new LongCount(1))
+                .containsEntry(PREFETCH_MISSES, new LongCount(1))
+                .containsEntry(PREFETCH_BYTES, new LongCount(200));
+
+        inputStreams.get("1").close();
+        inputStreams.get("2").close();
+        assertThat(memoryContext.getBytes()).isEqualTo(0);
+        assertThat(dataSource.getReadBytes()).isEqualTo(350);
+    }
+
     private static Slice createTestingInput()
     {
         Slice testingInput = Slices.allocate(4000);
@@ -23,8 +23,10 @@ import io.trino.parquet.ParquetReaderOptions;
 import io.trino.parquet.metadata.BlockMetadata;
 import io.trino.parquet.metadata.ParquetMetadata;
 import io.trino.parquet.writer.ParquetWriterOptions;
+import io.trino.spi.Page;
 import io.trino.spi.TrinoException;
 import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
 import io.trino.spi.connector.SourcePage;
 import io.trino.spi.metrics.Count;
 import io.trino.spi.metrics.Metric;
@@ -45,11 +47,13 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import static io.airlift.slice.Slices.utf8Slice;
 import static io.trino.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.trino.parquet.ParquetTestUtils.createParquetReader;
 import static io.trino.parquet.ParquetTestUtils.generateInputPages;
 import static io.trino.parquet.ParquetTestUtils.writeParquetFile;
 import static io.trino.parquet.reader.ParquetReader.COLUMN_INDEX_ROWS_FILTERED;
+import static io.trino.parquet.reader.ParquetReader.ENCODED_PREDICATE_ROWS_FILTERED;
 import static io.trino.spi.type.BigintType.BIGINT;
 import static io.trino.spi.type.DateType.DATE;
 import static io.trino.spi.type.IntegerType.INTEGER;
@@ -153,6 +157,67 @@ public class TestParquetReader
         }
     }
 
+    @Test
+    public void testEncodedPredicateEvaluation()
+            throws IOException
+    {
+        // the keys alternate between runs of nulls, read as run length encoded blocks, and dictionary encoded values
+        int rowCount = 40_000;
+        BlockBuilder keys = VARCHAR.createBlockBuilder(null, rowCount);
+        BlockBuilder values = BIGINT.createFixedSizeBlockBuilder(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            if (row % 20_000 < 10_000) {
+                keys.appendNull();
+            }
+            else {
+                VARCHAR.writeSlice(keys, utf8Slice(String.valueOf((char) ('a' + row % 3))));
+            }
+            BIGINT.writeLong(values, row);
+        }
+        List<String> columnNames = ImmutableList.of("key", "value");
+        List<Type> types = ImmutableList.of(VARCHAR, BIGINT);
+
+        ParquetDataSource dataSource = new TestingParquetDataSource(
+                writeParquetFile(
+                        ParquetWriterOptions.builder().build(),
+                        types,
+                        columnNames,
+                        ImmutableList.of(new Page(keys.build(), values.build()))),
+                ParquetReaderOptions.defaultOptions());
+        ParquetMetadata parquetMetadata = MetadataReader.readFooter(dataSource);
+        parquetMetadata.getBlocks().forEach(block -> assertThat(block.columns().get(0).getEncodingStats().hasDictionaryEncodedPages()).isTrue());
+
+        ParquetReaderOptions options = ParquetReaderOptions.builder()
+                .withEncodedPredicateEvaluationEnabled(true)
+                .build();
+        TupleDomain<String> predicate = TupleDomain.withColumnDomains(ImmutableMap.of("key", Domain.singleValue(VARCHAR, utf8Slice("b"))));
+        try (ParquetReader reader = createParquetReader(dataSource, parquetMetadata, options, newSimpleAggregatedMemoryContext(), types, columnNames, predicate, true)) {
+            // only the rows with the key are returned, and the row numbers are the positions of the rows in the file
+            ImmutableList.Builder<Long> expectedRows = ImmutableList.builder();
+            for (long row = 0; row < rowCount; row++) {
+                if (row % 20_000 >= 10_000 && row % 3 == 1) {
+                    expectedRows.add(row);
+                }
+            }
+            ImmutableList.Builder<Long> rows = ImmutableList.builder();
+            for (SourcePage page = reader.nextPage(); page != null; page = reader.nextPage()) {
+                Block keyBlock = page.getBlock(0);
+                Block valueBlock = page.getBlock(1);
+                Block rowNumberBlock = page.getBlock(2);
+                for (int position = 0; position < page.getPositionCount(); position++) {
+                    assertThat(VARCHAR.getSlice(keyBlock, position).toStringUtf8()).isEqualTo("b");
+                    assertThat(BIGINT.getLong(rowNumberBlock, position)).isEqualTo(BIGINT.getLong(valueBlock, position));
+                    rows.add(BIGINT.getLong(valueBlock, position));
+                }
+            }
+            List<Long> actualRows = rows.build();
+            assertThat(actualRows).isEqualTo(expectedRows.build());
+            Map<String, Metric<?>> metrics = reader.getMetrics().getMetrics();
+            assertThat(((Count<?>) metrics.get(ENCODED_PREDICATE_ROWS_FILTERED)).getTotal())
+                    .isEqualTo(rowCount - actualRows.size());
+        }
+    }
+
     @Test
     public void testBackwardsCompatibleRepeatedStringField()
             throws Exception
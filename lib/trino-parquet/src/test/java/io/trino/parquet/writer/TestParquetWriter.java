@@ -63,6 +63,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
@@ -89,6 +90,7 @@ import static io.trino.spi.type.VarbinaryType.VARBINARY;
 import static io.trino.spi.type.VarcharType.VARCHAR;
 import static java.lang.Float.floatToRawIntBits;
 import static java.lang.Math.toIntExact;
+import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.stream.Collectors.toList;
 import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT32;
 import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
@@ -416,6 +418,43 @@ public class TestParquetWriter
         }
     }
 
+    @Test
+    public void testEncodingParallelism()
+            throws IOException
+    {
+        List<String> columnNames = ImmutableList.of("columnA", "columnB", "columnC", "columnD", "columnE");
+        List<Type> types = ImmutableList.of(INTEGER, BIGINT, TINYINT, DecimalType.createDecimalType(12), BIGINT);
+        List<io.trino.spi.Page> inputPages = generateInputPages(types, 1000, 20);
+
+        Slice sequential = writeParquetFile(
+                ParquetWriterOptions.builder()
+                        .setMaxBlockSize(DataSize.ofBytes(20 * 1024))
+                        .build(),
+                types,
+                columnNames,
+                inputPages);
+        ExecutorService encodingExecutor = newCachedThreadPool();
+        Slice parallel;
+        try {
+            parallel = writeParquetFile(
+                    ParquetWriterOptions.builder()
+                            .setMaxBlockSize(DataSize.ofBytes(20 * 1024))
+                            .setEncodingExecutor(encodingExecutor, 3)
+                            .build(),
+                    types,
+                    columnNames,
+                    inputPages);
+        }
+        finally {
+            encodingExecutor.shutdownNow();
+        }
+
+        // the column chunks are written in the same order, so the files are identical
+        assertThat(parallel).isEqualTo(sequential);
+        ParquetMetadata parquetMetadata = MetadataReader.readFooter(new TestingParquetDataSource(parallel, ParquetReaderOptions.defaultOptions()));
+        assertThat(parquetMetadata.getBlocks().size()).isGreaterThan(1);
+    }
+
     @ParameterizedTest
     @MethodSource("testWriteBloomFiltersParams")
     public void testWriteBloomFilters(Type type, List<?> data)
@@ -0,0 +1,130 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.base.filter;
+
+import io.trino.spi.block.Block;
+import io.trino.spi.block.DictionaryBlock;
+import io.trino.spi.block.RunLengthEncodedBlock;
+import io.trino.spi.predicate.Domain;
+import io.trino.spi.type.Type;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.trino.spi.type.TypeUtils.readNativeValue;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Evaluates the domain of a column directly on encoded blocks, before the other columns of the
+ * page are decoded. A run length encoded block is evaluated once, and a dictionary block is
+ * evaluated once per referenced dictionary entry. The result of a dictionary entry is kept for
+ * as long as the same dictionary is used, which is usually the whole column chunk or stripe.
+ * <p>
+ * The filter only removes rows which do not match the domain, so it can be applied ahead of
+ * the engine, which evaluates the complete predicate anyway.
+ */
+public class DomainBlockFilter
+{
+    private static final byte UNKNOWN = 0;
+    private static final byte INCLUDED = 1;
+    private static final byte EXCLUDED = 2;
+
+    private final Domain domain;
+    private final Type type;
+
+    private Block lastDictionary;
+    private byte[] dictionaryResults = new byte[0];
+
+    public DomainBlockFilter(Domain domain)
+    {
+        this.domain = requireNonNull(domain, "domain is null");
+        this.type = domain.getType();
+    }
+
+    /**
+     * Returns true if the values of the block can be evaluated without decoding them.
+     */
+    public static boolean isEncoded(Block block)
+    {
+        return block instanceof DictionaryBlock || block instanceof RunLengthEncodedBlock;
+    }
+
+    /**
+     * Stores the positions of the block matching the domain at the beginning of {@code selectedPositions}.
+     *
+     * @return the number of selected positions
+     */
+    public int filter(Block block, int[] selectedPositions)
+    {
+        int positionCount = block.getPositionCount();
+        checkArgument(selectedPositions.length >= positionCount, "selectedPositions is too small");
+        if (domain.isNone()) {
+            return 0;
+        }
+        if (domain.isAll()) {
+            return selectAll(positionCount, selectedPositions);
+        }
+
+        return switch (block) {
+            case RunLengthEncodedBlock rle -> includes(rle.getValue(), 0) ? selectAll(positionCount, selectedPositions) : 0;
+            case DictionaryBlock dictionaryBlock -> filterDictionary(dictionaryBlock, selectedPositions);
+            default -> {
+                int selected = 0;
+                for (int position = 0; position < positionCount; position++) {
+                    if (includes(block, position)) {
+                        selectedPositions[selected++] = position;
+                    }
+                }
+                yield selected;
+            }
+        };
+    }
+
+    private int filterDictionary(DictionaryBlock block, int[] selectedPositions)
+    {
+        Block dictionary = block.getDictionary();
+        if (dictionary != lastDictionary) {
+            lastDictionary = dictionary;
+            dictionaryResults = new byte[dictionary.getPositionCount()];
+        }
+
+        int selected = 0;
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            int id = block.getId(position);
+            byte result = dictionaryResults[id];
+            if (result == UNKNOWN) {
+                result = includes(dictionary, id) ? INCLUDED : EXCLUDED;
+                dictionaryResults[id] = result;
+            }
+            if (result == INCLUDED) {
+                selectedPositions[selected++] = position;
+            }
+        }
+        return selected;
+    }
+
+    private boolean includes(Block block, int position)
+    {
+        if (block.isNull(position)) {
+            return domain.isNullAllowed();
+        }
+        return domain.includesNullableValue(readNativeValue(type, block, position));
+    }
+
+    private static int selectAll(int positionCount, int[] selectedPositions)
+    {
+        for (int position = 0; position < positionCount; position++) {
+            selectedPositions[position] = position;
+        }
+        return positionCount;
+    }
+}
@@ -13,6 +13,8 @@
  */
 package io.trino.plugin.base.util;
 
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.errorprone.annotations.ThreadSafe;
 import com.google.errorprone.annotations.concurrent.GuardedBy;
 import io.opentelemetry.context.Context;
@@ -26,8 +28,13 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.ObjIntConsumer;
 
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.util.concurrent.Uninterruptibles.getUninterruptibly;
+import static java.lang.Math.min;
 import static java.util.Collections.nCopies;
 import static java.util.Objects.requireNonNull;
 
@@ -118,6 +125,126 @@ public final class ExecutorUtil
         }
     }
 
+    /**
+     * Run tasks in executors and additionally in calling thread, and return once all tasks are done.
+     * Tasks which are not started by the executor by the time the calling thread gets to them
+     * are run in the calling thread, so a saturated executor does not delay the caller.
+     * Unlike {@link #processWithAdditionalThreads}, a task failure does not cancel the other tasks,
+     * and the method waits for all running tasks before rethrowing the failure, so no task runs
+     * after the method returns.
+     * <p>
+     * This method propagates {@link Context#current()} into tasks it starts within the executor.
+     */
+    public static void runWithAdditionalThreads(List<Runnable> tasks, Executor executor)
+    {
+        List<RunnableTask> wrapped = tasks.stream()
+                .map(RunnableTask::new)
+                .collect(toImmutableList());
+        Context tracingContext = Context.current();
+
+        // the first task always runs in the calling thread
+        for (int i = 1; i < wrapped.size(); i++) {
+            RunnableTask task = wrapped.get(i);
+            try {
+                executor.execute(() -> {
+                    try (var _ = tracingContext.makeCurrent()) {
+                        task.run();
+                    }
+                });
+            }
+            catch (RejectedExecutionException e) {
+                // the remaining tasks run in the calling thread
+                break;
+            }
+        }
+        // process in the calling thread (in reverse order, as an optimization)
+        for (RunnableTask task : wrapped.reversed()) {
+            task.run();
+        }
+
+        Throwable failure = null;
+        for (RunnableTask task : wrapped) {
+            try {
+                getUninterruptibly(task.getDone());
+            }
+            catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+                else if (failure != e.getCause()) {
+                    failure.addSuppressed(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throwIfUnchecked(failure);
+            throw new RuntimeException(failure);
+        }
+    }
+
+    /**
+     * Run the action for every element and its index. The elements are split round-robin into at most
+     * {@code parallelism} groups, which run with {@link #runWithAdditionalThreads}, so the action must be
+     * safe to run concurrently for different elements.
+     */
+    public static <T> void forEachWithAdditionalThreads(List<T> elements, ObjIntConsumer<T> action, int parallelism, Executor executor)
+    {
+        int groupCount = min(parallelism, elements.size());
+        if (groupCount <= 1) {
+            for (int i = 0; i < elements.size(); i++) {
+                action.accept(elements.get(i), i);
+            }
+            return;
+        }
+
+        List<Runnable> groups = new ArrayList<>(groupCount);
+        for (int group = 0; group < groupCount; group++) {
+            int firstIndex = group;
+            groups.add(() -> {
+                for (int i = firstIndex; i < elements.size(); i += groupCount) {
+                    action.accept(elements.get(i), i);
+                }
+            });
+        }
+        runWithAdditionalThreads(groups, executor);
+    }
+
+    @ThreadSafe
+    private static final class RunnableTask
+    {
+        private final Runnable runnable;
+        private final SettableFuture<Void> done = SettableFuture.create();
+        @GuardedBy("this")
+        private boolean taken;
+
+        public RunnableTask(Runnable runnable)
+        {
+            this.runnable = requireNonNull(runnable, "runnable is null");
+        }
+
+        public void run()
+        {
+            synchronized (this) {
+                if (taken) {
+                    return;
+                }
+                taken = true;
+            }
+            try {
+                runnable.run();
+                done.set(null);
+            }
+            catch (Throwable t) {
+                done.setException(t);
+            }
+        }
+
+        public ListenableFuture<Void> getDone()
+        {
+            return done;
+        }
+    }
+
     @ThreadSafe
     private static final class Task<T>
     {
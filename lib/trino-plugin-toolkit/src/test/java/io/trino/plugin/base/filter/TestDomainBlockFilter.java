@@ -0,0 +1,105 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.base.filter;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.block.DictionaryBlock;
+import io.trino.spi.block.RunLengthEncodedBlock;
+import io.trino.spi.predicate.Domain;
+import io.trino.spi.predicate.Range;
+import io.trino.spi.predicate.ValueSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestDomainBlockFilter
+{
+    @Test
+    public void testFlatBlock()
+    {
+        Block block = bigintBlock(1L, null, 5L, 10L, 7L);
+
+        assertSelected(Domain.singleValue(BIGINT, 5L), block, 2);
+        assertSelected(Domain.create(ValueSet.ofRanges(Range.greaterThanOrEqual(BIGINT, 7L)), true), block, 1, 3, 4);
+        assertSelected(Domain.multipleValues(BIGINT, ImmutableList.of(1L, 10L)), block, 0, 3);
+        assertSelected(Domain.onlyNull(BIGINT), block, 1);
+        assertSelected(Domain.all(BIGINT), block, 0, 1, 2, 3, 4);
+        assertSelected(Domain.none(BIGINT), block);
+    }
+
+    @Test
+    public void testRunLengthEncodedBlock()
+    {
+        Block block = RunLengthEncodedBlock.create(bigintBlock(5L), 3);
+
+        assertSelected(Domain.singleValue(BIGINT, 5L), block, 0, 1, 2);
+        assertSelected(Domain.singleValue(BIGINT, 6L), block);
+        assertSelected(Domain.notNull(BIGINT), RunLengthEncodedBlock.create(BIGINT, null, 3));
+        assertSelected(Domain.onlyNull(BIGINT), RunLengthEncodedBlock.create(BIGINT, null, 3), 0, 1, 2);
+    }
+
+    @Test
+    public void testDictionaryBlock()
+    {
+        BlockBuilder dictionaryBuilder = VARCHAR.createBlockBuilder(null, 3);
+        VARCHAR.writeSlice(dictionaryBuilder, utf8Slice("apple"));
+        VARCHAR.writeSlice(dictionaryBuilder, utf8Slice("banana"));
+        dictionaryBuilder.appendNull();
+        Block dictionary = dictionaryBuilder.build();
+
+        DomainBlockFilter filter = new DomainBlockFilter(Domain.create(ValueSet.of(VARCHAR, utf8Slice("banana")), true));
+        Block block = DictionaryBlock.create(6, dictionary, new int[] {0, 1, 2, 1, 0, 1});
+        assertSelected(filter, block, 1, 2, 3, 5);
+
+        // the results of the dictionary entries are reused by the next block with the same dictionary
+        block = DictionaryBlock.create(3, dictionary, new int[] {1, 0, 0});
+        assertSelected(filter, block, 0);
+
+        assertThat(DomainBlockFilter.isEncoded(block)).isTrue();
+        assertThat(DomainBlockFilter.isEncoded(dictionary)).isFalse();
+    }
+
+    private static void assertSelected(Domain domain, Block block, int... expected)
+    {
+        assertSelected(new DomainBlockFilter(domain), block, expected);
+    }
+
+    private static void assertSelected(DomainBlockFilter filter, Block block, int... expected)
+    {
+        int[] positions = new int[block.getPositionCount()];
+        int selected = filter.filter(block, positions);
+        assertThat(Arrays.copyOf(positions, selected)).containsExactly(expected);
+    }
+
+    private static Block bigintBlock(Long... values)
+    {
+        BlockBuilder builder = BIGINT.createBlockBuilder(null, values.length);
+        for (Long value : values) {
+            if (value == null) {
+                builder.appendNull();
+            }
+            else {
+                BIGINT.writeLong(builder, value);
+            }
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.base.util;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.trino.plugin.base.util.ExecutorUtil.runWithAdditionalThreads;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TestExecutorUtil
+{
+    @Test
+    public void testRunWithAdditionalThreads()
+    {
+        ExecutorService executor = newCachedThreadPool();
+        try {
+            AtomicInteger counter = new AtomicInteger();
+            List<Runnable> tasks = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                tasks.add(counter::incrementAndGet);
+            }
+            runWithAdditionalThreads(tasks, executor);
+            assertThat(counter.get()).isEqualTo(10);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRunWithAdditionalThreadsSaturatedExecutor()
+    {
+        List<Runnable> queued = new ArrayList<>();
+        AtomicInteger counter = new AtomicInteger();
+        runWithAdditionalThreads(ImmutableList.of(counter::incrementAndGet, counter::incrementAndGet, counter::incrementAndGet), queued::add);
+        // the calling thread ran all tasks without waiting for the executor
+        assertThat(counter.get()).isEqualTo(3);
+        assertThat(queued).hasSize(2);
+
+        // tasks started late by the executor do not run again
+        queued.forEach(Runnable::run);
+        assertThat(counter.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void testRunWithAdditionalThreadsWaitsForRunningTasksOnFailure()
+    {
+        ExecutorService executor = newCachedThreadPool();
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            AtomicBoolean finished = new AtomicBoolean();
+            Runnable failing = () -> {
+                try {
+                    started.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("failed");
+            };
+            Runnable running = () -> {
+                started.countDown();
+                try {
+                    Thread.sleep(100);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                finished.set(true);
+            };
+            assertThatThrownBy(() -> runWithAdditionalThreads(ImmutableList.of(failing, running), executor))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("failed");
+            assertThat(finished.get()).isTrue();
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -29,6 +29,7 @@ import io.trino.parquet.writer.ParquetWriterOptions;
 import io.trino.plugin.deltalake.DataFileInfo.DataFileType;
 import io.trino.plugin.deltalake.util.DeltaLakeWriteUtils;
 import io.trino.plugin.hive.parquet.ParquetFileWriter;
+import io.trino.plugin.hive.parquet.ParquetWriterEncodingExecutor;
 import io.trino.spi.Page;
 import io.trino.spi.PageIndexer;
 import io.trino.spi.PageIndexerFactory;
@@ -101,6 +102,7 @@ public abstract class AbstractDeltaLakePageSink
     private final ConnectorSession session;
     private final DeltaLakeWriterStats stats;
     private final String trinoVersion;
+    private final ParquetWriterEncodingExecutor parquetWriterEncodingExecutor;
     private final long targetMaxFileSize;
     private final long idleWriterMinFileSize;
     private long writtenBytes;
@@ -126,6 +128,7 @@ public abstract class AbstractDeltaLakePageSink
             ConnectorSession session,
             DeltaLakeWriterStats stats,
             String trinoVersion,
+            ParquetWriterEncodingExecutor parquetWriterEncodingExecutor,
             DeltaLakeParquetSchemaMapping parquetSchemaMapping)
     {
         this.typeOperators = requireNonNull(typeOperators, "typeOperators is null");
@@ -194,6 +197,7 @@ public abstract class AbstractDeltaLakePageSink
         this.stats = stats;
 
         this.trinoVersion = requireNonNull(trinoVersion, "trinoVersion is null");
+        this.parquetWriterEncodingExecutor = requireNonNull(parquetWriterEncodingExecutor, "parquetWriterEncodingExecutor is null");
         this.targetMaxFileSize = DeltaLakeSessionProperties.getTargetMaxFileSize(session);
         this.idleWriterMinFileSize = DeltaLakeSessionProperties.getIdleWriterMinFileSize(session);
     }
@@ -473,7 +477,7 @@ public abstract class AbstractDeltaLakePageSink
 
     private ParquetFileWriter createParquetFileWriter(Location path)
     {
-        ParquetWriterOptions parquetWriterOptions = ParquetWriterOptions.builder()
+        ParquetWriterOptions parquetWriterOptions = parquetWriterEncodingExecutor.apply(ParquetWriterOptions.builder())
                 .setMaxBlockSize(getParquetWriterBlockSize(session))
                 .setMaxPageSize(getParquetWriterPageSize(session))
                 .setMaxPageValueCount(getParquetWriterPageValueCount(session))
@@ -34,6 +34,7 @@ import io.trino.plugin.deltalake.delete.RoaringBitmapArray;
 import io.trino.plugin.deltalake.transactionlog.DeletionVectorEntry;
 import io.trino.plugin.hive.parquet.ParquetFileWriter;
 import io.trino.plugin.hive.parquet.ParquetPageSourceFactory;
+import io.trino.plugin.hive.parquet.ParquetWriterEncodingExecutor;
 import io.trino.plugin.hive.parquet.TrinoParquetDataSource;
 import io.trino.spi.Page;
 import io.trino.spi.TrinoException;
@@ -115,6 +116,7 @@ public class DeltaLakeMergeSink
     private final JsonCodec<DataFileInfo> dataFileInfoCodec;
     private final JsonCodec<DeltaLakeMergeResult> mergeResultJsonCodec;
     private final DeltaLakeWriterStats writerStats;
+    private final ParquetWriterEncodingExecutor parquetWriterEncodingExecutor;
     private final Location rootTableLocation;
     private final ConnectorPageSink insertPageSink;
     private final List<DeltaLakeColumnHandle> dataColumns;
@@ -146,6 +148,7 @@ public class DeltaLakeMergeSink
             JsonCodec<DataFileInfo> dataFileInfoCodec,
             JsonCodec<DeltaLakeMergeResult> mergeResultJsonCodec,
             DeltaLakeWriterStats writerStats,
+            ParquetWriterEncodingExecutor parquetWriterEncodingExecutor,
             Location rootTableLocation,
             ConnectorPageSink insertPageSink,
             List<DeltaLakeColumnHandle> tableColumns,
@@ -168,6 +171,7 @@ public class DeltaLakeMergeSink
         this.dataFileInfoCodec = requireNonNull(dataFileInfoCodec, "dataFileInfoCodec is null");
         this.mergeResultJsonCodec = requireNonNull(mergeResultJsonCodec, "mergeResultJsonCodec is null");
         this.writerStats = requireNonNull(writerStats, "writerStats is null");
+        this.parquetWriterEncodingExecutor = requireNonNull(parquetWriterEncodingExecutor, "parquetWriterEncodingExecutor is null");
         this.rootTableLocation = requireNonNull(rootTableLocation, "rootTableLocation is null");
         this.insertPageSink = requireNonNull(insertPageSink, "insertPageSink is null");
         requireNonNull(tableColumns, "tableColumns is null");
@@ -498,7 +502,7 @@ public class DeltaLakeMergeSink
 
     private ParquetFileWriter createParquetFileWriter(Location path, List<DeltaLakeColumnHandle> dataColumns)
     {
-        ParquetWriterOptions parquetWriterOptions = ParquetWriterOptions.builder()
+        ParquetWriterOptions parquetWriterOptions = parquetWriterEncodingExecutor.apply(ParquetWriterOptions.builder())
                 .setMaxBlockSize(getParquetWriterBlockSize(session))
                 .setMaxPageSize(getParquetWriterPageSize(session))
                 .setMaxPageValueCount(getParquetWriterPageValueCount(session))
@@ -51,8 +51,10 @@ import io.trino.plugin.deltalake.transactionlog.writer.TransactionLogWriterFacto
 import io.trino.plugin.hive.HideDeltaLakeTables;
 import io.trino.plugin.hive.PropertiesSystemTableProvider;
 import io.trino.plugin.hive.SystemTableProvider;
+import io.trino.plugin.hive.parquet.ParquetPrefetchExecutor;
 import io.trino.plugin.hive.parquet.ParquetReaderConfig;
 import io.trino.plugin.hive.parquet.ParquetWriterConfig;
+import io.trino.plugin.hive.parquet.ParquetWriterEncodingExecutor;
 import io.trino.spi.catalog.CatalogName;
 import io.trino.spi.connector.ConnectorNodePartitioningProvider;
 import io.trino.spi.connector.ConnectorPageSinkProvider;
@@ -80,7 +82,9 @@ public class DeltaLakeModule
 
         configBinder(binder).bindConfig(DeltaLakeConfig.class);
         configBinder(binder).bindConfig(ParquetReaderConfig.class);
+        binder.bind(ParquetPrefetchExecutor.class).in(Scopes.SINGLETON);
         configBinder(binder).bindConfig(ParquetWriterConfig.class);
+        binder.bind(ParquetWriterEncodingExecutor.class).in(Scopes.SINGLETON);
 
         binder.bind(boolean.class).annotatedWith(HideDeltaLakeTables.class).toInstance(false);
 
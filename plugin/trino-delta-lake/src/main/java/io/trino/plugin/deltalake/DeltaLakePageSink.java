@@ -16,6 +16,7 @@ package io.trino.plugin.deltalake;
 import io.airlift.json.JsonCodec;
 import io.trino.filesystem.Location;
 import io.trino.filesystem.TrinoFileSystemFactory;
+import io.trino.plugin.hive.parquet.ParquetWriterEncodingExecutor;
 import io.trino.spi.PageIndexerFactory;
 import io.trino.spi.connector.ConnectorSession;
 import io.trino.spi.type.TypeOperators;
@@ -39,6 +40,7 @@ public class DeltaLakePageSink
             ConnectorSession session,
             DeltaLakeWriterStats stats,
             String trinoVersion,
+            ParquetWriterEncodingExecutor parquetWriterEncodingExecutor,
             DeltaLakeParquetSchemaMapping parquetSchemaMapping)
     {
         super(
@@ -54,6 +56,7 @@ public class DeltaLakePageSink
                 session,
                 stats,
                 trinoVersion,
+                parquetWriterEncodingExecutor,
                 parquetSchemaMapping);
     }
 
@@ -26,6 +26,7 @@ import io.trino.plugin.deltalake.transactionlog.MetadataEntry;
 import io.trino.plugin.deltalake.transactionlog.ProtocolEntry;
 import io.trino.plugin.hive.NodeVersion;
 import io.trino.plugin.hive.parquet.ParquetReaderConfig;
+import io.trino.plugin.hive.parquet.ParquetWriterEncodingExecutor;
 import io.trino.spi.PageIndexerFactory;
 import io.trino.spi.connector.ConnectorInsertTableHandle;
 import io.trino.spi.connector.ConnectorMergeSink;
@@ -68,6 +69,7 @@ public class DeltaLakePageSinkProvider
     private final JsonCodec<DeltaLakeMergeResult> mergeResultJsonCodec;
     private final DeltaLakeWriterStats stats;
     private final ParquetReaderOptions parquetReaderOptions;
+    private final ParquetWriterEncodingExecutor parquetWriterEncodingExecutor;
     private final FileFormatDataSourceStats fileFormatDataSourceStats;
     private final int maxPartitionsPerWriter;
     private final DateTimeZone parquetDateTimeZone;
@@ -85,6 +87,7 @@ public class DeltaLakePageSinkProvider
             FileFormatDataSourceStats fileFormatDataSourceStats,
             DeltaLakeConfig deltaLakeConfig,
             ParquetReaderConfig parquetReaderConfig,
+            ParquetWriterEncodingExecutor parquetWriterEncodingExecutor,
             TypeManager typeManager,
             NodeVersion nodeVersion)
     {
@@ -94,6 +97,7 @@ public class DeltaLakePageSinkProvider
         this.mergeResultJsonCodec = requireNonNull(mergeResultJsonCodec, "mergeResultJsonCodec is null");
         this.stats = stats;
         this.parquetReaderOptions = parquetReaderConfig.toParquetReaderOptions();
+        this.parquetWriterEncodingExecutor = requireNonNull(parquetWriterEncodingExecutor, "parquetWriterEncodingExecutor is null");
         this.fileFormatDataSourceStats = requireNonNull(fileFormatDataSourceStats, "fileFormatDataSourceStats is null");
         this.maxPartitionsPerWriter = deltaLakeConfig.getMaxPartitionsPerWriter();
         this.parquetDateTimeZone = deltaLakeConfig.getParquetDateTimeZone();
@@ -123,6 +127,7 @@ public class DeltaLakePageSinkProvider
                 session,
                 stats,
                 trinoVersion,
+                parquetWriterEncodingExecutor,
                 parquetSchemaMapping);
     }
 
@@ -144,6 +149,7 @@ public class DeltaLakePageSinkProvider
                 session,
                 stats,
                 trinoVersion,
+                parquetWriterEncodingExecutor,
                 parquetSchemaMapping);
     }
 
@@ -167,6 +173,7 @@ public class DeltaLakePageSinkProvider
                         session,
                         stats,
                         trinoVersion,
+                        parquetWriterEncodingExecutor,
                         parquetSchemaMapping);
         }
 
@@ -190,6 +197,7 @@ public class DeltaLakePageSinkProvider
                 dataFileInfoCodec,
                 mergeResultJsonCodec,
                 stats,
+                parquetWriterEncodingExecutor,
                 Location.of(tableHandle.location()),
                 pageSink,
                 tableHandle.inputColumns(),
@@ -250,6 +258,7 @@ public class DeltaLakePageSinkProvider
                 session,
                 stats,
                 trinoVersion,
+                parquetWriterEncodingExecutor,
                 parquetSchemaMapping);
     }
 }
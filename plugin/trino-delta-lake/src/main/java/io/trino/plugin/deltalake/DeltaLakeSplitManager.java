@@ -157,9 +157,16 @@ public class DeltaLakeSplitManager
     {
         TableSnapshot tableSnapshot = deltaLakeTransactionManager.get(transaction, session.getIdentity())
                 .getSnapshot(session, tableHandle, Optional.of(tableHandle.getReadVersion()));
-        Stream<AddFileEntry> validDataFiles = transactionLogAccess.getActiveFiles(session, tableHandle, tableSnapshot);
         TupleDomain<DeltaLakeColumnHandle> enforcedPartitionConstraint = tableHandle.getEnforcedPartitionConstraint();
         TupleDomain<DeltaLakeColumnHandle> nonPartitionConstraint = tableHandle.getNonPartitionConstraint();
+        Set<String> predicatedColumnNames = Stream.concat(
+                        nonPartitionConstraint.getDomains().orElseThrow().keySet().stream(),
+                        columnsCoveredByDynamicFilter.stream()
+                                .map(DeltaLakeColumnHandle.class::cast))
+                .map(DeltaLakeColumnHandle::baseColumnName)
+                .collect(toImmutableSet());
+        // only the statistics of the predicated columns are used for pruning, so only these are read from the checkpoint
+        Stream<AddFileEntry> validDataFiles = transactionLogAccess.getActiveFiles(session, tableHandle, tableSnapshot, enforcedPartitionConstraint, predicatedColumnNames::contains);
         Domain pathDomain = getPathDomain(nonPartitionConstraint);
         Domain fileModifiedDomain = getFileModifiedTimeDomain(nonPartitionConstraint);
         Domain fileSizeDomain = getFileSizeDomain(nonPartitionConstraint);
@@ -180,12 +187,6 @@ public class DeltaLakeSplitManager
             validDataFiles = filterValidDataFilesForOptimize(validDataFiles, maxScannedFileSizeInBytes.get());
         }
 
-        Set<String> predicatedColumnNames = Stream.concat(
-                        nonPartitionConstraint.getDomains().orElseThrow().keySet().stream(),
-                        columnsCoveredByDynamicFilter.stream()
-                                .map(DeltaLakeColumnHandle.class::cast))
-                .map(DeltaLakeColumnHandle::baseColumnName)
-                .collect(toImmutableSet());
         List<DeltaLakeColumnMetadata> schema = extractSchema(metadataEntry, tableHandle.getProtocolEntry(), typeManager);
         List<DeltaLakeColumnMetadata> predicatedColumns = schema.stream()
                 .filter(column -> predicatedColumnNames.contains(column.name()))
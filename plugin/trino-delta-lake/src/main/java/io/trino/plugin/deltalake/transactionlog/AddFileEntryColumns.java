@@ -0,0 +1,304 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.deltalake.transactionlog;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.airlift.slice.SizeOf;
+import io.airlift.slice.XxHash64;
+import io.trino.plugin.deltalake.transactionlog.TransactionLogAccess.FileEntryKey;
+import io.trino.plugin.deltalake.transactionlog.statistics.DeltaLakeFileStatistics;
+import jakarta.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.estimatedSizeOf;
+import static io.airlift.slice.SizeOf.instanceSize;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static io.airlift.slice.SizeOf.sizeOfIntArray;
+import static io.airlift.slice.SizeOf.sizeOfObjectArray;
+import static java.lang.Math.max;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Add file entries stored column by column. Values which repeat across files are dictionary encoded:
+ * the directories of the paths, the partition values and the tags. The file names are kept as UTF-8
+ * in byte array chunks, and the scalar attributes in primitive arrays. The statistics are shared
+ * with the entries the set is built from, so they are not parsed again.
+ * <p>
+ * The entries are materialized on access, so they are short-lived, while the set stays compact.
+ */
+final class AddFileEntryColumns
+{
+    private static final int INSTANCE_SIZE = instanceSize(AddFileEntryColumns.class);
+    private static final int DEFAULT_FILE_NAME_CHUNK_SIZE = 1024 * 1024;
+
+    private final int positionCount;
+
+    private final String[] directories;
+    private final int[] directoryIds;
+    // a file name is never split across chunks, a name longer than the chunk size gets a chunk of its own
+    private final byte[][] fileNameChunks;
+    // the chunk in the upper 32 bits and the offset in the chunk in the lower 32 bits
+    private final long[] fileNameOffsets;
+
+    private final List<Map<String, String>> partitionValues;
+    private final List<Map<String, Optional<String>>> canonicalPartitionValues;
+    private final int[] partitionIds;
+
+    private final List<Map<String, String>> tags;
+    private final int[] tagIds;
+
+    private final long[] sizes;
+    private final long[] modificationTimes;
+    private final boolean[] dataChanges;
+    // null when none of the files has statistics or deletion vectors
+    @Nullable
+    private final DeltaLakeFileStatistics[] statistics;
+    @Nullable
+    private final DeletionVectorEntry[] deletionVectors;
+
+    private final int indexCapacity;
+    private final long retainedSize;
+    // built on the first lookup, positions are stored plus one, zero marks an empty slot
+    private volatile int[] keyIndex;
+
+    AddFileEntryColumns(List<AddFileEntry> files)
+    {
+        this(files, DEFAULT_FILE_NAME_CHUNK_SIZE);
+    }
+
+    @VisibleForTesting
+    AddFileEntryColumns(List<AddFileEntry> files, int fileNameChunkSize)
+    {
+        checkArgument(fileNameChunkSize > 0, "fileNameChunkSize must be positive");
+        positionCount = files.size();
+
+        Dictionary<String> directoryDictionary = new Dictionary<>();
+        Dictionary<Map<String, String>> partitionDictionary = new Dictionary<>();
+        Dictionary<Map<String, String>> tagDictionary = new Dictionary<>();
+        directoryIds = new int[positionCount];
+        fileNameOffsets = new long[positionCount + 1];
+        partitionIds = new int[positionCount];
+        tagIds = new int[positionCount];
+        sizes = new long[positionCount];
+        modificationTimes = new long[positionCount];
+        dataChanges = new boolean[positionCount];
+        DeltaLakeFileStatistics[] statistics = new DeltaLakeFileStatistics[positionCount];
+        DeletionVectorEntry[] deletionVectors = new DeletionVectorEntry[positionCount];
+        boolean hasStatistics = false;
+        boolean hasDeletionVectors = false;
+
+        List<byte[]> fileNameChunks = new ArrayList<>();
+        ByteArrayOutputStream fileNames = new ByteArrayOutputStream();
+        List<Map<String, Optional<String>>> canonicalPartitionValues = new ArrayList<>();
+        for (int position = 0; position < positionCount; position++) {
+            AddFileEntry file = files.get(position);
+
+            String path = file.getPath();
+            int directoryEnd = path.lastIndexOf('/') + 1;
+            directoryIds[position] = directoryDictionary.encode(path.substring(0, directoryEnd));
+            byte[] fileName = path.substring(directoryEnd).getBytes(UTF_8);
+            if (fileNames.size() > 0 && fileNames.size() + fileName.length > fileNameChunkSize) {
+                fileNameChunks.add(fileNames.toByteArray());
+                fileNames.reset();
+                fileNameOffsets[position] = (long) fileNameChunks.size() << 32;
+            }
+            fileNames.writeBytes(fileName);
+            fileNameOffsets[position + 1] = ((long) fileNameChunks.size() << 32) | fileNames.size();
+
+            @SuppressWarnings("deprecation")
+            Map<String, String> filePartitionValues = file.getPartitionValues();
+            int partitionId = partitionDictionary.encode(filePartitionValues);
+            if (partitionId == canonicalPartitionValues.size()) {
+                canonicalPartitionValues.add(file.getCanonicalPartitionValues());
+            }
+            partitionIds[position] = partitionId;
+            tagIds[position] = tagDictionary.encode(file.getTags());
+
+            sizes[position] = file.getSize();
+            modificationTimes[position] = file.getModificationTime();
+            dataChanges[position] = file.isDataChange();
+            statistics[position] = file.getStats().orElse(null);
+            hasStatistics |= statistics[position] != null;
+            deletionVectors[position] = file.getDeletionVector().orElse(null);
+            hasDeletionVectors |= deletionVectors[position] != null;
+        }
+
+        this.directories = directoryDictionary.values().toArray(String[]::new);
+        fileNameChunks.add(fileNames.toByteArray());
+        this.fileNameChunks = fileNameChunks.toArray(byte[][]::new);
+        this.partitionValues = partitionDictionary.values();
+        this.canonicalPartitionValues = canonicalPartitionValues;
+        this.tags = tagDictionary.values();
+        this.statistics = hasStatistics ? statistics : null;
+        this.deletionVectors = hasDeletionVectors ? deletionVectors : null;
+
+        int expectedCapacity = (int) max(16, positionCount * 4L / 3 + 1);
+        this.indexCapacity = Integer.highestOneBit(expectedCapacity - 1) << 1;
+        // the index is accounted for upfront, so the weight of the cache entry does not change
+        this.retainedSize = INSTANCE_SIZE +
+                Arrays.stream(directories).mapToLong(SizeOf::estimatedSizeOf).sum() + sizeOfObjectArray(directories.length) +
+                sizeOf(directoryIds) +
+                Arrays.stream(this.fileNameChunks).mapToLong(SizeOf::sizeOf).sum() + sizeOfObjectArray(this.fileNameChunks.length) +
+                sizeOf(fileNameOffsets) +
+                this.partitionValues.stream().mapToLong(values -> estimatedSizeOf(values, SizeOf::estimatedSizeOf, SizeOf::estimatedSizeOf)).sum() +
+                this.canonicalPartitionValues.stream().mapToLong(values -> estimatedSizeOf(values, SizeOf::estimatedSizeOf, value -> sizeOf(value, SizeOf::estimatedSizeOf))).sum() +
+                sizeOf(partitionIds) +
+                this.tags.stream().mapToLong(values -> estimatedSizeOf(values, SizeOf::estimatedSizeOf, SizeOf::estimatedSizeOf)).sum() +
+                sizeOf(tagIds) +
+                sizeOf(sizes) +
+                sizeOf(modificationTimes) +
+                sizeOf(dataChanges) +
+                (this.statistics == null ? 0 : sizeOfObjectArray(positionCount) + Arrays.stream(this.statistics)
+                        .filter(Objects::nonNull)
+                        .mapToLong(DeltaLakeFileStatistics::getRetainedSizeInBytes)
+                        .sum()) +
+                (this.deletionVectors == null ? 0 : sizeOfObjectArray(positionCount) + Arrays.stream(this.deletionVectors)
+                        .filter(Objects::nonNull)
+                        .mapToLong(DeletionVectorEntry::getRetainedSizeInBytes)
+                        .sum()) +
+                sizeOfIntArray(indexCapacity);
+    }
+
+    int getPositionCount()
+    {
+        return positionCount;
+    }
+
+    AddFileEntry get(int position)
+    {
+        return new AddFileEntry(
+                getPath(position),
+                partitionValues.get(partitionIds[position]),
+                canonicalPartitionValues.get(partitionIds[position]),
+                sizes[position],
+                modificationTimes[position],
+                dataChanges[position],
+                statistics == null ? Optional.empty() : Optional.ofNullable(statistics[position]),
+                tags.get(tagIds[position]),
+                getDeletionVector(position));
+    }
+
+    /**
+     * Returns for every position whether the partition values of the file match the filter.
+     * The filter is evaluated once per distinct partition values.
+     */
+    boolean[] matchPartitions(Predicate<Map<String, Optional<String>>> partitionFilter)
+    {
+        boolean[] partitionMatches = new boolean[canonicalPartitionValues.size()];
+        for (int partitionId = 0; partitionId < partitionMatches.length; partitionId++) {
+            partitionMatches[partitionId] = partitionFilter.test(canonicalPartitionValues.get(partitionId));
+        }
+        boolean[] matches = new boolean[positionCount];
+        for (int position = 0; position < positionCount; position++) {
+            matches[position] = partitionMatches[partitionIds[position]];
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the position of the file, or -1 if the file is not in the set.
+     */
+    int indexOf(FileEntryKey key)
+    {
+        int[] index = getKeyIndex();
+        int mask = index.length - 1;
+        int slot = hash(key.path()) & mask;
+        while (index[slot] != 0) {
+            int position = index[slot] - 1;
+            if (getPath(position).equals(key.path()) && getDeletionVector(position).map(DeletionVectorEntry::uniqueId).equals(key.deletionVectorId())) {
+                return position;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    long getRetainedSizeInBytes()
+    {
+        return retainedSize;
+    }
+
+    private String getPath(int position)
+    {
+        long start = fileNameOffsets[position];
+        long end = fileNameOffsets[position + 1];
+        byte[] chunk = fileNameChunks[(int) (start >>> 32)];
+        int offset = (int) start;
+        // the name of the last file of a chunk ends at the end of the chunk
+        int length = (end >>> 32) == (start >>> 32) ? (int) end - offset : chunk.length - offset;
+        return directories[directoryIds[position]] + new String(chunk, offset, length, UTF_8);
+    }
+
+    private Optional<DeletionVectorEntry> getDeletionVector(int position)
+    {
+        return deletionVectors == null ? Optional.empty() : Optional.ofNullable(deletionVectors[position]);
+    }
+
+    private int[] getKeyIndex()
+    {
+        int[] index = keyIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = keyIndex;
+                if (index == null) {
+                    index = new int[indexCapacity];
+                    int mask = indexCapacity - 1;
+                    for (int position = 0; position < positionCount; position++) {
+                        int slot = hash(getPath(position)) & mask;
+                        while (index[slot] != 0) {
+                            slot = (slot + 1) & mask;
+                        }
+                        index[slot] = position + 1;
+                    }
+                    keyIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    private static int hash(String path)
+    {
+        return (int) XxHash64.hash(path.hashCode());
+    }
+
+    private static class Dictionary<T>
+    {
+        private final Map<T, Integer> ids = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+
+        public int encode(T value)
+        {
+            return ids.computeIfAbsent(value, _ -> {
+                values.add(value);
+                return values.size() - 1;
+            });
+        }
+
+        public List<T> values()
+        {
+            return values;
+        }
+    }
+}
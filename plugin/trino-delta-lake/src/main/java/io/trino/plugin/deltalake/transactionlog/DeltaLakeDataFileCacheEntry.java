@@ -14,61 +14,139 @@
 package io.trino.plugin.deltalake.transactionlog;
 
 import com.google.common.collect.ImmutableList;
-import com.google.errorprone.annotations.Immutable;
+import io.trino.filesystem.TrinoFileSystem;
+import io.trino.plugin.deltalake.transactionlog.TransactionLogAccess.FileEntryKey;
+import org.roaringbitmap.RoaringBitmap;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.airlift.slice.SizeOf.instanceSize;
 import static java.util.Objects.requireNonNull;
 
-@Immutable
+/**
+ * The active files of a table version. The files are kept in a few immutable segments, from the
+ * oldest to the newest, each with a bitmap of the positions of the files removed since the segment
+ * was built. A newer version shares the segments with the version it was rolled forward from, so
+ * applying a transaction log tail costs in proportion to the tail, not to the number of active files.
+ * The files added by the tail form a new segment, and segments are merged when a newer segment
+ * grows to half the size of the previous one, so there are only a logarithmic number of segments.
+ * The files of a segment are stored column by column, see {@link AddFileEntryColumns}.
+ * <p>
+ * Instances are immutable once constructed.
+ */
 public final class DeltaLakeDataFileCacheEntry
 {
     private static final int INSTANCE_SIZE = instanceSize(DeltaLakeDataFileCacheEntry.class);
 
     private final long version;
-    private final List<AddFileEntry> activeFiles;
-    private volatile long retainedSize = -1;
+    private final List<Segment> segments;
+    private final long retainedSize;
 
     public DeltaLakeDataFileCacheEntry(long version, List<AddFileEntry> activeFiles)
+    {
+        this(activeFiles.isEmpty() ? ImmutableList.of() : ImmutableList.of(new Segment(new AddFileEntryColumns(activeFiles), new RoaringBitmap())), version);
+    }
+
+    private DeltaLakeDataFileCacheEntry(List<Segment> segments, long version)
     {
         this.version = version;
-        this.activeFiles = ImmutableList.copyOf(requireNonNull(activeFiles, "activeFiles is null"));
+        this.segments = ImmutableList.copyOf(requireNonNull(segments, "segments is null"));
+        this.retainedSize = INSTANCE_SIZE + this.segments.stream()
+                .mapToLong(Segment::getRetainedSizeInBytes)
+                .sum();
     }
 
-    public DeltaLakeDataFileCacheEntry withUpdatesApplied(List<DeltaLakeTransactionLogEntry> newEntries, long newVersion)
+    /**
+     * Returns the active files of the new version, which follows the transactions of the log tail.
+     */
+    public DeltaLakeDataFileCacheEntry withUpdatesApplied(List<Transaction> transactions, long newVersion, TrinoFileSystem fileSystem)
     {
-        Map<String, AddFileEntry> activeJsonEntries = new LinkedHashMap<>();
-        HashSet<String> removedFiles = new HashSet<>();
-
-        // The json entries containing the last few entries in the log need to be applied on top of the parquet snapshot:
-        // - Any files which have been removed need to be excluded
-        // - Any files with newer add actions need to be updated with the most recent metadata
-        newEntries.forEach(deltaLakeTransactionLogEntry -> {
-            AddFileEntry addEntry = deltaLakeTransactionLogEntry.getAdd();
-            if (addEntry != null) {
-                activeJsonEntries.put(addEntry.getPath(), addEntry);
+        // the bitmaps of the segments are copied when a file of the segment is removed for the first time
+        RoaringBitmap[] removedFiles = segments.stream()
+                .map(Segment::removedFiles)
+                .toArray(RoaringBitmap[]::new);
+        boolean[] copied = new boolean[segments.size()];
+        Map<FileEntryKey, AddFileEntry> addedFiles = new LinkedHashMap<>();
+
+        for (Transaction transaction : transactions) {
+            Map<FileEntryKey, AddFileEntry> addFilesInTransaction = new LinkedHashMap<>();
+            Set<FileEntryKey> removedFilesInTransaction = new HashSet<>();
+            try (Stream<DeltaLakeTransactionLogEntry> entries = transaction.transactionEntries().getEntries(fileSystem)) {
+                entries.forEach(deltaLakeTransactionLogEntry -> {
+                    if (deltaLakeTransactionLogEntry.getAdd() != null) {
+                        AddFileEntry add = deltaLakeTransactionLogEntry.getAdd();
+                        addFilesInTransaction.put(FileEntryKey.of(add), add);
+                    }
+                    else if (deltaLakeTransactionLogEntry.getRemove() != null) {
+                        RemoveFileEntry remove = deltaLakeTransactionLogEntry.getRemove();
+                        removedFilesInTransaction.add(new FileEntryKey(remove.path(), remove.deletionVector().map(DeletionVectorEntry::uniqueId)));
+                    }
+                });
             }
 
-            RemoveFileEntry removeEntry = deltaLakeTransactionLogEntry.getRemove();
-            if (removeEntry != null) {
-                activeJsonEntries.remove(removeEntry.path());
-                removedFiles.add(removeEntry.path());
+            // Process 'remove' entries first because deletion vectors register both 'add' and 'remove' entries and the 'add' entry should be kept
+            for (FileEntryKey key : removedFilesInTransaction) {
+                if (addedFiles.remove(key) == null) {
+                    removeFromSegments(key, removedFiles, copied);
+                }
             }
-        });
+            addFilesInTransaction.forEach((key, add) -> {
+                // a newer add action replaces the file with the most recent metadata
+                if (addedFiles.put(key, add) == null) {
+                    removeFromSegments(key, removedFiles, copied);
+                }
+            });
+        }
 
-        Stream<AddFileEntry> filteredExistingEntries = activeFiles.stream()
-                .filter(addEntry -> !removedFiles.contains(addEntry.getPath()) && !activeJsonEntries.containsKey(addEntry.getPath()));
-        List<AddFileEntry> updatedActiveFileList =
-                Stream.concat(filteredExistingEntries, activeJsonEntries.values().stream())
-                        .collect(toImmutableList());
+        List<Segment> newSegments = new ArrayList<>();
+        for (int i = 0; i < segments.size(); i++) {
+            Segment segment = new Segment(segments.get(i).files(), removedFiles[i]);
+            if (copied[i]) {
+                segment = segment.compactIfMostlyRemoved();
+            }
+            if (segment.liveCount() > 0) {
+                newSegments.add(segment);
+            }
+        }
+        if (!addedFiles.isEmpty()) {
+            newSegments.add(new Segment(new AddFileEntryColumns(ImmutableList.copyOf(addedFiles.values())), new RoaringBitmap()));
+        }
+        while (newSegments.size() > 1) {
+            Segment newest = newSegments.getLast();
+            Segment previous = newSegments.get(newSegments.size() - 2);
+            if (newest.liveCount() * 2L < previous.liveCount()) {
+                break;
+            }
+            newSegments.removeLast();
+            newSegments.set(newSegments.size() - 1, Segment.merge(previous, newest));
+        }
+        return new DeltaLakeDataFileCacheEntry(newSegments, newVersion);
+    }
 
-        return new DeltaLakeDataFileCacheEntry(newVersion, updatedActiveFileList);
+    private void removeFromSegments(FileEntryKey key, RoaringBitmap[] removedFiles, boolean[] copied)
+    {
+        // an active file is active in at most one segment, the newest segments are the smallest
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            int position = segments.get(i).files().indexOf(key);
+            if (position >= 0 && !removedFiles[i].contains(position)) {
+                if (!copied[i]) {
+                    removedFiles[i] = removedFiles[i].clone();
+                    copied[i] = true;
+                }
+                removedFiles[i].add(position);
+                return;
+            }
+        }
     }
 
     public long getVersion()
@@ -76,18 +154,75 @@ public final class DeltaLakeDataFileCacheEntry
         return version;
     }
 
-    public List<AddFileEntry> getActiveFiles()
+    public Stream<AddFileEntry> getActiveFiles()
+    {
+        return segments.stream()
+                .flatMap(Segment::liveFiles);
+    }
+
+    /**
+     * Returns the active files with partition values matching the filter. The filter is evaluated
+     * once per distinct partition values of a segment, and the other files are never materialized.
+     */
+    public Stream<AddFileEntry> getActiveFiles(Predicate<Map<String, Optional<String>>> partitionFilter)
     {
-        return activeFiles;
+        return segments.stream()
+                .flatMap(segment -> segment.liveFiles(partitionFilter));
     }
 
     public long getRetainedSizeInBytes()
     {
-        if (retainedSize == -1) {
-            retainedSize = INSTANCE_SIZE + activeFiles.stream()
-                    .mapToLong(AddFileEntry::getRetainedSizeInBytes)
-                    .sum();
-        }
         return retainedSize;
     }
+
+    private record Segment(AddFileEntryColumns files, RoaringBitmap removedFiles)
+    {
+        Segment
+        {
+            requireNonNull(files, "files is null");
+            requireNonNull(removedFiles, "removedFiles is null");
+        }
+
+        static Segment merge(Segment first, Segment second)
+        {
+            return new Segment(
+                    new AddFileEntryColumns(Stream.concat(first.liveFiles(), second.liveFiles()).collect(toImmutableList())),
+                    new RoaringBitmap());
+        }
+
+        Segment compactIfMostlyRemoved()
+        {
+            if (removedFiles.getCardinality() * 2L <= files.getPositionCount()) {
+                return this;
+            }
+            return new Segment(new AddFileEntryColumns(liveFiles().collect(toImmutableList())), new RoaringBitmap());
+        }
+
+        int liveCount()
+        {
+            return files.getPositionCount() - removedFiles.getCardinality();
+        }
+
+        Stream<AddFileEntry> liveFiles()
+        {
+            IntStream positions = IntStream.range(0, files.getPositionCount());
+            if (!removedFiles.isEmpty()) {
+                positions = positions.filter(position -> !removedFiles.contains(position));
+            }
+            return positions.mapToObj(files::get);
+        }
+
+        Stream<AddFileEntry> liveFiles(Predicate<Map<String, Optional<String>>> partitionFilter)
+        {
+            boolean[] partitionMatches = files.matchPartitions(partitionFilter);
+            return IntStream.range(0, files.getPositionCount())
+                    .filter(position -> partitionMatches[position] && !removedFiles.contains(position))
+                    .mapToObj(files::get);
+        }
+
+        long getRetainedSizeInBytes()
+        {
+            return files.getRetainedSizeInBytes() + removedFiles.getLongSizeInBytes();
+        }
+    }
 }
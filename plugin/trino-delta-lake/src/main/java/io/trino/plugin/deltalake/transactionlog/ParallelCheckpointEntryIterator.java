@@ -0,0 +1,346 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.deltalake.transactionlog;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static com.google.common.collect.Streams.stream;
+import static java.util.Collections.emptyIterator;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads the entries of the parts of a checkpoint in parallel, and returns them in the order of the parts.
+ * Every part is read by tasks of the executor into a small buffer of batches, so the entries are returned
+ * as soon as they are decoded, and a slow consumer holds only a few batches per part in memory. A task
+ * stops when the buffer of its part is full, instead of blocking a thread of the executor, and the part
+ * is rescheduled once the consumer takes a batch from it.
+ * <p>
+ * The parts are taken lazily from an iterator, and at most {@value #MAX_SCHEDULED_PARTS} of them are read
+ * ahead of the consumer. A part may also be read by the consumer itself, from an iterator shared with the
+ * iterator of the parts, in which case the following parts are taken only once it is fully read.
+ */
+final class ParallelCheckpointEntryIterator
+        extends AbstractIterator<DeltaLakeTransactionLogEntry>
+        implements Closeable
+{
+    private static final int BATCH_SIZE = 1024;
+    private static final int MAX_BUFFERED_BATCHES = 4;
+    private static final int MAX_SCHEDULED_PARTS = 16;
+
+    private final Iterator<CheckpointPart> parts;
+    private final Executor executor;
+    private final Deque<Part> activeParts = new ArrayDeque<>();
+    private Iterator<DeltaLakeTransactionLogEntry> currentEntries = emptyIterator();
+
+    private ParallelCheckpointEntryIterator(Iterator<CheckpointPart> parts, Executor executor)
+    {
+        this.parts = requireNonNull(parts, "parts is null");
+        this.executor = requireNonNull(executor, "executor is null");
+        scheduleParts();
+    }
+
+    /**
+     * Returns the entries of the parts, in order. The parts are opened by the executor,
+     * and the returned stream must be closed to release the parts which are not fully read.
+     */
+    public static Stream<DeltaLakeTransactionLogEntry> readInParallel(List<Supplier<Stream<DeltaLakeTransactionLogEntry>>> parts, Executor executor)
+    {
+        return readInParallel(
+                parts.stream()
+                        .map(part -> (CheckpointPart) new ExecutorPart(part))
+                        .iterator(),
+                executor);
+    }
+
+    /**
+     * Returns the entries of the parts, in order. The parts are taken from the iterator when they are scheduled,
+     * and the returned stream must be closed to release the parts which are not fully read.
+     */
+    public static Stream<DeltaLakeTransactionLogEntry> readInParallel(Iterator<CheckpointPart> parts, Executor executor)
+    {
+        ParallelCheckpointEntryIterator iterator = new ParallelCheckpointEntryIterator(parts, executor);
+        return stream(iterator).onClose(iterator::close);
+    }
+
+    @Override
+    protected DeltaLakeTransactionLogEntry computeNext()
+    {
+        while (!currentEntries.hasNext()) {
+            Part part = activeParts.peekFirst();
+            if (part == null) {
+                return endOfData();
+            }
+            Optional<Iterator<DeltaLakeTransactionLogEntry>> entries = part.takeEntries();
+            if (entries.isEmpty()) {
+                activeParts.removeFirst();
+                scheduleParts();
+            }
+            else {
+                currentEntries = entries.get();
+            }
+        }
+        return currentEntries.next();
+    }
+
+    private void scheduleParts()
+    {
+        while (activeParts.size() < MAX_SCHEDULED_PARTS) {
+            // the parts following a part read by the consumer are known once it is fully read
+            if (activeParts.peekLast() instanceof ConsumerPartReader || !parts.hasNext()) {
+                return;
+            }
+            switch (parts.next()) {
+                case ExecutorPart part -> {
+                    PartReader reader = new PartReader(part.entries(), executor);
+                    activeParts.addLast(reader);
+                    reader.schedule();
+                }
+                case ConsumerPart part -> activeParts.addLast(new ConsumerPartReader(part.entries()));
+            }
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        activeParts.forEach(Part::close);
+        activeParts.clear();
+    }
+
+    sealed interface CheckpointPart
+            permits ExecutorPart, ConsumerPart {}
+
+    /**
+     * Part read by the tasks of the executor.
+     */
+    record ExecutorPart(Supplier<Stream<DeltaLakeTransactionLogEntry>> entries)
+            implements CheckpointPart
+    {
+        ExecutorPart
+        {
+            requireNonNull(entries, "entries is null");
+        }
+    }
+
+    /**
+     * Part read by the consumer. The iterator may share its source with the iterator of the parts,
+     * which is not used until the part is fully read.
+     */
+    record ConsumerPart(Iterator<DeltaLakeTransactionLogEntry> entries)
+            implements CheckpointPart
+    {
+        ConsumerPart
+        {
+            requireNonNull(entries, "entries is null");
+        }
+    }
+
+    private interface Part
+    {
+        /**
+         * Returns the next entries of the part, or empty when all entries of the part were returned.
+         */
+        Optional<Iterator<DeltaLakeTransactionLogEntry>> takeEntries();
+
+        void close();
+    }
+
+    private static class ConsumerPartReader
+            implements Part
+    {
+        private Iterator<DeltaLakeTransactionLogEntry> entries;
+
+        ConsumerPartReader(Iterator<DeltaLakeTransactionLogEntry> entries)
+        {
+            this.entries = entries;
+        }
+
+        @Override
+        public Optional<Iterator<DeltaLakeTransactionLogEntry>> takeEntries()
+        {
+            Optional<Iterator<DeltaLakeTransactionLogEntry>> result = Optional.ofNullable(entries);
+            entries = null;
+            return result;
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    private static class PartReader
+            implements Part, Runnable
+    {
+        private final Supplier<Stream<DeltaLakeTransactionLogEntry>> entriesSupplier;
+        private final Executor executor;
+
+        @GuardedBy("this")
+        private final Queue<List<DeltaLakeTransactionLogEntry>> batches = new ArrayDeque<>();
+        // whether a task of the part is scheduled or running, the tasks of a part never run concurrently
+        @GuardedBy("this")
+        private boolean running;
+        @GuardedBy("this")
+        private boolean finished;
+        @GuardedBy("this")
+        private boolean closed;
+        @GuardedBy("this")
+        private Throwable failure;
+        @GuardedBy("this")
+        private Stream<DeltaLakeTransactionLogEntry> entryStream;
+
+        // only accessed by the tasks of the part
+        private Iterator<DeltaLakeTransactionLogEntry> entries;
+
+        PartReader(Supplier<Stream<DeltaLakeTransactionLogEntry>> entriesSupplier, Executor executor)
+        {
+            this.entriesSupplier = requireNonNull(entriesSupplier, "entriesSupplier is null");
+            this.executor = executor;
+        }
+
+        synchronized void schedule()
+        {
+            running = true;
+            executor.execute(this);
+        }
+
+        @Override
+        public void run()
+        {
+            try {
+                if (entries == null) {
+                    synchronized (this) {
+                        if (closed) {
+                            running = false;
+                            return;
+                        }
+                    }
+                    Stream<DeltaLakeTransactionLogEntry> stream = entriesSupplier.get();
+                    synchronized (this) {
+                        entryStream = stream;
+                    }
+                    entries = stream.iterator();
+                }
+
+                while (true) {
+                    synchronized (this) {
+                        if (closed) {
+                            running = false;
+                            break;
+                        }
+                        if (batches.size() >= MAX_BUFFERED_BATCHES) {
+                            running = false;
+                            return;
+                        }
+                    }
+
+                    List<DeltaLakeTransactionLogEntry> batch = new ArrayList<>(BATCH_SIZE);
+                    while (batch.size() < BATCH_SIZE && entries.hasNext()) {
+                        batch.add(entries.next());
+                    }
+                    boolean last = !entries.hasNext();
+                    synchronized (this) {
+                        if (!batch.isEmpty()) {
+                            batches.add(batch);
+                        }
+                        if (last) {
+                            finished = true;
+                            running = false;
+                        }
+                        notifyAll();
+                    }
+                    if (last) {
+                        break;
+                    }
+                }
+            }
+            catch (Throwable e) {
+                synchronized (this) {
+                    failure = e;
+                    finished = true;
+                    running = false;
+                    notifyAll();
+                }
+            }
+            closeStream();
+        }
+
+        @Override
+        public synchronized Optional<Iterator<DeltaLakeTransactionLogEntry>> takeEntries()
+        {
+            while (batches.isEmpty() && !finished) {
+                try {
+                    wait();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+            }
+            if (failure != null) {
+                throwIfUnchecked(failure);
+                throw new RuntimeException(failure);
+            }
+            List<DeltaLakeTransactionLogEntry> batch = batches.poll();
+            if (batch == null) {
+                return Optional.empty();
+            }
+            if (!finished && !running) {
+                schedule();
+            }
+            return Optional.of(batch.iterator());
+        }
+
+        @Override
+        public void close()
+        {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                batches.clear();
+                if (running) {
+                    // the running task closes the stream
+                    return;
+                }
+            }
+            closeStream();
+        }
+
+        private void closeStream()
+        {
+            Stream<DeltaLakeTransactionLogEntry> stream;
+            synchronized (this) {
+                stream = entryStream;
+                entryStream = null;
+            }
+            if (stream != null) {
+                stream.close();
+            }
+        }
+    }
+}
@@ -13,8 +13,10 @@
  */
 package io.trino.plugin.deltalake.transactionlog;
 
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.PeekingIterator;
 import com.google.common.collect.Sets;
 import io.airlift.units.DataSize;
 import io.trino.filesystem.Location;
@@ -23,6 +25,9 @@ import io.trino.filesystem.TrinoInputFile;
 import io.trino.parquet.ParquetReaderOptions;
 import io.trino.plugin.base.metrics.FileFormatDataSourceStats;
 import io.trino.plugin.deltalake.DeltaLakeColumnHandle;
+import io.trino.plugin.deltalake.transactionlog.ParallelCheckpointEntryIterator.CheckpointPart;
+import io.trino.plugin.deltalake.transactionlog.ParallelCheckpointEntryIterator.ConsumerPart;
+import io.trino.plugin.deltalake.transactionlog.ParallelCheckpointEntryIterator.ExecutorPart;
 import io.trino.plugin.deltalake.transactionlog.checkpoint.CheckpointEntryIterator;
 import io.trino.plugin.deltalake.transactionlog.checkpoint.CheckpointSchemaManager;
 import io.trino.plugin.deltalake.transactionlog.checkpoint.LastCheckpoint;
@@ -36,24 +41,27 @@ import io.trino.spi.type.TypeManager;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.Iterators.peekingIterator;
 import static com.google.common.collect.Streams.stream;
-import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.slice.SizeOf.estimatedSizeOf;
 import static io.airlift.slice.SizeOf.instanceSize;
 import static io.airlift.slice.SizeOf.sizeOf;
+import static io.trino.plugin.base.util.Closables.closeAllSuppress;
 import static io.trino.plugin.deltalake.DeltaLakeErrorCode.DELTA_LAKE_FILESYSTEM_ERROR;
 import static io.trino.plugin.deltalake.DeltaLakeErrorCode.DELTA_LAKE_INVALID_SCHEMA;
+import static io.trino.plugin.deltalake.transactionlog.ParallelCheckpointEntryIterator.readInParallel;
 import static io.trino.plugin.deltalake.transactionlog.TransactionLogParser.readLastCheckpoint;
 import static io.trino.plugin.deltalake.transactionlog.TransactionLogUtil.getTransactionLogDir;
 import static io.trino.plugin.deltalake.transactionlog.checkpoint.CheckpointEntryIterator.EntryType.ADD;
@@ -62,7 +70,6 @@ import static io.trino.plugin.deltalake.transactionlog.checkpoint.CheckpointEntr
 import static io.trino.plugin.deltalake.transactionlog.checkpoint.TransactionLogTail.getEntriesFromJson;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
-import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 /**
  * The current state of a Delta table.  It's defined by its latest checkpoint and the subsequent transactions
@@ -249,9 +256,9 @@ public class TableSnapshot
             checkState(metadataAndProtocol.isPresent(), "metadata and protocol information is needed to process the add log entries");
         }
 
-        return getCheckpointPartPaths(checkpoint).stream()
+        List<Supplier<Stream<DeltaLakeTransactionLogEntry>>> checkpointParts = getCheckpointPartPaths(checkpoint).stream()
                 .map(fileSystem::newInputFile)
-                .flatMap(checkpointFile -> getCheckpointTransactionLogEntries(
+                .map(checkpointFile -> (Supplier<Stream<DeltaLakeTransactionLogEntry>>) () -> getCheckpointTransactionLogEntries(
                         session,
                         fileSystem,
                         entryTypes,
@@ -264,7 +271,13 @@ public class TableSnapshot
                         checkpointFile,
                         partitionConstraint,
                         addStatsMinMaxColumnFilter,
-                        executor));
+                        executor))
+                .collect(toImmutableList());
+        if (checkpointParts.size() == 1) {
+            return checkpointParts.getFirst().get();
+        }
+        // Parts of multi-part checkpoints are read in parallel using a bounded executor
+        return readInParallel(checkpointParts, executor);
     }
 
     public Optional<Long> getLastCheckpointVersion()
@@ -350,38 +363,61 @@ public class TableSnapshot
     {
         // Sidecar files contain only ADD and REMOVE entry types. https://github.com/delta-io/delta/blob/master/PROTOCOL.md#v2-spec
         Set<CheckpointEntryIterator.EntryType> dataEntryTypes = Sets.intersection(entryTypes, Set.of(ADD, REMOVE));
-        List<CompletableFuture<Stream<DeltaLakeTransactionLogEntry>>> logEntryStreamFutures =
-                getV2CheckpointEntries(session, entryTypes, metadataEntry, protocolEntry, checkpointSchemaManager, typeManager, stats, checkpoint, checkpointFile, partitionConstraint, addStatsMinMaxColumnFilter, fileSystem, fileSize)
-                        .map(v2checkpointEntry -> {
-                            if (v2checkpointEntry.getSidecar() == null || dataEntryTypes.isEmpty()) {
-                                return CompletableFuture.completedFuture(Stream.of(v2checkpointEntry));
+        Predicate<DeltaLakeTransactionLogEntry> isSidecarToRead = entry -> entry.getSidecar() != null && !dataEntryTypes.isEmpty();
+        Stream<DeltaLakeTransactionLogEntry> v2CheckpointEntries = getV2CheckpointEntries(session, entryTypes, metadataEntry, protocolEntry, checkpointSchemaManager, typeManager, stats, checkpoint, checkpointFile, partitionConstraint, addStatsMinMaxColumnFilter, fileSystem, fileSize);
+        PeekingIterator<DeltaLakeTransactionLogEntry> entries = peekingIterator(v2CheckpointEntries.iterator());
+        Iterator<CheckpointPart> checkpointParts = new AbstractIterator<>()
+        {
+            @Override
+            protected CheckpointPart computeNext()
+            {
+                if (!entries.hasNext()) {
+                    return endOfData();
+                }
+                if (!isSidecarToRead.test(entries.peek())) {
+                    // The entries up to the next sidecar are read from the open checkpoint file instead of being buffered
+                    return new ConsumerPart(new AbstractIterator<>()
+                    {
+                        @Override
+                        protected DeltaLakeTransactionLogEntry computeNext()
+                        {
+                            if (entries.hasNext() && !isSidecarToRead.test(entries.peek())) {
+                                return entries.next();
                             }
-                            // Sidecar files are retrieved in parallel using a bounded executor
-                            return supplyAsync(() -> {
-                                Location sidecar = checkpointFile.location().sibling("_sidecars").appendPath(v2checkpointEntry.getSidecar().path());
-                                CheckpointEntryIterator iterator = new CheckpointEntryIterator(
-                                        fileSystem.newInputFile(sidecar),
-                                        session,
-                                        v2checkpointEntry.getSidecar().sizeInBytes(),
-                                        checkpointSchemaManager,
-                                        typeManager,
-                                        dataEntryTypes,
-                                        metadataEntry,
-                                        protocolEntry,
-                                        stats,
-                                        parquetReaderOptions,
-                                        checkpointRowStatisticsWritingEnabled,
-                                        domainCompactionThreshold,
-                                        partitionConstraint,
-                                        addStatsMinMaxColumnFilter);
-                                return stream(iterator).onClose(iterator::close);
-                            }, executor);
-                        })
-                        .collect(toImmutableList());
-        // Return the stream to retrieve the values of the futures lazily and allow streamlined split generation
-        return logEntryStreamFutures.stream()
-                .mapMulti((logEntryStream, builder)
-                        -> getFutureValue(logEntryStream, TrinoException.class).forEach(builder));
+                            return endOfData();
+                        }
+                    });
+                }
+                SidecarEntry sidecarEntry = entries.next().getSidecar();
+                Location sidecar = checkpointFile.location().sibling("_sidecars").appendPath(sidecarEntry.path());
+                return new ExecutorPart(() -> {
+                    CheckpointEntryIterator iterator = new CheckpointEntryIterator(
+                            fileSystem.newInputFile(sidecar),
+                            session,
+                            sidecarEntry.sizeInBytes(),
+                            checkpointSchemaManager,
+                            typeManager,
+                            dataEntryTypes,
+                            metadataEntry,
+                            protocolEntry,
+                            stats,
+                            parquetReaderOptions,
+                            checkpointRowStatisticsWritingEnabled,
+                            domainCompactionThreshold,
+                            partitionConstraint,
+                            addStatsMinMaxColumnFilter);
+                    return stream(iterator).onClose(iterator::close);
+                });
+            }
+        };
+        // Sidecar files are read in parallel using a bounded executor, and the entries are streamed to allow streamlined split generation
+        try {
+            return readInParallel(checkpointParts, executor)
+                    .onClose(v2CheckpointEntries::close);
+        }
+        catch (RuntimeException e) {
+            throw closeAllSuppress(e, v2CheckpointEntries);
+        }
     }
 
     private Stream<DeltaLakeTransactionLogEntry> getV2CheckpointEntries(
@@ -50,6 +50,7 @@ import io.trino.plugin.hive.parquet.ParquetReaderConfig;
 import io.trino.spi.TrinoException;
 import io.trino.spi.connector.ConnectorSession;
 import io.trino.spi.connector.SchemaTableName;
+import io.trino.spi.predicate.Domain;
 import io.trino.spi.predicate.TupleDomain;
 import io.trino.spi.type.ArrayType;
 import io.trino.spi.type.BooleanType;
@@ -64,7 +65,6 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.time.Instant;
-import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -101,6 +101,7 @@ import static io.trino.plugin.deltalake.transactionlog.checkpoint.CheckpointEntr
 import static io.trino.plugin.deltalake.transactionlog.checkpoint.TransactionLogTail.getEntriesFromJson;
 import static io.trino.plugin.deltalake.util.DeltaLakeDomains.partitionMatchesPredicate;
 import static java.lang.String.format;
+import static java.util.Comparator.comparingLong;
 import static java.util.Objects.requireNonNull;
 
 public class TransactionLogAccess
@@ -108,6 +109,7 @@ public class TransactionLogAccess
     private static final Pattern CLASSIC_CHECKPOINT = Pattern.compile("(\\d*)\\.checkpoint\\.parquet");
     private static final Pattern MULTI_PART_CHECKPOINT = Pattern.compile("(\\d*)\\.checkpoint\\.(\\d*)\\.(\\d*)\\.parquet");
     private static final Pattern V2_CHECKPOINT = Pattern.compile("(\\d*)\\.checkpoint\\.[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\.(json|parquet)");
+    private static final int MAX_CACHED_OLDER_VERSIONS = 8;
 
     private final TypeManager typeManager;
     private final CheckpointSchemaManager checkpointSchemaManager;
@@ -122,7 +124,8 @@ public class TransactionLogAccess
     private final TransactionLogReaderFactory transactionLogReaderFactory;
 
     private final Cache<TableLocation, TableSnapshot> tableSnapshots;
-    private final Cache<TableVersion, DeltaLakeDataFileCacheEntry> activeDataFileCache;
+    private final Cache<TableLocation, DeltaLakeDataFileCacheEntry> activeDataFileCache;
+    private final Cache<TableVersion, DeltaLakeDataFileCacheEntry> olderActiveDataFileCache;
 
     @Inject
     public TransactionLogAccess(
@@ -155,6 +158,13 @@ public class TransactionLogAccess
                 .recordStats()
                 .build();
         activeDataFileCache = EvictableCacheBuilder.newBuilder()
+                .weigher((Weigher<TableLocation, DeltaLakeDataFileCacheEntry>) (key, value) -> Ints.saturatedCast(key.getRetainedSizeInBytes() + value.getRetainedSizeInBytes()))
+                .maximumWeight(deltaLakeConfig.getDataFileCacheSize().toBytes())
+                .expireAfterWrite(deltaLakeConfig.getDataFileCacheTtl().toMillis(), TimeUnit.MILLISECONDS)
+                .shareNothingWhenDisabled()
+                .recordStats()
+                .build();
+        olderActiveDataFileCache = EvictableCacheBuilder.newBuilder()
                 .weigher((Weigher<TableVersion, DeltaLakeDataFileCacheEntry>) (key, value) -> Ints.saturatedCast(key.getRetainedSizeInBytes() + value.getRetainedSizeInBytes()))
                 .maximumWeight(deltaLakeConfig.getDataFileCacheSize().toBytes())
                 .expireAfterWrite(deltaLakeConfig.getDataFileCacheTtl().toMillis(), TimeUnit.MILLISECONDS)
@@ -323,6 +333,7 @@ public class TransactionLogAccess
     {
         tableSnapshots.invalidateAll();
         activeDataFileCache.invalidateAll();
+        olderActiveDataFileCache.invalidateAll();
     }
 
     public void invalidateCache(SchemaTableName schemaTableName, Optional<String> tableLocation)
@@ -331,10 +342,12 @@ public class TransactionLogAccess
         // Invalidate by location in case one table (location) unregistered and re-register under different name
         tableLocation.ifPresent(location -> {
             invalidateAllIf(tableSnapshots, cacheKey -> cacheKey.location().equals(location));
-            invalidateAllIf(activeDataFileCache, cacheKey -> cacheKey.tableLocation().location().equals(location));
+            invalidateAllIf(activeDataFileCache, cacheKey -> cacheKey.location().equals(location));
+            invalidateAllIf(olderActiveDataFileCache, cacheKey -> cacheKey.tableLocation().location().equals(location));
         });
         invalidateAllIf(tableSnapshots, cacheKey -> cacheKey.tableName().equals(schemaTableName));
-        invalidateAllIf(activeDataFileCache, cacheKey -> cacheKey.tableLocation().tableName().equals(schemaTableName));
+        invalidateAllIf(activeDataFileCache, cacheKey -> cacheKey.tableName().equals(schemaTableName));
+        invalidateAllIf(olderActiveDataFileCache, cacheKey -> cacheKey.tableLocation().tableName().equals(schemaTableName));
     }
 
     public MetadataEntry getMetadataEntry(ConnectorSession session, TableSnapshot tableSnapshot)
@@ -412,48 +425,108 @@ public class TransactionLogAccess
                 return loadActiveFiles(session, tableSnapshot, metadataEntry, protocolEntry, partitionConstraint, addStatsMinMaxColumnFilter);
             }
 
-            TableVersion tableVersion = new TableVersion(new TableLocation(tableSnapshot.getTable(), tableSnapshot.getTableLocation()), tableSnapshot.getVersion());
-
-            DeltaLakeDataFileCacheEntry cacheEntry = activeDataFileCache.get(tableVersion, () -> {
-                DeltaLakeDataFileCacheEntry oldCached = activeDataFileCache.asMap().keySet().stream()
-                        .filter(key -> key.tableLocation().equals(tableVersion.tableLocation()) &&
-                                key.version() < tableVersion.version())
-                        .flatMap(key -> Optional.ofNullable(activeDataFileCache.getIfPresent(key))
-                                .map(value -> Map.entry(key, value))
-                                .stream())
-                        .max(Comparator.comparing(entry -> entry.getKey().version()))
-                        .map(Map.Entry::getValue)
-                        .orElse(null);
-                if (oldCached != null) {
-                    try {
-                        List<DeltaLakeTransactionLogEntry> newEntries = getJsonEntries(
-                                session,
-                                transactionLogReader,
-                                oldCached.getVersion(),
-                                tableSnapshot.getVersion(),
-                                tableSnapshot,
-                                fileSystemFactory.create(session));
-                        return oldCached.withUpdatesApplied(newEntries, tableSnapshot.getVersion());
-                    }
-                    catch (MissingTransactionLogException e) {
-                        // The cached state cannot be used to calculate current state, as some
-                        // intermediate transaction files are expired.
-                    }
-                }
-
-                List<AddFileEntry> activeFiles;
-                try (Stream<AddFileEntry> addFileEntryStream = loadActiveFiles(session, tableSnapshot, metadataEntry, protocolEntry, TupleDomain.all(), alwaysTrue())) {
-                    activeFiles = addFileEntryStream.collect(toImmutableList());
+            // the most recent version of the table is rolled forward as new versions are committed,
+            // the versions it replaces are kept for queries reading older snapshots
+            TableLocation tableLocation = new TableLocation(tableSnapshot.getTable(), tableSnapshot.getTableLocation());
+            DeltaLakeDataFileCacheEntry cacheEntry = activeDataFileCache.get(tableLocation, () -> loadDataFileCacheEntry(session, tableSnapshot, metadataEntry, protocolEntry));
+            if (cacheEntry.getVersion() > tableSnapshot.getVersion()) {
+                cacheEntry = getOlderDataFileCacheEntry(session, transactionLogReader, tableLocation, tableSnapshot, metadataEntry, protocolEntry);
+            }
+            else if (cacheEntry.getVersion() < tableSnapshot.getVersion()) {
+                DeltaLakeDataFileCacheEntry updatedCacheEntry = rollForward(session, transactionLogReader, cacheEntry, tableSnapshot, metadataEntry, protocolEntry);
+                if (activeDataFileCache.asMap().replace(tableLocation, cacheEntry, updatedCacheEntry)) {
+                    cacheOlderVersion(tableLocation, cacheEntry);
                 }
-                return new DeltaLakeDataFileCacheEntry(tableSnapshot.getVersion(), activeFiles);
-            });
-            return cacheEntry.getActiveFiles().stream();
+                cacheEntry = updatedCacheEntry;
+            }
+            if (partitionConstraint.isAll()) {
+                return cacheEntry.getActiveFiles();
+            }
+            Map<DeltaLakeColumnHandle, Domain> partitionDomains = partitionConstraint.getDomains().orElseThrow();
+            return cacheEntry.getActiveFiles(partitionValues -> partitionMatchesPredicate(partitionValues, partitionDomains));
         }
         catch (ExecutionException | UncheckedExecutionException e) {
             throw new TrinoException(DELTA_LAKE_INVALID_SCHEMA, "Failed accessing transaction log for table: " + tableSnapshot.getTable(), e);
         }
     }
 
+    private DeltaLakeDataFileCacheEntry getOlderDataFileCacheEntry(
+            ConnectorSession session,
+            TransactionLogReader transactionLogReader,
+            TableLocation tableLocation,
+            TableSnapshot tableSnapshot,
+            MetadataEntry metadataEntry,
+            ProtocolEntry protocolEntry)
+            throws ExecutionException
+    {
+        TableVersion tableVersion = new TableVersion(tableLocation, tableSnapshot.getVersion());
+        DeltaLakeDataFileCacheEntry cacheEntry = olderActiveDataFileCache.get(tableVersion, () -> {
+            // roll forward the closest older version, if any
+            Optional<DeltaLakeDataFileCacheEntry> closestOlderEntry = olderActiveDataFileCache.asMap().keySet().stream()
+                    .filter(key -> key.tableLocation().equals(tableLocation) && key.version() < tableVersion.version())
+                    .max(comparingLong(TableVersion::version))
+                    .map(olderActiveDataFileCache::getIfPresent);
+            if (closestOlderEntry.isPresent()) {
+                return rollForward(session, transactionLogReader, closestOlderEntry.get(), tableSnapshot, metadataEntry, protocolEntry);
+            }
+            return loadDataFileCacheEntry(session, tableSnapshot, metadataEntry, protocolEntry);
+        });
+        evictOlderVersions(tableLocation);
+        return cacheEntry;
+    }
+
+    private void cacheOlderVersion(TableLocation tableLocation, DeltaLakeDataFileCacheEntry cacheEntry)
+            throws ExecutionException
+    {
+        olderActiveDataFileCache.get(new TableVersion(tableLocation, cacheEntry.getVersion()), () -> cacheEntry);
+        evictOlderVersions(tableLocation);
+    }
+
+    private void evictOlderVersions(TableLocation tableLocation)
+    {
+        List<TableVersion> evicted = olderActiveDataFileCache.asMap().keySet().stream()
+                .filter(key -> key.tableLocation().equals(tableLocation))
+                .sorted(comparingLong(TableVersion::version).reversed())
+                .skip(MAX_CACHED_OLDER_VERSIONS)
+                .collect(toImmutableList());
+        olderActiveDataFileCache.invalidateAll(evicted);
+    }
+
+    private DeltaLakeDataFileCacheEntry rollForward(
+            ConnectorSession session,
+            TransactionLogReader transactionLogReader,
+            DeltaLakeDataFileCacheEntry cacheEntry,
+            TableSnapshot tableSnapshot,
+            MetadataEntry metadataEntry,
+            ProtocolEntry protocolEntry)
+    {
+        try {
+            List<Transaction> newTransactions = getTransactions(
+                    session,
+                    transactionLogReader,
+                    cacheEntry.getVersion(),
+                    tableSnapshot);
+            return cacheEntry.withUpdatesApplied(newTransactions, tableSnapshot.getVersion(), fileSystemFactory.create(session));
+        }
+        catch (MissingTransactionLogException e) {
+            // The cached state cannot be used to calculate current state, as some
+            // intermediate transaction files are expired.
+            return loadDataFileCacheEntry(session, tableSnapshot, metadataEntry, protocolEntry);
+        }
+        catch (IOException e) {
+            throw new TrinoException(DELTA_LAKE_INVALID_SCHEMA, "Error reading transaction log for " + tableSnapshot.getTable(), e);
+        }
+    }
+
+    private DeltaLakeDataFileCacheEntry loadDataFileCacheEntry(ConnectorSession session, TableSnapshot tableSnapshot, MetadataEntry metadataEntry, ProtocolEntry protocolEntry)
+    {
+        List<AddFileEntry> activeFiles;
+        try (Stream<AddFileEntry> addFileEntryStream = loadActiveFiles(session, tableSnapshot, metadataEntry, protocolEntry, TupleDomain.all(), alwaysTrue())) {
+            activeFiles = addFileEntryStream.collect(toImmutableList());
+        }
+        return new DeltaLakeDataFileCacheEntry(tableSnapshot.getVersion(), activeFiles);
+    }
+
     public Stream<AddFileEntry> loadActiveFiles(
             ConnectorSession session,
             TableSnapshot tableSnapshot,
@@ -516,7 +589,7 @@ public class TransactionLogAccess
                 entries.forEach(deltaLakeTransactionLogEntry -> {
                     if (deltaLakeTransactionLogEntry.getAdd() != null) {
                         AddFileEntry add = deltaLakeTransactionLogEntry.getAdd();
-                        addFilesInTransaction.put(new FileEntryKey(add.getPath(), add.getDeletionVector().map(DeletionVectorEntry::uniqueId)), add);
+                        addFilesInTransaction.put(FileEntryKey.of(add), add);
                     }
                     else if (deltaLakeTransactionLogEntry.getRemove() != null) {
                         RemoveFileEntry remove = deltaLakeTransactionLogEntry.getRemove();
@@ -535,14 +608,26 @@ public class TransactionLogAccess
                 .map(DeltaLakeTransactionLogEntry::getAdd)
                 .filter(Objects::nonNull)
                 .filter(addEntry -> {
-                    FileEntryKey key = new FileEntryKey(addEntry.getPath(), addEntry.getDeletionVector().map(DeletionVectorEntry::uniqueId));
+                    FileEntryKey key = FileEntryKey.of(addEntry);
                     return !removedFiles.contains(key) && !activeJsonEntries.containsKey(key);
                 });
 
         return Stream.concat(filteredCheckpointEntries, activeJsonEntries.values().stream());
     }
 
-    private record FileEntryKey(String path, Optional<String> deletionVectorId) {}
+    record FileEntryKey(String path, Optional<String> deletionVectorId)
+    {
+        FileEntryKey
+        {
+            requireNonNull(path, "path is null");
+            requireNonNull(deletionVectorId, "deletionVectorId is null");
+        }
+
+        static FileEntryKey of(AddFileEntry addFileEntry)
+        {
+            return new FileEntryKey(addFileEntry.getPath(), addFileEntry.getDeletionVector().map(DeletionVectorEntry::uniqueId));
+        }
+    }
 
     public MetadataAndProtocolEntries getMetadataAndProtocolEntry(ConnectorSession session, TableSnapshot tableSnapshot)
     {
@@ -701,23 +786,27 @@ public class TransactionLogAccess
         return result.build();
     }
 
-    private List<DeltaLakeTransactionLogEntry> getJsonEntries(
+    /**
+     * Returns the transactions committed after the start version, up to the version of the snapshot.
+     */
+    private List<Transaction> getTransactions(
             ConnectorSession session,
             TransactionLogReader transactionLogReader,
             long startVersion,
-            long endVersion,
-            TableSnapshot tableSnapshot,
-            TrinoFileSystem fileSystem)
+            TableSnapshot tableSnapshot)
             throws IOException
     {
         Optional<Long> lastCheckpointVersion = tableSnapshot.getLastCheckpointVersion();
         if (lastCheckpointVersion.isPresent() && startVersion < lastCheckpointVersion.get()) {
-            return ImmutableList.<DeltaLakeTransactionLogEntry>builder()
-                    .addAll(transactionLogReader.loadNewTail(session, Optional.of(startVersion), lastCheckpointVersion, transactionLogMaxCachedFileSize).getFileEntries(fileSystem))
-                    .addAll(tableSnapshot.getJsonTransactionLogEntries(fileSystem))
+            return ImmutableList.<Transaction>builder()
+                    .addAll(transactionLogReader.loadNewTail(session, Optional.of(startVersion), lastCheckpointVersion, transactionLogMaxCachedFileSize).getTransactions())
+                    .addAll(tableSnapshot.getTransactions())
                     .build();
         }
-        return transactionLogReader.loadNewTail(session, Optional.of(startVersion), Optional.of(endVersion), transactionLogMaxCachedFileSize).getFileEntries(fileSystem);
+        // the snapshot already holds all transactions after its checkpoint
+        return tableSnapshot.getTransactions().stream()
+                .filter(transaction -> transaction.transactionId() > startVersion)
+                .collect(toImmutableList());
     }
 
     public static String canonicalizeColumnName(String columnName)
@@ -746,37 +835,37 @@ public class TransactionLogAccess
                         Map.Entry::getValue));
     }
 
-    private record TableLocation(SchemaTableName tableName, String location)
+    private record TableVersion(TableLocation tableLocation, long version)
     {
-        private static final int INSTANCE_SIZE = instanceSize(TableLocation.class);
+        private static final int INSTANCE_SIZE = instanceSize(TableVersion.class);
 
-        TableLocation
+        TableVersion
         {
-            requireNonNull(tableName, "tableName is null");
-            requireNonNull(location, "location is null");
+            requireNonNull(tableLocation, "tableLocation is null");
         }
 
         long getRetainedSizeInBytes()
         {
             return INSTANCE_SIZE +
-                    tableName.getRetainedSizeInBytes() +
-                    estimatedSizeOf(location);
+                    tableLocation.getRetainedSizeInBytes();
         }
     }
 
-    private record TableVersion(TableLocation tableLocation, long version)
+    private record TableLocation(SchemaTableName tableName, String location)
     {
-        private static final int INSTANCE_SIZE = instanceSize(TableVersion.class);
+        private static final int INSTANCE_SIZE = instanceSize(TableLocation.class);
 
-        TableVersion
+        TableLocation
         {
-            requireNonNull(tableLocation, "tableLocation is null");
+            requireNonNull(tableName, "tableName is null");
+            requireNonNull(location, "location is null");
         }
 
         long getRetainedSizeInBytes()
         {
             return INSTANCE_SIZE +
-                    tableLocation.getRetainedSizeInBytes();
+                    tableName.getRetainedSizeInBytes() +
+                    estimatedSizeOf(location);
         }
     }
 }
@@ -65,6 +65,7 @@ import static io.trino.plugin.deltalake.DeltaLakeColumnType.PARTITION_KEY;
 import static io.trino.plugin.deltalake.DeltaLakeColumnType.REGULAR;
 import static io.trino.plugin.hive.HiveTestUtils.HDFS_ENVIRONMENT;
 import static io.trino.plugin.hive.HiveTestUtils.HDFS_FILE_SYSTEM_STATS;
+import static io.trino.plugin.hive.HiveTestUtils.PARQUET_PREFETCH_EXECUTOR;
 import static io.trino.spi.type.DateType.DATE;
 import static io.trino.spi.type.Decimals.writeShortDecimal;
 import static io.trino.spi.type.IntegerType.INTEGER;
@@ -329,6 +330,7 @@ public class TestDeltaLakeNodeLocalDynamicSplitPruning
                 new HdfsFileSystemFactory(HDFS_ENVIRONMENT, HDFS_FILE_SYSTEM_STATS),
                 stats,
                 PARQUET_READER_CONFIG,
+                PARQUET_PREFETCH_EXECUTOR,
                 deltaLakeConfig,
                 TESTING_TYPE_MANAGER);
 
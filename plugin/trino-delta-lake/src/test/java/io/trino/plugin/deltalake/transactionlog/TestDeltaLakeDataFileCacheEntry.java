@@ -0,0 +1,217 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.deltalake.transactionlog;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import io.trino.filesystem.Location;
+import io.trino.filesystem.TrinoFileSystem;
+import io.trino.filesystem.memory.MemoryFileSystem;
+import io.trino.plugin.deltalake.transactionlog.TransactionLogAccess.FileEntryKey;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Random;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestDeltaLakeDataFileCacheEntry
+{
+    private static final String DELETION_VECTOR = "\"deletionVector\":{\"storageType\":\"u\",\"pathOrInlineDv\":\"ab^-aqEH.-t@S}K{vb[*k^\",\"offset\":1,\"sizeInBytes\":36,\"cardinality\":2}";
+
+    private final TrinoFileSystem fileSystem = new MemoryFileSystem();
+
+    @Test
+    public void testRollForward()
+            throws IOException
+    {
+        DeltaLakeDataFileCacheEntry entry = new DeltaLakeDataFileCacheEntry(0, ImmutableList.of(addFile("a", 1), addFile("b", 1), addFile("c", 1)));
+
+        entry = entry.withUpdatesApplied(
+                ImmutableList.of(
+                        transaction(1, remove("b"), add("d", 1)),
+                        transaction(2, add("a", 2), remove("d"), add("e", 1))),
+                2,
+                fileSystem);
+
+        assertThat(entry.getVersion()).isEqualTo(2);
+        assertThat(activeFiles(entry)).isEqualTo(ImmutableMap.of("a", 2L, "c", 1L, "e", 1L));
+    }
+
+    @Test
+    public void testDeletionVectors()
+            throws IOException
+    {
+        DeltaLakeDataFileCacheEntry entry = new DeltaLakeDataFileCacheEntry(0, ImmutableList.of(addFile("a", 1), addFile("b", 1)));
+
+        // the remove action of the file without the deletion vector is processed before the add action, whatever the order in the log
+        entry = entry.withUpdatesApplied(
+                ImmutableList.of(transaction(1, "{\"add\":{\"path\":\"a\",\"partitionValues\":{},\"size\":5,\"modificationTime\":0,\"dataChange\":true," + DELETION_VECTOR + "}}", remove("a"))),
+                1,
+                fileSystem);
+
+        List<AddFileEntry> activeFiles = entry.getActiveFiles().toList();
+        assertThat(activeFiles).extracting(AddFileEntry::getPath).containsExactlyInAnyOrder("a", "b");
+        assertThat(activeFiles).filteredOn(file -> file.getPath().equals("a"))
+                .singleElement()
+                .satisfies(file -> assertThat(file.getDeletionVector()).isPresent());
+    }
+
+    @Test
+    public void testMaterializedFiles()
+    {
+        Map<String, String> partitionValues = new HashMap<>();
+        partitionValues.put("part", null);
+        List<AddFileEntry> files = ImmutableList.of(
+                new AddFileEntry("part=a/file-1.parquet", ImmutableMap.of("part", "a"), 10, 1, true, Optional.of("{\"numRecords\":5,\"minValues\":{\"x\":1},\"maxValues\":{\"x\":3},\"nullCount\":{\"x\":0}}"), Optional.empty(), ImmutableMap.of("tag", "value"), Optional.empty()),
+                new AddFileEntry("part=a/file-2.parquet", ImmutableMap.of("part", "a"), 20, 2, false, Optional.empty(), Optional.empty(), null, Optional.of(new DeletionVectorEntry("u", "ab^-aqEH.-t@S}K{vb[*k^", OptionalInt.of(1), 36, 2))),
+                new AddFileEntry("part=__HIVE_DEFAULT_PARTITION__/fïlé-3.parquet", partitionValues, 30, 3, true, Optional.empty(), Optional.empty(), ImmutableMap.of(), Optional.empty()),
+                new AddFileEntry("s3://other-bucket/table/file-4.parquet", ImmutableMap.of("part", ""), 40, 4, true, Optional.empty(), Optional.empty(), null, Optional.empty()),
+                new AddFileEntry("file-5.parquet", ImmutableMap.of("part", "a"), 50, 5, true, Optional.empty(), Optional.empty(), null, Optional.empty()));
+
+        DeltaLakeDataFileCacheEntry entry = new DeltaLakeDataFileCacheEntry(0, files);
+
+        assertThat(entry.getActiveFiles()).containsExactlyElementsOf(files);
+    }
+
+    @Test
+    public void testFileNameChunks()
+    {
+        List<AddFileEntry> files = ImmutableList.of(
+                addFile("part=a/file-1.parquet", 1),
+                addFile("part=a/file-2.parquet", 2),
+                addFile("part=b/a-file-name-longer-than-the-chunk.parquet", 3),
+                addFile("part=b/fïlé-4.parquet", 4),
+                addFile("file-5.parquet", 5));
+
+        // a chunk holds at most two of the short file names
+        AddFileEntryColumns columns = new AddFileEntryColumns(files, 32);
+
+        assertThat(columns.getPositionCount()).isEqualTo(files.size());
+        for (int position = 0; position < files.size(); position++) {
+            assertThat(columns.get(position)).isEqualTo(files.get(position));
+            assertThat(columns.indexOf(new FileEntryKey(files.get(position).getPath(), Optional.empty()))).isEqualTo(position);
+        }
+        assertThat(columns.indexOf(new FileEntryKey("part=a/file-3.parquet", Optional.empty()))).isEqualTo(-1);
+    }
+
+    @Test
+    public void testPartitionFilter()
+            throws IOException
+    {
+        DeltaLakeDataFileCacheEntry entry = new DeltaLakeDataFileCacheEntry(0, ImmutableList.of(
+                addFile("part=a/a-1", ImmutableMap.of("part", "a")),
+                addFile("part=b/b-1", ImmutableMap.of("part", "b")),
+                addFile("part=a/a-2", ImmutableMap.of("part", "a")),
+                addFile("part=c/c-1", ImmutableMap.of("part", ""))));
+        entry = entry.withUpdatesApplied(
+                ImmutableList.of(transaction(1, remove("part=a/a-1"), "{\"add\":{\"path\":\"part=a/a-3\",\"partitionValues\":{\"part\":\"a\"},\"size\":1,\"modificationTime\":0,\"dataChange\":true}}")),
+                1,
+                fileSystem);
+
+        assertThat(entry.getActiveFiles(partitionValues -> partitionValues.get("part").equals(Optional.of("a"))))
+                .extracting(AddFileEntry::getPath)
+                .containsExactly("part=a/a-2", "part=a/a-3");
+        assertThat(entry.getActiveFiles(partitionValues -> partitionValues.get("part").isEmpty()))
+                .extracting(AddFileEntry::getPath)
+                .containsExactly("part=c/c-1");
+    }
+
+    @Test
+    public void testManyVersions()
+            throws IOException
+    {
+        Random random = new Random(42);
+        Map<String, Long> expected = new LinkedHashMap<>();
+        List<AddFileEntry> initialFiles = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            initialFiles.add(addFile("file-" + i, 0));
+            expected.put("file-" + i, 0L);
+        }
+        DeltaLakeDataFileCacheEntry entry = new DeltaLakeDataFileCacheEntry(0, initialFiles);
+
+        int nextFile = initialFiles.size();
+        for (long version = 1; version <= 200; version++) {
+            List<String> removedFiles = new ArrayList<>();
+            List<String> addedFiles = new ArrayList<>();
+            List<String> paths = ImmutableList.copyOf(expected.keySet());
+            for (int i = 0; i < random.nextInt(20); i++) {
+                removedFiles.add(paths.get(random.nextInt(paths.size())));
+            }
+            for (int i = 0; i < random.nextInt(30); i++) {
+                // add new files, or replace existing files with new metadata
+                addedFiles.add(random.nextBoolean() ? "file-" + nextFile++ : paths.get(random.nextInt(paths.size())));
+            }
+
+            List<String> actions = new ArrayList<>();
+            for (String path : removedFiles) {
+                actions.add(remove(path));
+                expected.remove(path);
+            }
+            for (String path : addedFiles) {
+                actions.add(add(path, version));
+                expected.put(path, version);
+            }
+
+            entry = entry.withUpdatesApplied(ImmutableList.of(transaction(version, actions.toArray(String[]::new))), version, fileSystem);
+            assertThat(activeFiles(entry)).isEqualTo(expected);
+            assertThat(entry.getActiveFiles().count()).isEqualTo(expected.size());
+        }
+    }
+
+    private Transaction transaction(long version, String... actions)
+            throws IOException
+    {
+        Location location = Location.of("memory:///_delta_log/%020d.json".formatted(version));
+        fileSystem.newOutputFile(location).createOrOverwrite(String.join("\n", actions).getBytes(UTF_8));
+        return new Transaction(version, new TransactionLogEntries(version, fileSystem.newInputFile(location), DataSize.of(16, MEGABYTE)));
+    }
+
+    private static Map<String, Long> activeFiles(DeltaLakeDataFileCacheEntry entry)
+    {
+        return entry.getActiveFiles()
+                .collect(toImmutableMap(AddFileEntry::getPath, AddFileEntry::getSize));
+    }
+
+    private static AddFileEntry addFile(String path, long size)
+    {
+        return new AddFileEntry(path, ImmutableMap.of(), size, 0, true, Optional.empty(), Optional.empty(), ImmutableMap.of(), Optional.empty());
+    }
+
+    private static AddFileEntry addFile(String path, Map<String, String> partitionValues)
+    {
+        return new AddFileEntry(path, partitionValues, 1, 0, true, Optional.empty(), Optional.empty(), ImmutableMap.of(), Optional.empty());
+    }
+
+    private static String add(String path, long size)
+    {
+        return "{\"add\":{\"path\":\"%s\",\"partitionValues\":{},\"size\":%s,\"modificationTime\":0,\"dataChange\":true}}".formatted(path, size);
+    }
+
+    private static String remove(String path)
+    {
+        return "{\"remove\":{\"path\":\"%s\",\"deletionTimestamp\":0,\"dataChange\":true}}".formatted(path);
+    }
+}
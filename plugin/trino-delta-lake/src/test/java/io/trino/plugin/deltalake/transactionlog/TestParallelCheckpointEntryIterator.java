@@ -0,0 +1,181 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.deltalake.transactionlog;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.PeekingIterator;
+import io.airlift.concurrent.BoundedExecutor;
+import io.airlift.units.Duration;
+import io.trino.plugin.deltalake.transactionlog.ParallelCheckpointEntryIterator.CheckpointPart;
+import io.trino.plugin.deltalake.transactionlog.ParallelCheckpointEntryIterator.ConsumerPart;
+import io.trino.plugin.deltalake.transactionlog.ParallelCheckpointEntryIterator.ExecutorPart;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.Iterators.peekingIterator;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.trino.plugin.deltalake.transactionlog.ParallelCheckpointEntryIterator.readInParallel;
+import static io.trino.testing.assertions.Assert.assertEventually;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+@TestInstance(PER_CLASS)
+public class TestParallelCheckpointEntryIterator
+{
+    private final ExecutorService executor = newCachedThreadPool(daemonThreadsNamed("test-checkpoint-%s"));
+
+    @AfterAll
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testEntriesInPartOrder()
+    {
+        List<Supplier<Stream<DeltaLakeTransactionLogEntry>>> parts = IntStream.range(0, 8)
+                .mapToObj(part -> (Supplier<Stream<DeltaLakeTransactionLogEntry>>) () -> IntStream.range(0, 10_000)
+                        .mapToObj(entry -> addEntry("part-%s/file-%s".formatted(part, entry))))
+                .collect(toImmutableList());
+
+        try (Stream<DeltaLakeTransactionLogEntry> entries = readInParallel(parts, new BoundedExecutor(executor, 3))) {
+            assertThat(entries.map(entry -> entry.getAdd().getPath()).toList())
+                    .isEqualTo(IntStream.range(0, 8).boxed()
+                            .flatMap(part -> IntStream.range(0, 10_000).mapToObj(entry -> "part-%s/file-%s".formatted(part, entry)))
+                            .toList());
+        }
+    }
+
+    @Test
+    public void testEmptyParts()
+    {
+        List<Supplier<Stream<DeltaLakeTransactionLogEntry>>> parts = ImmutableList.of(
+                Stream::empty,
+                () -> Stream.of(addEntry("a")),
+                Stream::empty);
+
+        try (Stream<DeltaLakeTransactionLogEntry> entries = readInParallel(parts, executor)) {
+            assertThat(entries.map(entry -> entry.getAdd().getPath())).containsExactly("a");
+        }
+        try (Stream<DeltaLakeTransactionLogEntry> entries = readInParallel(ImmutableList.of(), executor)) {
+            assertThat(entries).isEmpty();
+        }
+    }
+
+    @Test
+    public void testPartsReadByConsumer()
+    {
+        // the entries of a top level checkpoint, with references to sidecars interleaved with inline entries
+        List<String> topLevelEntries = ImmutableList.of("a", "b", "sidecar-1", "sidecar-2", "c", "sidecar-3", "d");
+        AtomicInteger readTopLevelEntries = new AtomicInteger();
+        PeekingIterator<String> topLevel = peekingIterator(topLevelEntries.stream()
+                .peek(_ -> readTopLevelEntries.incrementAndGet())
+                .iterator());
+        Iterator<CheckpointPart> parts = new AbstractIterator<>()
+        {
+            @Override
+            protected CheckpointPart computeNext()
+            {
+                if (!topLevel.hasNext()) {
+                    return endOfData();
+                }
+                if (topLevel.peek().startsWith("sidecar")) {
+                    String sidecar = topLevel.next();
+                    return new ExecutorPart(() -> IntStream.range(0, 3).mapToObj(entry -> addEntry(sidecar + "/" + entry)));
+                }
+                return new ConsumerPart(new AbstractIterator<>()
+                {
+                    @Override
+                    protected DeltaLakeTransactionLogEntry computeNext()
+                    {
+                        if (topLevel.hasNext() && !topLevel.peek().startsWith("sidecar")) {
+                            return addEntry(topLevel.next());
+                        }
+                        return endOfData();
+                    }
+                });
+            }
+        };
+
+        try (Stream<DeltaLakeTransactionLogEntry> stream = readInParallel(parts, executor)) {
+            Iterator<String> entries = stream.map(entry -> entry.getAdd().getPath()).iterator();
+            assertThat(entries.next()).isEqualTo("a");
+            // the top level entries are not buffered ahead of the consumer
+            assertThat(readTopLevelEntries).hasValue(1);
+            assertThat(ImmutableList.copyOf(entries)).containsExactly(
+                    "b",
+                    "sidecar-1/0", "sidecar-1/1", "sidecar-1/2",
+                    "sidecar-2/0", "sidecar-2/1", "sidecar-2/2",
+                    "c",
+                    "sidecar-3/0", "sidecar-3/1", "sidecar-3/2",
+                    "d");
+        }
+    }
+
+    @Test
+    public void testFailure()
+    {
+        List<Supplier<Stream<DeltaLakeTransactionLogEntry>>> parts = ImmutableList.of(
+                () -> Stream.of(addEntry("a")),
+                () -> {
+                    throw new IllegalStateException("part failed");
+                });
+
+        try (Stream<DeltaLakeTransactionLogEntry> entries = readInParallel(parts, executor)) {
+            assertThatThrownBy(entries::toList)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("part failed");
+        }
+    }
+
+    @Test
+    public void testCloseReleasesParts()
+    {
+        AtomicInteger openParts = new AtomicInteger();
+        List<Supplier<Stream<DeltaLakeTransactionLogEntry>>> parts = IntStream.range(0, 4)
+                .mapToObj(_ -> (Supplier<Stream<DeltaLakeTransactionLogEntry>>) () -> {
+                    openParts.incrementAndGet();
+                    return Stream.generate(() -> addEntry("file"))
+                            .onClose(openParts::decrementAndGet);
+                })
+                .collect(toImmutableList());
+
+        try (Stream<DeltaLakeTransactionLogEntry> entries = readInParallel(parts, executor)) {
+            assertThat(entries.limit(5000).count()).isEqualTo(5000);
+        }
+        // the tasks which are still running close their parts when they notice the iterator is closed
+        assertEventually(new Duration(10, SECONDS), () -> assertThat(openParts).hasValue(0));
+    }
+
+    private static DeltaLakeTransactionLogEntry addEntry(String path)
+    {
+        return DeltaLakeTransactionLogEntry.addFileEntry(new AddFileEntry(path, ImmutableMap.of(), 1, 0, true, Optional.empty(), Optional.empty(), ImmutableMap.of(), Optional.empty()));
+    }
+}
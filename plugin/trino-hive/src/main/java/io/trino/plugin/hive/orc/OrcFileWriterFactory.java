@@ -89,13 +89,14 @@ public class OrcFileWriterFactory
             TypeManager typeManager,
             NodeVersion nodeVersion,
             FileFormatDataSourceStats readStats,
-            OrcWriterConfig config)
+            OrcWriterConfig config,
+            OrcWriterEncodingExecutor encodingExecutor)
     {
         this(
                 typeManager,
                 nodeVersion,
                 readStats,
-                config.toOrcWriterOptions(),
+                encodingExecutor.apply(config.toOrcWriterOptions()),
                 fileSystemFactory);
     }
 
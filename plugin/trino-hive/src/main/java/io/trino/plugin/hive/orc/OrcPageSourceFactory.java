@@ -212,7 +212,9 @@ public class OrcPageSourceFactory
                         .withMaxReadBlockSize(getOrcMaxReadBlockSize(session))
                         .withLazyReadSmallRanges(getOrcLazyReadSmallRanges(session))
                         .withNestedLazy(isOrcNestedLazy(session))
-                        .withBloomFiltersEnabled(isOrcBloomFiltersEnabled(session)),
+                        .withBloomFiltersEnabled(isOrcBloomFiltersEnabled(session))
+                        // deleted rows of transactional tables are matched by their position in the page
+                        .withEncodedPredicateEvaluationEnabled(orcReaderOptions.isEncodedPredicateEvaluationEnabled() && !schema.isFullAcidTable() && acidInfo.isEmpty()),
                 acidInfo,
                 bucketNumber,
                 originalFile,
@@ -164,4 +164,17 @@ public class OrcReaderConfig
         options = options.withReadLegacyShortZoneId(readLegacyShortZoneId);
         return this;
     }
+
+    public boolean isEncodedPredicateEvaluationEnabled()
+    {
+        return options.isEncodedPredicateEvaluationEnabled();
+    }
+
+    @Config("hive.orc.encoded-predicate-evaluation.enabled")
+    @ConfigDescription("Filter rows on dictionary ids and runs of predicate columns before decoding the other columns")
+    public OrcReaderConfig setEncodedPredicateEvaluationEnabled(boolean encodedPredicateEvaluationEnabled)
+    {
+        options = options.withEncodedPredicateEvaluationEnabled(encodedPredicateEvaluationEnabled);
+        return this;
+    }
 }
@@ -23,6 +23,7 @@ import io.trino.orc.OrcWriterOptions;
 import io.trino.orc.OrcWriterOptions.WriterIdentification;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 @DefunctConfig("hive.orc.optimized-writer.enabled")
@@ -32,6 +33,7 @@ public class OrcWriterConfig
 
     private double validationPercentage;
     private OrcWriteValidationMode validationMode = OrcWriteValidationMode.BOTH;
+    private int encodingThreads;
 
     public OrcWriterOptions toOrcWriterOptions()
     {
@@ -135,6 +137,20 @@ public class OrcWriterConfig
         return this;
     }
 
+    @Min(0)
+    public int getEncodingThreads()
+    {
+        return encodingThreads;
+    }
+
+    @Config("hive.orc.writer.encoding-threads")
+    @ConfigDescription("Maximum number of threads shared by all ORC writers to encode columns in parallel, or 0 to encode columns in the writing thread")
+    public OrcWriterConfig setEncodingThreads(int encodingThreads)
+    {
+        this.encodingThreads = encodingThreads;
+        return this;
+    }
+
     @Deprecated
     public boolean isUseLegacyVersion()
     {
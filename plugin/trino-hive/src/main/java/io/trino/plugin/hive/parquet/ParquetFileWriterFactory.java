@@ -70,6 +70,7 @@ public class ParquetFileWriterFactory
     private final TypeManager typeManager;
     private final DateTimeZone parquetTimeZone;
     private final FileFormatDataSourceStats readStats;
+    private final ParquetWriterEncodingExecutor encodingExecutor;
 
     @Inject
     public ParquetFileWriterFactory(
@@ -77,13 +78,15 @@ public class ParquetFileWriterFactory
             NodeVersion nodeVersion,
             TypeManager typeManager,
             HiveConfig hiveConfig,
-            FileFormatDataSourceStats readStats)
+            FileFormatDataSourceStats readStats,
+            ParquetWriterEncodingExecutor encodingExecutor)
     {
         this.fileSystemFactory = requireNonNull(fileSystemFactory, "fileSystemFactory is null");
         this.nodeVersion = requireNonNull(nodeVersion, "nodeVersion is null");
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
         this.parquetTimeZone = hiveConfig.getParquetDateTimeZone();
         this.readStats = requireNonNull(readStats, "readStats is null");
+        this.encodingExecutor = requireNonNull(encodingExecutor, "encodingExecutor is null");
     }
 
     @Override
@@ -103,7 +106,7 @@ public class ParquetFileWriterFactory
             return Optional.empty();
         }
 
-        ParquetWriterOptions parquetWriterOptions = ParquetWriterOptions.builder()
+        ParquetWriterOptions parquetWriterOptions = encodingExecutor.apply(ParquetWriterOptions.builder())
                 .setMaxPageSize(HiveSessionProperties.getParquetWriterPageSize(session))
                 .setMaxPageValueCount(HiveSessionProperties.getParquetWriterPageValueCount(session))
                 .setMaxBlockSize(HiveSessionProperties.getParquetWriterBlockSize(session))
@@ -143,11 +143,14 @@ public class ParquetPageSourceFactory
             TrinoFileSystemFactory fileSystemFactory,
             FileFormatDataSourceStats stats,
             ParquetReaderConfig config,
+            ParquetPrefetchExecutor prefetchExecutor,
             HiveConfig hiveConfig)
     {
         this.fileSystemFactory = requireNonNull(fileSystemFactory, "fileSystemFactory is null");
         this.stats = requireNonNull(stats, "stats is null");
-        options = config.toParquetReaderOptions();
+        options = ParquetReaderOptions.builder(config.toParquetReaderOptions())
+                .withPrefetchExecutor(prefetchExecutor)
+                .build();
         timeZone = hiveConfig.getParquetDateTimeZone();
         domainCompactionThreshold = hiveConfig.getDomainCompactionThreshold();
     }
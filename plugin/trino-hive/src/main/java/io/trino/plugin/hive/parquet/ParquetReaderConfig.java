@@ -36,6 +36,7 @@ public class ParquetReaderConfig
     public static final String PARQUET_READER_MAX_SMALL_FILE_THRESHOLD = "15MB";
 
     private ParquetReaderOptions options = ParquetReaderOptions.defaultOptions();
+    private int prefetchThreads = 32;
 
     public boolean isIgnoreStatistics()
     {
@@ -191,6 +192,67 @@ public class ParquetReaderConfig
         return options.getMaxFooterReadSize();
     }
 
+    @Config("parquet.encoded-predicate-evaluation.enabled")
+    @ConfigDescription("Filter rows on dictionary ids and runs of predicate columns before decoding the other columns")
+    public ParquetReaderConfig setEncodedPredicateEvaluationEnabled(boolean encodedPredicateEvaluationEnabled)
+    {
+        options = ParquetReaderOptions.builder(options)
+                .withEncodedPredicateEvaluationEnabled(encodedPredicateEvaluationEnabled)
+                .build();
+        return this;
+    }
+
+    public boolean isEncodedPredicateEvaluationEnabled()
+    {
+        return options.isEncodedPredicateEvaluationEnabled();
+    }
+
+    @Min(0)
+    public int getPrefetchRowGroupCount()
+    {
+        return options.getPrefetchRowGroupCount();
+    }
+
+    @Config("parquet.prefetch.row-group-count")
+    @ConfigDescription("Number of row groups read in the background ahead of the row group being decoded")
+    public ParquetReaderConfig setPrefetchRowGroupCount(int prefetchRowGroupCount)
+    {
+        options = ParquetReaderOptions.builder(options)
+                .withPrefetchRowGroupCount(prefetchRowGroupCount)
+                .build();
+        return this;
+    }
+
+    @NotNull
+    public DataSize getMaxPrefetchSize()
+    {
+        return options.getMaxPrefetchSize();
+    }
+
+    @Config("parquet.prefetch.max-size")
+    @ConfigDescription("Maximum size of the row groups read in the background by a single reader")
+    public ParquetReaderConfig setMaxPrefetchSize(DataSize maxPrefetchSize)
+    {
+        options = ParquetReaderOptions.builder(options)
+                .withMaxPrefetchSize(maxPrefetchSize)
+                .build();
+        return this;
+    }
+
+    @Min(1)
+    public int getPrefetchThreads()
+    {
+        return prefetchThreads;
+    }
+
+    @Config("parquet.prefetch.max-threads")
+    @ConfigDescription("Maximum number of threads shared by all readers to read row groups in the background")
+    public ParquetReaderConfig setPrefetchThreads(int prefetchThreads)
+    {
+        this.prefetchThreads = prefetchThreads;
+        return this;
+    }
+
     public ParquetReaderOptions toParquetReaderOptions()
     {
         return options;
@@ -47,6 +47,7 @@ public class ParquetWriterConfig
     private int pageValueCount = ParquetWriterOptions.DEFAULT_MAX_PAGE_VALUE_COUNT;
     private int batchSize = ParquetWriterOptions.DEFAULT_BATCH_SIZE;
     private double validationPercentage = 5;
+    private int encodingThreads;
 
     @MaxDataSize(PARQUET_WRITER_MAX_BLOCK_SIZE)
     public DataSize getBlockSize()
@@ -119,4 +120,18 @@ public class ParquetWriterConfig
         this.validationPercentage = validationPercentage;
         return this;
     }
+
+    @Min(0)
+    public int getEncodingThreads()
+    {
+        return encodingThreads;
+    }
+
+    @Config("parquet.writer.encoding-threads")
+    @ConfigDescription("Maximum number of threads shared by all Parquet writers to encode columns in parallel, or 0 to encode columns in the writing thread")
+    public ParquetWriterConfig setEncodingThreads(int encodingThreads)
+    {
+        this.encodingThreads = encodingThreads;
+        return this;
+    }
 }
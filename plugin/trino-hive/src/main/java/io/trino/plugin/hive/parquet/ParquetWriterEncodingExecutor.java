@@ -0,0 +1,39 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.hive.parquet;
+
+import com.google.inject.Inject;
+import io.trino.parquet.writer.ParquetWriterOptions;
+import io.trino.plugin.hive.util.BoundedDaemonExecutor;
+
+/**
+ * Encodes the columns of the row groups of the Parquet writers of a catalog, in addition to the threads writing the data.
+ */
+public class ParquetWriterEncodingExecutor
+        extends BoundedDaemonExecutor
+{
+    @Inject
+    public ParquetWriterEncodingExecutor(ParquetWriterConfig config)
+    {
+        super("parquet-writer-encoding-%s", config.getEncodingThreads());
+    }
+
+    public ParquetWriterOptions.Builder apply(ParquetWriterOptions.Builder builder)
+    {
+        if (getMaxThreads() == 0) {
+            return builder;
+        }
+        return builder.setEncodingExecutor(this, getMaxThreads() + 1);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.hive.util;
+
+import io.airlift.concurrent.BoundedExecutor;
+import jakarta.annotation.PreDestroy;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+
+/**
+ * Executor shared by the readers or writers of a catalog, which runs at most {@link #getMaxThreads()}
+ * tasks at the same time. An executor without threads rejects all tasks.
+ */
+public abstract class BoundedDaemonExecutor
+        implements Executor
+{
+    private final int maxThreads;
+    private final Optional<ExecutorService> executorService;
+    private final Optional<Executor> executor;
+
+    protected BoundedDaemonExecutor(String nameFormat, int maxThreads)
+    {
+        checkArgument(maxThreads >= 0, "maxThreads is negative");
+        this.maxThreads = maxThreads;
+        if (maxThreads == 0) {
+            executorService = Optional.empty();
+            executor = Optional.empty();
+        }
+        else {
+            executorService = Optional.of(newCachedThreadPool(daemonThreadsNamed(nameFormat)));
+            executor = Optional.of(new BoundedExecutor(executorService.get(), maxThreads));
+        }
+    }
+
+    public int getMaxThreads()
+    {
+        return maxThreads;
+    }
+
+    @Override
+    public void execute(Runnable command)
+    {
+        executor.orElseThrow(() -> new RejectedExecutionException("Executor has no threads"))
+                .execute(command);
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        executorService.ifPresent(ExecutorService::shutdownNow);
+    }
+}
@@ -52,6 +52,7 @@ import io.trino.sql.gen.CursorProcessorCompiler;
 import io.trino.sql.gen.ExpressionCompiler;
 import io.trino.sql.gen.PageFunctionCompiler;
 import io.trino.sql.gen.columnar.ColumnarFilterCompiler;
+import io.trino.sql.gen.columnar.ColumnarProjectionCompiler;
 import io.trino.sql.planner.plan.PlanNodeId;
 import io.trino.sql.relational.RowExpression;
 import io.trino.testing.TestingConnectorSession;
@@ -143,7 +144,8 @@ public class TestOrcPageSourceMemoryTracking
     private static final ExpressionCompiler EXPRESSION_COMPILER = new ExpressionCompiler(
             new CursorProcessorCompiler(functionManager),
             new PageFunctionCompiler(functionManager, 0),
-            new ColumnarFilterCompiler(functionManager, 0));
+            new ColumnarFilterCompiler(functionManager, 0),
+            new ColumnarProjectionCompiler(functionManager, 0));
     private static final ConnectorSession UNCACHED_SESSION = HiveTestUtils.getHiveSession(new HiveConfig(), new OrcReaderConfig().setTinyStripeThreshold(DataSize.of(0, BYTE)));
     private static final ConnectorSession CACHED_SESSION = SESSION;
 
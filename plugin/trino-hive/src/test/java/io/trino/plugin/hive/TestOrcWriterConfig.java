@@ -42,6 +42,7 @@ public class TestOrcWriterConfig
                 .setStringStatisticsLimit(DataSize.ofBytes(64))
                 .setMaxCompressionBufferSize(DataSize.of(256, KILOBYTE))
                 .setDefaultBloomFilterFpp(0.05)
+                .setEncodingThreads(0)
                 .setWriterIdentification(WriterIdentification.TRINO)
                 .setValidationPercentage(0.0)
                 .setValidationMode(OrcWriteValidationMode.BOTH));
@@ -59,6 +60,7 @@ public class TestOrcWriterConfig
                 .put("hive.orc.writer.string-statistics-limit", "17MB")
                 .put("hive.orc.writer.max-compression-buffer-size", "19MB")
                 .put("hive.orc.default-bloom-filter-fpp", "0.96")
+                .put("hive.orc.writer.encoding-threads", "4")
                 .put("hive.orc.writer.writer-identification", "LEGACY_HIVE_COMPATIBLE")
                 .put("hive.orc.writer.validation-percentage", "0.16")
                 .put("hive.orc.writer.validation-mode", "DETAILED")
@@ -73,6 +75,7 @@ public class TestOrcWriterConfig
                 .setStringStatisticsLimit(DataSize.of(17, MEGABYTE))
                 .setMaxCompressionBufferSize(DataSize.of(19, MEGABYTE))
                 .setDefaultBloomFilterFpp(0.96)
+                .setEncodingThreads(4)
                 .setWriterIdentification(WriterIdentification.LEGACY_HIVE_COMPATIBLE)
                 .setValidationPercentage(0.16)
                 .setValidationMode(OrcWriteValidationMode.DETAILED);
@@ -45,6 +45,7 @@ public class TestOrcWriterOptions
         assertThat(orcWriterOptions.getMaxStringStatisticsLimit()).isEqualTo(DataSize.ofBytes(64));
         assertThat(orcWriterOptions.getMaxCompressionBufferSize()).isEqualTo(DataSize.of(256, KILOBYTE));
         assertThat(orcWriterOptions.getBloomFilterFpp()).isEqualTo(0.05);
+        assertThat(orcWriterOptions.getEncodingParallelism()).isEqualTo(1);
         assertThat(orcWriterOptions.isBloomFilterColumn("unknown_column")).isFalse();
     }
 
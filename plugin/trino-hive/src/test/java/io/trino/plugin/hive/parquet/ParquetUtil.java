@@ -42,6 +42,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.trino.plugin.hive.HiveColumnHandle.ColumnType.REGULAR;
 import static io.trino.plugin.hive.HiveColumnHandle.createBaseColumn;
+import static io.trino.plugin.hive.HiveTestUtils.PARQUET_PREFETCH_EXECUTOR;
 import static io.trino.plugin.hive.acid.AcidTransaction.NO_ACID_TRANSACTION;
 import static io.trino.plugin.hive.util.HiveTypeTranslator.toHiveType;
 
@@ -81,6 +82,7 @@ final class ParquetUtil
                 fileSystemFactory,
                 new FileFormatDataSourceStats(),
                 new ParquetReaderConfig(),
+                PARQUET_PREFETCH_EXECUTOR,
                 hiveConfig);
 
         return hivePageSourceFactory.createPageSource(
@@ -40,7 +40,11 @@ public class TestParquetReaderConfig
                 .setUseBloomFilter(true)
                 .setSmallFileThreshold(DataSize.of(3, MEGABYTE))
                 .setVectorizedDecodingEnabled(true)
-                .setMaxFooterReadSize(DataSize.of(15, MEGABYTE)));
+                .setMaxFooterReadSize(DataSize.of(15, MEGABYTE))
+                .setEncodedPredicateEvaluationEnabled(false)
+                .setPrefetchRowGroupCount(0)
+                .setMaxPrefetchSize(DataSize.of(64, MEGABYTE))
+                .setPrefetchThreads(32));
     }
 
     @Test
@@ -57,6 +61,10 @@ public class TestParquetReaderConfig
                 .put("parquet.small-file-threshold", "1kB")
                 .put("parquet.experimental.vectorized-decoding.enabled", "false")
                 .put("parquet.max-footer-read-size", "25MB")
+                .put("parquet.encoded-predicate-evaluation.enabled", "true")
+                .put("parquet.prefetch.row-group-count", "2")
+                .put("parquet.prefetch.max-size", "128MB")
+                .put("parquet.prefetch.max-threads", "8")
                 .buildOrThrow();
 
         ParquetReaderConfig expected = new ParquetReaderConfig()
@@ -69,7 +77,11 @@ public class TestParquetReaderConfig
                 .setUseBloomFilter(false)
                 .setSmallFileThreshold(DataSize.of(1, KILOBYTE))
                 .setVectorizedDecodingEnabled(false)
-                .setMaxFooterReadSize(DataSize.of(25, MEGABYTE));
+                .setMaxFooterReadSize(DataSize.of(25, MEGABYTE))
+                .setEncodedPredicateEvaluationEnabled(true)
+                .setPrefetchRowGroupCount(2)
+                .setMaxPrefetchSize(DataSize.of(128, MEGABYTE))
+                .setPrefetchThreads(8);
 
         assertFullMapping(properties, expected);
     }
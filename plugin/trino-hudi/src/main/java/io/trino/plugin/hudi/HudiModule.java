@@ -20,6 +20,7 @@ import io.trino.plugin.base.metrics.FileFormatDataSourceStats;
 import io.trino.plugin.base.session.SessionPropertiesProvider;
 import io.trino.plugin.hive.HideDeltaLakeTables;
 import io.trino.plugin.hive.HiveNodePartitioningProvider;
+import io.trino.plugin.hive.parquet.ParquetPrefetchExecutor;
 import io.trino.plugin.hive.parquet.ParquetReaderConfig;
 import io.trino.plugin.hive.parquet.ParquetWriterConfig;
 import io.trino.spi.connector.ConnectorNodePartitioningProvider;
@@ -50,6 +51,7 @@ public class HudiModule
         binder.bind(ConnectorNodePartitioningProvider.class).to(HiveNodePartitioningProvider.class).in(Scopes.SINGLETON);
 
         configBinder(binder).bindConfig(ParquetReaderConfig.class);
+        binder.bind(ParquetPrefetchExecutor.class).in(Scopes.SINGLETON);
         configBinder(binder).bindConfig(ParquetWriterConfig.class);
 
         binder.bind(HudiMetadataFactory.class).in(Scopes.SINGLETON);
@@ -34,6 +34,7 @@ import io.trino.plugin.base.metrics.FileFormatDataSourceStats;
 import io.trino.plugin.hive.HiveColumnHandle;
 import io.trino.plugin.hive.HivePartitionKey;
 import io.trino.plugin.hive.TransformConnectorPageSource;
+import io.trino.plugin.hive.parquet.ParquetPrefetchExecutor;
 import io.trino.plugin.hive.parquet.ParquetReaderConfig;
 import io.trino.spi.TrinoException;
 import io.trino.spi.block.Block;
@@ -136,11 +137,14 @@ public class HudiPageSourceProvider
     public HudiPageSourceProvider(
             TrinoFileSystemFactory fileSystemFactory,
             FileFormatDataSourceStats dataSourceStats,
-            ParquetReaderConfig parquetReaderConfig)
+            ParquetReaderConfig parquetReaderConfig,
+            ParquetPrefetchExecutor parquetPrefetchExecutor)
     {
         this.fileSystemFactory = requireNonNull(fileSystemFactory, "fileSystemFactory is null");
         this.dataSourceStats = requireNonNull(dataSourceStats, "dataSourceStats is null");
-        this.options = requireNonNull(parquetReaderConfig, "parquetReaderConfig is null").toParquetReaderOptions();
+        this.options = ParquetReaderOptions.builder(parquetReaderConfig.toParquetReaderOptions())
+                .withPrefetchExecutor(parquetPrefetchExecutor)
+                .build();
         this.timeZone = DateTimeZone.forID(TimeZone.getDefault().getID());
     }
 
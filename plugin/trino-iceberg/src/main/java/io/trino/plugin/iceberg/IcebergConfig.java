@@ -98,6 +98,7 @@ public class IcebergConfig
     private int metadataParallelism = 8;
     private boolean bucketExecutionEnabled = true;
     private boolean fileBasedConflictDetectionEnabled = true;
+    private DataSize deleteFileCacheMaxSize = DataSize.of(256, MEGABYTE);
 
     public CatalogType getCatalogType()
     {
@@ -609,4 +610,18 @@ public class IcebergConfig
         this.fileBasedConflictDetectionEnabled = fileBasedConflictDetectionEnabled;
         return this;
     }
+
+    @NotNull
+    public DataSize getDeleteFileCacheMaxSize()
+    {
+        return deleteFileCacheMaxSize;
+    }
+
+    @Config("iceberg.delete-file-cache.max-size")
+    @ConfigDescription("Maximum size of the decoded delete files cached on each node, shared by all queries")
+    public IcebergConfig setDeleteFileCacheMaxSize(DataSize deleteFileCacheMaxSize)
+    {
+        this.deleteFileCacheMaxSize = deleteFileCacheMaxSize;
+        return this;
+    }
 }
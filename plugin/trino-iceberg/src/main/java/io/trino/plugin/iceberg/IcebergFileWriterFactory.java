@@ -33,6 +33,8 @@ import io.trino.plugin.base.metrics.FileFormatDataSourceStats;
 import io.trino.plugin.hive.HiveCompressionCodec;
 import io.trino.plugin.hive.NodeVersion;
 import io.trino.plugin.hive.orc.OrcWriterConfig;
+import io.trino.plugin.hive.orc.OrcWriterEncodingExecutor;
+import io.trino.plugin.hive.parquet.ParquetWriterEncodingExecutor;
 import io.trino.plugin.iceberg.fileio.ForwardingOutputFile;
 import io.trino.spi.TrinoException;
 import io.trino.spi.connector.ConnectorSession;
@@ -98,19 +100,23 @@ public class IcebergFileWriterFactory
     private final FileFormatDataSourceStats readStats;
     private final OrcWriterStats orcWriterStats = new OrcWriterStats();
     private final OrcWriterOptions orcWriterOptions;
+    private final ParquetWriterEncodingExecutor parquetWriterEncodingExecutor;
 
     @Inject
     public IcebergFileWriterFactory(
             TypeManager typeManager,
             NodeVersion nodeVersion,
             FileFormatDataSourceStats readStats,
-            OrcWriterConfig orcWriterConfig)
+            OrcWriterConfig orcWriterConfig,
+            OrcWriterEncodingExecutor orcWriterEncodingExecutor,
+            ParquetWriterEncodingExecutor parquetWriterEncodingExecutor)
     {
         checkArgument(!orcWriterConfig.isUseLegacyVersion(), "the ORC writer shouldn't be configured to use a legacy version");
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
         this.nodeVersion = requireNonNull(nodeVersion, "nodeVersion is null");
         this.readStats = requireNonNull(readStats, "readStats is null");
-        this.orcWriterOptions = orcWriterConfig.toOrcWriterOptions();
+        this.orcWriterOptions = orcWriterEncodingExecutor.apply(orcWriterConfig.toOrcWriterOptions());
+        this.parquetWriterEncodingExecutor = requireNonNull(parquetWriterEncodingExecutor, "parquetWriterEncodingExecutor is null");
     }
 
     @Managed
@@ -170,7 +176,7 @@ public class IcebergFileWriterFactory
 
             Closeable rollbackAction = () -> fileSystem.deleteFile(outputPath);
 
-            ParquetWriterOptions parquetWriterOptions = ParquetWriterOptions.builder()
+            ParquetWriterOptions parquetWriterOptions = parquetWriterEncodingExecutor.apply(ParquetWriterOptions.builder())
                     .setMaxPageSize(getParquetWriterPageSize(session))
                     .setMaxPageValueCount(getParquetWriterPageValueCount(session))
                     .setMaxBlockSize(getParquetWriterBlockSize(session))
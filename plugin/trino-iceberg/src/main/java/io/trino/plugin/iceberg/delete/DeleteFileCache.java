@@ -0,0 +1,191 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.iceberg.delete;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.inject.Inject;
+import io.airlift.slice.SizeOf;
+import io.airlift.units.DataSize;
+import io.trino.cache.CacheStatsMBean;
+import io.trino.cache.EvictableCacheBuilder;
+import io.trino.plugin.iceberg.IcebergColumnHandle;
+import io.trino.plugin.iceberg.IcebergConfig;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static io.airlift.slice.SizeOf.estimatedSizeOf;
+import static io.airlift.slice.SizeOf.instanceSize;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static io.trino.cache.CacheUtils.uncheckedCacheGet;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Decoded delete files, shared by all splits and queries of the catalog on this node. Delete
+ * files are never modified, so a file is identified by its path, size and data sequence number.
+ */
+public class DeleteFileCache
+{
+    private final boolean enabled;
+    private final Cache<CacheKey, CachedDeletes> cache;
+
+    @Inject
+    public DeleteFileCache(IcebergConfig config)
+    {
+        this(config.getDeleteFileCacheMaxSize());
+    }
+
+    public DeleteFileCache(DataSize maxSize)
+    {
+        this.enabled = maxSize.toBytes() > 0;
+        this.cache = EvictableCacheBuilder.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Weigher<CacheKey, CachedDeletes>) (key, value) -> (int) min(Integer.MAX_VALUE, key.retainedSizeInBytes() + value.retainedSizeInBytes()))
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Returns the decoded rows of the equality delete file, reading the columns of the rows with the loader if they are not cached.
+     */
+    public EqualityDeletes getEqualityDeletes(DeleteFile deleteFile, List<IcebergColumnHandle> deleteColumns, Supplier<EqualityDeletes> loader)
+    {
+        return (EqualityDeletes) get(new CacheKey(deleteFile, deleteColumns, Optional.empty()), loader);
+    }
+
+    /**
+     * Returns the deleted row positions of the data file in the position delete file, reading them with the loader if they are not cached.
+     * The positions are cached by data file, so an entry stays small even when the delete file references many data files.
+     */
+    public PositionDeletes getPositionDeletes(DeleteFile deleteFile, String dataFilePath, Supplier<PositionDeletes> loader)
+    {
+        return (PositionDeletes) get(new CacheKey(deleteFile, List.of(), Optional.of(dataFilePath)), loader);
+    }
+
+    private CachedDeletes get(CacheKey key, Supplier<? extends CachedDeletes> loader)
+    {
+        try {
+            return uncheckedCacheGet(cache, key, loader::get);
+        }
+        catch (UncheckedExecutionException e) {
+            throwIfUnchecked(e.getCause());
+            throw e;
+        }
+    }
+
+    @Managed
+    @Nested
+    public CacheStatsMBean getCacheStats()
+    {
+        return new CacheStatsMBean(cache);
+    }
+
+    @Managed
+    public long getCachedBytes()
+    {
+        return cache.asMap().entrySet().stream()
+                .mapToLong(entry -> entry.getKey().retainedSizeInBytes() + entry.getValue().retainedSizeInBytes())
+                .sum();
+    }
+
+    @Managed
+    public void flushCache()
+    {
+        cache.invalidateAll();
+    }
+
+    private record CacheKey(String path, long fileSizeInBytes, long dataSequenceNumber, List<IcebergColumnHandle> columns, Optional<String> dataFilePath)
+    {
+        private static final long INSTANCE_SIZE = instanceSize(CacheKey.class);
+
+        CacheKey(DeleteFile deleteFile, List<IcebergColumnHandle> columns, Optional<String> dataFilePath)
+        {
+            this(deleteFile.path(), deleteFile.fileSizeInBytes(), deleteFile.dataSequenceNumber(), columns, dataFilePath);
+        }
+
+        CacheKey
+        {
+            requireNonNull(path, "path is null");
+            columns = List.copyOf(requireNonNull(columns, "columns is null"));
+            requireNonNull(dataFilePath, "dataFilePath is null");
+        }
+
+        long retainedSizeInBytes()
+        {
+            return INSTANCE_SIZE
+                    + estimatedSizeOf(path)
+                    + estimatedSizeOf(columns, IcebergColumnHandle::getRetainedSizeInBytes)
+                    + sizeOf(dataFilePath, SizeOf::estimatedSizeOf);
+        }
+    }
+
+    private sealed interface CachedDeletes
+            permits EqualityDeletes, PositionDeletes
+    {
+        long retainedSizeInBytes();
+    }
+
+    /**
+     * The distinct rows of an equality delete file. All rows of a file have the data sequence number of the file.
+     */
+    public record EqualityDeletes(EqualityDeleteSet rows, long dataSequenceNumber)
+            implements CachedDeletes
+    {
+        private static final long INSTANCE_SIZE = instanceSize(EqualityDeletes.class);
+
+        public EqualityDeletes
+        {
+            requireNonNull(rows, "rows is null");
+        }
+
+        @Override
+        public long retainedSizeInBytes()
+        {
+            return INSTANCE_SIZE + rows.getRetainedSizeInBytes();
+        }
+    }
+
+    /**
+     * The deleted row positions of a data file in a position delete file. The bitmap is shared, and must not be modified.
+     */
+    public record PositionDeletes(Roaring64Bitmap deletedRows)
+            implements CachedDeletes
+    {
+        private static final long INSTANCE_SIZE = instanceSize(PositionDeletes.class);
+
+        public PositionDeletes
+        {
+            requireNonNull(deletedRows, "deletedRows is null");
+        }
+
+        @Override
+        public long retainedSizeInBytes()
+        {
+            return INSTANCE_SIZE + deletedRows.getLongSizeInBytes();
+        }
+    }
+}
@@ -14,13 +14,17 @@
 package io.trino.plugin.iceberg.delete;
 
 import com.google.common.base.VerifyException;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ListMultimap;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.slice.Slice;
 import io.trino.plugin.iceberg.IcebergColumnHandle;
 import io.trino.plugin.iceberg.IcebergPageSourceProvider.ReaderPageSourceWithRowPositions;
+import io.trino.plugin.iceberg.delete.DeleteFileCache.EqualityDeletes;
+import io.trino.plugin.iceberg.delete.DeleteFileCache.PositionDeletes;
 import io.trino.plugin.iceberg.delete.EqualityDeleteFilter.EqualityDeleteFilterBuilder;
 import io.trino.spi.TrinoException;
 import io.trino.spi.connector.ConnectorPageSource;
@@ -37,11 +41,9 @@ import org.roaringbitmap.longlong.Roaring64Bitmap;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 
@@ -54,18 +56,19 @@ import static io.trino.plugin.iceberg.IcebergUtil.schemaFromHandles;
 import static io.trino.plugin.iceberg.delete.PositionDeleteFilter.readPositionDeletes;
 import static io.trino.spi.type.VarcharType.VARCHAR;
 import static java.util.Objects.requireNonNull;
-import static java.util.concurrent.Future.State.SUCCESS;
 import static org.apache.iceberg.MetadataColumns.DELETE_FILE_PATH;
 import static org.apache.iceberg.MetadataColumns.DELETE_FILE_POS;
 
 public class DeleteManager
 {
     private final TypeManager typeManager;
+    private final DeleteFileCache deleteFileCache;
     private final Map<List<Integer>, EqualityDeleteFilterBuilder> equalityDeleteFiltersBySchema = new ConcurrentHashMap<>();
 
-    public DeleteManager(TypeManager typeManager)
+    public DeleteManager(TypeManager typeManager, DeleteFileCache deleteFileCache)
     {
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
+        this.deleteFileCache = requireNonNull(deleteFileCache, "deleteFileCache is null");
     }
 
     public Optional<RowPredicate> getDeletePredicate(
@@ -132,6 +135,10 @@ public class DeleteManager
         IcebergColumnHandle deleteFilePos = getColumnHandle(DELETE_FILE_POS, typeManager);
         List<IcebergColumnHandle> deleteColumns = ImmutableList.of(deleteFilePath, deleteFilePos);
         TupleDomain<IcebergColumnHandle> deleteDomain = TupleDomain.fromFixedValues(ImmutableMap.of(deleteFilePath, NullableValue.of(VARCHAR, targetPath)));
+        if (deleteFileCache.isEnabled()) {
+            return createCachedPositionDeleteFilter(dataFilePath, targetPath, positionDeleteFiles, startRowPosition, endRowPosition, deleteColumns, deleteDomain, deletePageSourceProvider);
+        }
+
         if (startRowPosition.isPresent()) {
             Range positionRange = Range.range(deleteFilePos.getType(), startRowPosition.get(), true, endRowPosition.get(), true);
             TupleDomain<IcebergColumnHandle> positionDomain = TupleDomain.withColumnDomains(ImmutableMap.of(deleteFilePos, Domain.create(ValueSet.ofRanges(positionRange), false)));
@@ -156,6 +163,49 @@ public class DeleteManager
         return Optional.of(new PositionDeleteFilter(deletedRows));
     }
 
+    private Optional<DeleteFilter> createCachedPositionDeleteFilter(
+            String dataFilePath,
+            Slice targetPath,
+            List<DeleteFile> positionDeleteFiles,
+            Optional<Long> startRowPosition,
+            Optional<Long> endRowPosition,
+            List<IcebergColumnHandle> deleteColumns,
+            TupleDomain<IcebergColumnHandle> deleteDomain,
+            DeletePageSourceProvider deletePageSourceProvider)
+    {
+        // the deletes of the whole data file are read with the path pushed down, and cached for the other splits of the data file
+        List<Roaring64Bitmap> deletedRows = new ArrayList<>();
+        for (DeleteFile deleteFile : positionDeleteFiles) {
+            if (shouldLoadPositionDeleteFile(deleteFile, startRowPosition, endRowPosition)) {
+                PositionDeletes positionDeletes = deleteFileCache.getPositionDeletes(deleteFile, dataFilePath, () -> {
+                    Roaring64Bitmap rows = new Roaring64Bitmap();
+                    try (ConnectorPageSource pageSource = deletePageSourceProvider.openDeletes(deleteFile, deleteColumns, deleteDomain)) {
+                        readPositionDeletes(pageSource, targetPath, rows);
+                    }
+                    catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    rows.runOptimize();
+                    return new PositionDeletes(rows);
+                });
+                if (!positionDeletes.deletedRows().isEmpty()) {
+                    deletedRows.add(positionDeletes.deletedRows());
+                }
+            }
+        }
+
+        if (deletedRows.isEmpty()) {
+            return Optional.empty();
+        }
+        if (deletedRows.size() == 1) {
+            return Optional.of(new PositionDeleteFilter(deletedRows.getFirst()));
+        }
+        // the cached bitmaps are shared, so they are merged into a new one
+        Roaring64Bitmap mergedRows = new Roaring64Bitmap();
+        deletedRows.forEach(mergedRows::or);
+        return Optional.of(new PositionDeleteFilter(mergedRows));
+    }
+
     private static boolean shouldLoadPositionDeleteFile(DeleteFile deleteFile, Optional<Long> startRowPosition, Optional<Long> endRowPosition)
     {
         if (startRowPosition.isEmpty()) {
@@ -176,8 +226,7 @@ public class DeleteManager
 
         // The equality delete files can be loaded in parallel. There may be multiple split threads attempting to load the
         // same files. The current thread will only load a file if it is not already being loaded by another thread.
-        List<ListenableFuture<?>> pendingLoads = new ArrayList<>();
-        Set<EqualityDeleteFilterBuilder> deleteFilters = new HashSet<>();
+        ListMultimap<EqualityDeleteFilterBuilder, ListenableFuture<EqualityDeletes>> loads = ArrayListMultimap.create();
         for (DeleteFile deleteFile : equalityDeleteFiles) {
             List<Integer> fieldIds = deleteFile.equalityFieldIds();
             verify(!fieldIds.isEmpty(), "equality field IDs are missing");
@@ -186,18 +235,13 @@ public class DeleteManager
                     .collect(toImmutableList());
 
             // each file can have a different set of columns for the equality delete, so we need to create a new builder for each set of columns
-            EqualityDeleteFilterBuilder builder = equalityDeleteFiltersBySchema.computeIfAbsent(fieldIds, _ -> EqualityDeleteFilter.builder(schemaFromHandles(deleteColumns)));
-            deleteFilters.add(builder);
-
-            ListenableFuture<?> loadFuture = builder.readEqualityDeletes(deleteFile, deleteColumns, deletePageSourceProvider);
-            if (loadFuture.state() != SUCCESS) {
-                pendingLoads.add(loadFuture);
-            }
+            EqualityDeleteFilterBuilder builder = equalityDeleteFiltersBySchema.computeIfAbsent(fieldIds, _ -> EqualityDeleteFilter.builder(schemaFromHandles(deleteColumns), deleteFileCache));
+            loads.put(builder, builder.readEqualityDeletes(deleteFile, deleteColumns, deletePageSourceProvider));
         }
 
         // Wait loads happening in other threads
         try {
-            Futures.allAsList(pendingLoads).get();
+            Futures.allAsList(loads.values()).get();
         }
         catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -208,8 +252,10 @@ public class DeleteManager
             throw new TrinoException(ICEBERG_BAD_DATA, "Failed to load equality deletes", e);
         }
 
-        return deleteFilters.stream()
-                .map(EqualityDeleteFilterBuilder::build)
+        return loads.asMap().entrySet().stream()
+                .map(entry -> entry.getKey().build(entry.getValue().stream()
+                        .map(Futures::getUnchecked)
+                        .collect(toImmutableList())))
                 .toList();
     }
 }
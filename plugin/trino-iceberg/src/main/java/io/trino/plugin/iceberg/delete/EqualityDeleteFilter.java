@@ -18,16 +18,16 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListenableFutureTask;
 import com.google.errorprone.annotations.ThreadSafe;
 import io.trino.plugin.iceberg.IcebergColumnHandle;
+import io.trino.plugin.iceberg.delete.DeleteFileCache.EqualityDeletes;
 import io.trino.plugin.iceberg.delete.DeleteManager.DeletePageSourceProvider;
+import io.trino.spi.Page;
 import io.trino.spi.TrinoException;
 import io.trino.spi.connector.ConnectorPageSource;
 import io.trino.spi.connector.SourcePage;
 import io.trino.spi.predicate.TupleDomain;
 import io.trino.spi.type.Type;
 import org.apache.iceberg.Schema;
-import org.apache.iceberg.types.Types.StructType;
-import org.apache.iceberg.util.StructLikeWrapper;
-import org.apache.iceberg.util.StructProjection;
+import org.apache.iceberg.types.Types.NestedField;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
@@ -36,116 +36,141 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static com.google.common.base.Verify.verify;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.trino.plugin.iceberg.IcebergErrorCode.ICEBERG_CANNOT_OPEN_SPLIT;
-import static io.trino.plugin.iceberg.IcebergUtil.structTypeFromHandles;
 import static java.util.Objects.requireNonNull;
 
 public final class EqualityDeleteFilter
         implements DeleteFilter
 {
     private final Schema deleteSchema;
-    private final Map<StructLikeWrapper, DataSequenceNumber> deletedRows;
+    private final List<EqualityDeletes> deletes;
 
-    private EqualityDeleteFilter(Schema deleteSchema, Map<StructLikeWrapper, DataSequenceNumber> deletedRows)
+    private EqualityDeleteFilter(Schema deleteSchema, List<EqualityDeletes> deletes)
     {
         this.deleteSchema = requireNonNull(deleteSchema, "deleteSchema is null");
-        this.deletedRows = requireNonNull(deletedRows, "deletedRows is null");
+        this.deletes = requireNonNull(deletes, "deletes is null");
     }
 
     @Override
     public RowPredicate createPredicate(List<IcebergColumnHandle> columns, long splitDataSequenceNumber)
     {
-        StructType fileStructType = structTypeFromHandles(columns);
-        StructType deleteStructType = deleteSchema.asStruct();
-        if (deleteSchema.columns().stream().anyMatch(column -> fileStructType.field(column.fieldId()) == null)) {
-            throw new TrinoException(ICEBERG_CANNOT_OPEN_SPLIT, "columns list doesn't contain all equality delete columns");
+        List<NestedField> deleteColumns = deleteSchema.columns();
+        int[] keyChannels = new int[deleteColumns.size()];
+        for (int i = 0; i < keyChannels.length; i++) {
+            keyChannels[i] = getChannel(columns, deleteColumns.get(i).fieldId());
         }
 
-        StructLikeWrapper structLikeWrapper = StructLikeWrapper.forType(deleteStructType);
-        StructProjection projection = StructProjection.create(fileStructType, deleteStructType);
-        Type[] types = columns.stream()
-                .map(IcebergColumnHandle::getType)
-                .toArray(Type[]::new);
-
-        return (page, position) -> {
-            StructProjection row = projection.wrap(new LazyTrinoRow(types, page, position));
-            DataSequenceNumber maxDeleteVersion = deletedRows.get(structLikeWrapper.set(row));
-            // clear reference to avoid memory leak
-            structLikeWrapper.set(null);
-            return maxDeleteVersion == null || maxDeleteVersion.dataSequenceNumber() <= splitDataSequenceNumber;
+        // the rows of a delete file only delete rows of data files added before the delete file
+        List<EqualityDeleteSet> deleteSets = deletes.stream()
+                .filter(delete -> delete.dataSequenceNumber() > splitDataSequenceNumber)
+                .map(EqualityDeletes::rows)
+                .collect(toImmutableList());
+
+        return new RowPredicate()
+        {
+            @Override
+            public boolean test(SourcePage page, int position)
+            {
+                Page keys = page.getColumns(keyChannels);
+                for (EqualityDeleteSet deleteSet : deleteSets) {
+                    if (deleteSet.contains(keys, position)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public void filter(SourcePage page, boolean[] retained)
+            {
+                if (deleteSets.isEmpty()) {
+                    return;
+                }
+                Page keys = page.getColumns(keyChannels);
+                for (EqualityDeleteSet deleteSet : deleteSets) {
+                    deleteSet.filter(keys, retained);
+                }
+            }
         };
     }
 
-    public static EqualityDeleteFilterBuilder builder(Schema deleteSchema)
+    private static int getChannel(List<IcebergColumnHandle> columns, int fieldId)
     {
-        return new EqualityDeleteFilterBuilder(deleteSchema);
+        for (int channel = 0; channel < columns.size(); channel++) {
+            if (columns.get(channel).getId() == fieldId) {
+                return channel;
+            }
+        }
+        throw new TrinoException(ICEBERG_CANNOT_OPEN_SPLIT, "columns list doesn't contain all equality delete columns");
+    }
+
+    public static EqualityDeleteFilterBuilder builder(Schema deleteSchema, DeleteFileCache deleteFileCache)
+    {
+        return new EqualityDeleteFilterBuilder(deleteSchema, deleteFileCache);
     }
 
     @ThreadSafe
     public static class EqualityDeleteFilterBuilder
     {
         private final Schema deleteSchema;
-        private final Map<StructLikeWrapper, DataSequenceNumber> deletedRows;
-        private final Map<String, ListenableFutureTask<?>> loadingFiles = new ConcurrentHashMap<>();
+        private final DeleteFileCache deleteFileCache;
+        private final Map<String, ListenableFutureTask<EqualityDeletes>> loadingFiles = new ConcurrentHashMap<>();
 
-        private EqualityDeleteFilterBuilder(Schema deleteSchema)
+        private EqualityDeleteFilterBuilder(Schema deleteSchema, DeleteFileCache deleteFileCache)
         {
             this.deleteSchema = requireNonNull(deleteSchema, "deleteSchema is null");
-            this.deletedRows = new ConcurrentHashMap<>();
+            this.deleteFileCache = requireNonNull(deleteFileCache, "deleteFileCache is null");
         }
 
-        public ListenableFuture<?> readEqualityDeletes(DeleteFile deleteFile, List<IcebergColumnHandle> deleteColumns, DeletePageSourceProvider deletePageSourceProvider)
+        public ListenableFuture<EqualityDeletes> readEqualityDeletes(DeleteFile deleteFile, List<IcebergColumnHandle> deleteColumns, DeletePageSourceProvider deletePageSourceProvider)
         {
             verify(deleteColumns.size() == deleteSchema.columns().size(), "delete columns size doesn't match delete schema size");
 
             // ensure only one thread loads the file
-            ListenableFutureTask<?> futureTask = loadingFiles.computeIfAbsent(
+            ListenableFutureTask<EqualityDeletes> futureTask = loadingFiles.computeIfAbsent(
                     deleteFile.path(),
-                    key -> ListenableFutureTask.create(() -> readEqualityDeletesInternal(deleteFile, deleteColumns, deletePageSourceProvider), null));
+                    key -> ListenableFutureTask.create(() -> readEqualityDeletesInternal(deleteFile, deleteColumns, deletePageSourceProvider)));
             futureTask.run();
             return Futures.nonCancellationPropagating(futureTask);
         }
 
-        private void readEqualityDeletesInternal(DeleteFile deleteFile, List<IcebergColumnHandle> deleteColumns, DeletePageSourceProvider deletePageSourceProvider)
+        private EqualityDeletes readEqualityDeletesInternal(DeleteFile deleteFile, List<IcebergColumnHandle> deleteColumns, DeletePageSourceProvider deletePageSourceProvider)
         {
-            DataSequenceNumber sequenceNumber = new DataSequenceNumber(deleteFile.dataSequenceNumber());
-            try (ConnectorPageSource pageSource = deletePageSourceProvider.openDeletes(deleteFile, deleteColumns, TupleDomain.all())) {
-                Type[] types = deleteColumns.stream()
-                        .map(IcebergColumnHandle::getType)
-                        .toArray(Type[]::new);
+            // the decoded rows are shared with other queries
+            return deleteFileCache.getEqualityDeletes(
+                    deleteFile,
+                    deleteColumns,
+                    () -> decodeEqualityDeletes(deleteFile, deleteColumns, deletePageSourceProvider));
+        }
 
-                StructLikeWrapper wrapper = StructLikeWrapper.forType(deleteSchema.asStruct());
+        private EqualityDeletes decodeEqualityDeletes(DeleteFile deleteFile, List<IcebergColumnHandle> deleteColumns, DeletePageSourceProvider deletePageSourceProvider)
+        {
+            List<Type> types = deleteColumns.stream()
+                    .map(IcebergColumnHandle::getType)
+                    .collect(toImmutableList());
+            EqualityDeleteSet rows = EqualityDeleteSet.create(deleteSchema.asStruct(), types);
+            try (ConnectorPageSource pageSource = deletePageSourceProvider.openDeletes(deleteFile, deleteColumns, TupleDomain.all())) {
                 while (!pageSource.isFinished()) {
                     SourcePage page = pageSource.getNextSourcePage();
                     if (page == null) {
                         continue;
                     }
-
-                    for (int position = 0; position < page.getPositionCount(); position++) {
-                        TrinoRow row = new TrinoRow(types, page, position);
-                        deletedRows.merge(wrapper.copyFor(row), sequenceNumber, (existing, newValue) -> {
-                            if (existing.dataSequenceNumber() > newValue.dataSequenceNumber()) {
-                                return existing;
-                            }
-                            return newValue;
-                        });
-                    }
+                    rows.addAll(page.getPage());
                 }
             }
             catch (IOException e) {
                 throw new UncheckedIOException(e);
             }
+            return new EqualityDeletes(rows, deleteFile.dataSequenceNumber());
         }
 
         /**
-         * Builds the EqualityDeleteFilter.
-         * After building the EqualityDeleteFilter, additional rows can be added to this builder, and the filter can be rebuilt.
+         * Builds the EqualityDeleteFilter for the rows of the delete files, which must have been read by this builder.
          */
-        public EqualityDeleteFilter build()
+        public EqualityDeleteFilter build(List<EqualityDeletes> deletes)
         {
-            return new EqualityDeleteFilter(deleteSchema, deletedRows);
+            return new EqualityDeleteFilter(deleteSchema, List.copyOf(deletes));
         }
     }
-
-    private record DataSequenceNumber(long dataSequenceNumber) {}
 }
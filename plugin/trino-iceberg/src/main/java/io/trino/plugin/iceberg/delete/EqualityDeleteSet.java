@@ -0,0 +1,139 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.iceberg.delete;
+
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.DecimalType;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.VarbinaryType;
+import io.trino.spi.type.VarcharType;
+import org.apache.iceberg.types.Types.StructType;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.BooleanType.BOOLEAN;
+import static io.trino.spi.type.DateType.DATE;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.RealType.REAL;
+import static io.trino.spi.type.SmallintType.SMALLINT;
+import static io.trino.spi.type.TimeType.TIME_MICROS;
+import static io.trino.spi.type.TimestampType.TIMESTAMP_MICROS;
+import static io.trino.spi.type.TinyintType.TINYINT;
+import static io.trino.spi.type.UuidType.UUID;
+import static java.lang.Double.doubleToLongBits;
+import static java.lang.Float.floatToIntBits;
+
+/**
+ * The distinct rows of an equality delete file, keyed by the values of the equality delete columns.
+ * The rows are kept in a hash table specialized for the types of the columns:
+ * <ul>
+ * <li>a single fixed width column is kept in an open addressing table of longs,</li>
+ * <li>other combinations of fixed width, decimal, uuid, varchar and varbinary columns are kept in flat rows
+ * of longs, with the variable width values in a separate byte arena,</li>
+ * <li>the remaining types fall back to hashing the Iceberg values of the rows.</li>
+ * </ul>
+ * Null values are equal to each other, like in the Iceberg comparators.
+ * <p>
+ * The set is filled by a single thread, and is immutable once it is published.
+ */
+public abstract sealed class EqualityDeleteSet
+        permits LongEqualityDeleteSet, FlatEqualityDeleteSet, GenericEqualityDeleteSet
+{
+    public static EqualityDeleteSet create(StructType deleteStructType, List<Type> types)
+    {
+        checkArgument(deleteStructType.fields().size() == types.size(), "delete columns size doesn't match types size");
+        if (types.size() == 1 && isLongKey(types.getFirst())) {
+            return new LongEqualityDeleteSet(types.getFirst());
+        }
+        if (types.size() < Long.SIZE && types.stream().allMatch(type -> isLongKey(type) || isInt128Key(type) || isBytesKey(type))) {
+            return new FlatEqualityDeleteSet(types);
+        }
+        return new GenericEqualityDeleteSet(deleteStructType, types);
+    }
+
+    /**
+     * Adds all rows of the page. The channels of the page are the delete columns.
+     */
+    abstract void addAll(Page keys);
+
+    /**
+     * Returns true if the key of the position is in the set. The channels of the page are the delete columns.
+     */
+    public abstract boolean contains(Page keys, int position);
+
+    /**
+     * Clears the retained flag of the positions whose key is in the set. Positions which are no
+     * longer retained are not looked up. The channels of the page are the delete columns.
+     */
+    public abstract void filter(Page keys, boolean[] retained);
+
+    public abstract int size();
+
+    public abstract long getRetainedSizeInBytes();
+
+    static boolean isLongKey(Type type)
+    {
+        return type.equals(BIGINT) ||
+                type.equals(INTEGER) ||
+                type.equals(SMALLINT) ||
+                type.equals(TINYINT) ||
+                type.equals(BOOLEAN) ||
+                type.equals(DATE) ||
+                type.equals(REAL) ||
+                type.equals(DOUBLE) ||
+                type.equals(TIME_MICROS) ||
+                type.equals(TIMESTAMP_MICROS) ||
+                (type instanceof DecimalType decimalType && decimalType.isShort());
+    }
+
+    /**
+     * Returns a reader of the values of a fixed width type as longs, such that two longs are equal
+     * if and only if the Iceberg values are equal. Floating point values are compared by their bits,
+     * like in {@link Float#compare} and {@link Double#compare}.
+     */
+    static LongKeyReader longKeyReader(Type type)
+    {
+        checkArgument(isLongKey(type), "not a fixed width key type: %s", type);
+        if (type.equals(BOOLEAN)) {
+            return (block, position) -> BOOLEAN.getBoolean(block, position) ? 1 : 0;
+        }
+        if (type.equals(REAL)) {
+            return (block, position) -> floatToIntBits(REAL.getFloat(block, position));
+        }
+        if (type.equals(DOUBLE)) {
+            return (block, position) -> doubleToLongBits(DOUBLE.getDouble(block, position));
+        }
+        return type::getLong;
+    }
+
+    static boolean isInt128Key(Type type)
+    {
+        return type.equals(UUID) || (type instanceof DecimalType decimalType && !decimalType.isShort());
+    }
+
+    static boolean isBytesKey(Type type)
+    {
+        return type instanceof VarcharType || type instanceof VarbinaryType;
+    }
+
+    @FunctionalInterface
+    interface LongKeyReader
+    {
+        long read(Block block, int position);
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.iceberg.delete;
+
+import io.airlift.slice.Slice;
+import io.airlift.slice.XxHash64;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.Int128ArrayBlock;
+import io.trino.spi.block.VariableWidthBlock;
+import io.trino.spi.type.Type;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.instanceSize;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static io.airlift.slice.SizeOf.sizeOfObjectArray;
+import static java.lang.Math.addExact;
+import static java.lang.Math.max;
+
+/**
+ * Keys of fixed width, decimal, uuid, varchar and varbinary columns, stored in flat rows of longs.
+ * Each row holds the hash of the key, a null mask and the values of the columns: one long for fixed
+ * width values, two longs for 128-bit values and the offset and length in the byte arena for
+ * variable width values. The hash table holds the high bits of the hash next to the row index, so
+ * most mismatches are resolved without reading the row.
+ */
+final class FlatEqualityDeleteSet
+        extends EqualityDeleteSet
+{
+    private static final long INSTANCE_SIZE = instanceSize(FlatEqualityDeleteSet.class);
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MINIMUM_ARENA_SIZE = 1024;
+
+    private static final int HASH_SLOT = 0;
+    private static final int NULL_MASK_SLOT = 1;
+    private static final long NULL_HASH = 0;
+
+    private final ColumnKind[] kinds;
+    private final LongKeyReader[] longKeyReaders;
+    private final int[] valueSlots;
+    private final int rowSlots;
+
+    // entries are the high 32 bits of the hash and the row index plus one, zero marks an empty entry
+    private long[] table = new long[INITIAL_CAPACITY];
+    private int mask = INITIAL_CAPACITY - 1;
+    private long[] rows;
+    private int rowCount;
+    private byte[] arena = new byte[0];
+    private int arenaSize;
+
+    FlatEqualityDeleteSet(List<Type> types)
+    {
+        checkArgument(!types.isEmpty(), "types is empty");
+        checkArgument(types.size() < Long.SIZE, "too many columns for the null mask: %s", types.size());
+        kinds = new ColumnKind[types.size()];
+        longKeyReaders = new LongKeyReader[types.size()];
+        valueSlots = new int[types.size()];
+        int slots = NULL_MASK_SLOT + 1;
+        for (int column = 0; column < types.size(); column++) {
+            Type type = types.get(column);
+            if (isLongKey(type)) {
+                kinds[column] = ColumnKind.LONG;
+                longKeyReaders[column] = longKeyReader(type);
+            }
+            else if (isInt128Key(type)) {
+                kinds[column] = ColumnKind.INT128;
+            }
+            else {
+                checkArgument(isBytesKey(type), "unsupported key type: %s", type);
+                kinds[column] = ColumnKind.BYTES;
+            }
+            valueSlots[column] = slots;
+            slots += kinds[column].slots;
+        }
+        rowSlots = slots;
+        rows = new long[INITIAL_CAPACITY / 2 * rowSlots];
+    }
+
+    @Override
+    void addAll(Page keys)
+    {
+        long[] hashes = hashPositions(keys, null);
+        for (int position = 0; position < keys.getPositionCount(); position++) {
+            long hash = hashes[position];
+            int entry = findEntry(hash, keys, position);
+            if (table[entry] == 0) {
+                int row = appendRow(hash, keys, position);
+                table[entry] = tableEntry(hash, row);
+                if (rowCount * 2L > table.length) {
+                    rehash();
+                }
+            }
+        }
+    }
+
+    private int appendRow(long hash, Page keys, int position)
+    {
+        if ((rowCount + 1) * rowSlots > rows.length) {
+            rows = Arrays.copyOf(rows, rows.length * 2);
+        }
+        int row = rowCount;
+        int base = row * rowSlots;
+        long nullMask = 0;
+        for (int column = 0; column < kinds.length; column++) {
+            Block block = keys.getBlock(column);
+            if (block.isNull(position)) {
+                nullMask |= 1L << column;
+                continue;
+            }
+            Block valueBlock = block.getUnderlyingValueBlock();
+            int valuePosition = block.getUnderlyingValuePosition(position);
+            int slot = base + valueSlots[column];
+            switch (kinds[column]) {
+                case LONG -> rows[slot] = longKeyReaders[column].read(valueBlock, valuePosition);
+                case INT128 -> {
+                    Int128ArrayBlock int128Block = (Int128ArrayBlock) valueBlock;
+                    rows[slot] = int128Block.getInt128High(valuePosition);
+                    rows[slot + 1] = int128Block.getInt128Low(valuePosition);
+                }
+                case BYTES -> {
+                    VariableWidthBlock variableWidthBlock = (VariableWidthBlock) valueBlock;
+                    int length = variableWidthBlock.getSliceLength(valuePosition);
+                    int arenaOffset = allocate(length);
+                    variableWidthBlock.getRawSlice().getBytes(variableWidthBlock.getRawSliceOffset(valuePosition), arena, arenaOffset, length);
+                    rows[slot] = ((long) arenaOffset << 32) | length;
+                }
+            }
+        }
+        rows[base + HASH_SLOT] = hash;
+        rows[base + NULL_MASK_SLOT] = nullMask;
+        rowCount++;
+        return row;
+    }
+
+    private int allocate(int length)
+    {
+        int offset = arenaSize;
+        int newSize = addExact(arenaSize, length);
+        if (newSize > arena.length) {
+            arena = Arrays.copyOf(arena, max(newSize, max(MINIMUM_ARENA_SIZE, arena.length * 2)));
+        }
+        arenaSize = newSize;
+        return offset;
+    }
+
+    private void rehash()
+    {
+        long[] newTable = new long[table.length * 2];
+        int newMask = newTable.length - 1;
+        for (int row = 0; row < rowCount; row++) {
+            long hash = rows[row * rowSlots + HASH_SLOT];
+            int entry = (int) hash & newMask;
+            while (newTable[entry] != 0) {
+                entry = (entry + 1) & newMask;
+            }
+            newTable[entry] = tableEntry(hash, row);
+        }
+        table = newTable;
+        mask = newMask;
+    }
+
+    @Override
+    public boolean contains(Page keys, int position)
+    {
+        long hash = 0;
+        for (int column = 0; column < kinds.length; column++) {
+            hash = hash * 31 + hashValue(column, keys.getBlock(column), position);
+        }
+        return table[findEntry(hash, keys, position)] != 0;
+    }
+
+    @Override
+    public void filter(Page keys, boolean[] retained)
+    {
+        long[] hashes = hashPositions(keys, retained);
+        for (int position = 0; position < keys.getPositionCount(); position++) {
+            if (retained[position] && table[findEntry(hashes[position], keys, position)] != 0) {
+                retained[position] = false;
+            }
+        }
+    }
+
+    /**
+     * Hashes the keys of the page one column at a time. Positions which are not selected are skipped.
+     */
+    private long[] hashPositions(Page keys, boolean[] selected)
+    {
+        int positionCount = keys.getPositionCount();
+        long[] hashes = new long[positionCount];
+        for (int column = 0; column < kinds.length; column++) {
+            Block block = keys.getBlock(column);
+            for (int position = 0; position < positionCount; position++) {
+                if (selected == null || selected[position]) {
+                    hashes[position] = hashes[position] * 31 + hashValue(column, block, position);
+                }
+            }
+        }
+        return hashes;
+    }
+
+    private long hashValue(int column, Block block, int position)
+    {
+        if (block.isNull(position)) {
+            return NULL_HASH;
+        }
+        Block valueBlock = block.getUnderlyingValueBlock();
+        int valuePosition = block.getUnderlyingValuePosition(position);
+        return switch (kinds[column]) {
+            case LONG -> XxHash64.hash(longKeyReaders[column].read(valueBlock, valuePosition));
+            case INT128 -> {
+                Int128ArrayBlock int128Block = (Int128ArrayBlock) valueBlock;
+                yield XxHash64.hash(int128Block.getInt128High(valuePosition)) * 31 + XxHash64.hash(int128Block.getInt128Low(valuePosition));
+            }
+            case BYTES -> {
+                VariableWidthBlock variableWidthBlock = (VariableWidthBlock) valueBlock;
+                yield XxHash64.hash(variableWidthBlock.getRawSlice(), variableWidthBlock.getRawSliceOffset(valuePosition), variableWidthBlock.getSliceLength(valuePosition));
+            }
+        };
+    }
+
+    /**
+     * Returns the table entry of the key, or the empty entry where the key belongs.
+     */
+    private int findEntry(long hash, Page keys, int position)
+    {
+        int entry = (int) hash & mask;
+        while (table[entry] != 0) {
+            long value = table[entry];
+            if ((value >>> 32) == (hash >>> 32) && rowEquals((int) value - 1, keys, position)) {
+                return entry;
+            }
+            entry = (entry + 1) & mask;
+        }
+        return entry;
+    }
+
+    private boolean rowEquals(int row, Page keys, int position)
+    {
+        int base = row * rowSlots;
+        long nullMask = rows[base + NULL_MASK_SLOT];
+        for (int column = 0; column < kinds.length; column++) {
+            Block block = keys.getBlock(column);
+            boolean isNull = block.isNull(position);
+            if (isNull != ((nullMask & (1L << column)) != 0)) {
+                return false;
+            }
+            if (isNull) {
+                continue;
+            }
+            Block valueBlock = block.getUnderlyingValueBlock();
+            int valuePosition = block.getUnderlyingValuePosition(position);
+            int slot = base + valueSlots[column];
+            boolean equal = switch (kinds[column]) {
+                case LONG -> rows[slot] == longKeyReaders[column].read(valueBlock, valuePosition);
+                case INT128 -> {
+                    Int128ArrayBlock int128Block = (Int128ArrayBlock) valueBlock;
+                    yield rows[slot] == int128Block.getInt128High(valuePosition) &&
+                            rows[slot + 1] == int128Block.getInt128Low(valuePosition);
+                }
+                case BYTES -> {
+                    VariableWidthBlock variableWidthBlock = (VariableWidthBlock) valueBlock;
+                    int arenaOffset = (int) (rows[slot] >>> 32);
+                    int length = (int) rows[slot];
+                    if (length != variableWidthBlock.getSliceLength(valuePosition)) {
+                        yield false;
+                    }
+                    Slice rawSlice = variableWidthBlock.getRawSlice();
+                    int offset = rawSlice.byteArrayOffset() + variableWidthBlock.getRawSliceOffset(valuePosition);
+                    yield Arrays.equals(arena, arenaOffset, arenaOffset + length, rawSlice.byteArray(), offset, offset + length);
+                }
+            };
+            if (!equal) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long tableEntry(long hash, int row)
+    {
+        return (hash & 0xFFFF_FFFF_0000_0000L) | (row + 1);
+    }
+
+    @Override
+    public int size()
+    {
+        return rowCount;
+    }
+
+    @Override
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE +
+                sizeOfObjectArray(kinds.length) +
+                sizeOfObjectArray(longKeyReaders.length) +
+                sizeOf(valueSlots) +
+                sizeOf(table) +
+                sizeOf(rows) +
+                sizeOf(arena);
+    }
+
+    private enum ColumnKind
+    {
+        LONG(1),
+        INT128(2),
+        BYTES(1);
+
+        private final int slots;
+
+        ColumnKind(int slots)
+        {
+            this.slots = slots;
+        }
+    }
+}
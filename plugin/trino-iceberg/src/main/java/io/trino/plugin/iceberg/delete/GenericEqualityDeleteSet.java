@@ -0,0 +1,92 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.iceberg.delete;
+
+import io.trino.spi.Page;
+import io.trino.spi.connector.SourcePage;
+import io.trino.spi.type.Type;
+import org.apache.iceberg.types.Types.StructType;
+import org.apache.iceberg.util.StructLikeWrapper;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
+import static io.airlift.slice.SizeOf.instanceSize;
+
+/**
+ * Keys of any type, compared with the Iceberg comparators of the delete columns.
+ */
+final class GenericEqualityDeleteSet
+        extends EqualityDeleteSet
+{
+    private static final long INSTANCE_SIZE = instanceSize(GenericEqualityDeleteSet.class);
+    // the wrapper of the row and its entry in the hash set
+    private static final long ROW_WRAPPER_SIZE = instanceSize(StructLikeWrapper.class) + 2 * SIZE_OF_LONG;
+
+    private final Type[] types;
+    private final StructLikeWrapper wrapper;
+    private final Set<StructLikeWrapper> rows = new HashSet<>();
+    private long rowsRetainedSizeInBytes;
+
+    GenericEqualityDeleteSet(StructType deleteStructType, List<Type> types)
+    {
+        this.types = types.toArray(Type[]::new);
+        this.wrapper = StructLikeWrapper.forType(deleteStructType);
+    }
+
+    @Override
+    void addAll(Page keys)
+    {
+        SourcePage page = SourcePage.create(keys);
+        for (int position = 0; position < keys.getPositionCount(); position++) {
+            TrinoRow row = new TrinoRow(types, page, position);
+            if (rows.add(wrapper.copyFor(row))) {
+                rowsRetainedSizeInBytes += ROW_WRAPPER_SIZE + row.getRetainedSizeInBytes();
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(Page keys, int position)
+    {
+        return rows.contains(wrapper.copyFor(new LazyTrinoRow(types, SourcePage.create(keys), position)));
+    }
+
+    @Override
+    public void filter(Page keys, boolean[] retained)
+    {
+        SourcePage page = SourcePage.create(keys);
+        // the shared wrapper must not be modified, so the positions are probed with a copy
+        StructLikeWrapper key = wrapper.copyFor(null);
+        for (int position = 0; position < keys.getPositionCount(); position++) {
+            if (retained[position] && rows.contains(key.set(new LazyTrinoRow(types, page, position)))) {
+                retained[position] = false;
+            }
+        }
+    }
+
+    @Override
+    public int size()
+    {
+        return rows.size();
+    }
+
+    @Override
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE + rowsRetainedSizeInBytes;
+    }
+}
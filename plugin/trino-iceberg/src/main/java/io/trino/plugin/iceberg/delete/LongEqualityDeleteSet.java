@@ -0,0 +1,149 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.iceberg.delete;
+
+import io.airlift.slice.XxHash64;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.Type;
+
+import static io.airlift.slice.SizeOf.instanceSize;
+import static io.airlift.slice.SizeOf.sizeOf;
+
+/**
+ * Keys of a single fixed width column, in an open addressing table of longs with linear probing.
+ */
+final class LongEqualityDeleteSet
+        extends EqualityDeleteSet
+{
+    private static final long INSTANCE_SIZE = instanceSize(LongEqualityDeleteSet.class);
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final LongKeyReader keyReader;
+
+    // zero marks an empty slot, so the zero key is tracked separately
+    private long[] table = new long[INITIAL_CAPACITY];
+    private int mask = INITIAL_CAPACITY - 1;
+    private int tableSize;
+    private boolean containsZero;
+    private boolean containsNull;
+
+    LongEqualityDeleteSet(Type type)
+    {
+        this.keyReader = longKeyReader(type);
+    }
+
+    @Override
+    void addAll(Page keys)
+    {
+        Block block = keys.getBlock(0);
+        for (int position = 0; position < keys.getPositionCount(); position++) {
+            if (block.isNull(position)) {
+                containsNull = true;
+            }
+            else {
+                add(keyReader.read(block, position));
+            }
+        }
+    }
+
+    private void add(long key)
+    {
+        if (key == 0) {
+            containsZero = true;
+            return;
+        }
+        int slot = findSlot(table, mask, key);
+        if (table[slot] == 0) {
+            table[slot] = key;
+            tableSize++;
+            if (tableSize * 2L > table.length) {
+                rehash();
+            }
+        }
+    }
+
+    private void rehash()
+    {
+        long[] newTable = new long[table.length * 2];
+        int newMask = newTable.length - 1;
+        for (long key : table) {
+            if (key != 0) {
+                newTable[findSlot(newTable, newMask, key)] = key;
+            }
+        }
+        table = newTable;
+        mask = newMask;
+    }
+
+    @Override
+    public boolean contains(Page keys, int position)
+    {
+        Block block = keys.getBlock(0);
+        if (block.isNull(position)) {
+            return containsNull;
+        }
+        return contains(keyReader.read(block, position));
+    }
+
+    @Override
+    public void filter(Page keys, boolean[] retained)
+    {
+        Block block = keys.getBlock(0);
+        boolean mayHaveNull = block.mayHaveNull();
+        for (int position = 0; position < keys.getPositionCount(); position++) {
+            if (!retained[position]) {
+                continue;
+            }
+            if (mayHaveNull && block.isNull(position)) {
+                retained[position] = !containsNull;
+            }
+            else if (contains(keyReader.read(block, position))) {
+                retained[position] = false;
+            }
+        }
+    }
+
+    private boolean contains(long key)
+    {
+        if (key == 0) {
+            return containsZero;
+        }
+        return table[findSlot(table, mask, key)] != 0;
+    }
+
+    /**
+     * Returns the slot of the key, or the empty slot where the key belongs.
+     */
+    private static int findSlot(long[] table, int mask, long key)
+    {
+        int slot = (int) XxHash64.hash(key) & mask;
+        while (table[slot] != 0 && table[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    @Override
+    public int size()
+    {
+        return tableSize + (containsZero ? 1 : 0) + (containsNull ? 1 : 0);
+    }
+
+    @Override
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE + sizeOf(table);
+    }
+}
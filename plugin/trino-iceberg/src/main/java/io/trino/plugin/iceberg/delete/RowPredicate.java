@@ -16,6 +16,8 @@ package io.trino.plugin.iceberg.delete;
 import com.google.errorprone.annotations.ThreadSafe;
 import io.trino.spi.connector.SourcePage;
 
+import java.util.Arrays;
+
 import static java.util.Objects.requireNonNull;
 
 @ThreadSafe
@@ -23,25 +25,57 @@ public interface RowPredicate
 {
     boolean test(SourcePage page, int position);
 
+    /**
+     * Clears the retained flag of the positions of the page which do not match this predicate.
+     * Positions which are no longer retained are not tested.
+     */
+    default void filter(SourcePage page, boolean[] retained)
+    {
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            if (retained[position] && !test(page, position)) {
+                retained[position] = false;
+            }
+        }
+    }
+
     default RowPredicate and(RowPredicate other)
     {
         requireNonNull(other, "other is null");
-        return (page, position) -> test(page, position) && other.test(page, position);
+        RowPredicate first = this;
+        return new RowPredicate()
+        {
+            @Override
+            public boolean test(SourcePage page, int position)
+            {
+                return first.test(page, position) && other.test(page, position);
+            }
+
+            @Override
+            public void filter(SourcePage page, boolean[] retained)
+            {
+                first.filter(page, retained);
+                other.filter(page, retained);
+            }
+        };
     }
 
     default void applyFilter(SourcePage page)
     {
         int positionCount = page.getPositionCount();
-        int[] retained = new int[positionCount];
+        boolean[] retained = new boolean[positionCount];
+        Arrays.fill(retained, true);
+        filter(page, retained);
+
+        int[] retainedPositions = new int[positionCount];
         int retainedCount = 0;
         for (int position = 0; position < positionCount; position++) {
-            if (test(page, position)) {
-                retained[retainedCount] = position;
+            if (retained[position]) {
+                retainedPositions[retainedCount] = position;
                 retainedCount++;
             }
         }
         if (retainedCount != positionCount) {
-            page.selectPositions(retained, 0, retainedCount);
+            page.selectPositions(retainedPositions, 0, retainedCount);
         }
     }
 }
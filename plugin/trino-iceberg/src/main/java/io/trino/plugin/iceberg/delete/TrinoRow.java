@@ -17,14 +17,25 @@ import io.trino.spi.connector.SourcePage;
 import io.trino.spi.type.Type;
 import org.apache.iceberg.StructLike;
 
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.estimatedSizeOf;
+import static io.airlift.slice.SizeOf.instanceSize;
+import static io.airlift.slice.SizeOf.sizeOfObjectArray;
 import static io.trino.plugin.iceberg.IcebergPageSink.getIcebergValue;
 
 final class TrinoRow
         implements StructLike
 {
+    private static final long INSTANCE_SIZE = instanceSize(TrinoRow.class);
+    private static final long BYTE_BUFFER_INSTANCE_SIZE = instanceSize(ByteBuffer.wrap(new byte[0]).getClass());
+    private static final long BIG_DECIMAL_INSTANCE_SIZE = instanceSize(BigDecimal.class);
+    // boxed primitives and UUIDs
+    private static final long BOXED_VALUE_SIZE = 32;
+
     private final Object[] values;
 
     public TrinoRow(Type[] types, SourcePage page, int position)
@@ -32,8 +43,30 @@ final class TrinoRow
         checkArgument(types.length == page.getChannelCount(), "mismatched types for page");
         values = new Object[types.length];
         for (int i = 0; i < values.length; i++) {
-            values[i] = getIcebergValue(page.getBlock(i), position, types[i]);
+            Object value = getIcebergValue(page.getBlock(i), position, types[i]);
+            if (value instanceof ByteBuffer buffer) {
+                // the buffer shares the memory of the block, copy it so the row does not retain the page
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.duplicate().get(bytes);
+                value = ByteBuffer.wrap(bytes);
+            }
+            values[i] = value;
+        }
+    }
+
+    public long getRetainedSizeInBytes()
+    {
+        long size = INSTANCE_SIZE + sizeOfObjectArray(values.length);
+        for (Object value : values) {
+            size += switch (value) {
+                case null -> 0;
+                case String string -> estimatedSizeOf(string);
+                case ByteBuffer buffer -> BYTE_BUFFER_INSTANCE_SIZE + buffer.capacity();
+                case BigDecimal _ -> BIG_DECIMAL_INSTANCE_SIZE + BOXED_VALUE_SIZE;
+                default -> BOXED_VALUE_SIZE;
+            };
         }
+        return size;
     }
 
     @Override
@@ -81,7 +81,8 @@ public class TestIcebergConfig
                 .setObjectStoreLayoutEnabled(false)
                 .setMetadataParallelism(8)
                 .setBucketExecutionEnabled(true)
-                .setFileBasedConflictDetectionEnabled(true));
+                .setFileBasedConflictDetectionEnabled(true)
+                .setDeleteFileCacheMaxSize(DataSize.of(256, MEGABYTE)));
     }
 
     @Test
@@ -124,6 +125,7 @@ public class TestIcebergConfig
                 .put("iceberg.metadata.parallelism", "10")
                 .put("iceberg.bucket-execution", "false")
                 .put("iceberg.file-based-conflict-detection", "false")
+                .put("iceberg.delete-file-cache.max-size", "1GB")
                 .buildOrThrow();
 
         IcebergConfig expected = new IcebergConfig()
@@ -163,7 +165,8 @@ public class TestIcebergConfig
                 .setObjectStoreLayoutEnabled(true)
                 .setMetadataParallelism(10)
                 .setBucketExecutionEnabled(false)
-                .setFileBasedConflictDetectionEnabled(false);
+                .setFileBasedConflictDetectionEnabled(false)
+                .setDeleteFileCacheMaxSize(DataSize.of(1, GIGABYTE));
 
         assertFullMapping(properties, expected);
     }
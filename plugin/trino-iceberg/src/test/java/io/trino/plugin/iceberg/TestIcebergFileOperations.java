@@ -949,6 +949,42 @@ public class TestIcebergFileOperations
         assertUpdate("DROP TABLE " + tableName);
     }
 
+    @Test
+    public void testDeleteFilesAreCachedAcrossQueries()
+            throws Exception
+    {
+        String tableName = "test_delete_files_cached_across_queries" + randomNameSuffix();
+        assertUpdate("CREATE TABLE " + tableName + " (id INT, age INT)");
+        assertUpdate("INSERT INTO " + tableName + " VALUES (1, 10), (2, 20), (3, 30)", 3);
+        Table icebergTable = IcebergTestUtils.loadTable(tableName, metastore, fileSystemFactory, "iceberg", "test_schema");
+        writeEqualityDeleteForTable(icebergTable,
+                fileSystemFactory,
+                Optional.of(icebergTable.spec()),
+                Optional.empty(),
+                ImmutableMap.of("id", 2),
+                Optional.empty());
+        assertUpdate("DELETE FROM " + tableName + " WHERE id = 3", 1);
+
+        assertThat(getDataAndDeleteFileAccesses("SELECT * FROM " + tableName))
+                .contains(new FileOperation(DELETE, "InputFile.newInput"));
+        // the decoded delete files are reused by the following queries
+        assertMultisetsEqual(
+                getDataAndDeleteFileAccesses("SELECT * FROM " + tableName),
+                ImmutableMultiset.of(new FileOperation(DATA, "InputFile.newInput")));
+        assertUpdate("DROP TABLE " + tableName);
+    }
+
+    private Multiset<FileOperation> getDataAndDeleteFileAccesses(@Language("SQL") String query)
+    {
+        QueryRunner.MaterializedResultWithPlan queryResult = getDistributedQueryRunner().executeWithPlan(getSession(), query);
+        assertThat(queryResult.result().getRowCount())
+                .describedAs("query result row count")
+                .isEqualTo(1);
+        return getOperations(getDistributedQueryRunner().getSpans()).stream()
+                .filter(operation -> ImmutableSet.of(DATA, DELETE).contains(operation.fileType()))
+                .collect(toImmutableMultiset());
+    }
+
     @Test
     public void testShowTables()
     {
@@ -0,0 +1,200 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.iceberg.delete;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.block.DictionaryBlock;
+import io.trino.spi.type.DecimalType;
+import io.trino.spi.type.Int128;
+import io.trino.spi.type.Type;
+import org.apache.iceberg.types.Types;
+import org.apache.iceberg.types.Types.NestedField;
+import org.apache.iceberg.types.Types.StructType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.LongTimestampWithTimeZone.fromEpochMillisAndFraction;
+import static io.trino.spi.type.TimeZoneKey.UTC_KEY;
+import static io.trino.spi.type.TimeZoneKey.getTimeZoneKey;
+import static io.trino.spi.type.TimestampWithTimeZoneType.TIMESTAMP_TZ_MICROS;
+import static io.trino.spi.type.TypeUtils.writeNativeValue;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestEqualityDeleteSet
+{
+    private static final DecimalType LONG_DECIMAL = DecimalType.createDecimalType(38, 2);
+
+    @Test
+    public void testBigint()
+    {
+        EqualityDeleteSet deleteSet = create(ImmutableList.of(BIGINT), Types.LongType.get());
+        assertThat(deleteSet).isInstanceOf(LongEqualityDeleteSet.class);
+
+        Set<Long> deletedKeys = new HashSet<>();
+        Object[][] rows = new Object[5002][];
+        for (int i = 0; i < 5000; i++) {
+            long key = i * 7L - 1000;
+            deletedKeys.add(key);
+            rows[i] = new Object[] {key};
+        }
+        rows[5000] = new Object[] {0L};
+        rows[5001] = new Object[] {null};
+        deleteSet.addAll(page(ImmutableList.of(BIGINT), rows));
+        assertThat(deleteSet.size()).isEqualTo(5002);
+
+        Object[][] probes = new Object[40001][];
+        for (int i = 0; i < 40000; i++) {
+            probes[i] = new Object[] {i - 2000L};
+        }
+        probes[40000] = new Object[] {null};
+        Page keys = page(ImmutableList.of(BIGINT), probes);
+        boolean[] retained = filter(deleteSet, keys);
+        for (int position = 0; position < 40000; position++) {
+            boolean deleted = deletedKeys.contains(position - 2000L);
+            assertThat(retained[position]).isEqualTo(!deleted);
+            assertThat(deleteSet.contains(keys, position)).isEqualTo(deleted);
+        }
+        assertThat(retained[40000]).isFalse();
+        assertThat(deleteSet.contains(keys, 40000)).isTrue();
+    }
+
+    @Test
+    public void testDouble()
+    {
+        EqualityDeleteSet deleteSet = create(ImmutableList.of(DOUBLE), Types.DoubleType.get());
+        deleteSet.addAll(page(ImmutableList.of(DOUBLE), new Object[] {0.0}, new Object[] {Double.NaN}, new Object[] {1.5}));
+
+        // like Double.compare, negative zero differs from zero and all NaN values are equal
+        Page keys = page(
+                ImmutableList.of(DOUBLE),
+                new Object[] {0.0},
+                new Object[] {-0.0},
+                new Object[] {Double.longBitsToDouble(0x7ff8000000000001L)},
+                new Object[] {1.5},
+                new Object[] {2.5},
+                new Object[] {null});
+        assertThat(filter(deleteSet, keys)).containsExactly(false, true, false, false, true, true);
+    }
+
+    @Test
+    public void testVarchar()
+    {
+        EqualityDeleteSet deleteSet = create(ImmutableList.of(VARCHAR), Types.StringType.get());
+        assertThat(deleteSet).isInstanceOf(FlatEqualityDeleteSet.class);
+
+        Object[][] rows = new Object[1000][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[] {utf8Slice("key" + i * 2)};
+        }
+        deleteSet.addAll(page(ImmutableList.of(VARCHAR), rows));
+        assertThat(deleteSet.size()).isEqualTo(1000);
+
+        Block dictionary = page(ImmutableList.of(VARCHAR), new Object[] {utf8Slice("key10")}, new Object[] {utf8Slice("key11")}, new Object[] {utf8Slice("")}).getBlock(0);
+        Page keys = new Page(DictionaryBlock.create(4, dictionary, new int[] {1, 0, 2, 0}));
+        assertThat(filter(deleteSet, keys)).containsExactly(true, false, true, false);
+    }
+
+    @Test
+    public void testMultipleColumns()
+    {
+        List<Type> types = ImmutableList.of(BIGINT, VARCHAR, LONG_DECIMAL);
+        EqualityDeleteSet deleteSet = create(types, Types.LongType.get(), Types.StringType.get(), Types.DecimalType.of(38, 2));
+        assertThat(deleteSet).isInstanceOf(FlatEqualityDeleteSet.class);
+
+        deleteSet.addAll(page(
+                types,
+                new Object[] {1L, utf8Slice("a"), Int128.valueOf(100)},
+                new Object[] {1L, null, Int128.valueOf(100)},
+                new Object[] {null, utf8Slice("b"), Int128.valueOf(Long.MAX_VALUE, 5)},
+                new Object[] {1L, utf8Slice("a"), Int128.valueOf(100)}));
+        assertThat(deleteSet.size()).isEqualTo(3);
+
+        Page keys = page(
+                types,
+                new Object[] {1L, utf8Slice("a"), Int128.valueOf(100)},
+                new Object[] {1L, utf8Slice("a"), Int128.valueOf(101)},
+                new Object[] {1L, null, Int128.valueOf(100)},
+                new Object[] {1L, utf8Slice(""), Int128.valueOf(100)},
+                new Object[] {null, utf8Slice("b"), Int128.valueOf(Long.MAX_VALUE, 5)},
+                new Object[] {0L, utf8Slice("b"), Int128.valueOf(Long.MAX_VALUE, 5)});
+        assertThat(filter(deleteSet, keys)).containsExactly(false, true, false, true, false, true);
+
+        // positions which are not retained are left untouched
+        boolean[] retained = new boolean[] {false, false, true, true, true, true};
+        deleteSet.filter(keys, retained);
+        assertThat(retained).containsExactly(false, false, false, true, false, true);
+    }
+
+    @Test
+    public void testGeneric()
+    {
+        List<Type> types = ImmutableList.of(TIMESTAMP_TZ_MICROS);
+        EqualityDeleteSet deleteSet = create(types, Types.TimestampType.withZone());
+        assertThat(deleteSet).isInstanceOf(GenericEqualityDeleteSet.class);
+
+        deleteSet.addAll(page(types, new Object[] {fromEpochMillisAndFraction(1000, 0, UTC_KEY)}));
+
+        // the values are compared as instants, like in Iceberg
+        Page keys = page(
+                types,
+                new Object[] {fromEpochMillisAndFraction(1000, 0, getTimeZoneKey("Europe/Warsaw"))},
+                new Object[] {fromEpochMillisAndFraction(2000, 0, UTC_KEY)});
+        assertThat(filter(deleteSet, keys)).containsExactly(false, true);
+        assertThat(deleteSet.contains(keys, 0)).isTrue();
+    }
+
+    private static EqualityDeleteSet create(List<Type> types, org.apache.iceberg.types.Type... icebergTypes)
+    {
+        ImmutableList.Builder<NestedField> fields = ImmutableList.builder();
+        for (int i = 0; i < icebergTypes.length; i++) {
+            fields.add(NestedField.optional(i + 1, "column_" + i, icebergTypes[i]));
+        }
+        return EqualityDeleteSet.create(StructType.of(fields.build()), types);
+    }
+
+    private static boolean[] filter(EqualityDeleteSet deleteSet, Page keys)
+    {
+        boolean[] retained = new boolean[keys.getPositionCount()];
+        Arrays.fill(retained, true);
+        deleteSet.filter(keys, retained);
+        return retained;
+    }
+
+    private static Page page(List<Type> types, Object[]... rows)
+    {
+        BlockBuilder[] blockBuilders = new BlockBuilder[types.size()];
+        for (int column = 0; column < types.size(); column++) {
+            blockBuilders[column] = types.get(column).createBlockBuilder(null, rows.length);
+        }
+        for (Object[] row : rows) {
+            for (int column = 0; column < types.size(); column++) {
+                writeNativeValue(types.get(column), blockBuilders[column], row[column]);
+            }
+        }
+        return new Page(rows.length, Arrays.stream(blockBuilders)
+                .map(BlockBuilder::build)
+                .toArray(Block[]::new));
+    }
+}